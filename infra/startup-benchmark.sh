@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Measures time-to-ready and time-to-stable-p99 for a locally built jar.
+#
+#   infra/startup-benchmark.sh [label] [java options...]
+#
+#   infra/startup-benchmark.sh baseline
+#   infra/startup-benchmark.sh fast-start -Dspring.aot.enabled=true -XX:SharedArchiveFile=target/app.jsa
+#
+# Needs DynamoDB reachable on the configured endpoint (make dynamodb-local).
+set -euo pipefail
+
+LABEL=${1:-baseline}
+shift || true
+JAR=${JAR:-$(ls target/*.jar | grep -v plain | head -n 1)}
+PORT=${PORT:-8080}
+URL=${URL:-http://localhost:${PORT}/api/v1/products}
+BATCHES=${BATCHES:-20}
+BATCH_SIZE=${BATCH_SIZE:-100}
+
+now_ms() { date +%s%3N; }
+
+start=$(now_ms)
+java "$@" -jar "$JAR" --server.port="$PORT" > "target/startup-${LABEL}.log" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+
+until curl -sf "http://localhost:${PORT}/actuator/health/readiness" > /dev/null; do
+  kill -0 $pid 2>/dev/null || { echo "application exited, see target/startup-${LABEL}.log"; exit 1; }
+  sleep 0.05
+done
+ready=$(now_ms)
+
+# p99 per batch of sequential requests; the last batch is taken as steady state.
+declare -a p99s elapsed
+for ((b = 0; b < BATCHES; b++)); do
+  p99s[b]=$(for ((i = 0; i < BATCH_SIZE; i++)); do
+    curl -s -o /dev/null -w '%{time_total}\n' "$URL"
+  done | sort -n | awk '{ v[NR] = $1 } END { i = int(NR * 0.99); if (i < 1) i = 1; printf "%.1f", v[i] * 1000 }')
+  elapsed[b]=$(( $(now_ms) - ready ))
+done
+
+steady=${p99s[BATCHES - 1]}
+stable_after=${elapsed[BATCHES - 1]}
+for ((b = 0; b < BATCHES; b++)); do
+  if awk -v p="${p99s[b]}" -v s="$steady" 'BEGIN { exit !(p <= s * 1.2) }'; then
+    stable_after=${elapsed[b]}
+    break
+  fi
+done
+
+echo "${LABEL}: ready=$((ready - start))ms steady_p99=${steady}ms p99_stable_after=${stable_after}ms"
@@ -0,0 +1,28 @@
+package com.app.loadtest;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ids created by {@link Seeder}. Product picks are skewed towards a hot set so caches and
+ * partitions see the uneven access real catalogs get.
+ */
+public record Dataset(List<String> productIds, List<String> productNames, List<String> categories,
+                      List<String> customerIds, double hotSetFraction, double hotTrafficFraction) {
+
+    public int pickProduct(RandomGenerator random) {
+        int hotSet = Math.max(1, (int) (productIds.size() * hotSetFraction));
+        if (random.nextDouble() < hotTrafficFraction) {
+            return random.nextInt(hotSet);
+        }
+        return random.nextInt(productIds.size());
+    }
+
+    public String pickCategory(RandomGenerator random) {
+        return categories.get(random.nextInt(categories.size()));
+    }
+
+    public String pickCustomer(RandomGenerator random) {
+        return customerIds.get(random.nextInt(customerIds.size()));
+    }
+}
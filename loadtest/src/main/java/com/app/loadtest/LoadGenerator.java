@@ -0,0 +1,157 @@
+package com.app.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model driver: arrivals follow a fixed schedule whether or not earlier requests have
+ * completed, as independent users would. Latency is measured from each request's scheduled
+ * start, not from when it was sent, so a stalled server shows up in the percentiles instead of
+ * silently lowering the offered load (coordinated omission).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoadGenerator {
+
+    private final LoadTestProperties properties;
+    private final HttpClient httpClient;
+
+    /** Latencies and outcomes for one operation over the measured window. */
+    public static final class OperationStats {
+        private final Recorder recorder = new Recorder(3);
+        private final LongAdder successes = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private Histogram histogram;
+
+        void success(long latencyMicros) {
+            recorder.recordValue(latencyMicros);
+            successes.increment();
+        }
+
+        void failure(String cause, long latencyMicros) {
+            recorder.recordValue(latencyMicros);
+            errors.computeIfAbsent(cause, ignored -> new LongAdder()).increment();
+        }
+
+        void dropped() {
+            errors.computeIfAbsent("dropped", ignored -> new LongAdder()).increment();
+        }
+
+        public Histogram histogram() {
+            if (histogram == null) {
+                histogram = recorder.getIntervalHistogram();
+            }
+            return histogram;
+        }
+
+        public long successes() {
+            return successes.sum();
+        }
+
+        public Map<String, Long> errors() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((cause, count) -> counts.put(cause, count.sum()));
+            return counts;
+        }
+    }
+
+    public Map<Operation, OperationStats> run(Workload workload) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / properties.getRate();
+        long start = System.nanoTime();
+        long measureFrom = start + properties.getWarmup().toNanos();
+        long end = measureFrom + properties.getDuration().toNanos();
+        Semaphore inFlight = new Semaphore(properties.getMaxInFlight());
+        long lagWarnings = 0;
+
+        log.info("Offering {} req/s ({}) for {} warm-up + {} measured", properties.getRate(), properties.getArrival(),
+                properties.getWarmup(), properties.getDuration());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            double next = start;
+            while (next < end) {
+                long scheduled = (long) next;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (wait < -TimeUnit.MILLISECONDS.toNanos(100) && lagWarnings++ % 1000 == 0) {
+                    log.warn("Generator is {} ms behind schedule; the client machine may be saturated", -wait / 1_000_000);
+                }
+
+                Operation operation = workload.next(random);
+                HttpRequest request = workload.request(operation, random);
+                boolean measured = scheduled >= measureFrom;
+                OperationStats operationStats = stats.get(operation);
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        operationStats.dropped();
+                    }
+                } else {
+                    executor.execute(() -> {
+                        try {
+                            send(request, scheduled, measured ? operationStats : null);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+
+                next += properties.getArrival() == LoadTestProperties.Arrival.POISSON
+                        ? -Math.log(1 - random.nextDouble()) * meanGapNanos
+                        : meanGapNanos;
+            }
+            log.info("Arrivals finished; waiting for {} in-flight requests",
+                    properties.getMaxInFlight() - inFlight.availablePermits());
+        }
+        return stats;
+    }
+
+    private void send(HttpRequest request, long scheduled, OperationStats stats) {
+        String failure;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            failure = response.statusCode() / 100 == 2 ? null : String.valueOf(response.statusCode());
+        } catch (HttpTimeoutException e) {
+            failure = "timeout";
+        } catch (IOException e) {
+            failure = "io";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (stats == null) {
+            return;
+        }
+        long latencyMicros = Math.max(0, (System.nanoTime() - scheduled) / 1000);
+        if (failure == null) {
+            stats.success(latencyMicros);
+        } else {
+            stats.failure(failure, latencyMicros);
+        }
+    }
+}
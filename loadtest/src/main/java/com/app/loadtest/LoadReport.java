@@ -0,0 +1,42 @@
+package com.app.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of one run, written as JSON so runs from different commits can be compared.
+ * Latencies are in milliseconds.
+ */
+public record LoadReport(String label, Instant startedAt, String baseUrl, double targetRate, String arrival,
+                         double measuredSeconds, List<OperationReport> operations, OperationReport total) {
+
+    public record OperationReport(String operation, String journey, long requests, long errors,
+                                  Map<String, Long> errorsByCause, double throughput, double errorRate,
+                                  double p50, double p90, double p99, double p999, double max, double mean) {
+
+        static OperationReport of(String operation, String journey, Histogram histogram, long successes,
+                                  Map<String, Long> errorsByCause, double seconds) {
+            long errors = errorsByCause.values().stream().mapToLong(Long::longValue).sum();
+            long requests = successes + errors;
+            return new OperationReport(operation, journey, requests, errors, errorsByCause,
+                    round(successes / seconds), requests == 0 ? 0 : round((double) errors / requests),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    round(histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000));
+        }
+
+        private static double millis(long micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
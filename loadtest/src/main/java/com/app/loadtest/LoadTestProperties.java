@@ -0,0 +1,83 @@
+package com.app.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    /** Root URL of the application under test. */
+    private URI baseUrl = URI.create("http://localhost:8080");
+
+    /** Target arrival rate in requests per second, independent of how fast responses come back. */
+    private double rate = 200;
+
+    private Arrival arrival = Arrival.POISSON;
+
+    /** Traffic sent before measurement starts; its latencies are discarded. */
+    private Duration warmup = Duration.ofSeconds(15);
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    /** Arrivals beyond this many outstanding requests are dropped and reported, never queued. */
+    private int maxInFlight = 5000;
+
+    /** Relative weight of each operation in the mix. */
+    private Map<Operation, Integer> mix = defaultMix();
+
+    private Seed seed = new Seed();
+
+    private Path reportDirectory = Path.of("target", "loadtest");
+
+    /** Names the report directory; the makefile passes the short commit id. */
+    private String label = "local";
+
+    /** Report of an earlier run to compare against, e.g. target/loadtest/abc1234/report.json. */
+    private Path baseline;
+
+    /** Fails the run when any operation's p99 grows by more than this percentage; 0 disables the gate. */
+    private double maxP99RegressionPercent = 0;
+
+    public enum Arrival {
+        /** Exponentially distributed gaps, like independent users. */
+        POISSON,
+        /** Evenly spaced arrivals. */
+        CONSTANT
+    }
+
+    @Getter
+    @Setter
+    public static class Seed {
+        private int products = 500;
+        private int customers = 200;
+        private int categories = 20;
+        private int concurrency = 32;
+        /** Share of products that make up the hot set. */
+        private double hotSetFraction = 0.2;
+        /** Share of product reads that go to the hot set. */
+        private double hotTrafficFraction = 0.8;
+    }
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.GET_PRODUCT, 50);
+        mix.put(Operation.BROWSE_CATEGORY, 20);
+        mix.put(Operation.PLACE_ORDER, 15);
+        mix.put(Operation.ADJUST_STOCK, 10);
+        mix.put(Operation.CUSTOMER_ORDERS, 5);
+        return mix;
+    }
+}
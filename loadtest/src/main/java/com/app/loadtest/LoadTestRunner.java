@@ -0,0 +1,129 @@
+package com.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Seeds data, drives the workload, then writes {@code report.json} plus one HdrHistogram
+ * percentile distribution ({@code .hgrm}) per operation under {@code report-directory/label}.
+ * When a baseline report is configured the two are compared, and the exit code is non-zero if
+ * a p99 regressed past the configured threshold.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoadTestRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private final LoadTestProperties properties;
+    private final Seeder seeder;
+    private final LoadGenerator generator;
+    private final ObjectMapper objectMapper;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Instant startedAt = Instant.now();
+        Dataset dataset = seeder.seed();
+        Map<Operation, LoadGenerator.OperationStats> stats = generator.run(new Workload(properties, dataset, objectMapper));
+
+        Path directory = properties.getReportDirectory().resolve(properties.getLabel());
+        Files.createDirectories(directory);
+        LoadReport report = report(startedAt, stats, directory);
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("report.json").toFile(), report);
+        log.info("Report written to {}", directory.resolve("report.json"));
+        log.info(summary(report));
+
+        if (properties.getBaseline() != null) {
+            compare(report);
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private LoadReport report(Instant startedAt, Map<Operation, LoadGenerator.OperationStats> stats, Path directory)
+            throws IOException {
+        double seconds = properties.getDuration().toMillis() / 1000.0;
+        Histogram total = new Histogram(3);
+        long totalSuccesses = 0;
+        Map<String, Long> totalErrors = new TreeMap<>();
+        List<LoadReport.OperationReport> operations = new ArrayList<>();
+
+        for (Map.Entry<Operation, LoadGenerator.OperationStats> entry : stats.entrySet()) {
+            LoadGenerator.OperationStats operationStats = entry.getValue();
+            Histogram histogram = operationStats.histogram();
+            if (histogram.getTotalCount() == 0 && operationStats.errors().isEmpty()) {
+                continue;
+            }
+            String name = entry.getKey().name().toLowerCase().replace('_', '-');
+            operations.add(LoadReport.OperationReport.of(name, entry.getKey().journey(), histogram,
+                    operationStats.successes(), operationStats.errors(), seconds));
+            writeDistribution(directory.resolve(name + ".hgrm"), histogram);
+
+            total.add(histogram);
+            totalSuccesses += operationStats.successes();
+            operationStats.errors().forEach((cause, count) -> totalErrors.merge(cause, count, Long::sum));
+        }
+        writeDistribution(directory.resolve("total.hgrm"), total);
+
+        return new LoadReport(properties.getLabel(), startedAt, properties.getBaseUrl().toString(), properties.getRate(),
+                properties.getArrival().name(), seconds, operations,
+                LoadReport.OperationReport.of("total", "all", total, totalSuccesses, totalErrors, seconds));
+    }
+
+    /** Distributions in milliseconds, plottable with HdrHistogram's histogram plotter. */
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private void compare(LoadReport report) throws IOException {
+        LoadReport baseline = objectMapper.readValue(properties.getBaseline().toFile(), LoadReport.class);
+        ReportComparison comparison = ReportComparison.of(baseline, report);
+        log.info(comparison.format());
+
+        double threshold = properties.getMaxP99RegressionPercent();
+        if (threshold > 0) {
+            List<ReportComparison.Row> regressions = comparison.regressions(threshold);
+            if (!regressions.isEmpty()) {
+                log.error("p99 regressed by more than {}% for {}", threshold,
+                        regressions.stream().map(ReportComparison.Row::operation).toList());
+                exitCode = 1;
+            }
+        }
+    }
+
+    private static String summary(LoadReport report) {
+        StringBuilder table = new StringBuilder(String.format("%n%-18s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "rps", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        List<LoadReport.OperationReport> rows = new ArrayList<>(report.operations());
+        rows.add(report.total());
+        for (LoadReport.OperationReport row : rows) {
+            table.append(String.format("%-18s %9d %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n", row.operation(), row.requests(),
+                    row.errors(), row.throughput(), row.p50(), row.p99(), row.p999(), row.max()));
+        }
+        return table.toString();
+    }
+}
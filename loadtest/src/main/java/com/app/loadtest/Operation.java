@@ -0,0 +1,22 @@
+package com.app.loadtest;
+
+/**
+ * The requests a workload is made of, grouped by the journey they belong to.
+ */
+public enum Operation {
+    GET_PRODUCT("catalog browsing"),
+    BROWSE_CATEGORY("catalog browsing"),
+    PLACE_ORDER("order placement"),
+    ADJUST_STOCK("stock adjustment"),
+    CUSTOMER_ORDERS("order placement");
+
+    private final String journey;
+
+    Operation(String journey) {
+        this.journey = journey;
+    }
+
+    public String journey() {
+        return journey;
+    }
+}
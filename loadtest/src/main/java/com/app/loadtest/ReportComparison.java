@@ -0,0 +1,65 @@
+package com.app.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Side-by-side view of two reports, typically the current commit against a stored baseline.
+ */
+public record ReportComparison(LoadReport baseline, LoadReport current, List<Row> rows) {
+
+    public record Row(String operation, double baselineP99, double currentP99, double p99ChangePercent,
+                      double baselineThroughput, double currentThroughput,
+                      double baselineErrorRate, double currentErrorRate) {
+    }
+
+    public static ReportComparison of(LoadReport baseline, LoadReport current) {
+        Map<String, LoadReport.OperationReport> before = baseline.operations().stream()
+                .collect(Collectors.toMap(LoadReport.OperationReport::operation, Function.identity()));
+        List<Row> rows = new ArrayList<>();
+        for (LoadReport.OperationReport after : current.operations()) {
+            LoadReport.OperationReport previous = before.get(after.operation());
+            if (previous != null && previous.requests() > 0 && after.requests() > 0) {
+                rows.add(row(previous, after));
+            }
+        }
+        rows.add(row(baseline.total(), current.total()));
+        return new ReportComparison(baseline, current, rows);
+    }
+
+    /** Rows whose p99 grew by more than the given percentage. */
+    public List<Row> regressions(double maxP99RegressionPercent) {
+        return rows.stream().filter(row -> row.p99ChangePercent() > maxP99RegressionPercent).toList();
+    }
+
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format("%n%s -> %s%n%-18s %12s %12s %9s %12s %12s %9s %9s%n",
+                baseline.label(), current.label(), "operation", "p99 before", "p99 after", "change",
+                "rps before", "rps after", "err% was", "err% now"));
+        for (Row row : rows) {
+            table.append(String.format("%-18s %10.2fms %10.2fms %+8.1f%% %12.1f %12.1f %9.2f %9.2f%n",
+                    row.operation(), row.baselineP99(), row.currentP99(), row.p99ChangePercent(),
+                    row.baselineThroughput(), row.currentThroughput(),
+                    row.baselineErrorRate() * 100, row.currentErrorRate() * 100));
+        }
+        return table.toString();
+    }
+
+    private static Row row(LoadReport.OperationReport before, LoadReport.OperationReport after) {
+        return new Row(after.operation(), before.p99(), after.p99(), change(before, after, LoadReport.OperationReport::p99),
+                before.throughput(), after.throughput(), before.errorRate(), after.errorRate());
+    }
+
+    private static double change(LoadReport.OperationReport before, LoadReport.OperationReport after,
+                                 ToDoubleFunction<LoadReport.OperationReport> metric) {
+        double previous = metric.applyAsDouble(before);
+        if (previous == 0) {
+            return 0;
+        }
+        return Math.round((metric.applyAsDouble(after) - previous) / previous * 1000) / 10.0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Creates the products and customers the workload reads and writes, through the same REST API.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Seeder {
+
+    private final LoadTestProperties properties;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public Dataset seed() throws InterruptedException {
+        LoadTestProperties.Seed seed = properties.getSeed();
+        List<String> categories = IntStream.range(0, seed.getCategories()).mapToObj(i -> "category-" + i).toList();
+        long started = System.nanoTime();
+
+        List<JsonNode> products = create("/api/v1/products", seed.getProducts(), i -> Map.of(
+                "name", "Load test product " + i,
+                "description", "Seeded by the load test",
+                "category", categories.get(i % categories.size()),
+                "price", BigDecimal.valueOf(5 + i % 200).add(new BigDecimal("0.99")),
+                "stockQuantity", 1_000_000,
+                "manufacturer", "loadtest",
+                "status", "ACTIVE"));
+        List<JsonNode> customers = create("/api/v1/customers", seed.getCustomers(), i -> Map.of(
+                "email", "loadtest-" + i + "@example.com",
+                "firstName", "Load",
+                "lastName", "Tester " + i));
+
+        log.info("Seeded {} products and {} customers in {} ms", products.size(), customers.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return new Dataset(
+                products.stream().map(product -> product.get("productId").asText()).toList(),
+                products.stream().map(product -> product.get("name").asText()).toList(),
+                categories,
+                customers.stream().map(customer -> customer.get("customerId").asText()).toList(),
+                seed.getHotSetFraction(),
+                seed.getHotTrafficFraction());
+    }
+
+    private List<JsonNode> create(String path, int count, IntFunction<Map<String, Object>> body)
+            throws InterruptedException {
+        Semaphore permits = new Semaphore(properties.getSeed().getConcurrency());
+        List<Future<JsonNode>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return post(path, body.apply(index));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<JsonNode> created = new ArrayList<>(count);
+        for (Future<JsonNode> future : futures) {
+            try {
+                created.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding " + path + " failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return created;
+    }
+
+    private JsonNode post(String path, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(properties.getBaseUrl().resolve(path))
+                .timeout(properties.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("POST " + path + " returned " + response.statusCode()
+                    + ": " + new String(response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Turns the configured mix into concrete requests against the seeded data.
+ */
+public class Workload {
+
+    private final URI baseUrl;
+    private final Duration timeout;
+    private final Dataset dataset;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public Workload(LoadTestProperties properties, Dataset dataset, ObjectMapper objectMapper) {
+        this.baseUrl = properties.getBaseUrl();
+        this.timeout = properties.getRequestTimeout();
+        this.dataset = dataset;
+        this.objectMapper = objectMapper;
+
+        List<Operation> selected = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : properties.getMix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                selected.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must give at least one operation a positive weight");
+        }
+        this.operations = selected.toArray(Operation[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public Operation next(RandomGenerator random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    public HttpRequest request(Operation operation, RandomGenerator random) {
+        return switch (operation) {
+            case GET_PRODUCT -> get("/api/v1/products/" + dataset.productIds().get(dataset.pickProduct(random)));
+            case BROWSE_CATEGORY -> get("/api/v1/products?category="
+                    + URLEncoder.encode(dataset.pickCategory(random), StandardCharsets.UTF_8));
+            case CUSTOMER_ORDERS -> get("/api/v1/orders?customerId=" + dataset.pickCustomer(random));
+            case PLACE_ORDER -> {
+                int product = dataset.pickProduct(random);
+                int quantity = 1 + random.nextInt(3);
+                yield json("POST", "/api/v1/orders", Map.of(
+                        "customerId", dataset.pickCustomer(random),
+                        "productName", dataset.productNames().get(product),
+                        "quantity", quantity,
+                        "totalAmount", new BigDecimal("9.99").multiply(BigDecimal.valueOf(quantity))));
+            }
+            case ADJUST_STOCK -> {
+                int delta = (1 + random.nextInt(3)) * (random.nextBoolean() ? 1 : -1);
+                yield HttpRequest.newBuilder(baseUrl.resolve("/api/v1/products/"
+                                + dataset.productIds().get(dataset.pickProduct(random)) + "/stock/adjust?quantity=" + delta))
+                        .timeout(timeout)
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(baseUrl.resolve(path))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
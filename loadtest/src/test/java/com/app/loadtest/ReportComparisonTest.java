@@ -0,0 +1,57 @@
+package com.app.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportComparisonTest {
+
+    @Test
+    void operationReport_ConvertsMicrosecondHistogramToMillisecondPercentiles() {
+        Histogram histogram = new Histogram(3);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordValue(i * 1000L);
+        }
+
+        LoadReport.OperationReport report = LoadReport.OperationReport.of("get-product", "catalog browsing",
+                histogram, 990, Map.of("503", 10L), 10);
+
+        assertEquals(1000, report.requests());
+        assertEquals(99.0, report.throughput());
+        assertEquals(0.01, report.errorRate());
+        assertEquals(500, report.p50(), 1);
+        assertEquals(990, report.p99(), 1);
+        assertEquals(1000, report.max(), 1);
+    }
+
+    @Test
+    void regressions_FlagOnlyOperationsWhoseP99GrewPastThreshold() {
+        LoadReport baseline = report("abc1234", operation("get-product", 10), operation("place-order", 20), operation("total", 15));
+        LoadReport current = report("def5678", operation("get-product", 10.5), operation("place-order", 30), operation("total", 16));
+
+        ReportComparison comparison = ReportComparison.of(baseline, current);
+
+        assertEquals(List.of("get-product", "place-order", "total"),
+                comparison.rows().stream().map(ReportComparison.Row::operation).toList());
+        assertEquals(50.0, comparison.rows().get(1).p99ChangePercent());
+        assertEquals(List.of("place-order"),
+                comparison.regressions(10).stream().map(ReportComparison.Row::operation).toList());
+        assertTrue(comparison.format().contains("abc1234 -> def5678"));
+    }
+
+    private static LoadReport report(String label, LoadReport.OperationReport first, LoadReport.OperationReport second,
+                                     LoadReport.OperationReport total) {
+        return new LoadReport(label, Instant.EPOCH, "http://localhost:8080", 100, "POISSON", 60,
+                List.of(first, second), total);
+    }
+
+    private static LoadReport.OperationReport operation(String name, double p99) {
+        return new LoadReport.OperationReport(name, "journey", 6000, 0, Map.of(), 100, 0,
+                p99 / 2, p99 * 0.8, p99, p99 * 1.5, p99 * 2, p99 / 2);
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpRequest;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadTest {
+
+    private final Dataset dataset = new Dataset(List.of("p0", "p1", "p2", "p3", "p4", "p5", "p6", "p7", "p8", "p9"),
+            List.of("n0", "n1", "n2", "n3", "n4", "n5", "n6", "n7", "n8", "n9"),
+            List.of("category-0"), List.of("c0"), 0.2, 0.8);
+
+    @Test
+    void next_FollowsConfiguredWeightsAndSkipsZeroWeightOperations() {
+        LoadTestProperties properties = new LoadTestProperties();
+        properties.setMix(new EnumMap<>(Map.of(Operation.GET_PRODUCT, 3, Operation.PLACE_ORDER, 1, Operation.ADJUST_STOCK, 0)));
+        Workload workload = new Workload(properties, dataset, new ObjectMapper());
+        SplittableRandom random = new SplittableRandom(1);
+
+        Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(workload.next(random), 1, Integer::sum);
+        }
+
+        assertEquals(Map.of(Operation.GET_PRODUCT, counts.get(Operation.GET_PRODUCT), Operation.PLACE_ORDER,
+                counts.get(Operation.PLACE_ORDER)), counts);
+        assertEquals(0.75, counts.get(Operation.GET_PRODUCT) / 40_000.0, 0.01);
+    }
+
+    @Test
+    void request_BuildsCallsAgainstSeededIdsWithHotSetSkew() {
+        Workload workload = new Workload(new LoadTestProperties(), dataset, new ObjectMapper());
+        SplittableRandom random = new SplittableRandom(7);
+
+        int hot = 0;
+        for (int i = 0; i < 10_000; i++) {
+            HttpRequest request = workload.request(Operation.GET_PRODUCT, random);
+            String id = request.uri().getPath().substring("/api/v1/products/".length());
+            if (id.equals("p0") || id.equals("p1")) {
+                hot++;
+            }
+        }
+        HttpRequest adjust = workload.request(Operation.ADJUST_STOCK, random);
+
+        assertEquals(0.84, hot / 10_000.0, 0.02);
+        assertEquals("PATCH", adjust.method());
+        assertTrue(adjust.uri().getQuery().matches("quantity=-?[123]"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.app.dynamodb.config;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.retries.api.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retry strategy for the DynamoDB client. Wraps the SDK standard strategy, which keeps the AWS
+ * retry conditions and separate backoff for throttling and transient errors, and adds:
+ * <ul>
+ *     <li>a client-wide token-bucket retry budget, so a DynamoDB brown-out cannot multiply load</li>
+ *     <li>per-operation attempt limits</li>
+ *     <li>retry and throttle counters tagged by table and operation</li>
+ * </ul>
+ * The table and operation come from {@link DynamoDbCallContextInterceptor}, which runs on the
+ * calling thread before the retry stage.
+ */
+@Slf4j
+public class BudgetedRetryStrategy implements RetryStrategy {
+
+    private final RetryStrategy delegate;
+    private final AwsConfigProperties.Retry properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger budget;
+
+    public BudgetedRetryStrategy(AwsConfigProperties.Retry properties, MeterRegistry meterRegistry) {
+        int globalMaxAttempts = properties.getOperationMaxAttempts().values().stream()
+                .reduce(properties.getMaxAttempts(), Math::max);
+
+        this.delegate = AwsRetryStrategy.standardRetryStrategy().toBuilder()
+                .maxAttempts(globalMaxAttempts)
+                .backoffStrategy(BackoffStrategy.exponentialDelay(
+                        properties.getBackoffBase(), properties.getBackoffMax()))
+                .throttlingBackoffStrategy(BackoffStrategy.exponentialDelay(
+                        properties.getThrottlingBackoffBase(), properties.getThrottlingBackoffMax()))
+                // the budget below replaces the SDK circuit breaker
+                .circuitBreakerEnabled(false)
+                .build();
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.budget = new AtomicInteger(properties.getBudgetCapacity());
+
+        Gauge.builder("dynamodb.client.retry.budget", budget, AtomicInteger::get)
+                .description("Tokens left in the client-side retry budget")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AcquireInitialTokenResponse acquireInitialToken(AcquireInitialTokenRequest request) {
+        AcquireInitialTokenResponse response = delegate.acquireInitialToken(request);
+        DynamoDbCallContextInterceptor.CallContext call = DynamoDbCallContextInterceptor.currentCall();
+        return AcquireInitialTokenResponse.create(new Token(response.token(), call), response.delay());
+    }
+
+    @Override
+    public RefreshRetryTokenResponse refreshRetryToken(RefreshRetryTokenRequest request) {
+        Token token = (Token) request.token();
+        boolean throttled = isThrottling(request.failure());
+
+        if (throttled) {
+            counter("dynamodb.client.throttled", token.call, null).increment();
+        }
+
+        int maxAttempts = properties.getOperationMaxAttempts()
+                .getOrDefault(token.call.operation(), properties.getMaxAttempts());
+        if (token.attempt >= maxAttempts) {
+            throw new TokenAcquisitionFailedException(
+                    "Retries exhausted for " + token.call.operation() + " after " + token.attempt + " attempts",
+                    token, request.failure());
+        }
+
+        if (!tryAcquireBudget()) {
+            counter("dynamodb.client.retry.denied", token.call, null).increment();
+            throw new TokenAcquisitionFailedException(
+                    "Retry budget exhausted", token, request.failure());
+        }
+
+        RefreshRetryTokenResponse response;
+        try {
+            response = delegate.refreshRetryToken(request.toBuilder().token(token.delegate).build());
+        } catch (TokenAcquisitionFailedException e) {
+            releaseBudget(properties.getRetryCost());
+            throw new TokenAcquisitionFailedException(e.getMessage(), token, request.failure());
+        }
+
+        counter("dynamodb.client.retries", token.call, throttled ? "throttling" : "transient").increment();
+        log.debug("Retrying DynamoDB {} on {} (attempt {}) after {}",
+                token.call.operation(), token.call.table(), token.attempt + 1, response.delay());
+
+        return RefreshRetryTokenResponse.create(
+                new Token(response.token(), token.call, token.attempt + 1), response.delay());
+    }
+
+    @Override
+    public RecordSuccessResponse recordSuccess(RecordSuccessRequest request) {
+        Token token = (Token) request.token();
+        releaseBudget(properties.getSuccessRefund());
+        delegate.recordSuccess(RecordSuccessRequest.create(token.delegate));
+        return RecordSuccessResponse.create(token);
+    }
+
+    @Override
+    public int maxAttempts() {
+        return delegate.maxAttempts();
+    }
+
+    /**
+     * This strategy is already fully configured; returning {@code false} stops the SDK from
+     * rebuilding it through {@link #toBuilder()} with client defaults.
+     */
+    @Override
+    public boolean useClientDefaults() {
+        return false;
+    }
+
+    @Override
+    public Builder<?, ?> toBuilder() {
+        return delegate.toBuilder();
+    }
+
+    private boolean tryAcquireBudget() {
+        int cost = properties.getRetryCost();
+        while (true) {
+            int available = budget.get();
+            if (available < cost) {
+                return false;
+            }
+            if (budget.compareAndSet(available, available - cost)) {
+                return true;
+            }
+        }
+    }
+
+    private void releaseBudget(int tokens) {
+        budget.accumulateAndGet(tokens, (current, refund) -> Math.min(properties.getBudgetCapacity(), current + refund));
+    }
+
+    private Counter counter(String name, DynamoDbCallContextInterceptor.CallContext call, String reason) {
+        Counter.Builder builder = Counter.builder(name)
+                .tag("table", call.table())
+                .tag("operation", call.operation());
+        if (reason != null) {
+            builder.tag("reason", reason);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private static boolean isThrottling(Throwable failure) {
+        return failure instanceof SdkServiceException e && e.isThrottlingException();
+    }
+
+    private static final class Token implements RetryToken {
+
+        private final RetryToken delegate;
+        private final DynamoDbCallContextInterceptor.CallContext call;
+        private final int attempt;
+
+        private Token(RetryToken delegate, DynamoDbCallContextInterceptor.CallContext call) {
+            this(delegate, call, 1);
+        }
+
+        private Token(RetryToken delegate, DynamoDbCallContextInterceptor.CallContext call, int attempt) {
+            this.delegate = delegate;
+            this.call = call;
+            this.attempt = attempt;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.app.dynamodb.config;
+
+import com.app.dynamodb.shared.metrics.RequestCapacity;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.List;
+
+/**
+ * Asks DynamoDB to return consumed capacity ({@code INDEXES} detail) on every data-plane call and
+ * charges it to the {@link RequestCapacity} of the HTTP request being served, if any.
+ */
+public class ConsumedCapacityInterceptor implements ExecutionInterceptor {
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        ReturnConsumedCapacity indexes = ReturnConsumedCapacity.INDEXES;
+        return switch (context.request()) {
+            case GetItemRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case PutItemRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case UpdateItemRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case DeleteItemRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case QueryRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case ScanRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case BatchGetItemRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case BatchWriteItemRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case TransactGetItemsRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            case TransactWriteItemsRequest r when r.returnConsumedCapacity() == null -> r.toBuilder().returnConsumedCapacity(indexes).build();
+            default -> context.request();
+        };
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        RequestCapacity capacity = RequestCapacity.current();
+        if (capacity == null) {
+            return;
+        }
+
+        SdkResponse response = context.response();
+        switch (response) {
+            case GetItemResponse r -> charge(capacity, r.consumedCapacity(), true);
+            case QueryResponse r -> charge(capacity, r.consumedCapacity(), true);
+            case ScanResponse r -> charge(capacity, r.consumedCapacity(), true);
+            case BatchGetItemResponse r -> charge(capacity, r.consumedCapacity(), true);
+            case TransactGetItemsResponse r -> charge(capacity, r.consumedCapacity(), true);
+            case PutItemResponse r -> charge(capacity, r.consumedCapacity(), false);
+            case UpdateItemResponse r -> charge(capacity, r.consumedCapacity(), false);
+            case DeleteItemResponse r -> charge(capacity, r.consumedCapacity(), false);
+            case BatchWriteItemResponse r -> charge(capacity, r.consumedCapacity(), false);
+            case TransactWriteItemsResponse r -> charge(capacity, r.consumedCapacity(), false);
+            default -> {
+            }
+        }
+    }
+
+    private static void charge(RequestCapacity capacity, List<ConsumedCapacity> consumed, boolean read) {
+        consumed.forEach(units -> charge(capacity, units, read));
+    }
+
+    private static void charge(RequestCapacity capacity, ConsumedCapacity consumed, boolean read) {
+        if (consumed == null) {
+            return;
+        }
+        // ReadCapacityUnits/WriteCapacityUnits are only filled in for some calls; fall back to the total
+        if (consumed.readCapacityUnits() != null || consumed.writeCapacityUnits() != null) {
+            capacity.addRead(valueOf(consumed.readCapacityUnits()));
+            capacity.addWrite(valueOf(consumed.writeCapacityUnits()));
+        } else if (read) {
+            capacity.addRead(valueOf(consumed.capacityUnits()));
+        } else {
+            capacity.addWrite(valueOf(consumed.capacityUnits()));
+        }
+    }
+
+    private static double valueOf(Double units) {
+        return units != null ? units : 0.0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.dynamodb.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
+
+/**
+ * Registers reflection hints for every {@link DynamoDbBean} entity so the enhanced client can
+ * introspect them when the application runs from AOT-processed code, and for the attribute converters
+ * that {@link DynamoDbConvertedBy} instantiates. Both are discovered at build time, so modules do not
+ * need to register their own.
+ */
+public class DynamoDbBeanRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String BASE_PACKAGE = "com.app.dynamodb";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(DynamoDbBean.class));
+
+        for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            Class<?> entity = ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader);
+            hints.reflection().registerType(entity,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+            for (Class<?> nested : entity.getDeclaredClasses()) {
+                hints.reflection().registerType(nested, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+
+        ClassPathScanningCandidateComponentProvider converters = new ClassPathScanningCandidateComponentProvider(false);
+        converters.addIncludeFilter(new AssignableTypeFilter(AttributeConverter.class));
+        for (BeanDefinition candidate : converters.findCandidateComponents(BASE_PACKAGE)) {
+            hints.reflection().registerType(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.dynamodb.config;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * Records the table and operation of the DynamoDB call running on the current thread, so that
+ * components without access to the request, such as {@link BudgetedRetryStrategy}, can tag by them.
+ */
+public class DynamoDbCallContextInterceptor implements ExecutionInterceptor {
+
+    private static final CallContext UNKNOWN = new CallContext("unknown", "unknown");
+    private static final ThreadLocal<CallContext> CURRENT = new ThreadLocal<>();
+
+    public record CallContext(String table, String operation) {
+    }
+
+    public static CallContext currentCall() {
+        CallContext call = CURRENT.get();
+        return call != null ? call : UNKNOWN;
+    }
+
+    public static CallContext describe(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        String table = context.request().getValueForField("TableName", String.class).orElse("multiple");
+        return new CallContext(table, operation != null ? operation : "unknown");
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        CURRENT.set(describe(context, executionAttributes));
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        CURRENT.remove();
+    }
+}
@@ -1,15 +1,20 @@
 package com.app.dynamodb.config;
 
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
 import com.app.dynamodb.shared.AwsConfigProperties;
 import io.awspring.cloud.dynamodb.DynamoDbTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.retries.api.RetryStrategy;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 import java.net.URI;
@@ -22,7 +27,23 @@ public class DynamoDbConfig {
     private final AwsConfigProperties properties;
 
     @Bean
-    public DynamoDbClient dynamoDbClient() {
+    public RetryStrategy dynamoDbRetryStrategy(MeterRegistry meterRegistry) {
+        log.info("Initializing DynamoDB retry strategy with max attempts: {}", properties.getRetry().getMaxAttempts());
+        return new BudgetedRetryStrategy(properties.getRetry(), meterRegistry);
+    }
+
+    /**
+     * The in-memory engine under the {@code inmemory} profile, otherwise a client of the configured
+     * endpoint. Decided here rather than with {@code @Profile}, which an AOT-processed build evaluates
+     * once at build time.
+     */
+    @Bean
+    public DynamoDbClient dynamoDbClient(RetryStrategy dynamoDbRetryStrategy, MeterRegistry meterRegistry,
+                                         Environment environment) {
+        if (environment.matchesProfiles("inmemory")) {
+            log.info("Initializing in-memory DynamoDB Client");
+            return new InMemoryDynamoDbClient();
+        }
         log.info("Initializing DynamoDB Client with endpoint: {}", properties.getEndpoint());
         
         return DynamoDbClient.builder()
@@ -34,6 +55,12 @@ public class DynamoDbConfig {
                                 properties.getSecretKey()
                         )
                 ))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .retryStrategy(dynamoDbRetryStrategy)
+                        .addExecutionInterceptor(new DynamoDbCallContextInterceptor())
+                        .addExecutionInterceptor(new DynamoDbMetricsInterceptor(meterRegistry))
+                        .addExecutionInterceptor(new ConsumedCapacityInterceptor())
+                        .build())
                 .build();
     }
 
@@ -0,0 +1,110 @@
+package com.app.dynamodb.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Records DynamoDB client timings per table and operation:
+ * <ul>
+ *     <li>{@code dynamodb.client.requests} - whole API call including retries and backoff, tagged by outcome</li>
+ *     <li>{@code dynamodb.client.attempts} - each HTTP attempt, tagged by status code</li>
+ *     <li>{@code dynamodb.client.request.attempts} - number of attempts each call needed</li>
+ * </ul>
+ * Histograms and percentiles are configured under {@code management.metrics.distribution}.
+ */
+@RequiredArgsConstructor
+public class DynamoDbMetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<DynamoDbCallContextInterceptor.CallContext> CALL =
+            new ExecutionAttribute<>("MetricsCallContext");
+    private static final ExecutionAttribute<Long> CALL_START = new ExecutionAttribute<>("MetricsCallStart");
+    private static final ExecutionAttribute<Long> ATTEMPT_START = new ExecutionAttribute<>("MetricsAttemptStart");
+    private static final ExecutionAttribute<Integer> ATTEMPTS = new ExecutionAttribute<>("MetricsAttempts");
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(CALL, DynamoDbCallContextInterceptor.describe(context, executionAttributes));
+        executionAttributes.putAttribute(CALL_START, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, 0);
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(ATTEMPT_START, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, executionAttributes.getAttribute(ATTEMPTS) + 1);
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        Long attemptStart = executionAttributes.getAttribute(ATTEMPT_START);
+        if (attemptStart == null) {
+            return;
+        }
+        DynamoDbCallContextInterceptor.CallContext call = executionAttributes.getAttribute(CALL);
+        Timer.builder("dynamodb.client.attempts")
+                .description("Latency of individual DynamoDB HTTP attempts")
+                .tag("table", call.table())
+                .tag("operation", call.operation())
+                .tag("status", String.valueOf(context.httpResponse().statusCode()))
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - attemptStart));
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "success");
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, outcome(context.exception()));
+    }
+
+    private void record(ExecutionAttributes executionAttributes, String outcome) {
+        DynamoDbCallContextInterceptor.CallContext call = executionAttributes.getAttribute(CALL);
+        Long callStart = executionAttributes.getAttribute(CALL_START);
+        if (call == null || callStart == null) {
+            return;
+        }
+
+        Timer.builder("dynamodb.client.requests")
+                .description("Latency of DynamoDB API calls including retries")
+                .tag("table", call.table())
+                .tag("operation", call.operation())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - callStart));
+
+        DistributionSummary.builder("dynamodb.client.request.attempts")
+                .description("HTTP attempts needed per DynamoDB API call")
+                .tag("table", call.table())
+                .tag("operation", call.operation())
+                .register(meterRegistry)
+                .record(executionAttributes.getAttribute(ATTEMPTS));
+    }
+
+    private static String outcome(Throwable exception) {
+        if (exception instanceof SdkServiceException e) {
+            if (e.isThrottlingException()) {
+                return "throttled";
+            }
+            return e.statusCode() >= 500 ? "server_error" : "client_error";
+        }
+        if (exception.getCause() instanceof IOException) {
+            return "io_error";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,31 @@
+package com.app.dynamodb.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until {@link DynamoDbTableInitializer} has brought every table
+ * and index to active. Included in the readiness group so no traffic arrives before that.
+ */
+@Component("dynamoDbSchema")
+@RequiredArgsConstructor
+public class DynamoDbSchemaHealthIndicator implements HealthIndicator {
+
+    private final DynamoDbTableInitializer initializer;
+
+    @Override
+    public Health health() {
+        DynamoDbTableInitializer.State state = initializer.getState();
+        Health.Builder health = switch (state) {
+            case READY, SKIPPED -> Health.up();
+            case FAILED -> Health.down();
+            case PENDING, RECONCILING -> Health.outOfService();
+        };
+        return health
+                .withDetail("state", state)
+                .withDetail("tables", initializer.getTableStates())
+                .build();
+    }
+}
@@ -1,155 +1,412 @@
 package com.app.dynamodb.config;
 
 import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.CustomerOrderKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.waiters.WaiterOverrideConfiguration;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reconciles the live DynamoDB tables with the declared {@link TableDefinition}s: missing tables,
+ * global secondary indexes, TTL and streams are added and waited on until active. All tables are
+ * reconciled in parallel in the background; {@link DynamoDbSchemaHealthIndicator} keeps the
+ * readiness probe down until every table is active.
+ * <p>
+ * With {@code aws.dynamodb.schema.migrate-to-single-table=true} the customers and orders tables are then
+ * copied into the single-table layout by {@link SingleTableMigration} before the schema is reported ready.
+ * <p>
+ * Disable with {@code aws.dynamodb.schema.reconcile=false} where tables are provisioned elsewhere.
+ */
 @Slf4j
-@Configuration
+@Component
 @RequiredArgsConstructor
-public class DynamoDbTableInitializer {
+public class DynamoDbTableInitializer implements ApplicationRunner {
+
+    public enum State { PENDING, RECONCILING, READY, SKIPPED, FAILED }
+
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofMinutes(1);
 
     private final DynamoDbClient dynamoDbClient;
     private final AwsConfigProperties properties;
 
-    @Bean
-    public CommandLineRunner initializeTables() {
-        return args -> {
-            createCustomerTable();
-            createOrderTable();
-            createProductTable();
-        };
-    }
+    private final Map<String, String> tableStates = new ConcurrentHashMap<>();
+    private volatile State state = State.PENDING;
 
-    private void createCustomerTable() {
-        String tableName = properties.getTables().get("customer");
-        
-        if (tableExists(tableName)) {
-            log.info("Customer table already exists: {}", tableName);
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.getSchema().isReconcile()) {
+            log.info("DynamoDB schema reconciliation is disabled");
+            state = State.SKIPPED;
             return;
         }
+        Thread.ofVirtual().name("dynamodb-schema-reconciler").start(this::reconcileUntilReady);
+    }
 
-        log.info("Creating Customer table: {}", tableName);
+    public State getState() {
+        return state;
+    }
 
-        CreateTableRequest request = CreateTableRequest.builder()
-                .tableName(tableName)
-                .keySchema(KeySchemaElement.builder()
-                        .attributeName("customerId")
-                        .keyType(KeyType.HASH)
+    public Map<String, String> getTableStates() {
+        return Map.copyOf(tableStates);
+    }
+
+    List<TableDefinition> declaredTables() {
+        Map<String, String> tables = properties.getTables();
+        List<TableDefinition> definitions = new ArrayList<>();
+        if (!properties.isSingleTable()) {
+            definitions.add(TableDefinition.builder()
+                    .tableName(tables.get("customer"))
+                    .partitionKey("customerId")
+                    .attribute("customerId", ScalarAttributeType.S)
+                    .build());
+            definitions.add(TableDefinition.builder()
+                    .tableName(tables.get("order"))
+                    .partitionKey("orderId")
+                    .attribute("orderId", ScalarAttributeType.S)
+                    .attribute("statusShard", ScalarAttributeType.S)
+                    .attribute("statusSortKey", ScalarAttributeType.S)
+                    .attribute("archiveShard", ScalarAttributeType.S)
+                    .attribute("expiresAt", ScalarAttributeType.N)
+                    .globalSecondaryIndex(TableDefinition.Index.builder()
+                            .indexName("status-time-index")
+                            .partitionKey("statusShard")
+                            .sortKey("statusSortKey")
+                            .build())
+                    .globalSecondaryIndex(TableDefinition.Index.builder()
+                            .indexName("archive-index")
+                            .partitionKey("archiveShard")
+                            .sortKey("expiresAt")
+                            .build())
+                    .timeToLiveAttribute("expiresAt")
+                    .build());
+        }
+        // Also created ahead of the switch, so that a migration can fill it while the old tables serve
+        if (properties.isSingleTable() || properties.getSchema().isMigrateToSingleTable()) {
+            definitions.add(TableDefinition.builder()
+                    .tableName(tables.get(CustomerOrderKeys.TABLE))
+                    .partitionKey(CustomerOrderKeys.PARTITION_KEY)
+                    .sortKey(CustomerOrderKeys.SORT_KEY)
+                    .attribute(CustomerOrderKeys.PARTITION_KEY, ScalarAttributeType.S)
+                    .attribute(CustomerOrderKeys.SORT_KEY, ScalarAttributeType.S)
+                    .attribute("orderId", ScalarAttributeType.S)
+                    .attribute("statusShard", ScalarAttributeType.S)
+                    .attribute("statusSortKey", ScalarAttributeType.S)
+                    .attribute("archiveShard", ScalarAttributeType.S)
+                    .attribute("expiresAt", ScalarAttributeType.N)
+                    .globalSecondaryIndex(TableDefinition.Index.builder()
+                            .indexName("status-time-index")
+                            .partitionKey("statusShard")
+                            .sortKey("statusSortKey")
+                            .build())
+                    .globalSecondaryIndex(TableDefinition.Index.builder()
+                            .indexName("archive-index")
+                            .partitionKey("archiveShard")
+                            .sortKey("expiresAt")
+                            .build())
+                    .globalSecondaryIndex(TableDefinition.Index.builder()
+                            .indexName(CustomerOrderKeys.ORDER_ID_INDEX)
+                            .partitionKey("orderId")
+                            .build())
+                    .timeToLiveAttribute("expiresAt")
+                    .build());
+        }
+        definitions.add(TableDefinition.builder()
+                .tableName(tables.get("order-archive"))
+                .partitionKey("orderId")
+                .attribute("orderId", ScalarAttributeType.S)
+                .build());
+        definitions.add(TableDefinition.builder()
+                .tableName(tables.get("order-stats"))
+                .partitionKey("bucket")
+                .attribute("bucket", ScalarAttributeType.S)
+                .build());
+        definitions.add(TableDefinition.builder()
+                .tableName(tables.get("product"))
+                .partitionKey("productId")
+                .attribute("productId", ScalarAttributeType.S)
+                .attribute("category", ScalarAttributeType.S)
+                .attribute("priceSortKey", ScalarAttributeType.S)
+                .globalSecondaryIndex(TableDefinition.Index.builder()
+                        .indexName("category-index")
+                        .partitionKey("category")
                         .build())
-                .attributeDefinitions(AttributeDefinition.builder()
-                        .attributeName("customerId")
-                        .attributeType(ScalarAttributeType.S)
+                .globalSecondaryIndex(TableDefinition.Index.builder()
+                        .indexName("category-price-index")
+                        .partitionKey("category")
+                        .sortKey("priceSortKey")
                         .build())
-                .billingMode(BillingMode.PAY_PER_REQUEST)
-                .build();
+                .build());
+        definitions.add(TableDefinition.builder()
+                .tableName(tables.get("product-reservation"))
+                .partitionKey("reservationId")
+                .attribute("reservationId", ScalarAttributeType.S)
+                .attribute("expiryShard", ScalarAttributeType.S)
+                .attribute("holdUntil", ScalarAttributeType.N)
+                .globalSecondaryIndex(TableDefinition.Index.builder()
+                        .indexName("expiry-index")
+                        .partitionKey("expiryShard")
+                        .sortKey("holdUntil")
+                        .build())
+                .timeToLiveAttribute("expiresAt")
+                .build());
+        return definitions;
+    }
 
-        try {
-            dynamoDbClient.createTable(request);
-            log.info("Customer table created successfully: {}", tableName);
-        } catch (ResourceInUseException e) {
-            log.warn("Table already exists: {}", tableName);
+    private void reconcileUntilReady() {
+        Duration backoff = properties.getSchema().getPollInterval();
+        while (!reconcileAll()) {
+            log.info("Retrying DynamoDB schema reconciliation in {}", backoff);
+            sleep(backoff);
+            Duration doubled = backoff.multipliedBy(2);
+            backoff = doubled.compareTo(MAX_RETRY_BACKOFF) > 0 ? MAX_RETRY_BACKOFF : doubled;
+        }
+    }
+
+    boolean reconcileAll() {
+        state = State.RECONCILING;
+        long start = System.nanoTime();
+        List<TableDefinition> definitions = declaredTables();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?>[] tables = definitions.stream()
+                    .map(definition -> CompletableFuture.runAsync(() -> reconcile(definition), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tables).join();
+            if (properties.getSchema().isMigrateToSingleTable()) {
+                new SingleTableMigration(dynamoDbClient, properties).run();
+            }
+
+            state = State.READY;
+            log.info("DynamoDB schema reconciled for {} tables in {} ms",
+                    definitions.size(), (System.nanoTime() - start) / 1_000_000);
+            return true;
         } catch (Exception e) {
-            log.error("Error creating customer table: {}", e.getMessage(), e);
+            state = State.FAILED;
+            log.error("DynamoDB schema reconciliation failed: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    private void createOrderTable() {
-        String tableName = properties.getTables().get("order");
-        
-        if (tableExists(tableName)) {
-            log.info("Order table already exists: {}", tableName);
-            return;
+    private void reconcile(TableDefinition definition) {
+        String tableName = definition.getTableName();
+        tableStates.put(tableName, "DESCRIBING");
+
+        Optional<TableDescription> existing = describe(tableName);
+        if (existing.isEmpty()) {
+            createTable(definition);
+        } else {
+            verifyKeySchema(definition, existing.get());
+            waitForTable(tableName);
+            addMissingIndexes(definition, existing.get());
+            enableStream(definition, existing.get());
         }
+        enableTimeToLive(definition);
+
+        tableStates.put(tableName, "ACTIVE");
+    }
 
-        log.info("Creating Order table: {}", tableName);
+    private void createTable(TableDefinition definition) {
+        String tableName = definition.getTableName();
+        log.info("Creating table: {}", tableName);
+        tableStates.put(tableName, "CREATING");
 
-        CreateTableRequest request = CreateTableRequest.builder()
+        CreateTableRequest.Builder request = CreateTableRequest.builder()
                 .tableName(tableName)
-                .keySchema(KeySchemaElement.builder()
-                        .attributeName("orderId")
-                        .keyType(KeyType.HASH)
-                        .build())
-                .attributeDefinitions(AttributeDefinition.builder()
-                        .attributeName("orderId")
-                        .attributeType(ScalarAttributeType.S)
-                        .build())
-                .billingMode(BillingMode.PAY_PER_REQUEST)
-                .build();
+                .keySchema(keySchema(definition.getPartitionKey(), definition.getSortKey()))
+                .attributeDefinitions(attributeDefinitions(definition))
+                .billingMode(BillingMode.PAY_PER_REQUEST);
+
+        if (!definition.getGlobalSecondaryIndexes().isEmpty()) {
+            request.globalSecondaryIndexes(definition.getGlobalSecondaryIndexes().stream()
+                    .map(DynamoDbTableInitializer::globalSecondaryIndex)
+                    .toList());
+        }
+        if (definition.getStreamViewType() != null) {
+            request.streamSpecification(streamSpecification(definition));
+        }
 
         try {
-            dynamoDbClient.createTable(request);
-            log.info("Order table created successfully: {}", tableName);
+            dynamoDbClient.createTable(request.build());
         } catch (ResourceInUseException e) {
             log.warn("Table already exists: {}", tableName);
-        } catch (Exception e) {
-            log.error("Error creating order table: {}", e.getMessage(), e);
+        }
+        waitForTable(tableName);
+        log.info("Table created successfully: {}", tableName);
+    }
+
+    private void verifyKeySchema(TableDefinition definition, TableDescription table) {
+        List<KeySchemaElement> expected = keySchema(definition.getPartitionKey(), definition.getSortKey());
+        if (!new HashSet<>(expected).equals(new HashSet<>(table.keySchema()))) {
+            throw new IllegalStateException("Key schema of table " + table.tableName() + " is " + table.keySchema()
+                    + " but " + expected + " is declared; key schemas cannot be changed in place");
+        }
+    }
+
+    private void addMissingIndexes(TableDefinition definition, TableDescription table) {
+        Set<String> existingIndexes = new HashSet<>();
+        table.globalSecondaryIndexes().forEach(index -> existingIndexes.add(index.indexName()));
+
+        // DynamoDB accepts a single index creation per UpdateTable call
+        for (TableDefinition.Index index : definition.getGlobalSecondaryIndexes()) {
+            if (existingIndexes.contains(index.getIndexName())) {
+                continue;
+            }
+            log.info("Adding index {} to table {}", index.getIndexName(), table.tableName());
+            tableStates.put(table.tableName(), "CREATING_INDEX " + index.getIndexName());
+
+            dynamoDbClient.updateTable(UpdateTableRequest.builder()
+                    .tableName(table.tableName())
+                    .attributeDefinitions(attributeDefinitions(definition))
+                    .globalSecondaryIndexUpdates(GlobalSecondaryIndexUpdate.builder()
+                            .create(CreateGlobalSecondaryIndexAction.builder()
+                                    .indexName(index.getIndexName())
+                                    .keySchema(keySchema(index.getPartitionKey(), index.getSortKey()))
+                                    .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                                    .build())
+                            .build())
+                    .build());
+            waitForIndex(table.tableName(), index.getIndexName());
         }
     }
 
-    private boolean tableExists(String tableName) {
+    private void enableStream(TableDefinition definition, TableDescription table) {
+        if (definition.getStreamViewType() == null) {
+            return;
+        }
+        StreamSpecification current = table.streamSpecification();
+        if (current != null && Boolean.TRUE.equals(current.streamEnabled())
+                && current.streamViewType() == definition.getStreamViewType()) {
+            return;
+        }
+
+        log.info("Enabling {} stream on table {}", definition.getStreamViewType(), table.tableName());
         try {
-            DescribeTableRequest request = DescribeTableRequest.builder()
+            dynamoDbClient.updateTable(UpdateTableRequest.builder()
+                    .tableName(table.tableName())
+                    .streamSpecification(streamSpecification(definition))
+                    .build());
+            waitForTable(table.tableName());
+        } catch (DynamoDbException e) {
+            log.warn("Could not enable stream on table {}: {}", table.tableName(), e.getMessage());
+        }
+    }
+
+    private void enableTimeToLive(TableDefinition definition) {
+        if (definition.getTimeToLiveAttribute() == null) {
+            return;
+        }
+        String tableName = definition.getTableName();
+        try {
+            TimeToLiveDescription current = dynamoDbClient.describeTimeToLive(DescribeTimeToLiveRequest.builder()
                     .tableName(tableName)
-                    .build();
-            dynamoDbClient.describeTable(request);
-            return true;
+                    .build()).timeToLiveDescription();
+            boolean enabled = current != null
+                    && definition.getTimeToLiveAttribute().equals(current.attributeName())
+                    && (current.timeToLiveStatus() == TimeToLiveStatus.ENABLED
+                        || current.timeToLiveStatus() == TimeToLiveStatus.ENABLING);
+            if (enabled) {
+                return;
+            }
+
+            log.info("Enabling TTL on {}.{}", tableName, definition.getTimeToLiveAttribute());
+            dynamoDbClient.updateTimeToLive(UpdateTimeToLiveRequest.builder()
+                    .tableName(tableName)
+                    .timeToLiveSpecification(TimeToLiveSpecification.builder()
+                            .attributeName(definition.getTimeToLiveAttribute())
+                            .enabled(true)
+                            .build())
+                    .build());
+        } catch (DynamoDbException e) {
+            log.warn("Could not enable TTL on table {}: {}", tableName, e.getMessage());
+        }
+    }
+
+    private Optional<TableDescription> describe(String tableName) {
+        try {
+            return Optional.of(dynamoDbClient.describeTable(DescribeTableRequest.builder()
+                    .tableName(tableName)
+                    .build()).table());
         } catch (ResourceNotFoundException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    private void createProductTable() {
-        String tableName = properties.getTables().get("product");
-        
-        if (tableExists(tableName)) {
-            log.info("Product table already exists: {}", tableName);
-            return;
+    private void waitForTable(String tableName) {
+        tableStates.put(tableName, "WAITING");
+        dynamoDbClient.waiter().waitUntilTableExists(
+                DescribeTableRequest.builder().tableName(tableName).build(),
+                WaiterOverrideConfiguration.builder()
+                        .waitTimeout(properties.getSchema().getWaitTimeout())
+                        .build());
+    }
+
+    private void waitForIndex(String tableName, String indexName) {
+        Instant deadline = Instant.now().plus(properties.getSchema().getWaitTimeout());
+        while (Instant.now().isBefore(deadline)) {
+            boolean active = describe(tableName).stream()
+                    .flatMap(table -> table.globalSecondaryIndexes().stream())
+                    .anyMatch(index -> index.indexName().equals(indexName)
+                            && index.indexStatus() == IndexStatus.ACTIVE);
+            if (active) {
+                return;
+            }
+            sleep(properties.getSchema().getPollInterval());
         }
+        throw new IllegalStateException("Index " + indexName + " on table " + tableName + " did not become active");
+    }
 
-        log.info("Creating Product table: {}", tableName);
+    private static List<KeySchemaElement> keySchema(String partitionKey, String sortKey) {
+        List<KeySchemaElement> keySchema = new ArrayList<>();
+        keySchema.add(KeySchemaElement.builder().attributeName(partitionKey).keyType(KeyType.HASH).build());
+        if (sortKey != null) {
+            keySchema.add(KeySchemaElement.builder().attributeName(sortKey).keyType(KeyType.RANGE).build());
+        }
+        return keySchema;
+    }
 
-        CreateTableRequest request = CreateTableRequest.builder()
-                .tableName(tableName)
-                .keySchema(KeySchemaElement.builder()
-                        .attributeName("productId")
-                        .keyType(KeyType.HASH)
-                        .build())
-                .attributeDefinitions(
-                        AttributeDefinition.builder()
-                                .attributeName("productId")
-                                .attributeType(ScalarAttributeType.S)
-                                .build(),
-                        AttributeDefinition.builder()
-                                .attributeName("category")
-                                .attributeType(ScalarAttributeType.S)
-                                .build()
-                )
-                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
-                        .indexName("category-index")
-                        .keySchema(KeySchemaElement.builder()
-                                .attributeName("category")
-                                .keyType(KeyType.HASH)
-                                .build())
-                        .projection(Projection.builder()
-                                .projectionType(ProjectionType.ALL)
-                                .build())
+    private static List<AttributeDefinition> attributeDefinitions(TableDefinition definition) {
+        return definition.getAttributes().entrySet().stream()
+                .map(attribute -> AttributeDefinition.builder()
+                        .attributeName(attribute.getKey())
+                        .attributeType(attribute.getValue())
                         .build())
-                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .toList();
+    }
+
+    private static GlobalSecondaryIndex globalSecondaryIndex(TableDefinition.Index index) {
+        return GlobalSecondaryIndex.builder()
+                .indexName(index.getIndexName())
+                .keySchema(keySchema(index.getPartitionKey(), index.getSortKey()))
+                .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                .build();
+    }
+
+    private static StreamSpecification streamSpecification(TableDefinition definition) {
+        return StreamSpecification.builder()
+                .streamEnabled(true)
+                .streamViewType(definition.getStreamViewType())
                 .build();
+    }
 
+    private static void sleep(Duration duration) {
         try {
-            dynamoDbClient.createTable(request);
-            log.info("Product table created successfully: {}", tableName);
-        } catch (ResourceInUseException e) {
-            log.warn("Table already exists: {}", tableName);
-        } catch (Exception e) {
-            log.error("Error creating product table: {}", e.getMessage(), e);
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for DynamoDB", e);
         }
     }
-}
\ No newline at end of file
+}
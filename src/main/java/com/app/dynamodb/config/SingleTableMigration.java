@@ -0,0 +1,138 @@
+package com.app.dynamodb.config;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.CustomerOrderKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Copies the customers and orders tables into the single-table layout (see {@link CustomerOrderKeys}).
+ * Each source table is scanned in parallel segments and every item is put with its {@code pk} and
+ * {@code sk} added, only if the target does not hold that key yet: an item already written through the
+ * single-table layout is newer than its copy and is kept. Running it again copies only what is missing.
+ * <p>
+ * Items are put one at a time because a batch write cannot carry that condition.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class SingleTableMigration {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final AwsConfigProperties properties;
+
+    void run() {
+        Map<String, String> tables = properties.getTables();
+        String target = tables.get(CustomerOrderKeys.TABLE);
+        copy(tables.get("customer"), target, SingleTableMigration::customerKey);
+        copy(tables.get("order"), target, SingleTableMigration::orderKey);
+    }
+
+    /** Keys of a customer item, or {@code null} for an item that cannot be keyed. */
+    static Map<String, AttributeValue> customerKey(Map<String, AttributeValue> item) {
+        String customerId = string(item, "customerId");
+        return customerId == null ? null : Map.of(
+                CustomerOrderKeys.PARTITION_KEY, AttributeValue.fromS(CustomerOrderKeys.partitionKey(customerId)),
+                CustomerOrderKeys.SORT_KEY, AttributeValue.fromS(CustomerOrderKeys.PROFILE));
+    }
+
+    /** Keys of an order item, or {@code null} for an item that cannot be keyed. */
+    static Map<String, AttributeValue> orderKey(Map<String, AttributeValue> item) {
+        String orderId = string(item, "orderId");
+        String customerId = string(item, "customerId");
+        String createdAt = string(item, "createdAt");
+        if (orderId == null || customerId == null || createdAt == null) {
+            return null;
+        }
+        return Map.of(
+                CustomerOrderKeys.PARTITION_KEY, AttributeValue.fromS(CustomerOrderKeys.partitionKey(customerId)),
+                CustomerOrderKeys.SORT_KEY,
+                AttributeValue.fromS(CustomerOrderKeys.orderSortKey(Instant.parse(createdAt), orderId)));
+    }
+
+    private void copy(String source, String target, Function<Map<String, AttributeValue>, Map<String, AttributeValue>> keys) {
+        int segments = properties.getSchema().getMigrationSegments();
+        Counts counts = new Counts();
+        long start = System.nanoTime();
+        log.info("Copying {} into {} with {} segments", source, target, segments);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?>[] scans = IntStream.range(0, segments)
+                    .mapToObj(segment -> CompletableFuture.runAsync(
+                            () -> copySegment(source, target, segment, segments, keys, counts), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(scans).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ResourceNotFoundException) {
+                log.info("Table {} does not exist; nothing to copy", source);
+                return;
+            }
+            throw e;
+        }
+
+        log.info("Copied {} items of {} into {} in {} ms; {} were already there, {} skipped without a key",
+                counts.copied.sum(), source, target, (System.nanoTime() - start) / 1_000_000,
+                counts.existing.sum(), counts.skipped.sum());
+    }
+
+    private void copySegment(String source, String target, int segment, int segments,
+                             Function<Map<String, AttributeValue>, Map<String, AttributeValue>> keys, Counts counts) {
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ScanResponse page = dynamoDbClient.scan(ScanRequest.builder()
+                    .tableName(source)
+                    .segment(segment)
+                    .totalSegments(segments)
+                    .exclusiveStartKey(startKey)
+                    .build());
+            for (Map<String, AttributeValue> item : page.items()) {
+                copyItem(target, item, keys.apply(item), counts);
+            }
+            startKey = page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty() ? page.lastEvaluatedKey() : null;
+        } while (startKey != null);
+    }
+
+    private void copyItem(String target, Map<String, AttributeValue> item, Map<String, AttributeValue> key, Counts counts) {
+        if (key == null) {
+            log.warn("Not copying item without a customer or creation time: {}", item.keySet());
+            counts.skipped.increment();
+            return;
+        }
+        Map<String, AttributeValue> keyed = new HashMap<>(item);
+        keyed.putAll(key);
+        try {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                    .tableName(target)
+                    .item(keyed)
+                    .conditionExpression("attribute_not_exists(#pk)")
+                    .expressionAttributeNames(Map.of("#pk", CustomerOrderKeys.PARTITION_KEY))
+                    .build());
+            counts.copied.increment();
+        } catch (ConditionalCheckFailedException e) {
+            counts.existing.increment();
+        }
+    }
+
+    private static String string(Map<String, AttributeValue> item, String attribute) {
+        AttributeValue value = item.get(attribute);
+        return value == null ? null : value.s();
+    }
+
+    private static final class Counts {
+        final LongAdder copied = new LongAdder();
+        final LongAdder existing = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+    }
+}
@@ -0,0 +1,40 @@
+package com.app.dynamodb.config;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.StreamViewType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declared schema of a DynamoDB table, reconciled against the live table on startup by
+ * {@link DynamoDbTableInitializer}.
+ */
+@Value
+@Builder
+public class TableDefinition {
+
+    String tableName;
+    String partitionKey;
+    String sortKey;
+    /** Types of every key attribute used by the table or its indexes. */
+    @Singular
+    Map<String, ScalarAttributeType> attributes;
+    @Singular
+    List<Index> globalSecondaryIndexes;
+    /** Attribute holding the expiry epoch second, or {@code null} when TTL is not used. */
+    String timeToLiveAttribute;
+    /** Stream view to enable, or {@code null} when the table has no stream. */
+    StreamViewType streamViewType;
+
+    @Value
+    @Builder
+    public static class Index {
+        String indexName;
+        String partitionKey;
+        String sortKey;
+    }
+}
@@ -0,0 +1,202 @@
+package com.app.dynamodb.config.inmemory;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** Comparison, equality and sizing of attribute values with DynamoDB semantics. */
+final class AttributeValues {
+
+    private AttributeValues() {
+    }
+
+    static boolean isScalar(AttributeValue value) {
+        return switch (value.type()) {
+            case S, N, B -> true;
+            default -> false;
+        };
+    }
+
+    /** Orders two values of the same scalar type; numbers numerically, binaries as unsigned bytes. */
+    static int compare(AttributeValue a, AttributeValue b) {
+        if (a.type() != b.type()) {
+            throw new IllegalArgumentException("Cannot compare " + a.type() + " with " + b.type());
+        }
+        return switch (a.type()) {
+            case S -> a.s().compareTo(b.s());
+            case N -> new BigDecimal(a.n()).compareTo(new BigDecimal(b.n()));
+            case B -> Arrays.compareUnsigned(a.b().asByteArrayUnsafe(), b.b().asByteArrayUnsafe());
+            default -> throw new IllegalArgumentException("Cannot order values of type " + a.type());
+        };
+    }
+
+    static boolean isComparable(AttributeValue a, AttributeValue b) {
+        return a.type() == b.type() && isScalar(a);
+    }
+
+    static boolean isEqual(AttributeValue a, AttributeValue b) {
+        if (a.type() != b.type()) {
+            return false;
+        }
+        return switch (a.type()) {
+            case N -> new BigDecimal(a.n()).compareTo(new BigDecimal(b.n())) == 0;
+            case NS -> numberSet(a).equals(numberSet(b));
+            case SS -> new HashSet<>(a.ss()).equals(new HashSet<>(b.ss()));
+            case BS -> new HashSet<>(a.bs()).equals(new HashSet<>(b.bs()));
+            case L -> listsEqual(a.l(), b.l());
+            case M -> mapsEqual(a.m(), b.m());
+            default -> a.equals(b);
+        };
+    }
+
+    /** Hash consistent with {@link #isEqual} for key values. */
+    static int keyHash(AttributeValue value) {
+        if (value.type() == AttributeValue.Type.N) {
+            return new BigDecimal(value.n()).stripTrailingZeros().hashCode();
+        }
+        return value.hashCode();
+    }
+
+    static String typeCode(AttributeValue value) {
+        return switch (value.type()) {
+            case NUL -> "NULL";
+            default -> value.type().name();
+        };
+    }
+
+    /** Approximate stored size: attribute names plus values, as DynamoDB accounts for capacity. */
+    static long size(Map<String, AttributeValue> item) {
+        long size = 0;
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            size += entry.getKey().getBytes(StandardCharsets.UTF_8).length + size(entry.getValue());
+        }
+        return size;
+    }
+
+    static long size(AttributeValue value) {
+        return switch (value.type()) {
+            case S -> value.s().getBytes(StandardCharsets.UTF_8).length;
+            case N -> (value.n().length() + 1) / 2 + 1;
+            case B -> value.b().asByteArrayUnsafe().length;
+            case BOOL, NUL -> 1;
+            case SS -> value.ss().stream().mapToLong(s -> s.getBytes(StandardCharsets.UTF_8).length).sum();
+            case NS -> value.ns().stream().mapToLong(n -> (n.length() + 1) / 2 + 1).sum();
+            case BS -> value.bs().stream().mapToLong(b -> b.asByteArrayUnsafe().length).sum();
+            case L -> 3 + value.l().stream().mapToLong(v -> 1 + size(v)).sum();
+            case M -> 3 + size(value.m()) + value.m().size();
+            default -> 0;
+        };
+    }
+
+    static long sizeOf(AttributeValue value) {
+        return switch (value.type()) {
+            case S -> value.s().length();
+            case B -> value.b().asByteArrayUnsafe().length;
+            case SS -> value.ss().size();
+            case NS -> value.ns().size();
+            case BS -> value.bs().size();
+            case L -> value.l().size();
+            case M -> value.m().size();
+            default -> throw new IllegalArgumentException("size() is not defined for " + value.type());
+        };
+    }
+
+    static boolean contains(AttributeValue container, AttributeValue operand) {
+        return switch (container.type()) {
+            case S -> operand.type() == AttributeValue.Type.S && container.s().contains(operand.s());
+            case SS -> operand.type() == AttributeValue.Type.S && container.ss().contains(operand.s());
+            case NS -> operand.type() == AttributeValue.Type.N && numberSet(container).contains(new BigDecimal(operand.n()).stripTrailingZeros());
+            case BS -> operand.type() == AttributeValue.Type.B && container.bs().contains(operand.b());
+            case L -> container.l().stream().anyMatch(element -> isEqual(element, operand));
+            default -> false;
+        };
+    }
+
+    static boolean beginsWith(AttributeValue value, AttributeValue prefix) {
+        if (value.type() == AttributeValue.Type.S && prefix.type() == AttributeValue.Type.S) {
+            return value.s().startsWith(prefix.s());
+        }
+        if (value.type() == AttributeValue.Type.B && prefix.type() == AttributeValue.Type.B) {
+            byte[] bytes = value.b().asByteArrayUnsafe();
+            byte[] start = prefix.b().asByteArrayUnsafe();
+            return bytes.length >= start.length && Arrays.equals(bytes, 0, start.length, start, 0, start.length);
+        }
+        return false;
+    }
+
+    static AttributeValue add(AttributeValue a, AttributeValue b) {
+        return AttributeValue.fromN(new BigDecimal(a.n()).add(new BigDecimal(b.n())).toPlainString());
+    }
+
+    static AttributeValue subtract(AttributeValue a, AttributeValue b) {
+        return AttributeValue.fromN(new BigDecimal(a.n()).subtract(new BigDecimal(b.n())).toPlainString());
+    }
+
+    static AttributeValue union(AttributeValue set, AttributeValue addition) {
+        return switch (set.type()) {
+            case SS -> AttributeValue.fromSs(distinct(set.ss(), addition.ss()));
+            case NS -> AttributeValue.fromNs(distinct(set.ns(), addition.ns()));
+            case BS -> AttributeValue.fromBs(distinct(set.bs(), addition.bs()));
+            default -> throw new IllegalArgumentException("ADD is not defined for " + set.type());
+        };
+    }
+
+    /** Removes {@code removal} from {@code set}; returns null when nothing is left. */
+    static AttributeValue difference(AttributeValue set, AttributeValue removal) {
+        return switch (set.type()) {
+            case SS -> emptyToNull(set.ss().stream().filter(s -> !removal.ss().contains(s)).toList(), AttributeValue::fromSs);
+            case NS -> {
+                Set<BigDecimal> removed = numberSet(removal);
+                yield emptyToNull(set.ns().stream()
+                        .filter(n -> !removed.contains(new BigDecimal(n).stripTrailingZeros())).toList(), AttributeValue::fromNs);
+            }
+            case BS -> emptyToNull(set.bs().stream().filter(b -> !removal.bs().contains(b)).toList(), AttributeValue::fromBs);
+            default -> throw new IllegalArgumentException("DELETE is not defined for " + set.type());
+        };
+    }
+
+    private static <T> List<T> distinct(List<T> first, List<T> second) {
+        return Stream.concat(first.stream(), second.stream()).distinct().toList();
+    }
+
+    private static <T> AttributeValue emptyToNull(List<T> values, Function<List<T>, AttributeValue> factory) {
+        return values.isEmpty() ? null : factory.apply(values);
+    }
+
+    private static Set<BigDecimal> numberSet(AttributeValue value) {
+        return value.ns().stream().map(n -> new BigDecimal(n).stripTrailingZeros()).collect(Collectors.toSet());
+    }
+
+    private static boolean listsEqual(List<AttributeValue> a, List<AttributeValue> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!isEqual(a.get(i), b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean mapsEqual(Map<String, AttributeValue> a, Map<String, AttributeValue> b) {
+        if (!a.keySet().equals(b.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, AttributeValue> entry : a.entrySet()) {
+            if (!isEqual(entry.getValue(), b.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,165 @@
+package com.app.dynamodb.config.inmemory;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A resolved document path such as {@code address.lines[0]}: attribute and map-key names are
+ * strings, list indexes are integers.
+ */
+record DocumentPath(List<Object> elements) {
+
+    String attribute() {
+        return (String) elements.getFirst();
+    }
+
+    boolean isTopLevel() {
+        return elements.size() == 1;
+    }
+
+    AttributeValue get(Map<String, AttributeValue> item) {
+        AttributeValue current = item.get(attribute());
+        for (int i = 1; i < elements.size() && current != null; i++) {
+            Object element = elements.get(i);
+            if (element instanceof Integer index) {
+                current = current.type() == AttributeValue.Type.L && index < current.l().size()
+                        ? current.l().get(index)
+                        : null;
+            } else {
+                current = current.type() == AttributeValue.Type.M ? current.m().get((String) element) : null;
+            }
+        }
+        return current;
+    }
+
+    /** Sets the value in a mutable copy of the item; intermediate maps and lists must exist. */
+    void set(Map<String, AttributeValue> item, AttributeValue value) {
+        if (isTopLevel()) {
+            item.put(attribute(), value);
+            return;
+        }
+        AttributeValue root = item.get(attribute());
+        if (root == null) {
+            throw invalid();
+        }
+        item.put(attribute(), setIn(root, 1, value));
+    }
+
+    void remove(Map<String, AttributeValue> item) {
+        if (isTopLevel()) {
+            item.remove(attribute());
+            return;
+        }
+        AttributeValue root = item.get(attribute());
+        if (root != null) {
+            AttributeValue updated = removeIn(root, 1);
+            if (updated != null) {
+                item.put(attribute(), updated);
+            }
+        }
+    }
+
+    private AttributeValue setIn(AttributeValue container, int position, AttributeValue value) {
+        Object element = elements.get(position);
+        boolean last = position == elements.size() - 1;
+
+        if (element instanceof Integer index) {
+            if (container.type() != AttributeValue.Type.L) {
+                throw invalid();
+            }
+            List<AttributeValue> list = new ArrayList<>(container.l());
+            if (last) {
+                if (index < list.size()) {
+                    list.set(index, value);
+                } else {
+                    list.add(value);
+                }
+            } else {
+                if (index >= list.size()) {
+                    throw invalid();
+                }
+                list.set(index, setIn(list.get(index), position + 1, value));
+            }
+            return AttributeValue.fromL(list);
+        }
+
+        if (container.type() != AttributeValue.Type.M) {
+            throw invalid();
+        }
+        Map<String, AttributeValue> map = new LinkedHashMap<>(container.m());
+        if (last) {
+            map.put((String) element, value);
+        } else {
+            AttributeValue child = map.get(element);
+            if (child == null) {
+                throw invalid();
+            }
+            map.put((String) element, setIn(child, position + 1, value));
+        }
+        return AttributeValue.fromM(map);
+    }
+
+    /** Returns the container without the element, or null when the path does not exist. */
+    private AttributeValue removeIn(AttributeValue container, int position) {
+        Object element = elements.get(position);
+        boolean last = position == elements.size() - 1;
+
+        if (element instanceof Integer index) {
+            if (container.type() != AttributeValue.Type.L || index >= container.l().size()) {
+                return null;
+            }
+            List<AttributeValue> list = new ArrayList<>(container.l());
+            if (last) {
+                list.remove((int) index);
+            } else {
+                AttributeValue child = removeIn(list.get(index), position + 1);
+                if (child == null) {
+                    return null;
+                }
+                list.set(index, child);
+            }
+            return AttributeValue.fromL(list);
+        }
+
+        if (container.type() != AttributeValue.Type.M || !container.m().containsKey(element)) {
+            return null;
+        }
+        Map<String, AttributeValue> map = new LinkedHashMap<>(container.m());
+        if (last) {
+            map.remove(element);
+        } else {
+            AttributeValue child = removeIn(map.get(element), position + 1);
+            if (child == null) {
+                return null;
+            }
+            map.put((String) element, child);
+        }
+        return AttributeValue.fromM(map);
+    }
+
+    private DynamoDbException invalid() {
+        return InMemoryErrors.validation(
+                "The document path provided in the update expression is invalid for update: " + this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Object element : elements) {
+            if (element instanceof Integer index) {
+                text.append('[').append(index).append(']');
+            } else {
+                if (!text.isEmpty()) {
+                    text.append('.');
+                }
+                text.append(element);
+            }
+        }
+        return text.toString();
+    }
+}
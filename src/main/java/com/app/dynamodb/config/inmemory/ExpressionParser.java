@@ -0,0 +1,347 @@
+package com.app.dynamodb.config.inmemory;
+
+import com.app.dynamodb.config.inmemory.Expressions.AddAction;
+import com.app.dynamodb.config.inmemory.Expressions.And;
+import com.app.dynamodb.config.inmemory.Expressions.Arithmetic;
+import com.app.dynamodb.config.inmemory.Expressions.Between;
+import com.app.dynamodb.config.inmemory.Expressions.Comparison;
+import com.app.dynamodb.config.inmemory.Expressions.Condition;
+import com.app.dynamodb.config.inmemory.Expressions.DeleteAction;
+import com.app.dynamodb.config.inmemory.Expressions.FunctionCall;
+import com.app.dynamodb.config.inmemory.Expressions.IfNotExists;
+import com.app.dynamodb.config.inmemory.Expressions.In;
+import com.app.dynamodb.config.inmemory.Expressions.ListAppend;
+import com.app.dynamodb.config.inmemory.Expressions.Not;
+import com.app.dynamodb.config.inmemory.Expressions.Operand;
+import com.app.dynamodb.config.inmemory.Expressions.Or;
+import com.app.dynamodb.config.inmemory.Expressions.PathOperand;
+import com.app.dynamodb.config.inmemory.Expressions.RemoveAction;
+import com.app.dynamodb.config.inmemory.Expressions.SetAction;
+import com.app.dynamodb.config.inmemory.Expressions.SizeOperand;
+import com.app.dynamodb.config.inmemory.Expressions.UpdateAction;
+import com.app.dynamodb.config.inmemory.Expressions.ValueOperand;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recursive-descent parser for the DynamoDB expression grammar. Placeholders are substituted
+ * while parsing, so the resulting tree only holds attribute names and values. Precedence follows
+ * the service: comparisons, then NOT, AND, OR.
+ */
+final class ExpressionParser {
+
+    private static final Set<String> COMPARATORS = Set.of("=", "<>", "<", "<=", ">", ">=");
+
+    private final String expression;
+    private final Map<String, String> names;
+    private final Map<String, AttributeValue> values;
+    private final List<String> tokens;
+    private int position;
+
+    private ExpressionParser(String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+        this.expression = expression;
+        this.names = names != null ? names : Map.of();
+        this.values = values != null ? values : Map.of();
+        this.tokens = tokenize(expression);
+    }
+
+    static Condition condition(String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+        ExpressionParser parser = new ExpressionParser(expression, names, values);
+        Condition condition = parser.parseOr();
+        parser.expectEnd();
+        return condition;
+    }
+
+    static List<UpdateAction> update(String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+        ExpressionParser parser = new ExpressionParser(expression, names, values);
+        List<UpdateAction> actions = parser.parseUpdate();
+        parser.expectEnd();
+        return actions;
+    }
+
+    static List<DocumentPath> projection(String expression, Map<String, String> names) {
+        ExpressionParser parser = new ExpressionParser(expression, names, Map.of());
+        List<DocumentPath> paths = new ArrayList<>();
+        do {
+            paths.add(parser.parsePath());
+        } while (parser.accept(","));
+        parser.expectEnd();
+        return paths;
+    }
+
+    private Condition parseOr() {
+        Condition left = parseAnd();
+        while (acceptKeyword("OR")) {
+            left = new Or(left, parseAnd());
+        }
+        return left;
+    }
+
+    private Condition parseAnd() {
+        Condition left = parseNot();
+        while (acceptKeyword("AND")) {
+            left = new And(left, parseNot());
+        }
+        return left;
+    }
+
+    private Condition parseNot() {
+        if (acceptKeyword("NOT")) {
+            return new Not(parseNot());
+        }
+        return parsePrimary();
+    }
+
+    private Condition parsePrimary() {
+        if (accept("(")) {
+            Condition condition = parseOr();
+            expect(")");
+            return condition;
+        }
+
+        String token = peek();
+        String function = token != null ? token.toLowerCase(Locale.ROOT) : "";
+        if (isNext(1, "(") && Set.of("attribute_exists", "attribute_not_exists", "attribute_type",
+                "begins_with", "contains").contains(function)) {
+            position++;
+            expect("(");
+            DocumentPath path = parsePath();
+            Operand argument = null;
+            if (!function.startsWith("attribute_") || function.equals("attribute_type")) {
+                expect(",");
+                argument = parseOperand();
+            }
+            expect(")");
+            return new FunctionCall(function, path, argument);
+        }
+
+        Operand left = parseOperand();
+        if (acceptKeyword("BETWEEN")) {
+            Operand low = parseOperand();
+            expectKeyword("AND");
+            return new Between(left, low, parseOperand());
+        }
+        if (acceptKeyword("IN")) {
+            expect("(");
+            List<Operand> candidates = new ArrayList<>();
+            do {
+                candidates.add(parseOperand());
+            } while (accept(","));
+            expect(")");
+            return new In(left, candidates);
+        }
+        String comparator = next();
+        if (!COMPARATORS.contains(comparator)) {
+            throw syntaxError(comparator);
+        }
+        return new Comparison(comparator, left, parseOperand());
+    }
+
+    private Operand parseOperand() {
+        String token = peek();
+        if (token == null) {
+            throw syntaxError("<EOF>");
+        }
+        if (token.startsWith(":")) {
+            position++;
+            AttributeValue value = values.get(token);
+            if (value == null) {
+                throw InMemoryErrors.validation(
+                        "An expression attribute value used in expression is not defined; attribute value: " + token);
+            }
+            return new ValueOperand(value);
+        }
+        if (token.equalsIgnoreCase("size") && isNext(1, "(")) {
+            position += 2;
+            DocumentPath path = parsePath();
+            expect(")");
+            return new SizeOperand(path);
+        }
+        return new PathOperand(parsePath());
+    }
+
+    private List<UpdateAction> parseUpdate() {
+        List<UpdateAction> actions = new ArrayList<>();
+        Set<String> clauses = new HashSet<>();
+        while (peek() != null) {
+            String clause = next().toUpperCase(Locale.ROOT);
+            if (!clauses.add(clause)) {
+                throw InMemoryErrors.validation("Invalid UpdateExpression: The \"" + clause
+                        + "\" section can only be used once in an update expression");
+            }
+            do {
+                switch (clause) {
+                    case "SET" -> {
+                        DocumentPath path = parsePath();
+                        expect("=");
+                        actions.add(new SetAction(path, parseSetValue()));
+                    }
+                    case "REMOVE" -> actions.add(new RemoveAction(parsePath()));
+                    case "ADD" -> actions.add(new AddAction(parsePath(), parseOperand()));
+                    case "DELETE" -> actions.add(new DeleteAction(parsePath(), parseOperand()));
+                    default -> throw syntaxError(clause);
+                }
+            } while (accept(","));
+        }
+        if (actions.isEmpty()) {
+            throw InMemoryErrors.validation("Invalid UpdateExpression: The expression can not be empty");
+        }
+        return actions;
+    }
+
+    private Operand parseSetValue() {
+        Operand left = parseSetOperand();
+        if (accept("+")) {
+            return new Arithmetic(left, '+', parseSetOperand());
+        }
+        if (accept("-")) {
+            return new Arithmetic(left, '-', parseSetOperand());
+        }
+        return left;
+    }
+
+    private Operand parseSetOperand() {
+        String token = peek();
+        if (token != null && isNext(1, "(")) {
+            if (token.equalsIgnoreCase("if_not_exists")) {
+                position += 2;
+                DocumentPath path = parsePath();
+                expect(",");
+                Operand fallback = parseSetValue();
+                expect(")");
+                return new IfNotExists(path, fallback);
+            }
+            if (token.equalsIgnoreCase("list_append")) {
+                position += 2;
+                Operand first = parseSetValue();
+                expect(",");
+                Operand second = parseSetValue();
+                expect(")");
+                return new ListAppend(first, second);
+            }
+        }
+        return parseOperand();
+    }
+
+    private DocumentPath parsePath() {
+        List<Object> elements = new ArrayList<>();
+        elements.add(name(next()));
+        while (true) {
+            if (accept(".")) {
+                elements.add(name(next()));
+            } else if (accept("[")) {
+                String index = next();
+                if (index == null || !index.chars().allMatch(Character::isDigit)) {
+                    throw syntaxError(index);
+                }
+                elements.add(Integer.parseInt(index));
+                expect("]");
+            } else {
+                return new DocumentPath(List.copyOf(elements));
+            }
+        }
+    }
+
+    private String name(String token) {
+        if (token == null || token.startsWith(":") || !Character.isLetterOrDigit(token.charAt(token.length() - 1))
+                && !token.endsWith("_")) {
+            throw syntaxError(token);
+        }
+        if (token.startsWith("#")) {
+            String name = names.get(token);
+            if (name == null) {
+                throw InMemoryErrors.validation(
+                        "An expression attribute name used in the document path is not defined; attribute name: " + token);
+            }
+            return name;
+        }
+        return token;
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private boolean isNext(int offset, String token) {
+        return position + offset < tokens.size() && tokens.get(position + offset).equals(token);
+    }
+
+    private String next() {
+        return position < tokens.size() ? tokens.get(position++) : null;
+    }
+
+    private boolean accept(String token) {
+        if (token.equals(peek())) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (keyword.equalsIgnoreCase(peek())) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw syntaxError(peek());
+        }
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw syntaxError(peek());
+        }
+    }
+
+    private void expectEnd() {
+        if (peek() != null) {
+            throw syntaxError(peek());
+        }
+    }
+
+    private RuntimeException syntaxError(String token) {
+        return InMemoryErrors.validation("Invalid expression: Syntax error; token: \""
+                + (token != null ? token : "<EOF>") + "\", expression: \"" + expression + "\"");
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '<' || c == '>') {
+                boolean twoChars = i + 1 < expression.length()
+                        && (expression.charAt(i + 1) == '=' || c == '<' && expression.charAt(i + 1) == '>');
+                tokens.add(expression.substring(i, twoChars ? i + 2 : i + 1));
+                i += twoChars ? 2 : 1;
+            } else if ("()[],.=+-".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '#' || c == ':' || Character.isLetterOrDigit(c) || c == '_') {
+                int start = i++;
+                while (i < expression.length()
+                        && (Character.isLetterOrDigit(expression.charAt(i)) || expression.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            } else {
+                throw InMemoryErrors.validation("Invalid expression: Syntax error; token: \"" + c
+                        + "\", expression: \"" + expression + "\"");
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,214 @@
+package com.app.dynamodb.config.inmemory;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** Syntax tree of condition, key-condition, filter and update expressions. */
+final class Expressions {
+
+    private Expressions() {
+    }
+
+    /** Evaluates to a value against an item, or null when a referenced attribute is missing. */
+    sealed interface Operand permits PathOperand, ValueOperand, SizeOperand, IfNotExists, ListAppend, Arithmetic {
+        AttributeValue resolve(Map<String, AttributeValue> item);
+    }
+
+    record PathOperand(DocumentPath path) implements Operand {
+        @Override
+        public AttributeValue resolve(Map<String, AttributeValue> item) {
+            return path.get(item);
+        }
+    }
+
+    record ValueOperand(AttributeValue value) implements Operand {
+        @Override
+        public AttributeValue resolve(Map<String, AttributeValue> item) {
+            return value;
+        }
+    }
+
+    record SizeOperand(DocumentPath path) implements Operand {
+        @Override
+        public AttributeValue resolve(Map<String, AttributeValue> item) {
+            AttributeValue value = path.get(item);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return AttributeValue.fromN(Long.toString(AttributeValues.sizeOf(value)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    record IfNotExists(DocumentPath path, Operand fallback) implements Operand {
+        @Override
+        public AttributeValue resolve(Map<String, AttributeValue> item) {
+            AttributeValue value = path.get(item);
+            return value != null ? value : fallback.resolve(item);
+        }
+    }
+
+    record ListAppend(Operand first, Operand second) implements Operand {
+        @Override
+        public AttributeValue resolve(Map<String, AttributeValue> item) {
+            AttributeValue a = require(first.resolve(item), "list_append");
+            AttributeValue b = require(second.resolve(item), "list_append");
+            if (a.type() != AttributeValue.Type.L || b.type() != AttributeValue.Type.L) {
+                throw InMemoryErrors.validation("Incorrect operand type for operator or function; operator or function: list_append");
+            }
+            List<AttributeValue> combined = new ArrayList<>(a.l());
+            combined.addAll(b.l());
+            return AttributeValue.fromL(combined);
+        }
+    }
+
+    record Arithmetic(Operand left, char operator, Operand right) implements Operand {
+        @Override
+        public AttributeValue resolve(Map<String, AttributeValue> item) {
+            AttributeValue a = require(left.resolve(item), String.valueOf(operator));
+            AttributeValue b = require(right.resolve(item), String.valueOf(operator));
+            if (a.type() != AttributeValue.Type.N || b.type() != AttributeValue.Type.N) {
+                throw InMemoryErrors.validation("Incorrect operand type for operator or function; operator: " + operator);
+            }
+            return operator == '+' ? AttributeValues.add(a, b) : AttributeValues.subtract(a, b);
+        }
+    }
+
+    sealed interface Condition permits Comparison, Between, In, FunctionCall, And, Or, Not {
+        boolean test(Map<String, AttributeValue> item);
+    }
+
+    record Comparison(String operator, Operand left, Operand right) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue a = left.resolve(item);
+            AttributeValue b = right.resolve(item);
+            if (a == null || b == null) {
+                return "<>".equals(operator);
+            }
+            return switch (operator) {
+                case "=" -> AttributeValues.isEqual(a, b);
+                case "<>" -> !AttributeValues.isEqual(a, b);
+                default -> {
+                    if (!AttributeValues.isComparable(a, b)) {
+                        yield false;
+                    }
+                    int order = AttributeValues.compare(a, b);
+                    yield switch (operator) {
+                        case "<" -> order < 0;
+                        case "<=" -> order <= 0;
+                        case ">" -> order > 0;
+                        case ">=" -> order >= 0;
+                        default -> throw new IllegalStateException(operator);
+                    };
+                }
+            };
+        }
+    }
+
+    record Between(Operand value, Operand low, Operand high) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue v = value.resolve(item);
+            AttributeValue l = low.resolve(item);
+            AttributeValue h = high.resolve(item);
+            if (v == null || l == null || h == null
+                    || !AttributeValues.isComparable(v, l) || !AttributeValues.isComparable(v, h)) {
+                return false;
+            }
+            return AttributeValues.compare(v, l) >= 0 && AttributeValues.compare(v, h) <= 0;
+        }
+    }
+
+    record In(Operand value, List<Operand> candidates) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue v = value.resolve(item);
+            if (v == null) {
+                return false;
+            }
+            for (Operand candidate : candidates) {
+                AttributeValue c = candidate.resolve(item);
+                if (c != null && AttributeValues.isEqual(v, c)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    record FunctionCall(String name, DocumentPath path, Operand argument) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue value = path.get(item);
+            return switch (name) {
+                case "attribute_exists" -> value != null;
+                case "attribute_not_exists" -> value == null;
+                case "attribute_type" -> {
+                    AttributeValue type = argument.resolve(item);
+                    yield value != null && type != null && AttributeValues.typeCode(value).equals(type.s());
+                }
+                case "begins_with" -> {
+                    AttributeValue prefix = argument.resolve(item);
+                    yield value != null && prefix != null && AttributeValues.beginsWith(value, prefix);
+                }
+                case "contains" -> {
+                    AttributeValue operand = argument.resolve(item);
+                    yield value != null && operand != null && AttributeValues.contains(value, operand);
+                }
+                default -> throw InMemoryErrors.validation("Invalid function name; function: " + name);
+            };
+        }
+    }
+
+    record And(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return left.test(item) && right.test(item);
+        }
+    }
+
+    record Or(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return left.test(item) || right.test(item);
+        }
+    }
+
+    record Not(Condition condition) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return !condition.test(item);
+        }
+    }
+
+    sealed interface UpdateAction permits SetAction, RemoveAction, AddAction, DeleteAction {
+        DocumentPath path();
+    }
+
+    record SetAction(DocumentPath path, Operand value) implements UpdateAction {
+    }
+
+    record RemoveAction(DocumentPath path) implements UpdateAction {
+    }
+
+    record AddAction(DocumentPath path, Operand value) implements UpdateAction {
+    }
+
+    record DeleteAction(DocumentPath path, Operand value) implements UpdateAction {
+    }
+
+    private static AttributeValue require(AttributeValue value, String operator) {
+        if (value == null) {
+            throw InMemoryErrors.validation(
+                    "The provided expression refers to an attribute that does not exist in the item; operator: " + operator);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,967 @@
+package com.app.dynamodb.config.inmemory;
+
+import com.app.dynamodb.config.inmemory.Expressions.AddAction;
+import com.app.dynamodb.config.inmemory.Expressions.Between;
+import com.app.dynamodb.config.inmemory.Expressions.Comparison;
+import com.app.dynamodb.config.inmemory.Expressions.Condition;
+import com.app.dynamodb.config.inmemory.Expressions.DeleteAction;
+import com.app.dynamodb.config.inmemory.Expressions.FunctionCall;
+import com.app.dynamodb.config.inmemory.Expressions.PathOperand;
+import com.app.dynamodb.config.inmemory.Expressions.RemoveAction;
+import com.app.dynamodb.config.inmemory.Expressions.SetAction;
+import com.app.dynamodb.config.inmemory.Expressions.UpdateAction;
+import com.app.dynamodb.config.inmemory.Expressions.ValueOperand;
+import com.app.dynamodb.config.inmemory.InMemoryTable.KeySchema;
+import com.app.dynamodb.config.inmemory.InMemoryTable.SecondaryIndex;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+import software.amazon.awssdk.services.dynamodb.waiters.DynamoDbWaiter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link DynamoDbClient} that keeps tables in process. The repositories, the enhanced client
+ * and {@code DynamoDbTemplate} all sit on this interface, so swapping the bean swaps the storage
+ * engine underneath every module without touching them.
+ * <p>
+ * Supported: item reads and writes with condition, update, filter, key-condition and projection
+ * expressions (plus the legacy {@code AttributeUpdates} map), paginated and segmented scans,
+ * queries over tables and secondary indexes in either direction, batch and transactional
+ * operations (transaction client tokens are honoured for ten minutes), table and index
+ * management, and time-to-live expiry by a background sweep. Pages stop at the service's 1 MB
+ * limit. Streams, capacity accounting and SDK interceptors are not emulated.
+ */
+@Slf4j
+public class InMemoryDynamoDbClient implements DynamoDbClient {
+
+    private static final long PAGE_LIMIT_BYTES = 1024 * 1024;
+    private static final Duration TRANSACTION_TOKEN_TTL = Duration.ofMinutes(10);
+
+    private final Map<String, InMemoryTable> tables = new ConcurrentHashMap<>();
+    private final Map<String, Instant> transactionTokens = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public InMemoryDynamoDbClient() {
+        this(Duration.ofSeconds(30));
+    }
+
+    public InMemoryDynamoDbClient(Duration timeToLiveSweepInterval) {
+        sweeper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("inmemory-dynamodb-ttl").daemon(true).factory());
+        sweeper.scheduleWithFixedDelay(this::expireItems, timeToLiveSweepInterval.toMillis(),
+                timeToLiveSweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public DynamoDbWaiter waiter() {
+        return DynamoDbWaiter.builder().client(this).build();
+    }
+
+    // ---- tables -------------------------------------------------------------------------------
+
+    @Override
+    public CreateTableResponse createTable(CreateTableRequest request) {
+        InMemoryTable table = new InMemoryTable(request.tableName(), KeySchema.of(request.keySchema()),
+                request.attributeDefinitions());
+        table.billingMode = request.billingMode();
+        table.streamSpecification = request.streamSpecification();
+        for (GlobalSecondaryIndex index : request.globalSecondaryIndexes()) {
+            table.addIndex(index.indexName(), KeySchema.of(index.keySchema()), index.projection(), true);
+        }
+        for (LocalSecondaryIndex index : request.localSecondaryIndexes()) {
+            table.addIndex(index.indexName(), KeySchema.of(index.keySchema()), index.projection(), false);
+        }
+        if (tables.putIfAbsent(request.tableName(), table) != null) {
+            throw InMemoryErrors.tableExists(request.tableName());
+        }
+        log.debug("Created in-memory table {}", request.tableName());
+        return CreateTableResponse.builder().tableDescription(table.describe()).build();
+    }
+
+    @Override
+    public DescribeTableResponse describeTable(DescribeTableRequest request) {
+        return DescribeTableResponse.builder().table(table(request.tableName()).describe()).build();
+    }
+
+    @Override
+    public UpdateTableResponse updateTable(UpdateTableRequest request) {
+        InMemoryTable table = table(request.tableName());
+        table.defineAttributes(request.attributeDefinitions());
+        if (request.billingMode() != null) {
+            table.billingMode = request.billingMode();
+        }
+        if (request.streamSpecification() != null) {
+            table.streamSpecification = request.streamSpecification();
+        }
+        for (GlobalSecondaryIndexUpdate update : request.globalSecondaryIndexUpdates()) {
+            if (update.create() != null) {
+                CreateGlobalSecondaryIndexAction create = update.create();
+                if (table.indexes.containsKey(create.indexName())) {
+                    throw InMemoryErrors.validation("Attempting to create an index which already exists");
+                }
+                table.addIndex(create.indexName(), KeySchema.of(create.keySchema()), create.projection(), true);
+            } else if (update.delete() != null) {
+                table.index(update.delete().indexName());
+                table.indexes.remove(update.delete().indexName());
+            }
+        }
+        return UpdateTableResponse.builder().tableDescription(table.describe()).build();
+    }
+
+    @Override
+    public DeleteTableResponse deleteTable(DeleteTableRequest request) {
+        InMemoryTable table = tables.remove(request.tableName());
+        if (table == null) {
+            throw InMemoryErrors.tableNotFound(request.tableName());
+        }
+        return DeleteTableResponse.builder().tableDescription(table.describe()).build();
+    }
+
+    @Override
+    public ListTablesResponse listTables(ListTablesRequest request) {
+        List<String> names = tables.keySet().stream().sorted()
+                .filter(name -> request.exclusiveStartTableName() == null
+                        || name.compareTo(request.exclusiveStartTableName()) > 0)
+                .toList();
+        int limit = request.limit() != null ? request.limit() : 100;
+        ListTablesResponse.Builder response = ListTablesResponse.builder()
+                .tableNames(names.subList(0, Math.min(limit, names.size())));
+        if (names.size() > limit) {
+            response.lastEvaluatedTableName(names.get(limit - 1));
+        }
+        return response.build();
+    }
+
+    @Override
+    public ListTablesResponse listTables() {
+        return listTables(ListTablesRequest.builder().build());
+    }
+
+    @Override
+    public DescribeTimeToLiveResponse describeTimeToLive(DescribeTimeToLiveRequest request) {
+        InMemoryTable table = table(request.tableName());
+        TimeToLiveDescription.Builder description = TimeToLiveDescription.builder();
+        if (table.timeToLiveAttribute != null) {
+            description.attributeName(table.timeToLiveAttribute).timeToLiveStatus(TimeToLiveStatus.ENABLED);
+        } else {
+            description.timeToLiveStatus(TimeToLiveStatus.DISABLED);
+        }
+        return DescribeTimeToLiveResponse.builder().timeToLiveDescription(description.build()).build();
+    }
+
+    @Override
+    public UpdateTimeToLiveResponse updateTimeToLive(UpdateTimeToLiveRequest request) {
+        InMemoryTable table = table(request.tableName());
+        TimeToLiveSpecification specification = request.timeToLiveSpecification();
+        table.timeToLiveAttribute = Boolean.TRUE.equals(specification.enabled()) ? specification.attributeName() : null;
+        return UpdateTimeToLiveResponse.builder().timeToLiveSpecification(specification).build();
+    }
+
+    /** Deletes items whose time-to-live attribute, in epoch seconds, has passed. */
+    public void expireItems() {
+        long now = Instant.now().getEpochSecond();
+        for (InMemoryTable table : tables.values()) {
+            String attribute = table.timeToLiveAttribute;
+            if (attribute == null) {
+                continue;
+            }
+            for (Map.Entry<ItemKey, Map<String, AttributeValue>> entry : table.items.entrySet()) {
+                AttributeValue expiry = entry.getValue().get(attribute);
+                if (expiry == null || expiry.type() != AttributeValue.Type.N
+                        || new BigDecimal(expiry.n()).longValue() > now) {
+                    continue;
+                }
+                ReentrantLock lock = table.lockFor(entry.getKey());
+                lock.lock();
+                try {
+                    Map<String, AttributeValue> current = table.get(entry.getKey());
+                    if (current != null && Objects.equals(current.get(attribute), expiry)) {
+                        table.write(entry.getKey(), null);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        long cutoff = System.currentTimeMillis() - TRANSACTION_TOKEN_TTL.toMillis();
+        transactionTokens.values().removeIf(seen -> seen.toEpochMilli() < cutoff);
+    }
+
+    // ---- single items -------------------------------------------------------------------------
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        InMemoryTable table = table(request.tableName());
+        Map<String, AttributeValue> item = table.get(table.keyOfKeyMap(request.key()));
+        if (item == null) {
+            return GetItemResponse.builder().build();
+        }
+        return GetItemResponse.builder()
+                .item(project(item, request.projectionExpression(), request.expressionAttributeNames(),
+                        request.attributesToGet()))
+                .build();
+    }
+
+    @Override
+    public PutItemResponse putItem(PutItemRequest request) {
+        rejectLegacyConditions(request.hasExpected());
+        InMemoryTable table = table(request.tableName());
+        Map<String, AttributeValue> item = Collections.unmodifiableMap(new LinkedHashMap<>(request.item()));
+        ItemKey key = table.keyOf(item);
+        Condition condition = condition(request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues());
+
+        Map<String, AttributeValue> previous;
+        ReentrantLock lock = table.lockFor(key);
+        lock.lock();
+        try {
+            previous = table.get(key);
+            requireCondition(condition, previous, request.returnValuesOnConditionCheckFailure());
+            table.write(key, item);
+        } finally {
+            lock.unlock();
+        }
+
+        PutItemResponse.Builder response = PutItemResponse.builder();
+        if (request.returnValues() == ReturnValue.ALL_OLD && previous != null) {
+            response.attributes(previous);
+        }
+        return response.build();
+    }
+
+    @Override
+    public UpdateItemResponse updateItem(UpdateItemRequest request) {
+        rejectLegacyConditions(request.hasExpected());
+        InMemoryTable table = table(request.tableName());
+        ItemKey key = table.keyOfKeyMap(request.key());
+        Condition condition = condition(request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues());
+        List<UpdateAction> actions = request.updateExpression() != null
+                ? ExpressionParser.update(request.updateExpression(), request.expressionAttributeNames(),
+                        request.expressionAttributeValues())
+                : null;
+
+        Map<String, AttributeValue> previous;
+        Map<String, AttributeValue> updated;
+        ReentrantLock lock = table.lockFor(key);
+        lock.lock();
+        try {
+            previous = table.get(key);
+            requireCondition(condition, previous, request.returnValuesOnConditionCheckFailure());
+            updated = actions != null
+                    ? applyUpdate(table, request.key(), previous, actions)
+                    : applyAttributeUpdates(table, request.key(), previous, request.attributeUpdates());
+            table.write(key, updated);
+        } finally {
+            lock.unlock();
+        }
+
+        UpdateItemResponse.Builder response = UpdateItemResponse.builder();
+        Map<String, AttributeValue> attributes = returnedAttributes(request.returnValues(), previous, updated,
+                touchedAttributes(actions, request.attributeUpdates()));
+        if (attributes != null) {
+            response.attributes(attributes);
+        }
+        return response.build();
+    }
+
+    @Override
+    public DeleteItemResponse deleteItem(DeleteItemRequest request) {
+        rejectLegacyConditions(request.hasExpected());
+        InMemoryTable table = table(request.tableName());
+        ItemKey key = table.keyOfKeyMap(request.key());
+        Condition condition = condition(request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues());
+
+        Map<String, AttributeValue> previous;
+        ReentrantLock lock = table.lockFor(key);
+        lock.lock();
+        try {
+            previous = table.get(key);
+            requireCondition(condition, previous, request.returnValuesOnConditionCheckFailure());
+            if (previous != null) {
+                table.write(key, null);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        DeleteItemResponse.Builder response = DeleteItemResponse.builder();
+        if (request.returnValues() == ReturnValue.ALL_OLD && previous != null) {
+            response.attributes(previous);
+        }
+        return response.build();
+    }
+
+    // ---- scan and query -----------------------------------------------------------------------
+
+    @Override
+    public ScanResponse scan(ScanRequest request) {
+        if (request.hasScanFilter()) {
+            throw InMemoryErrors.validation("ScanFilter is not supported; use FilterExpression");
+        }
+        InMemoryTable table = table(request.tableName());
+        SecondaryIndex index = request.indexName() != null ? table.index(request.indexName()) : null;
+        NavigableMap<ItemKey, Map<String, AttributeValue>> view = index != null ? index.entries : table.items;
+        if (request.hasExclusiveStartKey()) {
+            view = view.tailMap(index != null
+                    ? index.startKey(request.exclusiveStartKey())
+                    : table.keyOfKeyMap(request.exclusiveStartKey()), false);
+        }
+
+        Integer totalSegments = request.totalSegments();
+        Integer segment = request.segment();
+        if ((totalSegments == null) != (segment == null)
+                || totalSegments != null && (segment < 0 || segment >= totalSegments)) {
+            throw InMemoryErrors.validation("Segment and TotalSegments must be given together with Segment < TotalSegments");
+        }
+
+        Page page = readPage(table, index, view, null,
+                condition(request.filterExpression(), request.expressionAttributeNames(), request.expressionAttributeValues()),
+                request.limit(),
+                totalSegments != null ? item -> segmentOf(table, item, totalSegments) == segment : item -> true);
+
+        ScanResponse.Builder response = ScanResponse.builder()
+                .count(page.items().size())
+                .scannedCount(page.scanned());
+        if (request.select() != Select.COUNT) {
+            response.items(projectAll(page.items(), request.projectionExpression(),
+                    request.expressionAttributeNames(), request.attributesToGet()));
+        }
+        if (page.lastEvaluatedKey() != null) {
+            response.lastEvaluatedKey(page.lastEvaluatedKey());
+        }
+        return response.build();
+    }
+
+    @Override
+    public QueryResponse query(QueryRequest request) {
+        if (request.keyConditionExpression() == null) {
+            throw InMemoryErrors.validation("KeyConditionExpression is required; KeyConditions is not supported");
+        }
+        InMemoryTable table = table(request.tableName());
+        SecondaryIndex index = request.indexName() != null ? table.index(request.indexName()) : null;
+        KeySchema schema = index != null ? index.key : table.key;
+        int arity = index != null ? index.arity() : table.key.arity();
+
+        Condition keyCondition = ExpressionParser.condition(request.keyConditionExpression(),
+                request.expressionAttributeNames(), request.expressionAttributeValues());
+        KeyRange range = KeyRange.of(keyCondition, schema, arity, table);
+
+        NavigableMap<ItemKey, Map<String, AttributeValue>> view = (index != null ? index.entries : table.items)
+                .subMap(range.lower(), range.lowerInclusive(), range.upper(), range.upperInclusive());
+        if (Boolean.FALSE.equals(request.scanIndexForward())) {
+            view = view.descendingMap();
+        }
+        if (request.hasExclusiveStartKey()) {
+            view = view.tailMap(index != null
+                    ? index.startKey(request.exclusiveStartKey())
+                    : table.keyOfKeyMap(request.exclusiveStartKey()), false);
+        }
+
+        Page page = readPage(table, index, view, keyCondition,
+                condition(request.filterExpression(), request.expressionAttributeNames(), request.expressionAttributeValues()),
+                request.limit(), item -> true);
+
+        QueryResponse.Builder response = QueryResponse.builder()
+                .count(page.items().size())
+                .scannedCount(page.scanned());
+        if (request.select() != Select.COUNT) {
+            response.items(projectAll(page.items(), request.projectionExpression(),
+                    request.expressionAttributeNames(), request.attributesToGet()));
+        }
+        if (page.lastEvaluatedKey() != null) {
+            response.lastEvaluatedKey(page.lastEvaluatedKey());
+        }
+        return response.build();
+    }
+
+    private record Page(List<Map<String, AttributeValue>> items, int scanned, Map<String, AttributeValue> lastEvaluatedKey) {
+    }
+
+    private Page readPage(InMemoryTable table, SecondaryIndex index, NavigableMap<ItemKey, Map<String, AttributeValue>> view,
+                          Condition keyCondition, Condition filter, Integer limit,
+                          Predicate<Map<String, AttributeValue>> inSegment) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        int scanned = 0;
+        long bytes = 0;
+        ItemKey lastKey = null;
+        Map<String, AttributeValue> lastItem = null;
+
+        for (Map.Entry<ItemKey, Map<String, AttributeValue>> entry : view.entrySet()) {
+            Map<String, AttributeValue> stored = entry.getValue();
+            if (!inSegment.test(stored)) {
+                continue;
+            }
+            if ((limit != null && scanned >= limit) || bytes >= PAGE_LIMIT_BYTES) {
+                Map<String, AttributeValue> key = index != null ? index.startKeyMap(lastItem) : table.keyMap(lastItem);
+                return new Page(items, scanned, key);
+            }
+            scanned++;
+            bytes += AttributeValues.size(stored);
+            lastKey = entry.getKey();
+            lastItem = stored;
+
+            Map<String, AttributeValue> item = index != null ? index.project(stored) : stored;
+            if ((keyCondition == null || keyCondition.test(item)) && (filter == null || filter.test(item))) {
+                items.add(item);
+            }
+        }
+        return new Page(items, scanned, null);
+    }
+
+    private static int segmentOf(InMemoryTable table, Map<String, AttributeValue> item, int totalSegments) {
+        return Math.floorMod(AttributeValues.keyHash(item.get(table.key.hash())), totalSegments);
+    }
+
+    /** Sub-map bounds for a key condition: partition equality plus an optional sort-key predicate. */
+    private record KeyRange(ItemKey lower, boolean lowerInclusive, ItemKey upper, boolean upperInclusive) {
+
+        static KeyRange of(Condition condition, KeySchema schema, int arity, InMemoryTable table) {
+            AttributeValue hash = null;
+            Condition sortCondition = null;
+            for (Condition part : conjuncts(condition)) {
+                if (part instanceof Comparison(String operator, var left, var right) && operator.equals("=")
+                        && schema.hash().equals(pathOf(left)) && right instanceof ValueOperand(AttributeValue value)) {
+                    hash = value;
+                } else if (part instanceof Comparison(String operator, var left, var right) && operator.equals("=")
+                        && schema.hash().equals(pathOf(right)) && left instanceof ValueOperand(AttributeValue value)) {
+                    hash = value;
+                } else if (schema.range() != null && schema.range().equals(sortAttribute(part)) && sortCondition == null) {
+                    sortCondition = part;
+                } else {
+                    throw InMemoryErrors.validation("Query key condition not supported");
+                }
+            }
+            if (hash == null) {
+                throw InMemoryErrors.validation("Query condition missed key schema element: " + schema.hash());
+            }
+            if (!table.matchesType(schema.hash(), hash)) {
+                throw InMemoryErrors.validation("One or more parameter values were invalid: Condition parameter type does not match schema type");
+            }
+
+            ItemKey.Bound lowest = ItemKey.Bound.LOWEST;
+            ItemKey.Bound highest = ItemKey.Bound.HIGHEST;
+            if (sortCondition == null) {
+                return new KeyRange(ItemKey.prefix(arity, lowest, hash), true, ItemKey.prefix(arity, highest, hash), true);
+            }
+            return switch (sortCondition) {
+                case Comparison(String operator, var left, var right) -> {
+                    boolean flipped = left instanceof ValueOperand;
+                    AttributeValue value = ((ValueOperand) (flipped ? left : right)).value();
+                    String op = flipped ? flip(operator) : operator;
+                    yield switch (op) {
+                        case "=" -> new KeyRange(ItemKey.prefix(arity, lowest, hash, value), true,
+                                ItemKey.prefix(arity, highest, hash, value), true);
+                        case "<" -> new KeyRange(ItemKey.prefix(arity, lowest, hash), true,
+                                ItemKey.prefix(arity, lowest, hash, value), false);
+                        case "<=" -> new KeyRange(ItemKey.prefix(arity, lowest, hash), true,
+                                ItemKey.prefix(arity, highest, hash, value), true);
+                        case ">" -> new KeyRange(ItemKey.prefix(arity, highest, hash, value), false,
+                                ItemKey.prefix(arity, highest, hash), true);
+                        case ">=" -> new KeyRange(ItemKey.prefix(arity, lowest, hash, value), true,
+                                ItemKey.prefix(arity, highest, hash), true);
+                        default -> throw InMemoryErrors.validation("Unsupported operator on sort key: " + operator);
+                    };
+                }
+                case Between(var value, var low, var high) -> new KeyRange(
+                        ItemKey.prefix(arity, lowest, hash, ((ValueOperand) low).value()), true,
+                        ItemKey.prefix(arity, highest, hash, ((ValueOperand) high).value()), true);
+                case FunctionCall(String name, var path, var argument) when name.equals("begins_with") -> {
+                    AttributeValue prefix = ((ValueOperand) argument).value();
+                    if (prefix.type() != AttributeValue.Type.S) {
+                        yield new KeyRange(ItemKey.prefix(arity, lowest, hash), true, ItemKey.prefix(arity, highest, hash), true);
+                    }
+                    yield new KeyRange(ItemKey.prefix(arity, lowest, hash, prefix), true,
+                            ItemKey.prefix(arity, lowest, hash, AttributeValue.fromS(prefix.s() + Character.MAX_VALUE)), false);
+                }
+                default -> throw InMemoryErrors.validation("Query key condition not supported");
+            };
+        }
+
+        private static List<Condition> conjuncts(Condition condition) {
+            if (condition instanceof Expressions.And(Condition left, Condition right)) {
+                List<Condition> parts = new ArrayList<>(conjuncts(left));
+                parts.addAll(conjuncts(right));
+                return parts;
+            }
+            return List.of(condition);
+        }
+
+        private static String sortAttribute(Condition condition) {
+            return switch (condition) {
+                case Comparison(String operator, var left, var right) when !operator.equals("<>") -> {
+                    if (left instanceof PathOperand && right instanceof ValueOperand) {
+                        yield pathOf(left);
+                    }
+                    yield right instanceof PathOperand && left instanceof ValueOperand ? pathOf(right) : null;
+                }
+                case Between(var value, var low, var high) when low instanceof ValueOperand && high instanceof ValueOperand ->
+                        pathOf(value);
+                case FunctionCall(String name, var path, var argument)
+                        when name.equals("begins_with") && argument instanceof ValueOperand && path.isTopLevel() ->
+                        path.attribute();
+                default -> null;
+            };
+        }
+
+        private static String pathOf(Expressions.Operand operand) {
+            return operand instanceof PathOperand(DocumentPath path) && path.isTopLevel() ? path.attribute() : null;
+        }
+
+        private static String flip(String operator) {
+            return switch (operator) {
+                case "<" -> ">";
+                case "<=" -> ">=";
+                case ">" -> "<";
+                case ">=" -> "<=";
+                default -> operator;
+            };
+        }
+    }
+
+    // ---- batches ------------------------------------------------------------------------------
+
+    @Override
+    public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+        int keys = request.requestItems().values().stream().mapToInt(k -> k.keys().size()).sum();
+        if (keys > 100) {
+            throw InMemoryErrors.validation("Too many items requested for the BatchGetItem call");
+        }
+        Map<String, List<Map<String, AttributeValue>>> responses = new LinkedHashMap<>();
+        request.requestItems().forEach((tableName, keysAndAttributes) -> {
+            InMemoryTable table = table(tableName);
+            List<Map<String, AttributeValue>> found = new ArrayList<>();
+            for (Map<String, AttributeValue> key : keysAndAttributes.keys()) {
+                Map<String, AttributeValue> item = table.get(table.keyOfKeyMap(key));
+                if (item != null) {
+                    found.add(project(item, keysAndAttributes.projectionExpression(),
+                            keysAndAttributes.expressionAttributeNames(), keysAndAttributes.attributesToGet()));
+                }
+            }
+            responses.put(tableName, found);
+        });
+        return BatchGetItemResponse.builder().responses(responses).unprocessedKeys(Map.of()).build();
+    }
+
+    @Override
+    public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+        int writes = request.requestItems().values().stream().mapToInt(List::size).sum();
+        if (writes > 25) {
+            throw InMemoryErrors.validation("Too many items requested for the BatchWriteItem call");
+        }
+        for (Map.Entry<String, List<WriteRequest>> entry : request.requestItems().entrySet()) {
+            InMemoryTable table = table(entry.getKey());
+            Set<ItemKey> seen = new TreeSet<>(ItemKey.ORDER);
+            for (WriteRequest write : entry.getValue()) {
+                ItemKey key = write.putRequest() != null
+                        ? table.keyOf(write.putRequest().item())
+                        : table.keyOfKeyMap(write.deleteRequest().key());
+                if (!seen.add(key)) {
+                    throw InMemoryErrors.validation("Provided list of item keys contains duplicates");
+                }
+            }
+        }
+        request.requestItems().forEach((tableName, requests) -> {
+            InMemoryTable table = table(tableName);
+            for (WriteRequest write : requests) {
+                Map<String, AttributeValue> item = write.putRequest() != null
+                        ? Collections.unmodifiableMap(new LinkedHashMap<>(write.putRequest().item()))
+                        : null;
+                ItemKey key = item != null ? table.keyOf(item) : table.keyOfKeyMap(write.deleteRequest().key());
+                ReentrantLock lock = table.lockFor(key);
+                lock.lock();
+                try {
+                    table.write(key, item);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        return BatchWriteItemResponse.builder().unprocessedItems(Map.of()).build();
+    }
+
+    // ---- transactions -------------------------------------------------------------------------
+
+    private record TransactionStep(InMemoryTable table, ItemKey key, Condition condition,
+                                   ReturnValuesOnConditionCheckFailure returnOnFailure,
+                                   UnaryOperator<Map<String, AttributeValue>> mutation) {
+    }
+
+    @Override
+    public TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest request) {
+        if (request.transactItems().size() > 100) {
+            throw InMemoryErrors.validation("Member must have length less than or equal to 100");
+        }
+        String token = request.clientRequestToken();
+        if (token != null && transactionTokens.containsKey(token)) {
+            return TransactWriteItemsResponse.builder().build();
+        }
+
+        List<TransactionStep> steps = new ArrayList<>();
+        for (TransactWriteItem item : request.transactItems()) {
+            steps.add(toStep(item));
+        }
+        runTransaction(steps);
+        if (token != null) {
+            transactionTokens.put(token, Instant.now());
+        }
+        return TransactWriteItemsResponse.builder().build();
+    }
+
+    @Override
+    public TransactGetItemsResponse transactGetItems(TransactGetItemsRequest request) {
+        List<ItemResponse> responses = new ArrayList<>();
+        List<ReentrantLock> locks = lockAll(request.transactItems().stream()
+                .map(item -> {
+                    InMemoryTable table = table(item.get().tableName());
+                    return new TransactionStep(table, table.keyOfKeyMap(item.get().key()), null, null, null);
+                })
+                .toList());
+        try {
+            for (TransactGetItem item : request.transactItems()) {
+                InMemoryTable table = table(item.get().tableName());
+                Map<String, AttributeValue> found = table.get(table.keyOfKeyMap(item.get().key()));
+                responses.add(found == null
+                        ? ItemResponse.builder().build()
+                        : ItemResponse.builder().item(project(found, item.get().projectionExpression(),
+                                item.get().expressionAttributeNames(), List.of())).build());
+            }
+        } finally {
+            locks.reversed().forEach(ReentrantLock::unlock);
+        }
+        return TransactGetItemsResponse.builder().responses(responses).build();
+    }
+
+    private TransactionStep toStep(TransactWriteItem item) {
+        if (item.put() != null) {
+            Put put = item.put();
+            InMemoryTable table = table(put.tableName());
+            Map<String, AttributeValue> newItem = Collections.unmodifiableMap(new LinkedHashMap<>(put.item()));
+            return new TransactionStep(table, table.keyOf(newItem),
+                    condition(put.conditionExpression(), put.expressionAttributeNames(), put.expressionAttributeValues()),
+                    put.returnValuesOnConditionCheckFailure(), previous -> newItem);
+        }
+        if (item.update() != null) {
+            Update update = item.update();
+            InMemoryTable table = table(update.tableName());
+            List<UpdateAction> actions = ExpressionParser.update(update.updateExpression(),
+                    update.expressionAttributeNames(), update.expressionAttributeValues());
+            return new TransactionStep(table, table.keyOfKeyMap(update.key()),
+                    condition(update.conditionExpression(), update.expressionAttributeNames(), update.expressionAttributeValues()),
+                    update.returnValuesOnConditionCheckFailure(),
+                    previous -> applyUpdate(table, update.key(), previous, actions));
+        }
+        if (item.delete() != null) {
+            Delete delete = item.delete();
+            InMemoryTable table = table(delete.tableName());
+            return new TransactionStep(table, table.keyOfKeyMap(delete.key()),
+                    condition(delete.conditionExpression(), delete.expressionAttributeNames(), delete.expressionAttributeValues()),
+                    delete.returnValuesOnConditionCheckFailure(), previous -> null);
+        }
+        ConditionCheck check = item.conditionCheck();
+        InMemoryTable table = table(check.tableName());
+        return new TransactionStep(table, table.keyOfKeyMap(check.key()),
+                ExpressionParser.condition(check.conditionExpression(), check.expressionAttributeNames(),
+                        check.expressionAttributeValues()),
+                check.returnValuesOnConditionCheckFailure(), null);
+    }
+
+    /** Locks every touched item, checks every condition, then applies all writes or none. */
+    private void runTransaction(List<TransactionStep> steps) {
+        Set<String> distinct = new HashSet<>();
+        for (TransactionStep step : steps) {
+            if (!distinct.add(step.table().name + "/" + step.key())) {
+                throw InMemoryErrors.validation("Transaction request cannot include multiple operations on one item");
+            }
+        }
+
+        List<ReentrantLock> locks = lockAll(steps);
+        try {
+            List<CancellationReason> reasons = new ArrayList<>();
+            boolean failed = false;
+            for (TransactionStep step : steps) {
+                Map<String, AttributeValue> current = step.table().get(step.key());
+                if (step.condition() != null && !step.condition().test(current != null ? current : Map.of())) {
+                    failed = true;
+                    CancellationReason.Builder reason = CancellationReason.builder()
+                            .code("ConditionalCheckFailed")
+                            .message("The conditional request failed");
+                    if (step.returnOnFailure() == ReturnValuesOnConditionCheckFailure.ALL_OLD && current != null) {
+                        reason.item(current);
+                    }
+                    reasons.add(reason.build());
+                } else {
+                    reasons.add(CancellationReason.builder().code("None").build());
+                }
+            }
+            if (failed) {
+                throw InMemoryErrors.transactionCanceled(reasons);
+            }
+
+            List<Map<String, AttributeValue>> results = new ArrayList<>();
+            for (TransactionStep step : steps) {
+                results.add(step.mutation() != null ? step.mutation().apply(step.table().get(step.key())) : null);
+            }
+            for (int i = 0; i < steps.size(); i++) {
+                TransactionStep step = steps.get(i);
+                if (step.mutation() != null) {
+                    step.table().write(step.key(), results.get(i));
+                }
+            }
+        } finally {
+            locks.reversed().forEach(ReentrantLock::unlock);
+        }
+    }
+
+    /** Acquires the stripes in a global order (table name, stripe) so transactions cannot deadlock. */
+    private static List<ReentrantLock> lockAll(List<TransactionStep> steps) {
+        TreeMap<String, ReentrantLock> ordered = new TreeMap<>();
+        for (TransactionStep step : steps) {
+            int stripe = step.table().stripeOf(step.key());
+            ordered.putIfAbsent(step.table().name + "\u0000" + String.format("%03d", stripe), step.table().stripe(stripe));
+        }
+        List<ReentrantLock> locks = new ArrayList<>(ordered.values());
+        locks.forEach(ReentrantLock::lock);
+        return locks;
+    }
+
+    // ---- helpers ------------------------------------------------------------------------------
+
+    private InMemoryTable table(String tableName) {
+        InMemoryTable table = tables.get(tableName);
+        if (table == null) {
+            throw InMemoryErrors.tableNotFound(tableName);
+        }
+        return table;
+    }
+
+    private static Condition condition(String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+        return expression == null || expression.isBlank() ? null : ExpressionParser.condition(expression, names, values);
+    }
+
+    private static void requireCondition(Condition condition, Map<String, AttributeValue> current,
+                                         ReturnValuesOnConditionCheckFailure returnOnFailure) {
+        if (condition != null && !condition.test(current != null ? current : Map.of())) {
+            ConditionalCheckFailedException failure = InMemoryErrors.conditionFailed();
+            if (returnOnFailure == ReturnValuesOnConditionCheckFailure.ALL_OLD && current != null) {
+                throw failure.toBuilder().item(current).build();
+            }
+            throw failure;
+        }
+    }
+
+    private static void rejectLegacyConditions(boolean hasExpected) {
+        if (hasExpected) {
+            throw InMemoryErrors.validation("Expected is not supported; use ConditionExpression");
+        }
+    }
+
+    /** Applies an update expression; all operands are read from the item as it was before the update. */
+    private static Map<String, AttributeValue> applyUpdate(InMemoryTable table, Map<String, AttributeValue> key,
+                                                           Map<String, AttributeValue> previous, List<UpdateAction> actions) {
+        Map<String, AttributeValue> before = previous != null ? previous : key;
+        Map<String, AttributeValue> updated = new LinkedHashMap<>(before);
+
+        for (UpdateAction action : actions) {
+            if (table.key.contains(action.path().attribute())) {
+                throw InMemoryErrors.validation("One or more parameter values were invalid: Cannot update attribute "
+                        + action.path().attribute() + ". This attribute is part of the key");
+            }
+        }
+
+        List<Runnable> writes = new ArrayList<>();
+        for (UpdateAction action : actions) {
+            switch (action) {
+                case SetAction(DocumentPath path, var operand) -> {
+                    AttributeValue value = operand.resolve(before);
+                    if (value == null) {
+                        throw InMemoryErrors.validation(
+                                "The provided expression refers to an attribute that does not exist in the item");
+                    }
+                    writes.add(() -> path.set(updated, value));
+                }
+                case RemoveAction(DocumentPath path) -> writes.add(() -> path.remove(updated));
+                case AddAction(DocumentPath path, var operand) -> {
+                    AttributeValue addition = operand.resolve(before);
+                    AttributeValue existing = path.get(before);
+                    AttributeValue value;
+                    if (existing == null) {
+                        value = addition;
+                    } else if (existing.type() == AttributeValue.Type.N && addition.type() == AttributeValue.Type.N) {
+                        value = AttributeValues.add(existing, addition);
+                    } else if (existing.type() == addition.type()) {
+                        value = AttributeValues.union(existing, addition);
+                    } else {
+                        throw InMemoryErrors.validation("An operand in the update expression has an incorrect data type");
+                    }
+                    writes.add(() -> path.set(updated, value));
+                }
+                case DeleteAction(DocumentPath path, var operand) -> {
+                    AttributeValue removal = operand.resolve(before);
+                    AttributeValue existing = path.get(before);
+                    if (existing != null) {
+                        if (existing.type() != removal.type()) {
+                            throw InMemoryErrors.validation("An operand in the update expression has an incorrect data type");
+                        }
+                        AttributeValue remaining = AttributeValues.difference(existing, removal);
+                        writes.add(() -> {
+                            if (remaining == null) {
+                                path.remove(updated);
+                            } else {
+                                path.set(updated, remaining);
+                            }
+                        });
+                    }
+                }
+            }
+        }
+        writes.forEach(Runnable::run);
+        return Collections.unmodifiableMap(updated);
+    }
+
+    private static Map<String, AttributeValue> applyAttributeUpdates(InMemoryTable table, Map<String, AttributeValue> key,
+                                                                     Map<String, AttributeValue> previous,
+                                                                     Map<String, AttributeValueUpdate> updates) {
+        Map<String, AttributeValue> updated = new LinkedHashMap<>(previous != null ? previous : key);
+        for (Map.Entry<String, AttributeValueUpdate> entry : updates.entrySet()) {
+            String attribute = entry.getKey();
+            if (table.key.contains(attribute)) {
+                throw InMemoryErrors.validation("One or more parameter values were invalid: Cannot update attribute "
+                        + attribute + ". This attribute is part of the key");
+            }
+            AttributeValueUpdate update = entry.getValue();
+            AttributeAction action = update.action() != null ? update.action() : AttributeAction.PUT;
+            AttributeValue existing = updated.get(attribute);
+            switch (action) {
+                case PUT -> updated.put(attribute, update.value());
+                case DELETE -> {
+                    if (update.value() == null || existing == null) {
+                        updated.remove(attribute);
+                    } else {
+                        AttributeValue remaining = AttributeValues.difference(existing, update.value());
+                        if (remaining == null) {
+                            updated.remove(attribute);
+                        } else {
+                            updated.put(attribute, remaining);
+                        }
+                    }
+                }
+                case ADD -> updated.put(attribute, existing == null
+                        ? update.value()
+                        : existing.type() == AttributeValue.Type.N
+                                ? AttributeValues.add(existing, update.value())
+                                : AttributeValues.union(existing, update.value()));
+                default -> throw InMemoryErrors.validation("Unsupported attribute action " + action);
+            }
+        }
+        return Collections.unmodifiableMap(updated);
+    }
+
+    private static Set<String> touchedAttributes(List<UpdateAction> actions, Map<String, AttributeValueUpdate> updates) {
+        if (actions != null) {
+            return actions.stream().map(action -> action.path().attribute()).collect(Collectors.toSet());
+        }
+        return updates.keySet();
+    }
+
+    private static Map<String, AttributeValue> returnedAttributes(ReturnValue returnValue,
+                                                                  Map<String, AttributeValue> previous,
+                                                                  Map<String, AttributeValue> updated,
+                                                                  Set<String> touched) {
+        if (returnValue == null) {
+            return null;
+        }
+        return switch (returnValue) {
+            case ALL_OLD -> previous;
+            case ALL_NEW -> updated;
+            case UPDATED_OLD -> previous == null ? null : onlyAttributes(previous, touched);
+            case UPDATED_NEW -> onlyAttributes(updated, touched);
+            default -> null;
+        };
+    }
+
+    private static Map<String, AttributeValue> onlyAttributes(Map<String, AttributeValue> item, Set<String> attributes) {
+        Map<String, AttributeValue> selected = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            AttributeValue value = item.get(attribute);
+            if (value != null) {
+                selected.put(attribute, value);
+            }
+        }
+        return selected;
+    }
+
+    private static List<Map<String, AttributeValue>> projectAll(List<Map<String, AttributeValue>> items, String expression,
+                                                                Map<String, String> names, List<String> attributesToGet) {
+        if (expression == null && attributesToGet.isEmpty()) {
+            return items;
+        }
+        return items.stream().map(item -> project(item, expression, names, attributesToGet)).toList();
+    }
+
+    private static Map<String, AttributeValue> project(Map<String, AttributeValue> item, String expression,
+                                                       Map<String, String> names, List<String> attributesToGet) {
+        List<DocumentPath> paths;
+        if (expression != null) {
+            paths = ExpressionParser.projection(expression, names);
+        } else if (!attributesToGet.isEmpty()) {
+            paths = attributesToGet.stream().map(name -> new DocumentPath(List.of(name))).toList();
+        } else {
+            return item;
+        }
+
+        Map<String, AttributeValue> projected = new LinkedHashMap<>();
+        for (DocumentPath path : paths.stream().sorted(Comparator.comparingInt(p -> p.elements().size())).toList()) {
+            AttributeValue value = path.get(item);
+            if (value == null) {
+                continue;
+            }
+            if (path.isTopLevel()) {
+                projected.put(path.attribute(), value);
+            } else {
+                projected.putIfAbsent(path.attribute(), skeleton(item.get(path.attribute())));
+                path.set(projected, value);
+            }
+        }
+        return projected;
+    }
+
+    /** An empty container of the same kind, so nested projections can be written into it. */
+    private static AttributeValue skeleton(AttributeValue value) {
+        return value.type() == AttributeValue.Type.M ? AttributeValue.fromM(Map.of()) : AttributeValue.fromL(List.of());
+    }
+}
@@ -0,0 +1,70 @@
+package com.app.dynamodb.config.inmemory;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.List;
+
+/** Builds the exceptions the real service returns, with matching status and error codes. */
+final class InMemoryErrors {
+
+    private static final String SERVICE = "DynamoDb";
+
+    private InMemoryErrors() {
+    }
+
+    static DynamoDbException validation(String message) {
+        return (DynamoDbException) DynamoDbException.builder()
+                .message(message)
+                .statusCode(400)
+                .awsErrorDetails(details("ValidationException", message))
+                .build();
+    }
+
+    static ResourceNotFoundException tableNotFound(String tableName) {
+        String message = "Requested resource not found: Table: " + tableName + " not found";
+        return ResourceNotFoundException.builder()
+                .message(message)
+                .statusCode(400)
+                .awsErrorDetails(details("ResourceNotFoundException", message))
+                .build();
+    }
+
+    static ResourceInUseException tableExists(String tableName) {
+        String message = "Table already exists: " + tableName;
+        return ResourceInUseException.builder()
+                .message(message)
+                .statusCode(400)
+                .awsErrorDetails(details("ResourceInUseException", message))
+                .build();
+    }
+
+    static ConditionalCheckFailedException conditionFailed() {
+        String message = "The conditional request failed";
+        return ConditionalCheckFailedException.builder()
+                .message(message)
+                .statusCode(400)
+                .awsErrorDetails(details("ConditionalCheckFailedException", message))
+                .build();
+    }
+
+    static TransactionCanceledException transactionCanceled(List<CancellationReason> reasons) {
+        String codes = reasons.stream().map(CancellationReason::code).toList().toString();
+        String message = "Transaction cancelled, please refer cancellation reasons for specific reasons " + codes;
+        return TransactionCanceledException.builder()
+                .message(message)
+                .statusCode(400)
+                .awsErrorDetails(details("TransactionCanceledException", message))
+                .cancellationReasons(reasons)
+                .build();
+    }
+
+    private static AwsErrorDetails details(String code, String message) {
+        return AwsErrorDetails.builder().serviceName(SERVICE).errorCode(code).errorMessage(message).build();
+    }
+}
@@ -0,0 +1,376 @@
+package com.app.dynamodb.config.inmemory;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.BillingModeSummary;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.IndexStatus;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.LocalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.StreamSpecification;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One table: items in a sorted concurrent map keyed by primary key, plus one sorted map per
+ * secondary index holding the items that carry the index key. Reads are lock-free over
+ * immutable item maps; writes to an item and its index entries happen under that item's lock
+ * stripe, so conditional writes and index maintenance are atomic per item.
+ */
+final class InMemoryTable {
+
+    private static final int STRIPES = 64;
+
+    /** Partition and optional sort key attribute names. */
+    record KeySchema(String hash, String range) {
+
+        static KeySchema of(List<KeySchemaElement> elements) {
+            String hash = null;
+            String range = null;
+            for (KeySchemaElement element : elements) {
+                if (element.keyType() == KeyType.HASH) {
+                    hash = element.attributeName();
+                } else {
+                    range = element.attributeName();
+                }
+            }
+            if (hash == null) {
+                throw InMemoryErrors.validation("1 validation error detected: KeySchema must contain a HASH key");
+            }
+            return new KeySchema(hash, range);
+        }
+
+        int arity() {
+            return range == null ? 1 : 2;
+        }
+
+        boolean contains(String attribute) {
+            return attribute.equals(hash) || attribute.equals(range);
+        }
+
+        List<KeySchemaElement> toElements() {
+            List<KeySchemaElement> elements = new ArrayList<>();
+            elements.add(KeySchemaElement.builder().attributeName(hash).keyType(KeyType.HASH).build());
+            if (range != null) {
+                elements.add(KeySchemaElement.builder().attributeName(range).keyType(KeyType.RANGE).build());
+            }
+            return elements;
+        }
+    }
+
+    final class SecondaryIndex {
+
+        final String name;
+        final KeySchema key;
+        final Projection projection;
+        final boolean global;
+        final ConcurrentSkipListMap<ItemKey, Map<String, AttributeValue>> entries =
+                new ConcurrentSkipListMap<>(ItemKey.ORDER);
+
+        SecondaryIndex(String name, KeySchema key, Projection projection, boolean global) {
+            this.name = name;
+            this.key = key;
+            this.projection = projection;
+            this.global = global;
+        }
+
+        int arity() {
+            return key.arity() + InMemoryTable.this.key.arity();
+        }
+
+        /** Index key followed by the table key, or null when the item is not in this (sparse) index. */
+        ItemKey entryKey(Map<String, AttributeValue> item) {
+            List<Object> parts = new ArrayList<>(arity());
+            for (String attribute : indexAttributes()) {
+                AttributeValue value = item.get(attribute);
+                if (value == null || !matchesType(attribute, value)) {
+                    return null;
+                }
+                parts.add(value);
+            }
+            return new ItemKey(parts);
+        }
+
+        /** Key of a LastEvaluatedKey or ExclusiveStartKey map, which carries index and table keys. */
+        ItemKey startKey(Map<String, AttributeValue> key) {
+            ItemKey entryKey = entryKey(key);
+            if (entryKey == null) {
+                throw InMemoryErrors.validation("The provided starting key is invalid");
+            }
+            return entryKey;
+        }
+
+        Map<String, AttributeValue> startKeyMap(Map<String, AttributeValue> item) {
+            Map<String, AttributeValue> key = new LinkedHashMap<>();
+            for (String attribute : indexAttributes()) {
+                key.put(attribute, item.get(attribute));
+            }
+            return key;
+        }
+
+        Map<String, AttributeValue> project(Map<String, AttributeValue> item) {
+            ProjectionType type = projection != null && projection.projectionType() != null
+                    ? projection.projectionType()
+                    : ProjectionType.ALL;
+            if (type == ProjectionType.ALL) {
+                return item;
+            }
+            Map<String, AttributeValue> projected = startKeyMap(item);
+            if (type == ProjectionType.INCLUDE && projection.hasNonKeyAttributes()) {
+                for (String attribute : projection.nonKeyAttributes()) {
+                    AttributeValue value = item.get(attribute);
+                    if (value != null) {
+                        projected.put(attribute, value);
+                    }
+                }
+            }
+            return projected;
+        }
+
+        private List<String> indexAttributes() {
+            List<String> attributes = new ArrayList<>(4);
+            attributes.add(key.hash());
+            if (key.range() != null) {
+                attributes.add(key.range());
+            }
+            attributes.add(InMemoryTable.this.key.hash());
+            if (InMemoryTable.this.key.range() != null) {
+                attributes.add(InMemoryTable.this.key.range());
+            }
+            return attributes;
+        }
+
+        void update(Map<String, AttributeValue> previous, Map<String, AttributeValue> current) {
+            ItemKey previousKey = previous != null ? entryKey(previous) : null;
+            ItemKey currentKey = current != null ? entryKey(current) : null;
+            if (previousKey != null && (currentKey == null || ItemKey.ORDER.compare(previousKey, currentKey) != 0)) {
+                entries.remove(previousKey);
+            }
+            if (currentKey != null) {
+                entries.put(currentKey, current);
+            }
+        }
+    }
+
+    final String name;
+    final KeySchema key;
+    final Instant createdAt = Instant.now();
+    final ConcurrentSkipListMap<ItemKey, Map<String, AttributeValue>> items = new ConcurrentSkipListMap<>(ItemKey.ORDER);
+    final Map<String, SecondaryIndex> indexes = new ConcurrentHashMap<>();
+    final Map<String, ScalarAttributeType> attributeTypes = new ConcurrentHashMap<>();
+
+    volatile BillingMode billingMode;
+    volatile StreamSpecification streamSpecification;
+    volatile String timeToLiveAttribute;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final AtomicLong itemCount = new AtomicLong();
+    private final AtomicLong sizeBytes = new AtomicLong();
+
+    InMemoryTable(String name, KeySchema key, Collection<AttributeDefinition> definitions) {
+        this.name = name;
+        this.key = key;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        defineAttributes(definitions);
+        requireDefined(key);
+    }
+
+    void defineAttributes(Collection<AttributeDefinition> definitions) {
+        for (AttributeDefinition definition : definitions) {
+            attributeTypes.put(definition.attributeName(), definition.attributeType());
+        }
+    }
+
+    void requireDefined(KeySchema schema) {
+        for (String attribute : schema.range() == null
+                ? List.of(schema.hash())
+                : List.of(schema.hash(), schema.range())) {
+            if (!attributeTypes.containsKey(attribute)) {
+                throw InMemoryErrors.validation("One or more parameter values were invalid: "
+                        + "Some index key attributes are not defined in AttributeDefinitions. Keys: [" + attribute + "]");
+            }
+        }
+    }
+
+    SecondaryIndex index(String indexName) {
+        SecondaryIndex index = indexes.get(indexName);
+        if (index == null) {
+            throw InMemoryErrors.validation("The table does not have the specified index: " + indexName);
+        }
+        return index;
+    }
+
+    /** Adds an index and backfills it from the current items. */
+    void addIndex(String indexName, KeySchema schema, Projection projection, boolean global) {
+        requireDefined(schema);
+        SecondaryIndex index = new SecondaryIndex(indexName, schema, projection, global);
+        indexes.put(indexName, index);
+        for (ItemKey itemKey : items.keySet()) {
+            ReentrantLock lock = lockFor(itemKey);
+            lock.lock();
+            try {
+                Map<String, AttributeValue> item = items.get(itemKey);
+                if (item != null) {
+                    index.update(null, item);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Primary key of a full item; every key attribute must be present with its declared type. */
+    ItemKey keyOf(Map<String, AttributeValue> item) {
+        AttributeValue hash = requireKeyAttribute(item, key.hash());
+        if (key.range() == null) {
+            return ItemKey.of(hash);
+        }
+        return ItemKey.of(hash, requireKeyAttribute(item, key.range()));
+    }
+
+    /** Primary key of a key-only map such as GetItem's Key; extra attributes are rejected. */
+    ItemKey keyOfKeyMap(Map<String, AttributeValue> keyMap) {
+        if (keyMap.size() != key.arity()) {
+            throw InMemoryErrors.validation("The provided key element does not match the schema");
+        }
+        return keyOf(keyMap);
+    }
+
+    Map<String, AttributeValue> keyMap(Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> keyMap = new LinkedHashMap<>();
+        keyMap.put(key.hash(), item.get(key.hash()));
+        if (key.range() != null) {
+            keyMap.put(key.range(), item.get(key.range()));
+        }
+        return keyMap;
+    }
+
+    boolean matchesType(String attribute, AttributeValue value) {
+        ScalarAttributeType type = attributeTypes.get(attribute);
+        if (type == null) {
+            return false;
+        }
+        return switch (type) {
+            case S -> value.type() == AttributeValue.Type.S;
+            case N -> value.type() == AttributeValue.Type.N;
+            case B -> value.type() == AttributeValue.Type.B;
+            default -> false;
+        };
+    }
+
+    ReentrantLock lockFor(ItemKey itemKey) {
+        return stripes[stripeOf(itemKey)];
+    }
+
+    int stripeOf(ItemKey itemKey) {
+        return itemKey.stripe(STRIPES);
+    }
+
+    ReentrantLock stripe(int index) {
+        return stripes[index];
+    }
+
+    Map<String, AttributeValue> get(ItemKey itemKey) {
+        return items.get(itemKey);
+    }
+
+    /** Stores or, with a null item, deletes; the caller holds the item's stripe lock. */
+    Map<String, AttributeValue> write(ItemKey itemKey, Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> previous = item != null ? items.put(itemKey, item) : items.remove(itemKey);
+        if (previous == null && item != null) {
+            itemCount.incrementAndGet();
+        } else if (previous != null && item == null) {
+            itemCount.decrementAndGet();
+        }
+        sizeBytes.addAndGet((item != null ? AttributeValues.size(item) : 0)
+                - (previous != null ? AttributeValues.size(previous) : 0));
+        for (SecondaryIndex index : indexes.values()) {
+            index.update(previous, item);
+        }
+        return previous;
+    }
+
+    TableDescription describe() {
+        List<GlobalSecondaryIndexDescription> globalIndexes = new ArrayList<>();
+        List<LocalSecondaryIndexDescription> localIndexes = new ArrayList<>();
+        for (SecondaryIndex index : indexes.values()) {
+            if (index.global) {
+                globalIndexes.add(GlobalSecondaryIndexDescription.builder()
+                        .indexName(index.name)
+                        .keySchema(index.key.toElements())
+                        .projection(index.projection)
+                        .indexStatus(IndexStatus.ACTIVE)
+                        .itemCount((long) index.entries.size())
+                        .build());
+            } else {
+                localIndexes.add(LocalSecondaryIndexDescription.builder()
+                        .indexName(index.name)
+                        .keySchema(index.key.toElements())
+                        .projection(index.projection)
+                        .itemCount((long) index.entries.size())
+                        .build());
+            }
+        }
+
+        TableDescription.Builder description = TableDescription.builder()
+                .tableName(name)
+                .tableArn("arn:aws:dynamodb:local:000000000000:table/" + name)
+                .tableStatus(TableStatus.ACTIVE)
+                .creationDateTime(createdAt)
+                .keySchema(key.toElements())
+                .attributeDefinitions(attributeTypes.entrySet().stream()
+                        .map(e -> AttributeDefinition.builder().attributeName(e.getKey()).attributeType(e.getValue()).build())
+                        .toList())
+                .itemCount(itemCount.get())
+                .tableSizeBytes(sizeBytes.get())
+                .billingModeSummary(BillingModeSummary.builder()
+                        .billingMode(billingMode != null ? billingMode : BillingMode.PAY_PER_REQUEST)
+                        .build());
+        if (!globalIndexes.isEmpty()) {
+            description.globalSecondaryIndexes(globalIndexes);
+        }
+        if (!localIndexes.isEmpty()) {
+            description.localSecondaryIndexes(localIndexes);
+        }
+        if (streamSpecification != null && Boolean.TRUE.equals(streamSpecification.streamEnabled())) {
+            description.streamSpecification(streamSpecification)
+                    .latestStreamArn("arn:aws:dynamodb:local:000000000000:table/" + name + "/stream/" + createdAt);
+        }
+        return description.build();
+    }
+
+    private AttributeValue requireKeyAttribute(Map<String, AttributeValue> item, String attribute) {
+        AttributeValue value = item.get(attribute);
+        if (value == null) {
+            throw InMemoryErrors.validation("One or more parameter values were invalid: Missing the key "
+                    + attribute + " in the item");
+        }
+        if (!matchesType(attribute, value)) {
+            throw InMemoryErrors.validation("One or more parameter values were invalid: Type mismatch for key "
+                    + attribute + " expected: " + attributeTypes.get(attribute) + " actual: " + value.type());
+        }
+        if (value.type() == AttributeValue.Type.S && value.s().isEmpty()) {
+            throw InMemoryErrors.validation("One or more parameter values are not valid. The AttributeValue for a key"
+                    + " attribute cannot contain an empty string value. Key: " + attribute);
+        }
+        return value;
+    }
+}
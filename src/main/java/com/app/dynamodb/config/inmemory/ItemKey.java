@@ -0,0 +1,63 @@
+package com.app.dynamodb.config.inmemory;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Position of an item in a table or index map: the key values in schema order (an index key is
+ * followed by the table key). {@link Bound} parts only appear in range bounds for sub-map views.
+ */
+record ItemKey(List<Object> parts) {
+
+    enum Bound { LOWEST, HIGHEST }
+
+    static final Comparator<ItemKey> ORDER = ItemKey::compare;
+
+    static ItemKey of(Object... parts) {
+        return new ItemKey(Arrays.asList(parts));
+    }
+
+    /** The key followed by {@code bound} in every remaining position up to {@code arity}. */
+    static ItemKey prefix(int arity, Bound bound, Object... parts) {
+        Object[] filled = new Object[arity];
+        Arrays.fill(filled, bound);
+        System.arraycopy(parts, 0, filled, 0, parts.length);
+        return new ItemKey(Arrays.asList(filled));
+    }
+
+    AttributeValue part(int index) {
+        return (AttributeValue) parts.get(index);
+    }
+
+    int stripe(int stripes) {
+        int hash = 1;
+        for (Object part : parts) {
+            hash = 31 * hash + AttributeValues.keyHash((AttributeValue) part);
+        }
+        return Math.floorMod(hash, stripes);
+    }
+
+    private static int compare(ItemKey a, ItemKey b) {
+        int length = Math.min(a.parts.size(), b.parts.size());
+        for (int i = 0; i < length; i++) {
+            int order = comparePart(a.parts.get(i), b.parts.get(i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(a.parts.size(), b.parts.size());
+    }
+
+    private static int comparePart(Object a, Object b) {
+        if (a instanceof Bound boundA) {
+            return b instanceof Bound boundB ? boundA.compareTo(boundB) : boundA == Bound.LOWEST ? -1 : 1;
+        }
+        if (b instanceof Bound boundB) {
+            return boundB == Bound.LOWEST ? 1 : -1;
+        }
+        return AttributeValues.compare((AttributeValue) a, (AttributeValue) b);
+    }
+}
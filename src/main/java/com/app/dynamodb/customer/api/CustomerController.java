@@ -1,16 +1,24 @@
 package com.app.dynamodb.customer.api;
 
 import com.app.dynamodb.customer.domain.Customer;
+import com.app.dynamodb.customer.domain.CustomerWithOrders;
 import com.app.dynamodb.customer.service.CustomerService;
+import com.app.dynamodb.shared.bulk.ImportJob;
+import com.app.dynamodb.shared.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
 
 @Slf4j
@@ -30,12 +38,34 @@ public class CustomerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import customers from an NDJSON or CSV file")
+    public ResponseEntity<ImportJob.Status> importCustomers(@RequestParam("file") MultipartFile file) {
+        log.info("REST request to import customers");
+        ImportJob job = service.importCustomers(file);
+        return ResponseEntity.accepted()
+                .location(URI.create("/actuator/dynamodbimport/" + job.getId()))
+                .body(job.status(false));
+    }
+
     @GetMapping("/{customerId}")
-    @Operation(summary = "Get customer by ID")
-    public ResponseEntity<Customer> getCustomer(@PathVariable String customerId) {
+    @Operation(summary = "Get customer by ID; answers 304 when If-None-Match names the current version")
+    public ResponseEntity<Customer> getCustomer(@PathVariable String customerId, WebRequest request) {
         log.info("REST request to get customer: {}", customerId);
+        if (ETags.notModified(request, () -> service.getCustomerVersion(customerId))) {
+            return null;
+        }
         Customer customer = service.getCustomer(customerId);
-        return ResponseEntity.ok(customer);
+        return ResponseEntity.ok().eTag(ETags.of(customer.getUpdatedAt())).body(customer);
+    }
+
+    @GetMapping(value = "/{customerId}", params = "include=orders")
+    @Operation(summary = "Get customer by ID with its most recent orders, newest first")
+    public ResponseEntity<CustomerWithOrders> getCustomerWithOrders(
+            @PathVariable String customerId,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("REST request to get customer with orders: {}", customerId);
+        return ResponseEntity.ok(service.getCustomerWithOrders(customerId, limit));
     }
 
     @GetMapping
@@ -47,13 +77,14 @@ public class CustomerController {
     }
 
     @PutMapping("/{customerId}")
-    @Operation(summary = "Update customer")
+    @Operation(summary = "Update customer; with If-Match only if it still has that version")
     public ResponseEntity<Customer> updateCustomer(
             @PathVariable String customerId,
-            @Valid @RequestBody Customer customer) {
+            @Valid @RequestBody Customer customer,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to update customer: {}", customerId);
-        Customer updated = service.updateCustomer(customerId, customer);
-        return ResponseEntity.ok(updated);
+        Customer updated = service.updateCustomer(customerId, customer, ETags.ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getUpdatedAt())).body(updated);
     }
 
     @DeleteMapping("/{customerId}")
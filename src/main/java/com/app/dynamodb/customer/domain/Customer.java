@@ -1,5 +1,9 @@
 package com.app.dynamodb.customer.domain;
 
+import com.app.dynamodb.shared.compression.CompressedText;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,16 +12,53 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Customer {
     private String customerId;
+    @NotBlank
+    @Email
     private String email;
+    @NotBlank
     private String firstName;
+    @NotBlank
     private String lastName;
     private String phone;
-    private String address;
+    private CompressedText address;
     private Instant createdAt;
     private Instant updatedAt;
+
+    public String getAddress() {
+        return address == null ? null : address.toString();
+    }
+
+    public void setAddress(String address) {
+        this.address = CompressedText.of(address);
+    }
+
+    /** Stored form of the address, compressed once it is large; see {@link CompressedText}. */
+    @JsonIgnore
+    public CompressedText getStoredAddress() {
+        return address;
+    }
+
+    @JsonIgnore
+    public void setStoredAddress(CompressedText address) {
+        this.address = address;
+    }
+
+    public static class CustomerBuilder {
+
+        public CustomerBuilder address(String address) {
+            this.address = CompressedText.of(address);
+            return this;
+        }
+
+        /** Used by {@code toBuilder()}, so copies share the stored form instead of decompressing it. */
+        private CustomerBuilder address(CompressedText address) {
+            this.address = address;
+            return this;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.app.dynamodb.customer.domain;
+
+import com.app.dynamodb.order.domain.Order;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/** A customer with its most recent orders, newest first; serialized as the customer plus an {@code orders} list. */
+public record CustomerWithOrders(@JsonUnwrapped Customer customer, List<Order> orders) {
+}
@@ -1,5 +1,6 @@
 @org.springframework.modulith.ApplicationModule(
         displayName = "Customer Management",
-        allowedDependencies = {"shared", "shared::exception"}
+        allowedDependencies = {"shared", "shared::exception", "shared::concurrent", "shared::bulk", "shared::web", "shared::journal", "shared::compression",
+                "order::domain", "order::service"}
 )
 package com.app.dynamodb.customer;
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.app.dynamodb.customer.repository;
+
+import com.app.dynamodb.customer.domain.Customer;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.compression.CompressedText;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.exception.PreconditionFailedException;
+import com.app.dynamodb.shared.journal.JournaledWrite;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import com.app.dynamodb.shared.web.IfMatch;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * What both layouts share; they differ in the table, the key of a customer and what else the table
+ * holds.
+ */
+@Slf4j
+@RequiredArgsConstructor(access = AccessLevel.PROTECTED)
+abstract class AbstractCustomerRepository implements CustomerRepository {
+
+    protected final DynamoDbClient dynamoDbClient;
+    protected final AwsConfigProperties properties;
+    private final SingleFlights singleFlights;
+    protected final HedgedReads hedgedReads;
+    private final WriteJournal writeJournal;
+
+    protected abstract Map<String, AttributeValue> key(String customerId);
+
+    protected abstract List<String> keyAttributes();
+
+    /** A scan of the customers, leaving out other items of their table. */
+    protected abstract ScanRequest scanCustomers();
+
+    @Override
+    public Customer save(Customer customer) {
+        log.debug("Saving customer: {}", customer.getCustomerId());
+
+        if (customer.getCreatedAt() == null) {
+            customer.setCreatedAt(Instant.now());
+        }
+        customer.setUpdatedAt(Instant.now());
+
+        Map<String, AttributeValue> item = toItem(customer);
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(getTableName())
+                .item(item)
+                .build();
+
+        writeJournal.execute(customer, () -> dynamoDbClient.putItem(request),
+                () -> JournaledWrite.put(getTableName(), keyAttributes(), item));
+        log.info("Customer saved successfully: {}", customer.getCustomerId());
+
+        return customer;
+    }
+
+    @Override
+    public Map<String, AttributeValue> toItem(Customer customer) {
+        Map<String, AttributeValue> item = new HashMap<>(key(customer.getCustomerId()));
+        item.put("customerId", AttributeValue.builder().s(customer.getCustomerId()).build());
+        item.put("email", AttributeValue.builder().s(customer.getEmail()).build());
+        item.put("firstName", AttributeValue.builder().s(customer.getFirstName()).build());
+        item.put("lastName", AttributeValue.builder().s(customer.getLastName()).build());
+
+        if (customer.getPhone() != null) {
+            item.put("phone", AttributeValue.builder().s(customer.getPhone()).build());
+        }
+        if (customer.getStoredAddress() != null) {
+            item.put("address", customer.getStoredAddress().toAttributeValue());
+        }
+
+        item.put("createdAt", AttributeValue.builder().s(customer.getCreatedAt().toString()).build());
+        item.put("updatedAt", AttributeValue.builder().s(customer.getUpdatedAt().toString()).build());
+        return item;
+    }
+
+    @Override
+    public Optional<Customer> findById(String customerId) {
+        return singleFlights.execute("customer.findById", customerId,
+                () -> hedgedReads.execute("customer.findById", () -> loadById(customerId)), found -> found.map(customer -> customer.toBuilder().build()));
+    }
+
+    private Optional<Customer> loadById(String customerId) {
+        log.debug("Finding customer by ID: {}", customerId);
+
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(getTableName())
+                .key(key(customerId))
+                .build();
+
+        GetItemResponse response = dynamoDbClient.getItem(request);
+
+        if (!response.hasItem()) {
+            log.debug("Customer not found: {}", customerId);
+            return Optional.empty();
+        }
+
+        return Optional.of(mapToCustomer(response.item()));
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        log.debug("Finding all customers");
+
+        ScanResponse response = dynamoDbClient.scan(scanCustomers());
+
+        List<Customer> customers = response.items().stream()
+                .map(this::mapToCustomer)
+                .collect(Collectors.toList());
+
+        log.info("Found {} customers", customers.size());
+        return customers;
+    }
+
+    @Override
+    public Customer update(Customer customer) {
+        return update(customer, null);
+    }
+
+    /** Written as an update expression because a condition cannot be combined with legacy AttributeUpdates. */
+    @Override
+    public Customer update(Customer customer, IfMatch ifMatch) {
+        log.debug("Updating customer: {}", customer.getCustomerId());
+
+        customer.setUpdatedAt(Instant.now());
+
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        StringJoiner expression = new StringJoiner(", ", "SET ", "");
+        setAttribute(expression, names, values, "email", customer.getEmail());
+        setAttribute(expression, names, values, "firstName", customer.getFirstName());
+        setAttribute(expression, names, values, "lastName", customer.getLastName());
+
+        if (customer.getPhone() != null) {
+            setAttribute(expression, names, values, "phone", customer.getPhone());
+        }
+        if (customer.getStoredAddress() != null) {
+            setAttribute(expression, names, values, "address", customer.getStoredAddress().toAttributeValue());
+        }
+
+        setAttribute(expression, names, values, "updatedAt", customer.getUpdatedAt().toString());
+
+        UpdateItemRequest.Builder request = UpdateItemRequest.builder()
+                .tableName(getTableName())
+                .key(key(customer.getCustomerId()))
+                .updateExpression(expression.toString());
+
+        if (ifMatch != null) {
+            names.putAll(ifMatch.expressionNames("customerId"));
+            values.putAll(ifMatch.expressionValues());
+            request.conditionExpression(ifMatch.conditionExpression());
+        }
+
+        UpdateItemRequest update = request
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build();
+        if (ifMatch == null) {
+            writeJournal.execute(customer, () -> dynamoDbClient.updateItem(update),
+                    () -> JournaledWrite.merge(getTableName(), keyAttributes(), mergedItem(customer, names, values)));
+        } else {
+            try {
+                dynamoDbClient.updateItem(update);
+            } catch (ConditionalCheckFailedException e) {
+                throw new PreconditionFailedException("Customer " + customer.getCustomerId() + " was modified");
+            }
+        }
+        log.info("Customer updated successfully: {}", customer.getCustomerId());
+
+        return customer;
+    }
+
+    /** The key and the attributes an unconditional update sets, as the journal replays them. */
+    private Map<String, AttributeValue> mergedItem(Customer customer, Map<String, String> names,
+                                                   Map<String, AttributeValue> values) {
+        Map<String, AttributeValue> item = new HashMap<>(key(customer.getCustomerId()));
+        names.values().forEach(attribute -> item.put(attribute, values.get(":" + attribute)));
+        return item;
+    }
+
+    private static void setAttribute(StringJoiner expression, Map<String, String> names,
+                                     Map<String, AttributeValue> values, String attribute, String value) {
+        setAttribute(expression, names, values, attribute, AttributeValue.builder().s(value).build());
+    }
+
+    private static void setAttribute(StringJoiner expression, Map<String, String> names,
+                                     Map<String, AttributeValue> values, String attribute, AttributeValue value) {
+        expression.add("#" + attribute + " = :" + attribute);
+        names.put("#" + attribute, attribute);
+        values.put(":" + attribute, value);
+    }
+
+    @Override
+    public Optional<Instant> findVersion(String customerId) {
+        GetItemResponse response = hedgedReads.execute("customer.findVersion", () -> dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(getTableName())
+                .key(key(customerId))
+                .projectionExpression("updatedAt")
+                .build()));
+
+        if (!response.hasItem() || response.item().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.parse(response.item().get("updatedAt").s()));
+    }
+
+    @Override
+    public void deleteById(String customerId) {
+        log.debug("Deleting customer: {}", customerId);
+
+        DeleteItemRequest request = DeleteItemRequest.builder()
+                .tableName(getTableName())
+                .key(key(customerId))
+                .build();
+
+        dynamoDbClient.deleteItem(request);
+        log.info("Customer deleted successfully: {}", customerId);
+    }
+
+    protected Customer mapToCustomer(Map<String, AttributeValue> item) {
+        Customer customer = Customer.builder()
+                .customerId(item.get("customerId").s())
+                .email(item.get("email").s())
+                .firstName(item.get("firstName").s())
+                .lastName(item.get("lastName").s())
+                .phone(item.containsKey("phone") ? item.get("phone").s() : null)
+                .createdAt(Instant.parse(item.get("createdAt").s()))
+                .updatedAt(Instant.parse(item.get("updatedAt").s()))
+                .build();
+        // Kept in its stored form and only decompressed when the address is read
+        customer.setStoredAddress(CompressedText.fromAttributeValue(item.get("address")));
+        return customer;
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.dynamodb.customer.repository;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * Picks the customer repository of {@code aws.dynamodb.layout} when the bean is created, not through a
+ * bean condition: an AOT-processed build evaluates conditions once at build time, and would keep the
+ * build's layout whatever the container is started with.
+ */
+@Slf4j
+@Configuration
+class CustomerRepositoryConfig {
+
+    @Bean
+    public CustomerRepository customerRepository(DynamoDbClient dynamoDbClient, AwsConfigProperties properties,
+                                                 SingleFlights singleFlights, HedgedReads hedgedReads,
+                                                 WriteJournal writeJournal) {
+        log.info("Initializing customer repository for the {} layout", properties.getLayout());
+        return switch (properties.getLayout()) {
+            case MULTI_TABLE -> new MultiTableCustomerRepository(dynamoDbClient, properties, singleFlights, hedgedReads,
+                    writeJournal);
+            case SINGLE_TABLE -> new SingleTableCustomerRepository(dynamoDbClient, properties, singleFlights, hedgedReads,
+                    writeJournal);
+        };
+    }
+}
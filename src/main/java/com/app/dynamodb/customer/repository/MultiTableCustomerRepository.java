@@ -0,0 +1,48 @@
+package com.app.dynamodb.customer.repository;
+
+import com.app.dynamodb.customer.domain.CustomerWithOrders;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/** Customers in a table of their own, keyed by customer ID. */
+public class MultiTableCustomerRepository extends AbstractCustomerRepository {
+
+    public MultiTableCustomerRepository(DynamoDbClient dynamoDbClient, AwsConfigProperties properties,
+                                        SingleFlights singleFlights, HedgedReads hedgedReads, WriteJournal writeJournal) {
+        super(dynamoDbClient, properties, singleFlights, hedgedReads, writeJournal);
+    }
+
+    @Override
+    public String getTableName() {
+        return properties.getTables().get("customer");
+    }
+
+    @Override
+    protected Map<String, AttributeValue> key(String customerId) {
+        return Map.of("customerId", AttributeValue.fromS(customerId));
+    }
+
+    @Override
+    protected List<String> keyAttributes() {
+        return List.of("customerId");
+    }
+
+    @Override
+    protected ScanRequest scanCustomers() {
+        return ScanRequest.builder().tableName(getTableName()).build();
+    }
+
+    @Override
+    public Optional<CustomerWithOrders> findWithOrders(String customerId, int limit) {
+        throw new IllegalStateException("Customers are stored with their orders only in the single-table layout");
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.dynamodb.customer.repository;
+
+import com.app.dynamodb.customer.domain.CustomerWithOrders;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.CustomerOrderKeys;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/** Customers as the profile item of their partition of the table shared with their orders (see {@link CustomerOrderKeys}). */
+@Slf4j
+public class SingleTableCustomerRepository extends AbstractCustomerRepository {
+
+    private static final TableSchema<Order> ORDER_SCHEMA = TableSchema.fromBean(Order.class);
+
+    public SingleTableCustomerRepository(DynamoDbClient dynamoDbClient, AwsConfigProperties properties,
+                                         SingleFlights singleFlights, HedgedReads hedgedReads, WriteJournal writeJournal) {
+        super(dynamoDbClient, properties, singleFlights, hedgedReads, writeJournal);
+    }
+
+    @Override
+    public String getTableName() {
+        return properties.getTables().get(CustomerOrderKeys.TABLE);
+    }
+
+    @Override
+    protected Map<String, AttributeValue> key(String customerId) {
+        return Map.of(CustomerOrderKeys.PARTITION_KEY, AttributeValue.fromS(CustomerOrderKeys.partitionKey(customerId)),
+                CustomerOrderKeys.SORT_KEY, AttributeValue.fromS(CustomerOrderKeys.PROFILE));
+    }
+
+    @Override
+    protected List<String> keyAttributes() {
+        return List.of(CustomerOrderKeys.PARTITION_KEY, CustomerOrderKeys.SORT_KEY);
+    }
+
+    /** Leaves out the orders stored next to the profiles. */
+    @Override
+    protected ScanRequest scanCustomers() {
+        return ScanRequest.builder()
+                .tableName(getTableName())
+                .filterExpression("#sk = :profile")
+                .expressionAttributeNames(Map.of("#sk", CustomerOrderKeys.SORT_KEY))
+                .expressionAttributeValues(Map.of(":profile", AttributeValue.fromS(CustomerOrderKeys.PROFILE)))
+                .build();
+    }
+
+    /**
+     * One query on the customer's partition: sorting descending puts the profile first, followed by the
+     * orders newest first.
+     */
+    @Override
+    public Optional<CustomerWithOrders> findWithOrders(String customerId, int limit) {
+        log.debug("Finding customer {} with up to {} orders", customerId, limit);
+
+        QueryResponse response = hedgedReads.execute("customer.findWithOrders", () -> dynamoDbClient.query(QueryRequest.builder()
+                .tableName(getTableName())
+                .keyConditionExpression("#pk = :pk")
+                .expressionAttributeNames(Map.of("#pk", CustomerOrderKeys.PARTITION_KEY))
+                .expressionAttributeValues(Map.of(":pk", AttributeValue.fromS(CustomerOrderKeys.partitionKey(customerId))))
+                .scanIndexForward(false)
+                .limit(limit + 1)
+                .build()));
+
+        List<Map<String, AttributeValue>> items = response.items();
+        if (items.isEmpty() || !CustomerOrderKeys.PROFILE.equals(items.getFirst().get(CustomerOrderKeys.SORT_KEY).s())) {
+            log.debug("Customer not found: {}", customerId);
+            return Optional.empty();
+        }
+
+        List<Order> orders = items.subList(1, items.size()).stream()
+                .map(ORDER_SCHEMA::mapToItem)
+                .toList();
+        return Optional.of(new CustomerWithOrders(mapToCustomer(items.getFirst()), orders));
+    }
+}
@@ -1,12 +1,23 @@
 package com.app.dynamodb.customer.service;
 
 import com.app.dynamodb.customer.domain.Customer;
+import com.app.dynamodb.customer.domain.CustomerWithOrders;
 import com.app.dynamodb.customer.repository.CustomerRepository;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.service.OrderService;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.bulk.BulkImporter;
+import com.app.dynamodb.shared.bulk.ImportJob;
+import com.app.dynamodb.shared.bulk.ImportTarget;
 import com.app.dynamodb.shared.exception.ResourceNotFoundException;
+import com.app.dynamodb.shared.web.IfMatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,7 +26,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CustomerService {
 
+    static final int MAX_INCLUDED_ORDERS = 100;
+
     private final CustomerRepository repository;
+    private final BulkImporter bulkImporter;
+    private final OrderService orderService;
+    private final AwsConfigProperties properties;
 
     public Customer createCustomer(Customer customer) {
         log.info("Creating new customer with email: {}", customer.getEmail());
@@ -23,18 +39,63 @@ public class CustomerService {
         return repository.save(customer);
     }
 
+    public ImportJob importCustomers(MultipartFile file) {
+        log.info("Importing customers from {}", file.getOriginalFilename());
+        return bulkImporter.submit(file, new ImportTarget<>("customer", repository.getTableName(), Customer.class,
+                List.of("customerId"), this::prepareImport, repository::toItem));
+    }
+
+    private Customer prepareImport(Customer customer) {
+        if (customer.getCustomerId() == null) {
+            customer.setCustomerId(UUID.randomUUID().toString());
+        }
+        Instant now = Instant.now();
+        if (customer.getCreatedAt() == null) {
+            customer.setCreatedAt(now);
+        }
+        customer.setUpdatedAt(now);
+        return customer;
+    }
+
     public Customer getCustomer(String customerId) {
         log.debug("Retrieving customer: {}", customerId);
         return repository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + customerId));
     }
 
+    /**
+     * The customer with its {@code limit} most recent orders. In the single-table layout this is one query;
+     * otherwise the customer and its orders are read from their own tables.
+     */
+    public CustomerWithOrders getCustomerWithOrders(String customerId, int limit) {
+        log.debug("Retrieving customer {} with orders", customerId);
+        if (limit < 1 || limit > MAX_INCLUDED_ORDERS) {
+            throw new IllegalArgumentException("Order limit must be between 1 and " + MAX_INCLUDED_ORDERS);
+        }
+        if (properties.isSingleTable()) {
+            return repository.findWithOrders(customerId, limit)
+                    .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + customerId));
+        }
+
+        Customer customer = getCustomer(customerId);
+        List<Order> orders = orderService.getOrdersByCustomerId(customerId).stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
+                .limit(limit)
+                .toList();
+        return new CustomerWithOrders(customer, orders);
+    }
+
     public List<Customer> getAllCustomers() {
         log.info("Retrieving all customers");
         return repository.findAll();
     }
 
-    public Customer updateCustomer(String customerId, Customer customer) {
+    public Instant getCustomerVersion(String customerId) {
+        return repository.findVersion(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + customerId));
+    }
+
+    public Customer updateCustomer(String customerId, Customer customer, IfMatch ifMatch) {
         log.info("Updating customer: {}", customerId);
         
         // Verify customer exists
@@ -42,7 +103,7 @@ public class CustomerService {
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + customerId));
         
         customer.setCustomerId(customerId);
-        return repository.update(customer);
+        return repository.update(customer, ifMatch);
     }
 
     public void deleteCustomer(String customerId) {
@@ -1,16 +1,25 @@
 package com.app.dynamodb.order.api;
 
 import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.OrderPage;
+import com.app.dynamodb.order.domain.OrderStats;
+import com.app.dynamodb.order.feed.OrderChangeFeed;
 import com.app.dynamodb.order.service.OrderService;
+import com.app.dynamodb.shared.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.util.List;
 
 @Slf4j
@@ -20,7 +29,10 @@ import java.util.List;
 @Tag(name = "Order", description = "Order management API using DynamoDB Enhanced Client")
 public class OrderController {
 
+    static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
     private final OrderService service;
+    private final OrderChangeFeed changeFeed;
 
     @PostMapping
     @Operation(summary = "Create a new order")
@@ -30,20 +42,52 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @GetMapping("/stats")
+    @Operation(summary = "Get order counts and amounts per hour or day, split by status")
+    public ResponseEntity<OrderStats> getOrderStats(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "HOUR") OrderStats.Granularity granularity) {
+        log.info("REST request to get order stats");
+        return ResponseEntity.ok(service.getOrderStats(from, to, granularity));
+    }
+
     @GetMapping("/{orderId}")
-    @Operation(summary = "Get order by ID")
-    public ResponseEntity<Order> getOrder(@PathVariable String orderId) {
+    @Operation(summary = "Get order by ID; answers 304 when If-None-Match names the current version")
+    public ResponseEntity<Order> getOrder(@PathVariable String orderId, WebRequest request) {
         log.info("REST request to get order: {}", orderId);
+        if (ETags.notModified(request, () -> service.getOrderVersion(orderId))) {
+            return null;
+        }
         Order order = service.getOrder(orderId);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok().eTag(ETags.of(order.getUpdatedAt())).body(order);
+    }
+
+    @GetMapping(path = "/{orderId}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the order as it changes, starting with its current state")
+    public SseEmitter streamOrderChanges(@PathVariable String orderId) {
+        log.info("REST request to stream changes of order: {}", orderId);
+        return changeFeed.subscribe(orderId);
     }
 
     @GetMapping
-    @Operation(summary = "Get all orders")
+    @Operation(summary = "Get all orders, or filter by customer or by status (oldest first, paged)")
     public ResponseEntity<List<Order>> getAllOrders(
-            @RequestParam(required = false) String customerId) {
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String pageToken) {
         log.info("REST request to get all orders");
         
+        if (status != null) {
+            OrderPage page = service.getOrdersByStatus(status, size, pageToken);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextPageToken() != null) {
+                response.header(NEXT_PAGE_TOKEN_HEADER, page.nextPageToken());
+            }
+            return response.body(page.items());
+        }
+
         if (customerId != null) {
             List<Order> orders = service.getOrdersByCustomerId(customerId);
             return ResponseEntity.ok(orders);
@@ -54,23 +98,25 @@ public class OrderController {
     }
 
     @PutMapping("/{orderId}")
-    @Operation(summary = "Update order")
+    @Operation(summary = "Update order; with If-Match only if it still has that version")
     public ResponseEntity<Order> updateOrder(
             @PathVariable String orderId,
-            @Valid @RequestBody Order order) {
+            @Valid @RequestBody Order order,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to update order: {}", orderId);
-        Order updated = service.updateOrder(orderId, order);
-        return ResponseEntity.ok(updated);
+        Order updated = service.updateOrder(orderId, order, ETags.ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getUpdatedAt())).body(updated);
     }
 
     @PatchMapping("/{orderId}/status")
     @Operation(summary = "Update order status")
     public ResponseEntity<Order> updateOrderStatus(
             @PathVariable String orderId,
-            @RequestParam Order.OrderStatus status) {
+            @RequestParam Order.OrderStatus status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to update order status: {} to {}", orderId, status);
-        Order updated = service.updateOrderStatus(orderId, status);
-        return ResponseEntity.ok(updated);
+        Order updated = service.updateOrderStatus(orderId, status, ETags.ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getUpdatedAt())).body(updated);
     }
 
     @DeleteMapping("/{orderId}")
@@ -0,0 +1,41 @@
+package com.app.dynamodb.order.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.order.archive")
+public class OrderArchiveProperties {
+
+    /** Run the archiver; TTL is set on terminal orders either way. */
+    private boolean enabled = true;
+
+    /** How long a delivered or cancelled order stays in the orders table before it expires. */
+    private Duration retention = Duration.ofDays(30);
+
+    /** How long before expiry an order becomes eligible for archiving; must cover archiver outages. */
+    private Duration archiveAhead = Duration.ofDays(3);
+
+    /** Time between archiver runs. */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /** Orders copied per BatchWriteItem call, at most 25. */
+    private int batchSize = 25;
+
+    /** BatchWriteItem calls per batch before the remaining orders are left for the next run. */
+    private int batchMaxAttempts = 5;
+
+    private Duration batchBackoffBase = Duration.ofMillis(50);
+
+    /**
+     * Also archive terminal orders written before the archive index existed, found by scanning the table.
+     * Every run then reads every order; turn it off once the retention period has passed.
+     */
+    private boolean backfill = false;
+}
@@ -0,0 +1,122 @@
+package com.app.dynamodb.order.archive;
+
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.repository.OrderArchiveRepository;
+import com.app.dynamodb.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Copies delivered and cancelled orders to the archive table before their TTL removes them from the
+ * orders table. Orders are read from the sparse archive index, written in batches and then marked as
+ * archived, which takes them out of the index; an order changed in between is not marked and is copied
+ * again on the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderArchiver {
+
+    private final OrderRepository repository;
+    private final OrderArchiveRepository archive;
+    private final OrderArchiveProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.order.archive.interval:PT5M}")
+    public void run() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try {
+            archiveDue(Instant.now());
+        } catch (Exception e) {
+            log.error("Order archiving failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Archives every terminal order expiring within the archive-ahead window and returns how many. */
+    public int archiveDue(Instant now) {
+        long start = System.nanoTime();
+        Instant cutoff = now.plus(properties.getArchiveAhead());
+        int archived = archive(repository.streamArchivable(cutoff), now);
+        if (properties.isBackfill()) {
+            archived += archive(repository.streamUnindexedArchivable(cutoff), now);
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} orders in {} ms", archived, (System.nanoTime() - start) / 1_000_000);
+        }
+        return archived;
+    }
+
+    private int archive(Stream<Order> orders, Instant now) {
+        int archived = 0;
+        try (orders) {
+            Iterator<Order> due = orders.iterator();
+            List<Order> batch = new ArrayList<>();
+            while (due.hasNext()) {
+                batch.add(due.next());
+                if (batch.size() == properties.getBatchSize() || !due.hasNext()) {
+                    archived += archiveBatch(batch, now);
+                    batch = new ArrayList<>();
+                }
+            }
+        }
+        return archived;
+    }
+
+    private int archiveBatch(List<Order> batch, Instant archivedAt) {
+        List<Order> pending = batch.stream()
+                .map(order -> order.toBuilder()
+                        .expiresAt(null)
+                        .statusShard(null)
+                        .statusSortKey(null)
+                        .archiveShard(null)
+                        .archivedAt(archivedAt)
+                        .build())
+                .toList();
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            pending = archive.saveBatch(pending);
+            if (pending.isEmpty()) {
+                break;
+            }
+            if (attempt >= properties.getBatchMaxAttempts()) {
+                log.warn("{} orders still unprocessed after {} attempts, leaving them for the next run",
+                        pending.size(), attempt);
+                break;
+            }
+            sleep(attempt);
+        }
+
+        Set<String> unprocessed = pending.stream().map(Order::getOrderId).collect(Collectors.toSet());
+        int archived = 0;
+        for (Order order : batch) {
+            if (!unprocessed.contains(order.getOrderId()) && repository.markArchived(order, archivedAt)) {
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    private void sleep(int attempt) {
+        long ceiling = properties.getBatchBackoffBase().toMillis() << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while archiving orders", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.app.dynamodb.order.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.*;
 
@@ -8,11 +10,14 @@ import java.time.Instant;
 
 @EqualsAndHashCode
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @DynamoDbBean
 public class Order {
+
+    public static final String STATUS_INDEX = "status-time-index";
+    public static final String ARCHIVE_INDEX = "archive-index";
     
     private String orderId;
     private String customerId;
@@ -22,6 +27,11 @@ public class Order {
     private OrderStatus status;
     private Instant createdAt;
     private Instant updatedAt;
+    private String statusShard;
+    private String statusSortKey;
+    private Long expiresAt;
+    private Instant archivedAt;
+    private String archiveShard;
 
     @DynamoDbPartitionKey
     @DynamoDbAttribute("orderId")
@@ -54,6 +64,26 @@ public class Order {
         return status;
     }
 
+    /** Status plus write shard, e.g. {@code PENDING#3}; maintained by the repository. */
+    @JsonIgnore
+    @DynamoDbSecondaryPartitionKey(indexNames = STATUS_INDEX)
+    @DynamoDbAttribute("statusShard")
+    public String getStatusShard() {
+        return statusShard;
+    }
+
+    /**
+     * Creation time in a fixed-width format plus the order ID, e.g. {@code 2026-01-01T00:00:00.120000000Z#o1},
+     * so that the status index orders by time and then ID; {@link Instant#toString()} varies in width.
+     * Maintained by the repository.
+     */
+    @JsonIgnore
+    @DynamoDbSecondarySortKey(indexNames = STATUS_INDEX)
+    @DynamoDbAttribute("statusSortKey")
+    public String getStatusSortKey() {
+        return statusSortKey;
+    }
+
     @DynamoDbAttribute("createdAt")
     public Instant getCreatedAt() {
         return createdAt;
@@ -64,7 +94,37 @@ public class Order {
         return updatedAt;
     }
 
+    /** TTL of an order in a terminal status, in epoch seconds; the archiver copies it out before then. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @DynamoDbSecondarySortKey(indexNames = ARCHIVE_INDEX)
+    @DynamoDbAttribute("expiresAt")
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /** When the current state of the order was copied to the archive table; not part of its entity tag. */
+    @JsonIgnore
+    @DynamoDbAttribute("archivedAt")
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    /**
+     * Write shard of a terminal order whose current state is not archived yet; removed once it is, so that
+     * the archive index lists only orders still to be archived. Maintained by the repository.
+     */
+    @JsonIgnore
+    @DynamoDbSecondaryPartitionKey(indexNames = ARCHIVE_INDEX)
+    @DynamoDbAttribute("archiveShard")
+    public String getArchiveShard() {
+        return archiveShard;
+    }
+
     public enum OrderStatus {
-        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED;
+
+        public boolean isTerminal() {
+            return this == DELIVERED || this == CANCELLED;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.app.dynamodb.order.domain;
+
+/**
+ * Published by the order repository after every successful write.
+ * {@code order} is {@code null} when the order was deleted.
+ */
+public record OrderChangedEvent(String orderId, Order order) {
+
+    public static OrderChangedEvent saved(Order order) {
+        return new OrderChangedEvent(order.getOrderId(), order);
+    }
+
+    public static OrderChangedEvent deleted(String orderId) {
+        return new OrderChangedEvent(orderId, null);
+    }
+
+    public boolean isDeleted() {
+        return order == null;
+    }
+}
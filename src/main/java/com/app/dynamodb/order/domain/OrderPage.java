@@ -0,0 +1,7 @@
+package com.app.dynamodb.order.domain;
+
+import java.util.List;
+
+/** One page of orders; {@code nextPageToken} is {@code null} on the last page. */
+public record OrderPage(List<Order> items, String nextPageToken) {
+}
@@ -0,0 +1,35 @@
+package com.app.dynamodb.order.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+/** Order counts and amounts per time bucket, split by status; buckets are UTC hours or days. */
+public record OrderStats(Granularity granularity, Instant from, Instant to, List<Bucket> buckets) {
+
+    public record Bucket(Instant start, long orders, BigDecimal totalAmount, Map<Order.OrderStatus, Totals> byStatus) {
+    }
+
+    public record Totals(long orders, BigDecimal totalAmount) {
+    }
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public Instant truncate(Instant instant) {
+            return instant.truncatedTo(unit);
+        }
+
+        public Instant next(Instant bucketStart) {
+            return bucketStart.plus(1, unit);
+        }
+    }
+}
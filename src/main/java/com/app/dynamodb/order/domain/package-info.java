@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("domain")
+package com.app.dynamodb.order.domain;
@@ -0,0 +1,52 @@
+package com.app.dynamodb.order.feed;
+
+import com.app.dynamodb.order.domain.OrderChangedEvent;
+import com.app.dynamodb.order.service.OrderService;
+import com.app.dynamodb.shared.feed.ChangeFeed;
+import com.app.dynamodb.shared.feed.ChangeFeedProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams an order as the order repository writes it, so that clients following its status need not poll
+ * {@code GET /orders/{id}}. A subscriber that falls behind gets only the latest state of the order.
+ */
+@Component
+public class OrderChangeFeed {
+
+    public static final String CHANGED = "order";
+    public static final String DELETED = "deleted";
+
+    private final OrderService service;
+    private final ChangeFeed feed;
+
+    public OrderChangeFeed(OrderService service, ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.feed = new ChangeFeed("orders", ChangeFeed.Policy.COALESCE, properties, meterRegistry);
+    }
+
+    /** Streams the changes of the order, starting with its current state; fails if there is no such order. */
+    public SseEmitter subscribe(String orderId) {
+        return feed.subscribe(List.of(orderId), () -> List.of(feed.change(orderId, CHANGED, service.getOrder(orderId))));
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.isDeleted()) {
+            feed.publish(event.orderId(), DELETED, Map.of("orderId", event.orderId()));
+        } else {
+            feed.publish(event.orderId(), CHANGED, event.order());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        feed.close();
+    }
+}
@@ -1,5 +1,5 @@
 @org.springframework.modulith.ApplicationModule(
         displayName = "Order Management",
-        allowedDependencies = {"shared", "shared::exception"}
+        allowedDependencies = {"shared", "shared::exception", "shared::concurrent", "shared::warmup", "shared::web", "shared::journal", "shared::feed", "shared::metrics"}
 )
 package com.app.dynamodb.order;
\ No newline at end of file
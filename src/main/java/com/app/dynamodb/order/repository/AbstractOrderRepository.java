@@ -0,0 +1,383 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.archive.OrderArchiveProperties;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.OrderChangedEvent;
+import com.app.dynamodb.order.domain.OrderPage;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.CustomerOrderKeys;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.exception.PreconditionFailedException;
+import com.app.dynamodb.shared.journal.JournaledWrite;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import com.app.dynamodb.shared.metrics.RequestCapacity;
+import com.app.dynamodb.shared.web.IfMatch;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * What both layouts share: writes, the status and archive indexes and the write journal. The layouts
+ * differ in the table and its keys, so in how an order is found by ID or by customer and how it moves.
+ */
+@Slf4j
+@RequiredArgsConstructor(access = AccessLevel.PROTECTED)
+abstract class AbstractOrderRepository implements OrderRepository {
+
+    private static final Comparator<Order> BY_STATUS_SORT_KEY = Comparator.comparing(Order::getStatusSortKey);
+    private static final Pattern STATUS_SORT_KEY = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{9}Z#.+");
+
+    protected final DynamoDbEnhancedClient enhancedClient;
+    protected final DynamoDbClient dynamoDbClient;
+    protected final AwsConfigProperties properties;
+    protected final SingleFlights singleFlights;
+    protected final HedgedReads hedgedReads;
+    private final OrderStatusIndexProperties statusIndex;
+    private final OrderArchiveProperties archiveProperties;
+    private final WriteJournal writeJournal;
+    protected final ApplicationEventPublisher eventPublisher;
+    private DynamoDbTable<Order> table;
+
+    /** The table of the layout, mapped with its keys. */
+    protected abstract DynamoDbTable<Order> createTable();
+
+    protected abstract Optional<Order> loadById(String orderId);
+
+    protected abstract List<Order> loadByCustomerId(String customerId);
+
+    /** A scan of the orders, leaving out other items of their table, also filtered by {@code filter} if given. */
+    protected abstract ScanEnhancedRequest scanOrders(Expression filter);
+
+    /** Called after the order was written, or moved, by this instance. */
+    protected void written(Order order) {
+    }
+
+    /** Called after the order was deleted by this instance. */
+    protected void deleted(Order order) {
+    }
+
+    protected DynamoDbTable<Order> getTable() {
+        if (table == null) {
+            table = createTable();
+        }
+        return table;
+    }
+
+    @Override
+    public Order save(Order order) {
+        log.debug("Saving order: {}", order.getOrderId());
+
+        if (order.getCreatedAt() == null) {
+            order.setCreatedAt(Instant.now());
+        }
+        prepareWrite(order);
+
+        journaled(order, () -> getTable().putItem(order));
+        written(order);
+        log.info("Order saved successfully: {}", order.getOrderId());
+        eventPublisher.publishEvent(OrderChangedEvent.saved(order));
+
+        return order;
+    }
+
+    @Override
+    public Optional<Order> findById(String orderId) {
+        return singleFlights.execute("order.findById", orderId,
+                () -> hedgedReads.execute("order.findById", () -> loadById(orderId)), found -> found.map(AbstractOrderRepository::copyOf));
+    }
+
+    @Override
+    public List<Order> findAll() {
+        log.debug("Finding all orders");
+
+        List<Order> orders = getTable().scan(scanOrders(null)).items().stream()
+                .collect(Collectors.toList());
+
+        log.info("Found {} orders", orders.size());
+        return orders;
+    }
+
+    @Override
+    public Order update(Order order) {
+        return update(order, null);
+    }
+
+    @Override
+    public Order update(Order order, IfMatch ifMatch) {
+        log.debug("Updating order: {}", order.getOrderId());
+
+        prepareWrite(order);
+        if (ifMatch == null) {
+            // Sets every attribute and removes the null ones, so the journal replays it as a put
+            journaled(order, () -> getTable().updateItem(order));
+        } else {
+            updateIfMatch(order, ifMatch);
+        }
+        written(order);
+
+        log.info("Order updated successfully: {}", order.getOrderId());
+        eventPublisher.publishEvent(OrderChangedEvent.saved(order));
+        return order;
+    }
+
+    /** Updates the order in place; a layout whose keys depend on the order moves it when they change. */
+    @Override
+    public Order replace(Order existing, Order order, IfMatch ifMatch) {
+        return update(order, ifMatch);
+    }
+
+    /** Stamps the write time and sets the attributes the status and archive indexes are keyed on. */
+    protected void prepareWrite(Order order) {
+        order.setUpdatedAt(Instant.now());
+        indexStatus(order);
+        applyRetention(order);
+    }
+
+    private void journaled(Order order, Runnable write) {
+        writeJournal.execute(order, write, () -> JournaledWrite.put(getTable().tableName(),
+                List.copyOf(getTable().tableSchema().tableMetadata().primaryKeys()),
+                getTable().tableSchema().itemToMap(order, true)));
+    }
+
+    private void updateIfMatch(Order order, IfMatch ifMatch) {
+        try {
+            getTable().updateItem(UpdateItemEnhancedRequest.builder(Order.class)
+                    .item(order)
+                    .conditionExpression(Expression.builder()
+                            .expression(ifMatch.conditionExpression())
+                            .expressionNames(ifMatch.expressionNames("orderId"))
+                            .expressionValues(ifMatch.expressionValues())
+                            .build())
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            throw new PreconditionFailedException("Order " + order.getOrderId() + " was modified");
+        }
+    }
+
+    @Override
+    public void delete(Order order) {
+        log.debug("Deleting order: {}", order.getOrderId());
+
+        getTable().deleteItem(getTable().keyFrom(order));
+        deleted(order);
+        log.info("Order deleted successfully: {}", order.getOrderId());
+        eventPublisher.publishEvent(OrderChangedEvent.deleted(order.getOrderId()));
+    }
+
+    /**
+     * Every shard of the status is queried in parallel, one virtual thread per shard, and the sorted shard
+     * pages are merged by their status sort key, the order the index returns them in.
+     */
+    @Override
+    public OrderPage findByStatus(Order.OrderStatus status, int limit, String pageToken) {
+        log.debug("Finding orders with status: {} over {} shards", status, statusIndex.getShards());
+
+        String after = pageToken == null ? null : decodePageToken(pageToken);
+        DynamoDbIndex<Order> index = getTable().index(Order.STATUS_INDEX);
+
+        List<ShardPage> shardPages;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<ShardPage>> queries = IntStream.range(0, statusIndex.getShards())
+                    .mapToObj(shard -> {
+                        Supplier<ShardPage> query = () -> hedgedReads.execute("order.findByStatus",
+                                () -> queryShard(index, status.name() + "#" + shard, after, limit));
+                        // Charges the shard queries to the request, whose capacity is bound to its own thread
+                        return CompletableFuture.supplyAsync(RequestCapacity.propagate(query), executor);
+                    })
+                    .toList();
+            shardPages = queries.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        // Each shard page is already sorted, so this is a merge of sorted runs
+        List<Order> merged = new ArrayList<>();
+        shardPages.forEach(page -> merged.addAll(page.orders()));
+        merged.sort(BY_STATUS_SORT_KEY);
+
+        boolean more = merged.size() > limit || shardPages.stream().anyMatch(ShardPage::more);
+        List<Order> orders = merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+        String nextPageToken = more && !orders.isEmpty() ? encodePageToken(orders.getLast().getStatusSortKey()) : null;
+
+        log.info("Found {} orders with status: {}", orders.size(), status);
+        return new OrderPage(orders, nextPageToken);
+    }
+
+    private ShardPage queryShard(DynamoDbIndex<Order> index, String shard, String after, int limit) {
+        QueryConditional conditional = after == null
+                ? QueryConditional.keyEqualTo(Key.builder().partitionValue(shard).build())
+                : QueryConditional.sortGreaterThan(Key.builder().partitionValue(shard).sortValue(after).build());
+
+        // One extra item tells the merge whether this shard has more than a full page left
+        Page<Order> page = index.query(QueryEnhancedRequest.builder()
+                        .queryConditional(conditional)
+                        .limit(limit + 1)
+                        .build())
+                .stream()
+                .findFirst()
+                .orElse(null);
+        if (page == null) {
+            return new ShardPage(List.of(), false);
+        }
+        return new ShardPage(page.items(), page.lastEvaluatedKey() != null);
+    }
+
+    /**
+     * Only orders to archive are in the archive index, so each shard is one key-condition query on the
+     * expiry time, read lazily page by page.
+     */
+    @Override
+    public Stream<Order> streamArchivable(Instant cutoff) {
+        DynamoDbIndex<Order> index = getTable().index(Order.ARCHIVE_INDEX);
+
+        return IntStream.range(0, statusIndex.getShards())
+                .boxed()
+                .flatMap(shard -> index.query(QueryEnhancedRequest.builder()
+                                .queryConditional(QueryConditional.sortLessThanOrEqualTo(Key.builder()
+                                        .partitionValue(Integer.toString(shard))
+                                        .sortValue(cutoff.getEpochSecond())
+                                        .build()))
+                                .build())
+                        .stream()
+                        .flatMap(page -> page.items().stream()));
+    }
+
+    @Override
+    public Stream<Order> streamUnindexedArchivable(Instant cutoff) {
+        Expression unindexed = Expression.builder()
+                .expression("#expiresAt <= :cutoff AND attribute_not_exists(#archivedAt) AND attribute_not_exists(#archiveShard)")
+                .putExpressionName("#expiresAt", "expiresAt")
+                .putExpressionName("#archivedAt", "archivedAt")
+                .putExpressionName("#archiveShard", "archiveShard")
+                .putExpressionValue(":cutoff", AttributeValue.fromN(Long.toString(cutoff.getEpochSecond())))
+                .build();
+
+        return getTable().scan(scanOrders(unindexed)).stream()
+                .flatMap(page -> page.items().stream());
+    }
+
+    /** The enhanced client cannot remove a single attribute, so this is a low-level UpdateItem. */
+    @Override
+    public boolean markArchived(Order order, Instant archivedAt) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(getTable().tableName())
+                    .key(getTable().keyFrom(order).keyMap(getTable().tableSchema(), TableMetadata.primaryIndexName()))
+                    .updateExpression("SET #archivedAt = :archivedAt REMOVE #archiveShard")
+                    .conditionExpression("#updatedAt = :updatedAt")
+                    .expressionAttributeNames(Map.of("#archivedAt", "archivedAt", "#archiveShard", "archiveShard",
+                            "#updatedAt", "updatedAt"))
+                    .expressionAttributeValues(Map.of(
+                            ":archivedAt", AttributeValue.fromS(archivedAt.toString()),
+                            ":updatedAt", AttributeValue.fromS(order.getUpdatedAt().toString())))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Order {} changed while being archived", order.getOrderId());
+            return false;
+        }
+    }
+
+    /**
+     * Terminal orders expire {@code retention} after they first reach a terminal status; any write makes
+     * the archived copy stale, so the order is archived again.
+     */
+    private void applyRetention(Order order) {
+        order.setArchivedAt(null);
+        if (order.getStatus() == null || !order.getStatus().isTerminal()) {
+            order.setExpiresAt(null);
+            order.setArchiveShard(null);
+            return;
+        }
+        if (order.getExpiresAt() == null) {
+            order.setExpiresAt(order.getUpdatedAt().plus(archiveProperties.getRetention()).getEpochSecond());
+        }
+        order.setArchiveShard(Integer.toString(shardOf(order)));
+    }
+
+    private void indexStatus(Order order) {
+        if (order.getStatus() == null) {
+            order.setStatusShard(null);
+            order.setStatusSortKey(null);
+            return;
+        }
+        order.setStatusShard(order.getStatus().name() + "#" + shardOf(order));
+        order.setStatusSortKey(statusSortKey(order));
+    }
+
+    private static String statusSortKey(Order order) {
+        return CustomerOrderKeys.sortableTime(order.getCreatedAt()) + "#" + order.getOrderId();
+    }
+
+    private int shardOf(Order order) {
+        return Math.floorMod(order.getOrderId().hashCode(), statusIndex.getShards());
+    }
+
+    private record ShardPage(List<Order> orders, boolean more) {
+    }
+
+    /** The page token is the status sort key of the last order of the page. */
+    private static String encodePageToken(String statusSortKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(statusSortKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePageToken(String pageToken) {
+        try {
+            String statusSortKey = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            if (!STATUS_SORT_KEY.matcher(statusSortKey).matches()) {
+                throw new IllegalArgumentException("Not a status sort key: " + statusSortKey);
+            }
+            return statusSortKey;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token: " + pageToken);
+        }
+    }
+
+    @Override
+    public List<Order> findByCustomerId(String customerId) {
+        return singleFlights.execute("order.findByCustomerId", customerId, () -> loadByCustomerId(customerId),
+                orders -> orders.stream().map(AbstractOrderRepository::copyOf).collect(Collectors.toList()));
+    }
+
+    private static Order copyOf(Order order) {
+        return order.toBuilder().build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.shared.CustomerOrderKeys;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableMetadata;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps orders as items of the single-table layout: the bean mapping of {@link Order} plus the {@code pk}
+ * and {@code sk} keys derived from the customer, creation time and order ID (see {@link CustomerOrderKeys}).
+ * The keys are never read back; the order attributes carry everything.
+ */
+class CustomerOrderTableSchema implements TableSchema<Order> {
+
+    private static final TableSchema<Order> BEAN_SCHEMA = TableSchema.fromBean(Order.class);
+
+    private final TableMetadata metadata = StaticTableMetadata.builder()
+            .addIndexPartitionKey(TableMetadata.primaryIndexName(), CustomerOrderKeys.PARTITION_KEY, AttributeValueType.S)
+            .addIndexSortKey(TableMetadata.primaryIndexName(), CustomerOrderKeys.SORT_KEY, AttributeValueType.S)
+            .addIndexPartitionKey(Order.STATUS_INDEX, "statusShard", AttributeValueType.S)
+            .addIndexSortKey(Order.STATUS_INDEX, "statusSortKey", AttributeValueType.S)
+            .addIndexPartitionKey(Order.ARCHIVE_INDEX, "archiveShard", AttributeValueType.S)
+            .addIndexSortKey(Order.ARCHIVE_INDEX, "expiresAt", AttributeValueType.N)
+            .addIndexPartitionKey(CustomerOrderKeys.ORDER_ID_INDEX, "orderId", AttributeValueType.S)
+            .build();
+
+    @Override
+    public Order mapToItem(Map<String, AttributeValue> attributeMap) {
+        return BEAN_SCHEMA.mapToItem(attributeMap);
+    }
+
+    @Override
+    public Map<String, AttributeValue> itemToMap(Order item, boolean ignoreNulls) {
+        return withKeys(item, BEAN_SCHEMA.itemToMap(item, ignoreNulls), true);
+    }
+
+    @Override
+    public Map<String, AttributeValue> itemToMap(Order item, Collection<String> attributes) {
+        Map<String, AttributeValue> map = BEAN_SCHEMA.itemToMap(item, attributes.stream()
+                .filter(attribute -> !isKey(attribute))
+                .toList());
+        return withKeys(item, map, attributes.contains(CustomerOrderKeys.PARTITION_KEY)
+                || attributes.contains(CustomerOrderKeys.SORT_KEY));
+    }
+
+    @Override
+    public AttributeValue attributeValue(Order item, String attributeName) {
+        return isKey(attributeName) ? keys(item).get(attributeName) : BEAN_SCHEMA.attributeValue(item, attributeName);
+    }
+
+    @Override
+    public TableMetadata tableMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public EnhancedType<Order> itemType() {
+        return BEAN_SCHEMA.itemType();
+    }
+
+    @Override
+    public List<String> attributeNames() {
+        List<String> names = new ArrayList<>(BEAN_SCHEMA.attributeNames());
+        names.add(CustomerOrderKeys.PARTITION_KEY);
+        names.add(CustomerOrderKeys.SORT_KEY);
+        return names;
+    }
+
+    @Override
+    public boolean isAbstract() {
+        return false;
+    }
+
+    @Override
+    public AttributeConverter<Order> converterForAttribute(Object key) {
+        return BEAN_SCHEMA.converterForAttribute(key);
+    }
+
+    private static Map<String, AttributeValue> withKeys(Order item, Map<String, AttributeValue> map, boolean keys) {
+        if (!keys) {
+            return map;
+        }
+        Map<String, AttributeValue> keyed = new HashMap<>(map);
+        keyed.putAll(keys(item));
+        return keyed;
+    }
+
+    private static Map<String, AttributeValue> keys(Order item) {
+        if (item.getCustomerId() == null || item.getCreatedAt() == null || item.getOrderId() == null) {
+            throw new IllegalArgumentException("An order needs a customer, creation time and ID to be keyed");
+        }
+        return Map.of(
+                CustomerOrderKeys.PARTITION_KEY,
+                AttributeValue.fromS(CustomerOrderKeys.partitionKey(item.getCustomerId())),
+                CustomerOrderKeys.SORT_KEY,
+                AttributeValue.fromS(CustomerOrderKeys.orderSortKey(item.getCreatedAt(), item.getOrderId())));
+    }
+
+    private static boolean isKey(String attribute) {
+        return CustomerOrderKeys.PARTITION_KEY.equals(attribute) || CustomerOrderKeys.SORT_KEY.equals(attribute);
+    }
+}
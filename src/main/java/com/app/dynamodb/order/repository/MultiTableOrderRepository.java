@@ -0,0 +1,84 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.archive.OrderArchiveProperties;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/** Orders in a table of their own, keyed by order ID. */
+@Slf4j
+public class MultiTableOrderRepository extends AbstractOrderRepository {
+
+    public MultiTableOrderRepository(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient,
+                                     AwsConfigProperties properties, SingleFlights singleFlights, HedgedReads hedgedReads,
+                                     OrderStatusIndexProperties statusIndex, OrderArchiveProperties archiveProperties,
+                                     WriteJournal writeJournal, ApplicationEventPublisher eventPublisher) {
+        super(enhancedClient, dynamoDbClient, properties, singleFlights, hedgedReads, statusIndex, archiveProperties,
+                writeJournal, eventPublisher);
+    }
+
+    @Override
+    protected DynamoDbTable<Order> createTable() {
+        return enhancedClient.table(properties.getTables().get("order"), TableSchema.fromBean(Order.class));
+    }
+
+    @Override
+    protected Optional<Order> loadById(String orderId) {
+        log.debug("Finding order by ID: {}", orderId);
+
+        Order order = getTable().getItem(Key.builder().partitionValue(orderId).build());
+        if (order == null) {
+            log.debug("Order not found: {}", orderId);
+            return Optional.empty();
+        }
+        return Optional.of(order);
+    }
+
+    @Override
+    public Optional<Instant> findVersion(String orderId) {
+        // GetItem in the enhanced client cannot project, a query on the table key can
+        return hedgedReads.execute("order.findVersion", () -> getTable().query(QueryEnhancedRequest.builder()
+                        .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(orderId).build()))
+                        .attributesToProject("updatedAt")
+                        .build())
+                .items().stream()
+                .findFirst()
+                .map(Order::getUpdatedAt));
+    }
+
+    @Override
+    protected ScanEnhancedRequest scanOrders(Expression filter) {
+        return ScanEnhancedRequest.builder().filterExpression(filter).build();
+    }
+
+    /** Orders are not keyed by customer here, so this scans the table. */
+    @Override
+    protected List<Order> loadByCustomerId(String customerId) {
+        log.debug("Finding orders for customer: {}", customerId);
+
+        List<Order> orders = getTable().scan().items().stream()
+                .filter(order -> order.getCustomerId().equals(customerId))
+                .collect(Collectors.toList());
+
+        log.info("Found {} orders for customer: {}", orders.size(), customerId);
+        return orders;
+    }
+}
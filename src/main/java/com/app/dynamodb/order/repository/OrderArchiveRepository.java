@@ -0,0 +1,58 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+import java.util.List;
+import java.util.Optional;
+
+/** Cold copies of delivered and cancelled orders, kept after they expire from the orders table. */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveRepository {
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final AwsConfigProperties properties;
+    private DynamoDbTable<Order> table;
+
+    private DynamoDbTable<Order> getTable() {
+        if (table == null) {
+            String tableName = properties.getTables().get("order-archive");
+            table = enhancedClient.table(tableName, TableSchema.fromBean(Order.class));
+        }
+        return table;
+    }
+
+    /**
+     * Writes one BatchWriteItem of at most 25 orders and returns the ones DynamoDB left unprocessed,
+     * for the caller to retry.
+     */
+    public List<Order> saveBatch(List<Order> orders) {
+        WriteBatch.Builder<Order> batch = WriteBatch.builder(Order.class).mappedTableResource(getTable());
+        orders.forEach(batch::addPutItem);
+
+        BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                .addWriteBatch(batch.build())
+                .build());
+
+        List<Order> unprocessed = result.unprocessedPutItemsForTable(getTable());
+        log.debug("Archived {} orders, {} unprocessed", orders.size() - unprocessed.size(), unprocessed.size());
+        return unprocessed;
+    }
+
+    public Optional<Order> findById(String orderId) {
+        log.debug("Finding archived order by ID: {}", orderId);
+        return Optional.ofNullable(getTable().getItem(Key.builder().partitionValue(orderId).build()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.shared.warmup.EntityMappingWarmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Component
+class OrderMappingWarmup extends EntityMappingWarmup<Order> {
+
+    OrderMappingWarmup(ObjectMapper objectMapper) {
+        super(Order.class, objectMapper);
+    }
+
+    @Override
+    protected Order sample() {
+        Instant now = Instant.now();
+        return Order.builder()
+                .orderId(UUID.randomUUID().toString())
+                .customerId(UUID.randomUUID().toString())
+                .productName("Warm-up product")
+                .quantity(1)
+                .totalAmount(new BigDecimal("9.99"))
+                .status(Order.OrderStatus.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -1,107 +1,57 @@
 package com.app.dynamodb.order.repository;
 
 import com.app.dynamodb.order.domain.Order;
-import com.app.dynamodb.shared.AwsConfigProperties;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Repository;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
-import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import com.app.dynamodb.order.domain.OrderPage;
+import com.app.dynamodb.shared.web.IfMatch;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-
-@Slf4j
-@Repository
-@RequiredArgsConstructor
-public class OrderRepository {
-
-    private final DynamoDbEnhancedClient enhancedClient;
-    private final AwsConfigProperties properties;
-    private DynamoDbTable<Order> table;
-
-    private DynamoDbTable<Order> getTable() {
-        if (table == null) {
-            String tableName = properties.getTables().get("order");
-            table = enhancedClient.table(tableName, TableSchema.fromBean(Order.class));
-        }
-        return table;
-    }
-
-    public Order save(Order order) {
-        log.debug("Saving order: {}", order.getOrderId());
-        
-        if (order.getCreatedAt() == null) {
-            order.setCreatedAt(Instant.now());
-        }
-        order.setUpdatedAt(Instant.now());
-
-        getTable().putItem(order);
-        log.info("Order saved successfully: {}", order.getOrderId());
-        
-        return order;
-    }
-
-    public Optional<Order> findById(String orderId) {
-        log.debug("Finding order by ID: {}", orderId);
-        
-        Key key = Key.builder()
-                .partitionValue(orderId)
-                .build();
-
-        Order order = getTable().getItem(key);
-        
-        if (order == null) {
-            log.debug("Order not found: {}", orderId);
-            return Optional.empty();
-        }
-
-        return Optional.of(order);
-    }
-
-    public List<Order> findAll() {
-        log.debug("Finding all orders");
-        
-        List<Order> orders = getTable().scan().items().stream()
-                .collect(Collectors.toList());
-        
-        log.info("Found {} orders", orders.size());
-        return orders;
-    }
-
-    public Order update(Order order) {
-        log.debug("Updating order: {}", order.getOrderId());
-        
-        order.setUpdatedAt(Instant.now());
-        getTable().updateItem(order);
-        
-        log.info("Order updated successfully: {}", order.getOrderId());
-        return order;
-    }
-
-    public void deleteById(String orderId) {
-        log.debug("Deleting order: {}", orderId);
-        
-        Key key = Key.builder()
-                .partitionValue(orderId)
-                .build();
-
-        getTable().deleteItem(key);
-        log.info("Order deleted successfully: {}", orderId);
-    }
-
-    public List<Order> findByCustomerId(String customerId) {
-        log.debug("Finding orders for customer: {}", customerId);
-        
-        List<Order> orders = getTable().scan().items().stream()
-                .filter(order -> order.getCustomerId().equals(customerId))
-                .collect(Collectors.toList());
-        
-        log.info("Found {} orders for customer: {}", orders.size(), customerId);
-        return orders;
-    }
-}
\ No newline at end of file
+import java.util.stream.Stream;
+
+/**
+ * Orders, stored in their own table ({@link MultiTableOrderRepository}) or in the partitions of their
+ * customers ({@link SingleTableOrderRepository}), as {@code aws.dynamodb.layout} selects.
+ */
+public interface OrderRepository {
+
+    Order save(Order order);
+
+    Optional<Order> findById(String orderId);
+
+    /** Reads only {@code updatedAt}, for answering conditional requests without loading the order. */
+    Optional<Instant> findVersion(String orderId);
+
+    List<Order> findAll();
+
+    Order update(Order order);
+
+    /** Updates the order; with an {@code If-Match} precondition only if the stored version still matches. */
+    Order update(Order order, IfMatch ifMatch);
+
+    /** Writes {@code order} in place of {@code existing}, which it may move if its key changed. */
+    Order replace(Order existing, Order order, IfMatch ifMatch);
+
+    void delete(Order order);
+
+    /** Reads one page of orders in a status, oldest first. */
+    OrderPage findByStatus(Order.OrderStatus status, int limit, String pageToken);
+
+    /** Streams the terminal orders that expire by {@code cutoff} and have not been archived in their current state. */
+    Stream<Order> streamArchivable(Instant cutoff);
+
+    /**
+     * Streams the terminal orders that expire by {@code cutoff} and are missing from the archive index,
+     * having been written before it existed. Scans the whole table, so this is only for backfilling.
+     */
+    Stream<Order> streamUnindexedArchivable(Instant cutoff);
+
+    /**
+     * Records that the order was copied to the archive and takes it out of the archive index, unless it
+     * changed since it was read. Returns {@code false} when it did; the next archiver run picks up the new
+     * state.
+     */
+    boolean markArchived(Order order, Instant archivedAt);
+
+    List<Order> findByCustomerId(String customerId);
+}
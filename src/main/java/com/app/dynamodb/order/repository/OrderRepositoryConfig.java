@@ -0,0 +1,34 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.archive.OrderArchiveProperties;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/** Picks the order repository of {@code aws.dynamodb.layout} when the bean is created; see {@code CustomerRepositoryConfig}. */
+@Slf4j
+@Configuration
+class OrderRepositoryConfig {
+
+    @Bean
+    public OrderRepository orderRepository(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient,
+                                           AwsConfigProperties properties, SingleFlights singleFlights,
+                                           HedgedReads hedgedReads, OrderStatusIndexProperties statusIndex,
+                                           OrderArchiveProperties archiveProperties, WriteJournal writeJournal,
+                                           ApplicationEventPublisher eventPublisher) {
+        log.info("Initializing order repository for the {} layout", properties.getLayout());
+        return switch (properties.getLayout()) {
+            case MULTI_TABLE -> new MultiTableOrderRepository(enhancedClient, dynamoDbClient, properties, singleFlights,
+                    hedgedReads, statusIndex, archiveProperties, writeJournal, eventPublisher);
+            case SINGLE_TABLE -> new SingleTableOrderRepository(enhancedClient, dynamoDbClient, properties, singleFlights,
+                    hedgedReads, statusIndex, archiveProperties, writeJournal, eventPublisher);
+        };
+    }
+}
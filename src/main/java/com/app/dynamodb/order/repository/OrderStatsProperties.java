@@ -0,0 +1,29 @@
+package com.app.dynamodb.order.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.order.stats")
+public class OrderStatsProperties {
+
+    /**
+     * Items each bucket is split over. Writes pick one at random so a busy hour is not a single hot item;
+     * reads add all of them up. May be raised but never lowered.
+     */
+    private int shards = 4;
+
+    /** Most buckets a single stats request may cover. */
+    private int maxBuckets = 1000;
+
+    /** BatchGetItem calls per chunk of keys before unprocessed keys fail the request. */
+    private int batchMaxAttempts = 5;
+
+    private Duration batchBackoffBase = Duration.ofMillis(25);
+}
@@ -0,0 +1,193 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.OrderStats;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hourly and daily rollups of orders, one item per bucket and shard. Every order change adds its delta to
+ * one random shard of its hourly and daily buckets with {@code ADD}s in a single transaction; reads fetch
+ * all shards with BatchGetItem and add them up. Orders are counted in the buckets of their creation time, under their current status.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OrderStatsRepository {
+
+    private static final int BATCH_GET_LIMIT = 100;
+    private static final String KEY = "bucket";
+    private static final String ORDERS_PREFIX = "orders_";
+    private static final String AMOUNT_PREFIX = "amount_";
+
+    private final DynamoDbClient dynamoDbClient;
+    private final AwsConfigProperties properties;
+    private final OrderStatsProperties statsProperties;
+
+    public String getTableName() {
+        return properties.getTables().get("order-stats");
+    }
+
+    /**
+     * Moves an order from the totals of its previous state to those of its new one. {@code before} is
+     * {@code null} for a new order and {@code after} is {@code null} for a deleted one.
+     */
+    public void record(Order before, Order after) {
+        Map<Order.OrderStatus, OrderStats.Totals> deltas = new EnumMap<>(Order.OrderStatus.class);
+        if (before != null && before.getStatus() != null) {
+            deltas.merge(before.getStatus(), new OrderStats.Totals(-1, amountOf(before).negate()), OrderStatsRepository::add);
+        }
+        if (after != null && after.getStatus() != null) {
+            deltas.merge(after.getStatus(), new OrderStats.Totals(1, amountOf(after)), OrderStatsRepository::add);
+        }
+        deltas.values().removeIf(delta -> delta.orders() == 0 && delta.totalAmount().signum() == 0);
+
+        Instant createdAt = before != null ? before.getCreatedAt() : after.getCreatedAt();
+        if (deltas.isEmpty() || createdAt == null) {
+            return;
+        }
+
+        StringJoiner expression = new StringJoiner(", ", "ADD ", "");
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<Order.OrderStatus, OrderStats.Totals> delta : deltas.entrySet()) {
+            expression.add("#o" + i + " :o" + i).add("#a" + i + " :a" + i);
+            names.put("#o" + i, ORDERS_PREFIX + delta.getKey().name());
+            names.put("#a" + i, AMOUNT_PREFIX + delta.getKey().name());
+            values.put(":o" + i, AttributeValue.fromN(Long.toString(delta.getValue().orders())));
+            values.put(":a" + i, AttributeValue.fromN(delta.getValue().totalAmount().toPlainString()));
+            i++;
+        }
+
+        // Both granularities in one transaction, so a failure cannot leave the hourly and daily totals apart
+        int shard = ThreadLocalRandom.current().nextInt(statsProperties.getShards());
+        List<TransactWriteItem> updates = new ArrayList<>();
+        for (OrderStats.Granularity granularity : OrderStats.Granularity.values()) {
+            updates.add(TransactWriteItem.builder().update(Update.builder()
+                    .tableName(getTableName())
+                    .key(Map.of(KEY, AttributeValue.fromS(bucketKey(granularity, granularity.truncate(createdAt), shard))))
+                    .updateExpression(expression.toString())
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .build()).build());
+        }
+        dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(updates).build());
+        log.debug("Order stats updated in shard {} for {}", shard, deltas);
+    }
+
+    /** Returns every bucket starting in {@code [from, to)}, including empty ones. */
+    public OrderStats find(OrderStats.Granularity granularity, Instant from, Instant to) {
+        List<Instant> starts = new ArrayList<>();
+        for (Instant start = granularity.truncate(from); start.isBefore(to); start = granularity.next(start)) {
+            if (starts.size() == statsProperties.getMaxBuckets()) {
+                throw new IllegalArgumentException("Range covers more than " + statsProperties.getMaxBuckets()
+                        + " " + granularity.name().toLowerCase() + " buckets");
+            }
+            starts.add(start);
+        }
+
+        List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        for (Instant start : starts) {
+            for (int shard = 0; shard < statsProperties.getShards(); shard++) {
+                keys.add(Map.of(KEY, AttributeValue.fromS(bucketKey(granularity, start, shard))));
+            }
+        }
+
+        Map<String, List<Map<String, AttributeValue>>> itemsByBucket = new HashMap<>();
+        for (int offset = 0; offset < keys.size(); offset += BATCH_GET_LIMIT) {
+            for (Map<String, AttributeValue> item : batchGet(keys.subList(offset, Math.min(offset + BATCH_GET_LIMIT, keys.size())))) {
+                String key = item.get(KEY).s();
+                itemsByBucket.computeIfAbsent(key.substring(0, key.lastIndexOf('#')), k -> new ArrayList<>()).add(item);
+            }
+        }
+
+        List<OrderStats.Bucket> buckets = starts.stream()
+                .map(start -> toBucket(start, itemsByBucket.getOrDefault(bucketPrefix(granularity, start), List.of())))
+                .toList();
+        log.info("Read {} {} order stats buckets with {} keys", buckets.size(), granularity, keys.size());
+        return new OrderStats(granularity, from, to, buckets);
+    }
+
+    private List<Map<String, AttributeValue>> batchGet(List<Map<String, AttributeValue>> keys) {
+        String tableName = getTableName();
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        KeysAndAttributes pending = KeysAndAttributes.builder().keys(keys).build();
+
+        for (int attempt = 1; ; attempt++) {
+            BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(Map.of(tableName, pending))
+                    .build());
+            items.addAll(response.responses().getOrDefault(tableName, List.of()));
+
+            KeysAndAttributes unprocessed = response.hasUnprocessedKeys() ? response.unprocessedKeys().get(tableName) : null;
+            if (unprocessed == null || unprocessed.keys().isEmpty()) {
+                return items;
+            }
+            if (attempt >= statsProperties.getBatchMaxAttempts()) {
+                throw ProvisionedThroughputExceededException.builder()
+                        .message(unprocessed.keys().size() + " order stats keys still unprocessed after " + attempt + " attempts")
+                        .build();
+            }
+            sleep(attempt);
+            pending = unprocessed;
+        }
+    }
+
+    private void sleep(int attempt) {
+        long ceiling = statsProperties.getBatchBackoffBase().toMillis() << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading order stats", e);
+        }
+    }
+
+    private static OrderStats.Bucket toBucket(Instant start, List<Map<String, AttributeValue>> shards) {
+        Map<Order.OrderStatus, OrderStats.Totals> byStatus = new EnumMap<>(Order.OrderStatus.class);
+        for (Map<String, AttributeValue> shard : shards) {
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                AttributeValue orders = shard.get(ORDERS_PREFIX + status.name());
+                AttributeValue amount = shard.get(AMOUNT_PREFIX + status.name());
+                if (orders == null && amount == null) {
+                    continue;
+                }
+                byStatus.merge(status, new OrderStats.Totals(
+                        orders == null ? 0 : Long.parseLong(orders.n()),
+                        amount == null ? BigDecimal.ZERO : new BigDecimal(amount.n())), OrderStatsRepository::add);
+            }
+        }
+        // Statuses every order of the bucket has since left
+        byStatus.values().removeIf(totals -> totals.orders() == 0 && totals.totalAmount().signum() == 0);
+
+        OrderStats.Totals total = byStatus.values().stream()
+                .reduce(new OrderStats.Totals(0, BigDecimal.ZERO), OrderStatsRepository::add);
+        return new OrderStats.Bucket(start, total.orders(), total.totalAmount(), byStatus);
+    }
+
+    private static OrderStats.Totals add(OrderStats.Totals a, OrderStats.Totals b) {
+        return new OrderStats.Totals(a.orders() + b.orders(), a.totalAmount().add(b.totalAmount()));
+    }
+
+    private static BigDecimal amountOf(Order order) {
+        return order.getTotalAmount() == null ? BigDecimal.ZERO : order.getTotalAmount();
+    }
+
+    private static String bucketPrefix(OrderStats.Granularity granularity, Instant start) {
+        return granularity.name() + "#" + start;
+    }
+
+    private static String bucketKey(OrderStats.Granularity granularity, Instant start, int shard) {
+        return bucketPrefix(granularity, start) + "#" + shard;
+    }
+}
@@ -0,0 +1,19 @@
+package com.app.dynamodb.order.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.order.status-index")
+public class OrderStatusIndexProperties {
+
+    /**
+     * Number of partitions each status is spread over, so a busy status does not turn into a hot key.
+     * Orders keep the shard they were written with, so this may be raised but never lowered.
+     */
+    private int shards = 8;
+}
@@ -0,0 +1,232 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.order.archive.OrderArchiveProperties;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.OrderChangedEvent;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.CustomerOrderKeys;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.exception.PreconditionFailedException;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import com.app.dynamodb.shared.web.IfMatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactDeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactPutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Orders in the partitions of their customers (see {@link CustomerOrderKeys}). An order is found by ID
+ * through the order ID index, which is eventually consistent. So that a read right after a write on this
+ * instance does not miss the order, the keys of recently written orders are kept and those orders are
+ * read by key, consistently.
+ */
+@Slf4j
+public class SingleTableOrderRepository extends AbstractOrderRepository {
+
+    /** Well beyond the usual propagation delay of a global secondary index. */
+    private static final Duration RECENT_KEY_WINDOW = Duration.ofMinutes(1);
+    private static final int MAX_RECENT_KEYS = 10_000;
+
+    /** Order items of the single table, leaving out customer profiles. */
+    private static final Expression ORDER_ITEMS = Expression.builder()
+            .expression("begins_with(#sk, :orderPrefix)")
+            .putExpressionName("#sk", CustomerOrderKeys.SORT_KEY)
+            .putExpressionValue(":orderPrefix", AttributeValue.fromS(CustomerOrderKeys.ORDER_PREFIX))
+            .build();
+
+    private record RecentKey(Key key, Instant writtenAt) {
+    }
+
+    /** Guarded by itself; the oldest entries are dropped beyond {@link #MAX_RECENT_KEYS}. */
+    private final Map<String, RecentKey> recentKeys = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecentKey> eldest) {
+            return size() > MAX_RECENT_KEYS;
+        }
+    };
+
+    public SingleTableOrderRepository(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient,
+                                      AwsConfigProperties properties, SingleFlights singleFlights, HedgedReads hedgedReads,
+                                      OrderStatusIndexProperties statusIndex, OrderArchiveProperties archiveProperties,
+                                      WriteJournal writeJournal, ApplicationEventPublisher eventPublisher) {
+        super(enhancedClient, dynamoDbClient, properties, singleFlights, hedgedReads, statusIndex, archiveProperties,
+                writeJournal, eventPublisher);
+    }
+
+    @Override
+    protected DynamoDbTable<Order> createTable() {
+        return enhancedClient.table(properties.getTables().get(CustomerOrderKeys.TABLE), new CustomerOrderTableSchema());
+    }
+
+    /**
+     * Reads a recently written order by its key, consistently; any other order through the order ID index,
+     * which can miss it for a moment after it is created.
+     */
+    @Override
+    protected Optional<Order> loadById(String orderId) {
+        log.debug("Finding order by ID: {}", orderId);
+
+        Key key = recentKey(orderId);
+        Order order = key == null ? null : getTable().getItem(request -> request.key(key).consistentRead(true));
+        if (order == null) {
+            // Not written here lately, or moved to another customer by another instance
+            order = queryByOrderId(orderId, null).findFirst().orElse(null);
+        }
+
+        if (order == null) {
+            log.debug("Order not found: {}", orderId);
+            return Optional.empty();
+        }
+        return Optional.of(order);
+    }
+
+    @Override
+    public Optional<Instant> findVersion(String orderId) {
+        Key key = recentKey(orderId);
+        return hedgedReads.execute("order.findVersion", () -> {
+            if (key != null) {
+                Optional<Instant> version = getTable().query(QueryEnhancedRequest.builder()
+                                .queryConditional(QueryConditional.keyEqualTo(key))
+                                .consistentRead(true)
+                                .attributesToProject("updatedAt")
+                                .build())
+                        .items().stream()
+                        .findFirst()
+                        .map(Order::getUpdatedAt);
+                if (version.isPresent()) {
+                    return version;
+                }
+            }
+            return queryByOrderId(orderId, "updatedAt")
+                    .findFirst()
+                    .map(Order::getUpdatedAt);
+        });
+    }
+
+    private Stream<Order> queryByOrderId(String orderId, String projection) {
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(orderId).build()));
+        if (projection != null) {
+            request.attributesToProject(projection);
+        }
+        return getTable().index(CustomerOrderKeys.ORDER_ID_INDEX).query(request.build()).stream()
+                .flatMap(page -> page.items().stream());
+    }
+
+    private Key recentKey(String orderId) {
+        synchronized (recentKeys) {
+            RecentKey recent = recentKeys.get(orderId);
+            if (recent == null || recent.writtenAt().isBefore(Instant.now().minus(RECENT_KEY_WINDOW))) {
+                return null;
+            }
+            return recent.key();
+        }
+    }
+
+    @Override
+    protected void written(Order order) {
+        Key key = getTable().keyFrom(order);
+        synchronized (recentKeys) {
+            // Re-inserted, so that the map stays in write order for dropping the oldest
+            recentKeys.remove(order.getOrderId());
+            recentKeys.put(order.getOrderId(), new RecentKey(key, Instant.now()));
+        }
+    }
+
+    @Override
+    protected void deleted(Order order) {
+        synchronized (recentKeys) {
+            recentKeys.remove(order.getOrderId());
+        }
+    }
+
+    @Override
+    protected ScanEnhancedRequest scanOrders(Expression filter) {
+        return ScanEnhancedRequest.builder()
+                .filterExpression(filter == null ? ORDER_ITEMS : Expression.join(ORDER_ITEMS, filter, " AND "))
+                .build();
+    }
+
+    /**
+     * An order that changed customer moves to the other partition: the old item is deleted and the new
+     * one put in one transaction.
+     */
+    @Override
+    public Order replace(Order existing, Order order, IfMatch ifMatch) {
+        if (Objects.equals(existing.getCustomerId(), order.getCustomerId())) {
+            return update(order, ifMatch);
+        }
+        log.debug("Moving order {} from customer {} to {}", order.getOrderId(), existing.getCustomerId(),
+                order.getCustomerId());
+
+        prepareWrite(order);
+        Expression existsAsRead = ifMatch == null
+                ? Expression.builder()
+                        .expression("attribute_exists(#pk)")
+                        .putExpressionName("#pk", CustomerOrderKeys.PARTITION_KEY)
+                        .build()
+                : Expression.builder()
+                        .expression(ifMatch.conditionExpression())
+                        .expressionNames(ifMatch.expressionNames(CustomerOrderKeys.PARTITION_KEY))
+                        .expressionValues(ifMatch.expressionValues())
+                        .build();
+        try {
+            enhancedClient.transactWriteItems(TransactWriteItemsEnhancedRequest.builder()
+                    .addDeleteItem(getTable(), TransactDeleteItemEnhancedRequest.builder()
+                            .key(getTable().keyFrom(existing))
+                            .conditionExpression(existsAsRead)
+                            .build())
+                    .addPutItem(getTable(), TransactPutItemEnhancedRequest.builder(Order.class)
+                            .item(order)
+                            .build())
+                    .build());
+        } catch (TransactionCanceledException e) {
+            throw new PreconditionFailedException("Order " + order.getOrderId() + " was modified");
+        }
+        written(order);
+
+        log.info("Order updated successfully: {}", order.getOrderId());
+        eventPublisher.publishEvent(OrderChangedEvent.saved(order));
+        return order;
+    }
+
+    /** One query on the customer's partition, oldest first. */
+    @Override
+    protected List<Order> loadByCustomerId(String customerId) {
+        log.debug("Querying orders for customer: {}", customerId);
+
+        List<Order> orders = getTable().query(QueryEnhancedRequest.builder()
+                        .queryConditional(QueryConditional.sortBeginsWith(Key.builder()
+                                .partitionValue(CustomerOrderKeys.partitionKey(customerId))
+                                .sortValue(CustomerOrderKeys.ORDER_PREFIX)
+                                .build()))
+                        .build())
+                .items().stream()
+                .collect(Collectors.toList());
+
+        log.info("Found {} orders for customer: {}", orders.size(), customerId);
+        return orders;
+    }
+}
@@ -1,12 +1,18 @@
 package com.app.dynamodb.order.service;
 
 import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.OrderPage;
+import com.app.dynamodb.order.domain.OrderStats;
+import com.app.dynamodb.order.repository.OrderArchiveRepository;
 import com.app.dynamodb.order.repository.OrderRepository;
+import com.app.dynamodb.order.repository.OrderStatsRepository;
 import com.app.dynamodb.shared.exception.ResourceNotFoundException;
+import com.app.dynamodb.shared.web.IfMatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,7 +21,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class OrderService {
 
+    static final int MAX_STATUS_PAGE_SIZE = 100;
+
     private final OrderRepository repository;
+    private final OrderStatsRepository statsRepository;
+    private final OrderArchiveRepository archiveRepository;
 
     public Order createOrder(Order order) {
         log.info("Creating new order for customer: {}", order.getCustomerId());
@@ -25,12 +35,21 @@ public class OrderService {
             order.setStatus(Order.OrderStatus.PENDING);
         }
         
-        return repository.save(order);
+        Order saved = repository.save(order);
+        recordStats(null, saved);
+        return saved;
     }
 
     public Order getOrder(String orderId) {
         log.debug("Retrieving order: {}", orderId);
         return repository.findById(orderId)
+                .or(() -> archiveRepository.findById(orderId))
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+    }
+
+    public Instant getOrderVersion(String orderId) {
+        return repository.findVersion(orderId)
+                .or(() -> archiveRepository.findById(orderId).map(Order::getUpdatedAt))
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
     }
 
@@ -44,34 +63,69 @@ public class OrderService {
         return repository.findByCustomerId(customerId);
     }
 
-    public Order updateOrder(String orderId, Order order) {
+    public OrderPage getOrdersByStatus(Order.OrderStatus status, int size, String pageToken) {
+        log.info("Retrieving orders with status: {}", status);
+        if (size < 1 || size > MAX_STATUS_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_STATUS_PAGE_SIZE);
+        }
+        return repository.findByStatus(status, size, pageToken);
+    }
+
+    public Order updateOrder(String orderId, Order order, IfMatch ifMatch) {
         log.info("Updating order: {}", orderId);
         
         // Verify order exists
-        repository.findById(orderId)
+        Order existing = repository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
         
         order.setOrderId(orderId);
-        return repository.update(order);
+        order.setCreatedAt(existing.getCreatedAt());
+        order.setExpiresAt(existing.getExpiresAt());
+        Order updated = repository.replace(existing, order, ifMatch);
+        recordStats(existing, updated);
+        return updated;
     }
 
-    public Order updateOrderStatus(String orderId, Order.OrderStatus status) {
+    public Order updateOrderStatus(String orderId, Order.OrderStatus status, IfMatch ifMatch) {
         log.info("Updating order status: {} to {}", orderId, status);
         
         Order order = repository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+        Order before = order.toBuilder().build();
         
         order.setStatus(status);
-        return repository.update(order);
+        Order updated = repository.update(order, ifMatch);
+        recordStats(before, updated);
+        return updated;
     }
 
     public void deleteOrder(String orderId) {
         log.info("Deleting order: {}", orderId);
         
         // Verify order exists
-        repository.findById(orderId)
+        Order existing = repository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
         
-        repository.deleteById(orderId);
+        repository.delete(existing);
+        recordStats(existing, null);
+    }
+
+    public OrderStats getOrderStats(Instant from, Instant to, OrderStats.Granularity granularity) {
+        log.info("Retrieving {} order stats from {} to {}", granularity, from, to);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return statsRepository.find(granularity, from, to);
+    }
+
+    private void recordStats(Order before, Order after) {
+        // The order write already succeeded; failing the request now would invite a duplicate on retry.
+        // Client-side failures such as timeouts count as much as service errors.
+        try {
+            statsRepository.record(before, after);
+        } catch (RuntimeException e) {
+            String orderId = after != null ? after.getOrderId() : before.getOrderId();
+            log.warn("Order stats not updated for order {}: {}", orderId, e.getMessage());
+        }
     }
 }
\ No newline at end of file
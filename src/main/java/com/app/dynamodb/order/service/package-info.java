@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("service")
+package com.app.dynamodb.order.service;
@@ -1,16 +1,32 @@
 package com.app.dynamodb.product.api;
 
+import com.app.dynamodb.product.domain.PriceSort;
 import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductPage;
+import com.app.dynamodb.product.domain.Reservation;
+import com.app.dynamodb.product.feed.ProductChangeFeed;
+import com.app.dynamodb.product.search.ProductSearchResult;
 import com.app.dynamodb.product.service.ProductService;
+import com.app.dynamodb.product.service.ReservationService;
+import com.app.dynamodb.shared.bulk.ImportJob;
+import com.app.dynamodb.shared.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 
 @Slf4j
@@ -20,7 +36,11 @@ import java.util.List;
 @Tag(name = "Product", description = "Product management API using Spring Cloud AWS DynamoDB")
 public class ProductController {
 
+    static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
     private final ProductService service;
+    private final ReservationService reservationService;
+    private final ProductChangeFeed changeFeed;
 
     @PostMapping
     @Operation(summary = "Create a new product")
@@ -30,20 +50,67 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import products from an NDJSON or CSV file")
+    public ResponseEntity<ImportJob.Status> importProducts(@RequestParam("file") MultipartFile file) {
+        log.info("REST request to import products");
+        ImportJob job = service.importProducts(file);
+        return ResponseEntity.accepted()
+                .location(URI.create("/actuator/dynamodbimport/" + job.getId()))
+                .body(job.status(false));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products by name, manufacturer and category; words match whole or as a prefix")
+    public ResponseEntity<ProductSearchResult> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("REST request to search products: {}", query);
+        return ResponseEntity.ok(service.searchProducts(query, page, size));
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream stock, status and price changes of the given products, or of all products")
+    public SseEmitter streamProductChanges(@RequestParam(name = "productId", required = false) List<String> productIds) {
+        log.info("REST request to stream product changes");
+        return changeFeed.subscribe(productIds != null ? productIds : List.of());
+    }
+
     @GetMapping("/{productId}")
-    @Operation(summary = "Get product by ID")
-    public ResponseEntity<Product> getProduct(@PathVariable String productId) {
+    @Operation(summary = "Get product by ID; answers 304 when If-None-Match names the current version")
+    public ResponseEntity<Product> getProduct(@PathVariable String productId, WebRequest request) {
         log.info("REST request to get product: {}", productId);
+        if (ETags.notModified(request, () -> service.getProductVersion(productId))) {
+            return null;
+        }
         Product product = service.getProduct(productId);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok().eTag(ETags.of(product.getUpdatedAt())).body(product);
     }
 
     @GetMapping
-    @Operation(summary = "Get all products or filter by category/status")
+    @Operation(summary = "Get all products or filter by category/status; a price range or sort pages through a category by price")
     public ResponseEntity<List<Product>> getProducts(
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) Product.ProductStatus status) {
+            @RequestParam(required = false) Product.ProductStatus status,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) PriceSort sort,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String pageToken) {
         log.info("REST request to get products");
+
+        if (minPrice != null || maxPrice != null || sort != null) {
+            if (category == null) {
+                throw new IllegalArgumentException("minPrice, maxPrice and sort require a category");
+            }
+            ProductPage page = service.getProductsByCategoryAndPrice(category, minPrice, maxPrice, sort, size, pageToken);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextPageToken() != null) {
+                response.header(NEXT_PAGE_TOKEN_HEADER, page.nextPageToken());
+            }
+            return response.body(page.items());
+        }
         
         if (category != null) {
             List<Product> products = service.getProductsByCategory(category);
@@ -76,32 +143,35 @@ public class ProductController {
     }
 
     @PutMapping("/{productId}")
-    @Operation(summary = "Update product")
+    @Operation(summary = "Update product; with If-Match only if it still has that version")
     public ResponseEntity<Product> updateProduct(
             @PathVariable String productId,
-            @Valid @RequestBody Product product) {
+            @Valid @RequestBody Product product,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to update product: {}", productId);
-        Product updated = service.updateProduct(productId, product);
-        return ResponseEntity.ok(updated);
+        Product updated = service.updateProduct(productId, product, ETags.ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getUpdatedAt())).body(updated);
     }
 
     @PatchMapping("/{productId}/status")
     @Operation(summary = "Update product status")
     public ResponseEntity<Product> updateProductStatus(
             @PathVariable String productId,
-            @RequestParam Product.ProductStatus status) {
+            @RequestParam Product.ProductStatus status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to update product status: {} to {}", productId, status);
-        Product updated = service.updateProductStatus(productId, status);
-        return ResponseEntity.ok(updated);
+        Product updated = service.updateProductStatus(productId, status, ETags.ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getUpdatedAt())).body(updated);
     }
 
     @PatchMapping("/{productId}/stock/adjust")
     @Operation(summary = "Adjust product stock (positive or negative)")
     public ResponseEntity<Void> adjustStock(
             @PathVariable String productId,
-            @RequestParam int quantity) {
+            @RequestParam int quantity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to adjust stock for product: {} by {}", productId, quantity);
-        service.adjustStock(productId, quantity);
+        service.adjustStock(productId, quantity, ETags.ifMatch(ifMatch));
         return ResponseEntity.ok().build();
     }
 
@@ -109,9 +179,10 @@ public class ProductController {
     @Operation(summary = "Reduce product stock")
     public ResponseEntity<Void> reduceStock(
             @PathVariable String productId,
-            @RequestParam int quantity) {
+            @RequestParam int quantity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to reduce stock for product: {} by {}", productId, quantity);
-        service.reduceStock(productId, quantity);
+        service.reduceStock(productId, quantity, ETags.ifMatch(ifMatch));
         return ResponseEntity.ok().build();
     }
 
@@ -119,12 +190,46 @@ public class ProductController {
     @Operation(summary = "Increase product stock")
     public ResponseEntity<Void> increaseStock(
             @PathVariable String productId,
-            @RequestParam int quantity) {
+            @RequestParam int quantity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST request to increase stock for product: {} by {}", productId, quantity);
-        service.increaseStock(productId, quantity);
+        service.increaseStock(productId, quantity, ETags.ifMatch(ifMatch));
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{productId}/reservations")
+    @Operation(summary = "Hold stock for a cart until confirmed, released or expired")
+    public ResponseEntity<Reservation> reserve(
+            @PathVariable String productId,
+            @RequestParam int quantity,
+            @RequestParam(required = false) Duration holdFor) {
+        log.info("REST request to reserve {} of product: {}", quantity, productId);
+        Reservation reservation = reservationService.reserve(productId, quantity, holdFor);
+        return ResponseEntity.created(URI.create("/api/v1/products/" + productId + "/reservations/"
+                + reservation.getReservationId())).body(reservation);
+    }
+
+    @GetMapping("/{productId}/reservations/{reservationId}")
+    @Operation(summary = "Get a stock reservation")
+    public ResponseEntity<Reservation> getReservation(@PathVariable String productId, @PathVariable String reservationId) {
+        log.info("REST request to get reservation: {} of product: {}", reservationId, productId);
+        return ResponseEntity.ok(reservationService.getReservation(productId, reservationId));
+    }
+
+    @PostMapping("/{productId}/reservations/{reservationId}/confirm")
+    @Operation(summary = "Consume the held stock of a reservation")
+    public ResponseEntity<Reservation> confirmReservation(@PathVariable String productId, @PathVariable String reservationId) {
+        log.info("REST request to confirm reservation: {} of product: {}", reservationId, productId);
+        return ResponseEntity.ok(reservationService.confirm(productId, reservationId));
+    }
+
+    @PostMapping("/{productId}/reservations/{reservationId}/release")
+    @Operation(summary = "Return the held stock of a reservation")
+    public ResponseEntity<Reservation> releaseReservation(@PathVariable String productId, @PathVariable String reservationId) {
+        log.info("REST request to release reservation: {} of product: {}", reservationId, productId);
+        return ResponseEntity.ok(reservationService.release(productId, reservationId));
+    }
+
     @DeleteMapping("/{productId}")
     @Operation(summary = "Delete product")
     public ResponseEntity<Void> deleteProduct(@PathVariable String productId) {
@@ -0,0 +1,155 @@
+package com.app.dynamodb.product.catalog;
+
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+import com.app.dynamodb.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory product catalog. Loaded with a parallel scan, kept current by incremental scans on
+ * {@code updatedAt} plus the writes made by this instance, and published as immutable
+ * {@link ProductCatalogSnapshot} versions. Reads only dereference the current version.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCatalog {
+
+    private final ProductRepository repository;
+    private final ProductCatalogProperties properties;
+
+    private final Queue<ProductChangedEvent> pendingChanges = new ConcurrentLinkedQueue<>();
+    private volatile ProductCatalogSnapshot snapshot;
+    private Instant lastFullReload = Instant.EPOCH;
+
+    public boolean isReady() {
+        return properties.isEnabled() && snapshot != null;
+    }
+
+    public List<Product> findAll() {
+        return current().findAll();
+    }
+
+    public List<Product> findByCategory(String category) {
+        return current().findByCategory(category);
+    }
+
+    public List<Product> findByStatus(Product.ProductStatus status) {
+        return current().findByStatus(status);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (properties.isEnabled()) {
+            pendingChanges.add(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.catalog.publish-interval:PT1S}")
+    public void publishPendingChanges() {
+        if (snapshot == null || pendingChanges.isEmpty()) {
+            return;
+        }
+        publish(drainPendingChanges());
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.catalog.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try {
+            if (snapshot == null || Instant.now().isAfter(lastFullReload.plus(properties.getFullReloadInterval()))) {
+                reload();
+            } else {
+                refreshIncrementally();
+            }
+        } catch (Exception e) {
+            log.error("Product catalog refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        Instant scanStarted = Instant.now();
+
+        List<Product> products = repository.scanParallel(properties.getScanSegments(), null);
+
+        synchronized (this) {
+            snapshot = ProductCatalogSnapshot.of(products);
+            lastFullReload = scanStarted;
+        }
+        // Writes that raced with the scan are replayed on top; stale ones are skipped by timestamp.
+        publish(drainPendingChanges());
+
+        log.info("Product catalog loaded: {} products in {} ms",
+                snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void refreshIncrementally() {
+        Instant since = current().getWatermark().minus(properties.getRefreshOverlap());
+        List<Product> changed = repository.scanParallel(properties.getScanSegments(), since);
+
+        Map<String, Product> changes = drainPendingChanges();
+        for (Product product : changed) {
+            // A pending delete from this instance wins over a scan that may have read the item before it.
+            if (!changes.containsKey(product.getProductId())) {
+                changes.put(product.getProductId(), product);
+            } else if (changes.get(product.getProductId()) != null) {
+                changes.put(product.getProductId(), newer(changes.get(product.getProductId()), product));
+            }
+        }
+        publish(changes);
+
+        log.debug("Product catalog refreshed: {} products changed since {}", changed.size(), since);
+    }
+
+    private Map<String, Product> drainPendingChanges() {
+        Map<String, Product> changes = new LinkedHashMap<>();
+        ProductChangedEvent event;
+        while ((event = pendingChanges.poll()) != null) {
+            changes.put(event.productId(), event.product());
+        }
+        return changes;
+    }
+
+    private synchronized void publish(Map<String, Product> changes) {
+        ProductCatalogSnapshot current = current();
+        changes.entrySet().removeIf(change -> isStale(current, change.getValue()));
+        snapshot = current.apply(changes);
+    }
+
+    private static Product newer(Product pending, Product scanned) {
+        if (pending.getUpdatedAt() == null || scanned.getUpdatedAt() == null) {
+            return pending;
+        }
+        return scanned.getUpdatedAt().isAfter(pending.getUpdatedAt()) ? scanned : pending;
+    }
+
+    private static boolean isStale(ProductCatalogSnapshot current, Product candidate) {
+        if (candidate == null || candidate.getUpdatedAt() == null) {
+            return false;
+        }
+        return current.findById(candidate.getProductId())
+                .map(Product::getUpdatedAt)
+                .filter(existing -> existing.isAfter(candidate.getUpdatedAt()))
+                .isPresent();
+    }
+
+    private ProductCatalogSnapshot current() {
+        ProductCatalogSnapshot current = snapshot;
+        return current != null ? current : ProductCatalogSnapshot.EMPTY;
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.dynamodb.product.catalog;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.product.catalog")
+public class ProductCatalogProperties {
+
+    /** Serve product list queries from the in-memory snapshot instead of DynamoDB. */
+    private boolean enabled = false;
+
+    /** Number of segments used by the parallel scan. */
+    private int scanSegments = 8;
+
+    /** How often the snapshot is refreshed with products updated on other instances. */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    /** Overlap subtracted from the watermark so late or clock-skewed writes are not missed. */
+    private Duration refreshOverlap = Duration.ofSeconds(5);
+
+    /** How often the snapshot is rebuilt from a full scan, which also drops products deleted elsewhere. */
+    private Duration fullReloadInterval = Duration.ofMinutes(15);
+
+    /** How often writes made by this instance are published into a new snapshot version. */
+    private Duration publishInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,153 @@
+package com.app.dynamodb.product.catalog;
+
+import com.app.dynamodb.product.domain.Product;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, fully indexed view of the product table. A new version is built for every change set
+ * and swapped in atomically, so readers never lock and never observe a half-applied update.
+ */
+public final class ProductCatalogSnapshot {
+
+    static final ProductCatalogSnapshot EMPTY = new ProductCatalogSnapshot(Map.of(), Map.of(), Map.of(), Instant.EPOCH);
+
+    private final Map<String, Product> byId;
+    private final Map<String, List<Product>> byCategory;
+    private final Map<Product.ProductStatus, List<Product>> byStatus;
+    private final Instant watermark;
+
+    private ProductCatalogSnapshot(Map<String, Product> byId,
+                                   Map<String, List<Product>> byCategory,
+                                   Map<Product.ProductStatus, List<Product>> byStatus,
+                                   Instant watermark) {
+        this.byId = byId;
+        this.byCategory = byCategory;
+        this.byStatus = byStatus;
+        this.watermark = watermark;
+    }
+
+    public static ProductCatalogSnapshot of(Collection<Product> products) {
+        Map<String, Product> byId = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            byId.put(product.getProductId(), product);
+        }
+        return new ProductCatalogSnapshot(
+                Collections.unmodifiableMap(byId),
+                index(byId.values(), Product::getCategory),
+                index(byId.values(), Product::getStatus),
+                latestUpdate(byId.values(), Instant.EPOCH));
+    }
+
+    /**
+     * Returns a new version with {@code changes} applied, where a {@code null} value marks a deleted
+     * product. Only the category and status lists touched by the change set are rebuilt; all other
+     * lists are shared with this version.
+     */
+    public ProductCatalogSnapshot apply(Map<String, Product> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+
+        Map<String, Product> newById = new HashMap<>(byId);
+        List<Product> upserts = new ArrayList<>();
+        Set<String> touchedCategories = new HashSet<>();
+        Set<Product.ProductStatus> touchedStatuses = EnumSet.noneOf(Product.ProductStatus.class);
+
+        changes.forEach((productId, product) -> {
+            Product previous = product == null ? newById.remove(productId) : newById.put(productId, product);
+            if (previous != null) {
+                touchedCategories.add(previous.getCategory());
+                touchedStatuses.add(previous.getStatus());
+            }
+            if (product != null) {
+                upserts.add(product);
+                touchedCategories.add(product.getCategory());
+                touchedStatuses.add(product.getStatus());
+            }
+        });
+
+        return new ProductCatalogSnapshot(
+                Collections.unmodifiableMap(newById),
+                reindex(byCategory, touchedCategories, changes.keySet(), upserts, Product::getCategory),
+                reindex(byStatus, touchedStatuses, changes.keySet(), upserts, Product::getStatus),
+                latestUpdate(upserts, watermark));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /** Latest {@code updatedAt} seen in this snapshot; incremental refreshes scan from here. */
+    public Instant getWatermark() {
+        return watermark;
+    }
+
+    public Optional<Product> findById(String productId) {
+        return Optional.ofNullable(byId.get(productId));
+    }
+
+    public List<Product> findAll() {
+        return List.copyOf(byId.values());
+    }
+
+    public List<Product> findByCategory(String category) {
+        return byCategory.getOrDefault(category, List.of());
+    }
+
+    public List<Product> findByStatus(Product.ProductStatus status) {
+        return byStatus.getOrDefault(status, List.of());
+    }
+
+    private static <K> Map<K, List<Product>> index(Collection<Product> products,
+                                                   Function<Product, K> keyFn) {
+        return products.stream()
+                .filter(product -> keyFn.apply(product) != null)
+                .collect(Collectors.collectingAndThen(
+                        Collectors.groupingBy(keyFn, Collectors.toUnmodifiableList()),
+                        Collections::unmodifiableMap));
+    }
+
+    private static <K> Map<K, List<Product>> reindex(Map<K, List<Product>> current,
+                                                     Set<K> touchedKeys,
+                                                     Set<String> changedIds,
+                                                     Collection<Product> upserts,
+                                                     Function<Product, K> keyFn) {
+        Map<K, List<Product>> result = new HashMap<>(current);
+        for (K key : touchedKeys) {
+            if (key == null) {
+                continue;
+            }
+            List<Product> rebuilt = new ArrayList<>();
+            for (Product product : current.getOrDefault(key, List.of())) {
+                if (!changedIds.contains(product.getProductId())) {
+                    rebuilt.add(product);
+                }
+            }
+            for (Product product : upserts) {
+                if (key.equals(keyFn.apply(product))) {
+                    rebuilt.add(product);
+                }
+            }
+            if (rebuilt.isEmpty()) {
+                result.remove(key);
+            } else {
+                result.put(key, List.copyOf(rebuilt));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static Instant latestUpdate(Collection<Product> products, Instant floor) {
+        Instant latest = floor;
+        for (Product product : products) {
+            if (product.getUpdatedAt() != null && product.getUpdatedAt().isAfter(latest)) {
+                latest = product.getUpdatedAt();
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,5 @@
+package com.app.dynamodb.product.domain;
+
+public enum PriceSort {
+    PRICE_ASC, PRICE_DESC
+}
@@ -0,0 +1,83 @@
+package com.app.dynamodb.product.domain;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Sort key of the {@code category-price-index}: the price encoded so that string order matches numeric
+ * order, followed by the product ID to keep the order total when prices tie.
+ * <p>
+ * A price is written as the two-digit length of its integer part, the integer digits and then the
+ * fraction digits without trailing zeros: {@code 0} is {@code "00"}, {@code 0.5} is {@code "005"},
+ * {@code 19.99} is {@code "021999"} and {@code 120} is {@code "03120"}. The product ID follows a
+ * {@code '#'}, which sorts below every digit, so {@code 1} ({@code "011#..."}) stays below
+ * {@code 1.5} ({@code "0115#..."}).
+ */
+public final class PriceSortKey {
+
+    private static final char SEPARATOR = '#';
+    /** Sorts directly above {@link #SEPARATOR} and below every digit. */
+    private static final char UPPER_SENTINEL = '$';
+
+    private PriceSortKey() {
+    }
+
+    /** Returns the sort key, or {@code null} when the product cannot be placed in the index. */
+    public static String of(BigDecimal price, String productId) {
+        if (price == null || productId == null) {
+            return null;
+        }
+        return encode(price) + SEPARATOR + productId;
+    }
+
+    /** Lowest sort key a product priced at {@code minPrice} or more can have. */
+    public static String lowerBound(BigDecimal minPrice) {
+        return encode(minPrice);
+    }
+
+    /** Highest sort key a product priced at {@code maxPrice} or less can have. */
+    public static String upperBound(BigDecimal maxPrice) {
+        return encode(maxPrice) + UPPER_SENTINEL;
+    }
+
+    public static String productIdOf(String sortKey) {
+        int separator = sortKey.indexOf(SEPARATOR);
+        if (separator < 0 || separator == sortKey.length() - 1) {
+            throw new IllegalArgumentException("Not a price sort key: " + sortKey);
+        }
+        return sortKey.substring(separator + 1);
+    }
+
+    /** Wraps a sort key as an opaque, URL-safe page token. */
+    public static String toPageToken(String sortKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sortKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String fromPageToken(String pageToken) {
+        try {
+            String sortKey = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            productIdOf(sortKey);
+            return sortKey;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token: " + pageToken);
+        }
+    }
+
+    static String encode(BigDecimal price) {
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("Price must not be negative: " + price);
+        }
+        String plain = price.stripTrailingZeros().toPlainString();
+        int point = plain.indexOf('.');
+        String integer = point < 0 ? plain : plain.substring(0, point);
+        String fraction = point < 0 ? "" : plain.substring(point + 1);
+        if (integer.equals("0")) {
+            integer = "";
+        }
+        if (integer.length() > 99) {
+            throw new IllegalArgumentException("Price out of range: " + price);
+        }
+        return (integer.length() < 10 ? "0" : "") + integer.length() + integer + fraction;
+    }
+}
@@ -1,31 +1,49 @@
 package com.app.dynamodb.product.domain;
 
+import com.app.dynamodb.shared.compression.CompressedText;
+import com.app.dynamodb.shared.compression.CompressedTextConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.awspring.cloud.dynamodb.DynamoDbTableNameResolver;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @DynamoDbBean
 public class Product {
+
+    public static final String CATEGORY_INDEX = "category-index";
+    public static final String CATEGORY_PRICE_INDEX = "category-price-index";
     
     private String productId;
+    @NotBlank
     private String name;
-    private String description;
+    private CompressedText description;
     private String category;
+    @PositiveOrZero
     private BigDecimal price;
+    @PositiveOrZero
     private Integer stockQuantity;
+    /** Units held by open reservations, already taken out of {@code stockQuantity}; see {@link Reservation}. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer reservedQuantity;
     private String manufacturer;
     private ProductStatus status;
     private Instant createdAt;
@@ -42,12 +60,29 @@ public class Product {
         return name;
     }
 
-    @DynamoDbAttribute("description")
+    @DynamoDbIgnore
     public String getDescription() {
+        return description == null ? null : description.toString();
+    }
+
+    public void setDescription(String description) {
+        this.description = CompressedText.of(description);
+    }
+
+    /** Stored form of the description, compressed once it is large; see {@link CompressedText}. */
+    @JsonIgnore
+    @DynamoDbConvertedBy(CompressedTextConverter.class)
+    @DynamoDbAttribute("description")
+    public CompressedText getStoredDescription() {
         return description;
     }
 
-    @DynamoDbSecondaryPartitionKey(indexNames = "category-index")
+    @JsonIgnore
+    public void setStoredDescription(CompressedText description) {
+        this.description = description;
+    }
+
+    @DynamoDbSecondaryPartitionKey(indexNames = {CATEGORY_INDEX, CATEGORY_PRICE_INDEX})
     @DynamoDbAttribute("category")
     public String getCategory() {
         return category;
@@ -58,11 +93,29 @@ public class Product {
         return price;
     }
 
+    /** Derived from price and product ID; see {@link PriceSortKey}. */
+    @JsonIgnore
+    @DynamoDbSecondarySortKey(indexNames = CATEGORY_PRICE_INDEX)
+    @DynamoDbAttribute("priceSortKey")
+    public String getPriceSortKey() {
+        return PriceSortKey.of(price, productId);
+    }
+
+    /** The stored value is ignored on read, the key is always derived from the current price. */
+    @JsonIgnore
+    public void setPriceSortKey(String priceSortKey) {
+    }
+
     @DynamoDbAttribute("stockQuantity")
     public Integer getStockQuantity() {
         return stockQuantity;
     }
 
+    @DynamoDbAttribute("reservedQuantity")
+    public Integer getReservedQuantity() {
+        return reservedQuantity;
+    }
+
     @DynamoDbAttribute("manufacturer")
     public String getManufacturer() {
         return manufacturer;
@@ -83,6 +136,20 @@ public class Product {
         return updatedAt;
     }
 
+    public static class ProductBuilder {
+
+        public ProductBuilder description(String description) {
+            this.description = CompressedText.of(description);
+            return this;
+        }
+
+        /** Used by {@code toBuilder()}, so copies share the stored form instead of decompressing it. */
+        private ProductBuilder description(CompressedText description) {
+            this.description = description;
+            return this;
+        }
+    }
+
     public enum ProductStatus {
         ACTIVE, INACTIVE, OUT_OF_STOCK, DISCONTINUED
     }
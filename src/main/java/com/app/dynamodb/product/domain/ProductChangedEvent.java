@@ -0,0 +1,20 @@
+package com.app.dynamodb.product.domain;
+
+/**
+ * Published by the product repository after every successful write.
+ * {@code product} is {@code null} when the product was deleted.
+ */
+public record ProductChangedEvent(String productId, Product product) {
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getProductId(), product);
+    }
+
+    public static ProductChangedEvent deleted(String productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.app.dynamodb.product.domain;
+
+import java.util.List;
+
+/** One page of products; {@code nextPageToken} is {@code null} on the last page. */
+public record ProductPage(List<Product> items, String nextPageToken) {
+}
@@ -0,0 +1,111 @@
+package com.app.dynamodb.product.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+
+import java.time.Instant;
+
+/**
+ * Units of a product held for a cart until {@code holdUntil}. Reserving moves them from the product's
+ * {@code stockQuantity} to its {@code reservedQuantity}; confirming consumes them, releasing or expiring
+ * returns them to stock.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class Reservation {
+
+    public static final String EXPIRY_INDEX = "expiry-index";
+
+    private String reservationId;
+    private String productId;
+    private Integer quantity;
+    private ReservationStatus status;
+    private Instant holdUntil;
+    /** Partition of the expiry index, set only while the reservation is held so that the index stays sparse. */
+    @JsonIgnore
+    private String expiryShard;
+    /** Epoch second after which DynamoDB deletes the item. */
+    @JsonIgnore
+    private Long expiresAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("reservationId")
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    @DynamoDbAttribute("productId")
+    public String getProductId() {
+        return productId;
+    }
+
+    @DynamoDbAttribute("quantity")
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    @DynamoDbAttribute("status")
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    @DynamoDbIgnore
+    public Instant getHoldUntil() {
+        return holdUntil;
+    }
+
+    /**
+     * Stored as epoch milliseconds, a number, so that the expiry index orders holds by time; ISO-8601
+     * strings with a varying number of fraction digits do not sort chronologically.
+     */
+    @JsonIgnore
+    @DynamoDbSecondarySortKey(indexNames = EXPIRY_INDEX)
+    @DynamoDbAttribute("holdUntil")
+    public Long getHoldUntilMillis() {
+        return holdUntil == null ? null : holdUntil.toEpochMilli();
+    }
+
+    @JsonIgnore
+    public void setHoldUntilMillis(Long holdUntilMillis) {
+        this.holdUntil = holdUntilMillis == null ? null : Instant.ofEpochMilli(holdUntilMillis);
+    }
+
+    @DynamoDbSecondaryPartitionKey(indexNames = EXPIRY_INDEX)
+    @DynamoDbAttribute("expiryShard")
+    public String getExpiryShard() {
+        return expiryShard;
+    }
+
+    @DynamoDbAttribute("expiresAt")
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @DynamoDbAttribute("createdAt")
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @DynamoDbAttribute("updatedAt")
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public enum ReservationStatus {
+        HELD, CONFIRMED, RELEASED, EXPIRED
+    }
+}
@@ -0,0 +1,74 @@
+package com.app.dynamodb.product.feed;
+
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+import com.app.dynamodb.product.repository.ProductRepository;
+import com.app.dynamodb.shared.feed.ChangeFeed;
+import com.app.dynamodb.shared.feed.ChangeFeedProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams the stock, status and price of products as the product repository writes them, so that clients
+ * need not poll {@code GET /products/{id}}. A subscriber that falls behind gets only the latest state of
+ * each product.
+ */
+@Component
+public class ProductChangeFeed {
+
+    public static final String CHANGED = "product";
+    public static final String DELETED = "deleted";
+    static final int MAX_PRODUCT_IDS = 100;
+
+    private final ProductRepository repository;
+    private final ChangeFeed feed;
+
+    public ProductChangeFeed(ProductRepository repository, ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.feed = new ChangeFeed("products", ChangeFeed.Policy.COALESCE, properties, meterRegistry);
+    }
+
+    /** Streams the changes of the given products, starting with their current state, or of every product. */
+    public SseEmitter subscribe(List<String> productIds) {
+        if (productIds.size() > MAX_PRODUCT_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_PRODUCT_IDS + " product IDs can be followed at once");
+        }
+        return feed.subscribe(productIds, () -> productIds.stream()
+                .map(repository::findById)
+                .flatMap(Optional::stream)
+                .map(product -> feed.change(product.getProductId(), CHANGED, ProductChange.of(product)))
+                .toList());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            feed.publish(event.productId(), DELETED, new ProductChange(event.productId(), null, null, null, null));
+        } else {
+            feed.publish(event.productId(), CHANGED, ProductChange.of(event.product()));
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        feed.close();
+    }
+
+    /** What a product change event carries; everything but the product ID is {@code null} once it is deleted. */
+    public record ProductChange(String productId, Integer stockQuantity, Product.ProductStatus status,
+                                BigDecimal price, Instant updatedAt) {
+
+        static ProductChange of(Product product) {
+            return new ProductChange(product.getProductId(), product.getStockQuantity(), product.getStatus(),
+                    product.getPrice(), product.getUpdatedAt());
+        }
+    }
+}
@@ -1,5 +1,5 @@
 @org.springframework.modulith.ApplicationModule(
         displayName = "Product Management",
-        allowedDependencies = {"shared", "shared::exception"}
+        allowedDependencies = {"shared", "shared::exception", "shared::concurrent", "shared::warmup", "shared::bulk", "shared::web", "shared::journal", "shared::feed", "shared::compression"}
 )
 package com.app.dynamodb.product;
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.app.dynamodb.product.repository;
+
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.shared.warmup.EntityMappingWarmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Component
+class ProductMappingWarmup extends EntityMappingWarmup<Product> {
+
+    ProductMappingWarmup(ObjectMapper objectMapper) {
+        super(Product.class, objectMapper);
+    }
+
+    @Override
+    protected Product sample() {
+        Instant now = Instant.now();
+        return Product.builder()
+                .productId(UUID.randomUUID().toString())
+                .name("Warm-up product")
+                .description("Not persisted")
+                .category("warmup")
+                .price(new BigDecimal("9.99"))
+                .stockQuantity(1)
+                .manufacturer("warmup")
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -1,26 +1,71 @@
 package com.app.dynamodb.product.repository;
 
+import com.app.dynamodb.product.domain.PriceSortKey;
 import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+import com.app.dynamodb.product.domain.ProductPage;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.exception.PreconditionFailedException;
+import com.app.dynamodb.shared.journal.JournaledWrite;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import com.app.dynamodb.shared.web.IfMatch;
 import io.awspring.cloud.dynamodb.DynamoDbTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class ProductRepository {
 
+    private static final TableSchema<Product> TABLE_SCHEMA = TableSchema.fromBean(Product.class);
+    /** Attempts of an update that keep finding the product written in between before giving up. */
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+
     private final DynamoDbTemplate dynamoDbTemplate;
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final AwsConfigProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlights singleFlights;
+    private final HedgedReads hedgedReads;
+    private final WriteJournal writeJournal;
 
     public Product save(Product product) {
         log.debug("Saving product: {}", product.getProductId());
@@ -30,13 +75,28 @@ public class ProductRepository {
         }
         product.setUpdatedAt(Instant.now());
 
-        Product saved = dynamoDbTemplate.save(product);
-        log.info("Product saved successfully: {}", saved.getProductId());
+        journaled(product, () -> dynamoDbTemplate.save(product));
+        log.info("Product saved successfully: {}", product.getProductId());
+        eventPublisher.publishEvent(ProductChangedEvent.saved(product));
         
-        return saved;
+        return product;
+    }
+
+    public String getTableName() {
+        return properties.getTables().get("product");
+    }
+
+    /** Maps a product with its timestamps already set to its DynamoDB item. */
+    public Map<String, AttributeValue> toItem(Product product) {
+        return TABLE_SCHEMA.itemToMap(product, true);
     }
 
     public Optional<Product> findById(String productId) {
+        return singleFlights.execute("product.findById", productId,
+                () -> hedgedReads.execute("product.findById", () -> loadById(productId)), found -> found.map(ProductRepository::copyOf));
+    }
+
+    private Optional<Product> loadById(String productId) {
         log.debug("Finding product by ID: {}", productId);
         
         Key key = Key.builder()
@@ -53,6 +113,19 @@ public class ProductRepository {
         return Optional.of(product);
     }
 
+    /** Reads only {@code updatedAt}, for answering conditional requests without loading the product. */
+    public Optional<Instant> findVersion(String productId) {
+        // GetItem in the enhanced client cannot project, a query on the table key can
+        return hedgedReads.execute("product.findVersion", () -> enhancedClient.table(getTableName(), TABLE_SCHEMA)
+                .query(QueryEnhancedRequest.builder()
+                        .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(productId).build()))
+                        .attributesToProject("updatedAt")
+                        .build())
+                .items().stream()
+                .findFirst()
+                .map(Product::getUpdatedAt));
+    }
+
     public List<Product> findAll() {
         log.debug("Finding all products");
         
@@ -65,7 +138,57 @@ public class ProductRepository {
         return products;
     }
 
+    /**
+     * Reads the whole table with a parallel segmented scan, one virtual thread per segment.
+     * When {@code updatedSince} is set only products modified after that instant are returned.
+     */
+    public List<Product> scanParallel(int totalSegments, Instant updatedSince) {
+        log.debug("Parallel scan of products with {} segments, updated since: {}", totalSegments, updatedSince);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<List<Product>>> segments = IntStream.range(0, totalSegments)
+                    .mapToObj(segment -> CompletableFuture.supplyAsync(
+                            () -> scanSegment(segment, totalSegments, updatedSince), executor))
+                    .toList();
+
+            List<Product> products = new ArrayList<>();
+            for (CompletableFuture<List<Product>> segment : segments) {
+                products.addAll(segment.join());
+            }
+
+            log.info("Parallel scan returned {} products", products.size());
+            return products;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private List<Product> scanSegment(int segment, int totalSegments, Instant updatedSince) {
+        ScanEnhancedRequest.Builder request = ScanEnhancedRequest.builder()
+                .segment(segment)
+                .totalSegments(totalSegments);
+
+        if (updatedSince != null) {
+            request.filterExpression(Expression.builder()
+                    .expression("#updatedAt > :since")
+                    .putExpressionName("#updatedAt", "updatedAt")
+                    .putExpressionValue(":since", AttributeValue.fromS(updatedSince.toString()))
+                    .build());
+        }
+
+        return dynamoDbTemplate.scan(request.build(), Product.class).items().stream()
+                .collect(Collectors.toList());
+    }
+
     public List<Product> findByCategory(String category) {
+        return singleFlights.execute("product.findByCategory", category,
+                () -> hedgedReads.execute("product.findByCategory", () -> queryByCategory(category)), ProductRepository::copyOf);
+    }
+
+    private List<Product> queryByCategory(String category) {
         log.debug("Finding products by category: {}", category);
         
         QueryConditional queryConditional = QueryConditional
@@ -77,8 +200,7 @@ public class ProductRepository {
                 .queryConditional(queryConditional)
                 .build();
 
-        // Note: This requires a GSI named "category-index"
-        PageIterable<Product> pages = dynamoDbTemplate.query(query, Product.class);
+        PageIterable<Product> pages = dynamoDbTemplate.query(query, Product.class, Product.CATEGORY_INDEX);
         
         List<Product> products = pages.items().stream()
                 .collect(Collectors.toList());
@@ -87,14 +209,141 @@ public class ProductRepository {
         return products;
     }
 
-    public Product update(Product product) {
-        log.debug("Updating product: {}", product.getProductId());
-        
-        product.setUpdatedAt(Instant.now());
-        Product updated = dynamoDbTemplate.update(product);
-        
-        log.info("Product updated successfully: {}", updated.getProductId());
-        return updated;
+    /**
+     * Reads one page of a category ordered by price from the {@code category-price-index}. The price bounds
+     * are inclusive and either may be {@code null}; {@code pageToken} is the token of the previous page.
+     */
+    public ProductPage findByCategoryAndPrice(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                              boolean descending, int limit, String pageToken) {
+        log.debug("Finding products in category: {} priced {} to {}", category, minPrice, maxPrice);
+
+        QueryEnhancedRequest.Builder query = QueryEnhancedRequest.builder()
+                .queryConditional(priceConditional(category, minPrice, maxPrice))
+                .scanIndexForward(!descending)
+                .limit(limit);
+
+        if (pageToken != null) {
+            String sortKey = PriceSortKey.fromPageToken(pageToken);
+            query.exclusiveStartKey(Map.of(
+                    "category", AttributeValue.fromS(category),
+                    "priceSortKey", AttributeValue.fromS(sortKey),
+                    "productId", AttributeValue.fromS(PriceSortKey.productIdOf(sortKey))));
+        }
+
+        // Only the requested page is read: Limit bounds the items the query evaluates
+        Page<Product> page = hedgedReads.execute("product.findByCategoryAndPrice",
+                () -> dynamoDbTemplate.query(query.build(), Product.class, Product.CATEGORY_PRICE_INDEX)
+                        .stream()
+                        .findFirst()
+                        .orElse(null));
+        if (page == null || page.items().isEmpty()) {
+            return new ProductPage(List.of(), null);
+        }
+
+        List<Product> products = page.items();
+        String nextPageToken = page.lastEvaluatedKey() == null
+                ? null
+                : PriceSortKey.toPageToken(products.getLast().getPriceSortKey());
+
+        log.info("Found {} products in category: {} priced {} to {}", products.size(), category, minPrice, maxPrice);
+        return new ProductPage(products, nextPageToken);
+    }
+
+    private static QueryConditional priceConditional(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null) {
+            return QueryConditional.sortBetween(
+                    priceKey(category, PriceSortKey.lowerBound(minPrice)),
+                    priceKey(category, PriceSortKey.upperBound(maxPrice)));
+        }
+        if (minPrice != null) {
+            return QueryConditional.sortGreaterThanOrEqualTo(priceKey(category, PriceSortKey.lowerBound(minPrice)));
+        }
+        if (maxPrice != null) {
+            return QueryConditional.sortLessThanOrEqualTo(priceKey(category, PriceSortKey.upperBound(maxPrice)));
+        }
+        return QueryConditional.keyEqualTo(Key.builder()
+                .partitionValue(category)
+                .build());
+    }
+
+    private static Key priceKey(String category, String sortKey) {
+        return Key.builder()
+                .partitionValue(category)
+                .sortValue(sortKey)
+                .build();
+    }
+
+    /**
+     * Applies {@code change} to the stored product and writes the result on condition that the product was
+     * not written in between; when it was, the product is read again and the change applied again. Stock
+     * adjustments and reservations change a product in place, so writing back a copy read earlier would
+     * undo them. With {@code ifMatch} the stored product must also be at one of its versions, and a
+     * concurrent write fails the update instead of retrying it. Returns empty when there is no product.
+     */
+    public Optional<Product> update(String productId, UnaryOperator<Product> change, IfMatch ifMatch) {
+        log.debug("Updating product: {}", productId);
+
+        for (int attempt = 1; ; attempt++) {
+            Optional<Product> current = loadCurrent(productId);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            Instant version = current.get().getUpdatedAt();
+            if (ifMatch != null && !ifMatch.matches(version)) {
+                throw new PreconditionFailedException("Product " + productId + " was modified");
+            }
+
+            Product product = change.apply(current.get());
+            product.setProductId(productId);
+            product.setUpdatedAt(Instant.now());
+            try {
+                if (ifMatch == null) {
+                    // Replayed as a put, which the journal skips if the stored product is newer
+                    journaled(product, () -> updateAtVersion(product, version));
+                } else {
+                    updateAtVersion(product, version);
+                }
+            } catch (ConditionalCheckFailedException e) {
+                if (ifMatch != null || attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw new PreconditionFailedException("Product " + productId + " was modified");
+                }
+                log.debug("Product {} changed while updating, retrying", productId);
+                continue;
+            }
+
+            log.info("Product updated successfully: {}", productId);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+            return Optional.of(product);
+        }
+    }
+
+    /** Reads the product as last written, bypassing coalescing and hedging, which may answer with an older copy. */
+    private Optional<Product> loadCurrent(String productId) {
+        return Optional.ofNullable(enhancedClient.table(getTableName(), TABLE_SCHEMA)
+                .getItem(GetItemEnhancedRequest.builder()
+                        .key(Key.builder().partitionValue(productId).build())
+                        .consistentRead(true)
+                        .build()));
+    }
+
+    private void updateAtVersion(Product product, Instant version) {
+        Expression.Builder condition = Expression.builder().putExpressionName("#updatedAt", "updatedAt");
+        if (version == null) {
+            condition.expression("attribute_not_exists(#updatedAt)");
+        } else {
+            condition.expression("#updatedAt = :version")
+                    .putExpressionValue(":version", AttributeValue.fromS(version.toString()));
+        }
+        enhancedClient.table(getTableName(), TABLE_SCHEMA)
+                .updateItem(UpdateItemEnhancedRequest.builder(Product.class)
+                        .item(product)
+                        .conditionExpression(condition.build())
+                        .build());
+    }
+
+    private void journaled(Product product, Runnable write) {
+        writeJournal.execute(product, write,
+                () -> JournaledWrite.put(getTableName(), List.of("productId"), toItem(product)));
     }
 
     public void deleteById(String productId) {
@@ -106,9 +355,15 @@ public class ProductRepository {
 
         dynamoDbTemplate.delete(key, Product.class);
         log.info("Product deleted successfully: {}", productId);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
     }
 
     public List<Product> findByStatus(Product.ProductStatus status) {
+        return singleFlights.execute("product.findByStatus", status,
+                () -> scanByStatus(status), ProductRepository::copyOf);
+    }
+
+    private List<Product> scanByStatus(Product.ProductStatus status) {
         log.debug("Finding products by status: {}", status);
         
         // Using scan with filter for status (not optimized for large datasets)
@@ -123,34 +378,105 @@ public class ProductRepository {
     }
 
     public boolean updateStock(String productId, int quantity) {
+        return updateStock(productId, quantity, null);
+    }
+
+    /**
+     * Adds {@code quantity}, which may be negative, to the stock in one conditional {@code UpdateItem}, so
+     * that concurrent adjustments and reservations all count. Returns {@code false} when the product does
+     * not exist or has too little stock.
+     */
+    public boolean updateStock(String productId, int quantity, IfMatch ifMatch) {
         log.debug("Updating stock for product: {} with quantity: {}", productId, quantity);
-        
-        Optional<Product> productOpt = findById(productId);
-        if (productOpt.isEmpty()) {
-            log.warn("Product not found for stock update: {}", productId);
-            return false;
+
+        Map<String, String> names = new HashMap<>(Map.of("#stock", "stockQuantity", "#updatedAt", "updatedAt"));
+        Map<String, AttributeValue> values = new HashMap<>(Map.of(
+                ":delta", AttributeValue.fromN(Integer.toString(quantity)),
+                // stock + delta >= 0, as update conditions cannot add
+                ":minus", AttributeValue.fromN(Integer.toString(-quantity)),
+                ":now", AttributeValue.fromS(Instant.now().toString())));
+        String condition = "#stock >= :minus";
+        if (ifMatch != null) {
+            condition += " AND " + ifMatch.conditionExpression();
+            names.putAll(ifMatch.expressionNames("productId"));
+            values.putAll(ifMatch.expressionValues());
         }
 
-        Product product = productOpt.get();
-        int newStock = product.getStockQuantity() + quantity;
-        
-        if (newStock < 0) {
+        Product product;
+        try {
+            product = TABLE_SCHEMA.mapToItem(dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(getTableName())
+                    .key(Map.of("productId", AttributeValue.fromS(productId)))
+                    .updateExpression("SET #stock = #stock + :delta, #updatedAt = :now")
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                    .build()).attributes());
+        } catch (ConditionalCheckFailedException e) {
+            if (!e.hasItem()) {
+                log.warn("Product not found for stock update: {}", productId);
+                return false;
+            }
+            AttributeValue stock = e.item().get("stockQuantity");
+            if (ifMatch != null && stock != null && Integer.parseInt(stock.n()) + quantity >= 0) {
+                throw new PreconditionFailedException("Product " + productId + " was modified");
+            }
             log.warn("Insufficient stock for product: {}", productId);
             return false;
         }
 
-        product.setStockQuantity(newStock);
-        
-        // Update status based on stock
-        if (newStock == 0) {
-            product.setStatus(Product.ProductStatus.OUT_OF_STOCK);
-        } else if (product.getStatus() == Product.ProductStatus.OUT_OF_STOCK) {
-            product.setStatus(Product.ProductStatus.ACTIVE);
+        updateStockStatus(product);
+        log.info("Stock updated successfully for product: {}, new stock: {}", productId, product.getStockQuantity());
+        eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+        return true;
+    }
+
+    /**
+     * Marks the product out of stock when it reached zero, or active again when it left zero. The status is
+     * only set while the stock is still the one it follows from; a write that changed the stock since then
+     * sets the status itself.
+     */
+    private void updateStockStatus(Product product) {
+        Product.ProductStatus status = product.getStatus();
+        if (product.getStockQuantity() == 0) {
+            status = Product.ProductStatus.OUT_OF_STOCK;
+        } else if (status == Product.ProductStatus.OUT_OF_STOCK) {
+            status = Product.ProductStatus.ACTIVE;
+        }
+        if (status == product.getStatus()) {
+            return;
         }
 
-        update(product);
-        log.info("Stock updated successfully for product: {}, new stock: {}", productId, newStock);
-        
-        return true;
+        Instant now = Instant.now();
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(getTableName())
+                    .key(Map.of("productId", AttributeValue.fromS(product.getProductId())))
+                    .updateExpression("SET #status = :status, #updatedAt = :now")
+                    .conditionExpression("#stock = :stock")
+                    .expressionAttributeNames(Map.of("#status", "status", "#updatedAt", "updatedAt",
+                            "#stock", "stockQuantity"))
+                    .expressionAttributeValues(Map.of(
+                            ":status", AttributeValue.fromS(status.name()),
+                            ":now", AttributeValue.fromS(now.toString()),
+                            ":stock", AttributeValue.fromN(product.getStockQuantity().toString())))
+                    .build());
+            product.setStatus(status);
+            product.setUpdatedAt(now);
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Stock of product {} changed again, leaving its status to that write", product.getProductId());
+        }
+    }
+
+    private static Product copyOf(Product product) {
+        return product.toBuilder().build();
+    }
+
+    private static List<Product> copyOf(List<Product> products) {
+        return products.stream()
+                .map(ProductRepository::copyOf)
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
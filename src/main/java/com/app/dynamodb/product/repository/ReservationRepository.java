@@ -0,0 +1,284 @@
+package com.app.dynamodb.product.repository;
+
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+import com.app.dynamodb.product.domain.Reservation;
+import com.app.dynamodb.product.reservation.ReservationProperties;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.exception.ConflictException;
+import com.app.dynamodb.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stock reservations. Every reservation change is one transaction with the matching change of the
+ * product's {@code stockQuantity} and {@code reservedQuantity}, so held units are never lost or counted
+ * twice. Held reservations are listed in the {@code expiry-index} by shard and hold time, which lets the
+ * sweeper read just the holds that are due.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ReservationRepository {
+
+    private static final TableSchema<Reservation> TABLE_SCHEMA = TableSchema.fromBean(Reservation.class);
+    private static final TableSchema<Product> PRODUCT_SCHEMA = TableSchema.fromBean(Product.class);
+    private static final String CONDITION_FAILED = "ConditionalCheckFailed";
+    private static final Map<String, String> PRODUCT_NAMES = Map.of(
+            "#productId", "productId",
+            "#stock", "stockQuantity",
+            "#reserved", "reservedQuantity",
+            "#updatedAt", "updatedAt");
+
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final AwsConfigProperties properties;
+    private final ReservationProperties reservationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public String getTableName() {
+        return properties.getTables().get("product-reservation");
+    }
+
+    private DynamoDbTable<Reservation> getTable() {
+        return enhancedClient.table(getTableName(), TABLE_SCHEMA);
+    }
+
+    private String getProductTableName() {
+        return properties.getTables().get("product");
+    }
+
+    /**
+     * Holds stock for a new reservation: the product's stock goes down and its reserved count up, on
+     * condition that enough stock is left, in the same transaction that writes the held reservation.
+     */
+    public Reservation create(Reservation reservation) {
+        log.debug("Reserving {} of product {}", reservation.getQuantity(), reservation.getProductId());
+
+        Instant now = Instant.now();
+        reservation.setStatus(Reservation.ReservationStatus.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setUpdatedAt(now);
+        reservation.setExpiryShard(expiryShard(reservation.getReservationId()));
+        // Leaves the sweeper the retention period to return the stock before TTL deletes the hold
+        reservation.setExpiresAt(reservation.getHoldUntil().plus(reservationProperties.getRetention()).getEpochSecond());
+
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":quantity", AttributeValue.fromN(reservation.getQuantity().toString()));
+        values.put(":zero", AttributeValue.fromN("0"));
+        values.put(":now", AttributeValue.fromS(now.toString()));
+        try {
+            dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                    .transactItems(
+                            TransactWriteItem.builder().update(Update.builder()
+                                    .tableName(getProductTableName())
+                                    .key(productKey(reservation.getProductId()))
+                                    .updateExpression("SET #stock = #stock - :quantity, "
+                                            + "#reserved = if_not_exists(#reserved, :zero) + :quantity, #updatedAt = :now")
+                                    .conditionExpression("attribute_exists(#productId) AND #stock >= :quantity")
+                                    .expressionAttributeNames(PRODUCT_NAMES)
+                                    .expressionAttributeValues(values)
+                                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                                    .build()).build(),
+                            TransactWriteItem.builder().put(Put.builder()
+                                    .tableName(getTableName())
+                                    .item(TABLE_SCHEMA.itemToMap(reservation, true))
+                                    .conditionExpression("attribute_not_exists(reservationId)")
+                                    .build()).build())
+                    .build());
+        } catch (TransactionCanceledException e) {
+            CancellationReason product = e.cancellationReasons().getFirst();
+            if (!CONDITION_FAILED.equals(product.code())) {
+                throw e;
+            }
+            if (!product.hasItem() || product.item().isEmpty()) {
+                throw new ResourceNotFoundException("Product not found: " + reservation.getProductId());
+            }
+            throw new ConflictException("Insufficient stock for product: " + reservation.getProductId());
+        }
+
+        log.info("Reserved {} of product {} until {}: {}", reservation.getQuantity(), reservation.getProductId(),
+                reservation.getHoldUntil(), reservation.getReservationId());
+        publishProductChange(reservation.getProductId());
+        return reservation;
+    }
+
+    public Optional<Reservation> findById(String reservationId) {
+        return Optional.ofNullable(getTable().getItem(GetItemEnhancedRequest.builder()
+                .key(Key.builder().partitionValue(reservationId).build())
+                .consistentRead(true)
+                .build()));
+    }
+
+    /**
+     * Reads up to {@code limit} held reservations of one expiry shard whose hold ended by {@code now},
+     * longest overdue first. The index is eventually consistent; {@link #finish} checks again.
+     */
+    public List<Reservation> findExpired(int shard, Instant now, int limit) {
+        Page<Reservation> page = getTable().index(Reservation.EXPIRY_INDEX)
+                .query(QueryEnhancedRequest.builder()
+                        .queryConditional(QueryConditional.sortLessThanOrEqualTo(Key.builder()
+                                .partitionValue(Integer.toString(shard))
+                                .sortValue(now.toEpochMilli())
+                                .build()))
+                        .limit(limit)
+                        .build())
+                .stream()
+                .findFirst()
+                .orElse(null);
+        return page == null ? List.of() : page.items();
+    }
+
+    /**
+     * Ends a held reservation as {@code status}: confirming consumes the held units, releasing and
+     * expiring return them to stock, and the reservation leaves the expiry index. Confirming requires the
+     * hold not to have run out and expiring requires that it has. Returns the finished reservation, or
+     * empty when it was not held or those times did not match.
+     */
+    public Optional<Reservation> finish(Reservation reservation, Reservation.ReservationStatus status, Instant now) {
+        log.debug("Finishing reservation {} as {}", reservation.getReservationId(), status);
+
+        // DynamoDB rejects names and values an expression does not use, so each variant gets only its own
+        Map<String, String> names = new HashMap<>(Map.of("#status", "status", "#updatedAt", "updatedAt",
+                "#expiresAt", "expiresAt", "#expiryShard", "expiryShard"));
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":held", AttributeValue.fromS(Reservation.ReservationStatus.HELD.name()));
+        values.put(":status", AttributeValue.fromS(status.name()));
+        values.put(":now", AttributeValue.fromS(now.toString()));
+        values.put(":expiresAt", AttributeValue.fromN(Long.toString(now.plus(reservationProperties.getRetention()).getEpochSecond())));
+        String condition = switch (status) {
+            case CONFIRMED -> "#status = :held AND #holdUntil > :nowMillis";
+            case EXPIRED -> "#status = :held AND #holdUntil <= :nowMillis";
+            case RELEASED -> "#status = :held";
+            case HELD -> throw new IllegalArgumentException("A reservation cannot be finished as " + status);
+        };
+        if (status != Reservation.ReservationStatus.RELEASED) {
+            names.put("#holdUntil", "holdUntil");
+            values.put(":nowMillis", AttributeValue.fromN(Long.toString(now.toEpochMilli())));
+        }
+        Update finishReservation = Update.builder()
+                .tableName(getTableName())
+                .key(Map.of("reservationId", AttributeValue.fromS(reservation.getReservationId())))
+                .updateExpression("SET #status = :status, #updatedAt = :now, #expiresAt = :expiresAt REMOVE #expiryShard")
+                .conditionExpression(condition)
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build();
+
+        boolean consumed = status == Reservation.ReservationStatus.CONFIRMED;
+        Map<String, String> productNames = new HashMap<>(PRODUCT_NAMES);
+        if (consumed) {
+            productNames.remove("#stock");
+        }
+        Update returnUnits = Update.builder()
+                .tableName(getProductTableName())
+                .key(productKey(reservation.getProductId()))
+                .updateExpression(consumed
+                        ? "SET #reserved = #reserved - :quantity, #updatedAt = :now"
+                        : "SET #stock = #stock + :quantity, #reserved = #reserved - :quantity, #updatedAt = :now")
+                .conditionExpression("attribute_exists(#productId)")
+                .expressionAttributeNames(productNames)
+                .expressionAttributeValues(Map.of(
+                        ":quantity", AttributeValue.fromN(reservation.getQuantity().toString()),
+                        ":now", AttributeValue.fromS(now.toString())))
+                .build();
+
+        boolean productChanged = true;
+        try {
+            dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                    .transactItems(TransactWriteItem.builder().update(finishReservation).build(),
+                            TransactWriteItem.builder().update(returnUnits).build())
+                    .build());
+        } catch (TransactionCanceledException e) {
+            List<CancellationReason> reasons = e.cancellationReasons();
+            if (CONDITION_FAILED.equals(reasons.get(0).code())) {
+                return Optional.empty();
+            }
+            if (!CONDITION_FAILED.equals(reasons.get(1).code())) {
+                throw e;
+            }
+            // The product was deleted; there is no stock left to return it to
+            log.warn("Product {} of reservation {} no longer exists", reservation.getProductId(),
+                    reservation.getReservationId());
+            if (!finishAlone(finishReservation)) {
+                return Optional.empty();
+            }
+            productChanged = false;
+        }
+
+        log.info("Reservation {} of {} of product {} {}", reservation.getReservationId(), reservation.getQuantity(),
+                reservation.getProductId(), status.name().toLowerCase());
+        if (productChanged) {
+            publishProductChange(reservation.getProductId());
+        }
+        return Optional.of(reservation.toBuilder()
+                .status(status)
+                .updatedAt(now)
+                .expiryShard(null)
+                .expiresAt(now.plus(reservationProperties.getRetention()).getEpochSecond())
+                .build());
+    }
+
+    private boolean finishAlone(Update finishReservation) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(finishReservation.tableName())
+                    .key(finishReservation.key())
+                    .updateExpression(finishReservation.updateExpression())
+                    .conditionExpression(finishReservation.conditionExpression())
+                    .expressionAttributeNames(finishReservation.expressionAttributeNames())
+                    .expressionAttributeValues(finishReservation.expressionAttributeValues())
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /** Publishes the product as it is after the transaction, read consistently so the stock counts are current. */
+    private void publishProductChange(String productId) {
+        Product product = enhancedClient.table(getProductTableName(), PRODUCT_SCHEMA)
+                .getItem(GetItemEnhancedRequest.builder()
+                        .key(Key.builder().partitionValue(productId).build())
+                        .consistentRead(true)
+                        .build());
+        eventPublisher.publishEvent(product != null
+                ? ProductChangedEvent.saved(product)
+                : ProductChangedEvent.deleted(productId));
+    }
+
+    private String expiryShard(String reservationId) {
+        return Integer.toString(Math.floorMod(reservationId.hashCode(), reservationProperties.getShards()));
+    }
+
+    private static Map<String, AttributeValue> productKey(String productId) {
+        return Map.of("productId", AttributeValue.fromS(productId));
+    }
+}
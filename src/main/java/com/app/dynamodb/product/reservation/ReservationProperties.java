@@ -0,0 +1,36 @@
+package com.app.dynamodb.product.reservation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.product.reservation")
+public class ReservationProperties {
+
+    /** How long stock is held when the request does not say. */
+    private Duration holdTime = Duration.ofMinutes(15);
+
+    /** Longest hold a request may ask for. */
+    private Duration maxHoldTime = Duration.ofHours(2);
+
+    /** Partitions of the expiry index, spreading held reservations over that many keys. */
+    private int shards = 8;
+
+    /** How long a finished reservation is kept, and how long an expired hold may wait for the sweeper before TTL deletes it. */
+    private Duration retention = Duration.ofDays(1);
+
+    /** Run the sweeper that returns the stock of expired holds. */
+    private boolean sweepEnabled = true;
+
+    /** Time between sweeper runs. */
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    /** Expired holds read per index query and returned concurrently. */
+    private int sweepBatchSize = 25;
+}
@@ -0,0 +1,85 @@
+package com.app.dynamodb.product.reservation;
+
+import com.app.dynamodb.product.domain.Reservation;
+import com.app.dynamodb.product.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Returns the stock of holds that ran out without being confirmed or released. Due holds are read from
+ * the expiry index, which lists only held reservations by hold time, so every query returns holds to
+ * expire and nothing else: one query per shard and batch, never a scan. The shards are swept in parallel,
+ * one virtual thread each, and the holds of a batch are expired concurrently.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationSweeper {
+
+    private final ReservationRepository repository;
+    private final ReservationProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.product.reservation.sweep-interval:PT30S}")
+    public void run() {
+        if (!properties.isSweepEnabled()) {
+            return;
+        }
+
+        try {
+            sweep(Instant.now());
+        } catch (Exception e) {
+            log.error("Reservation sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Expires every hold that ran out by {@code now} and returns how many. */
+    public int sweep(Instant now) {
+        long start = System.nanoTime();
+        AtomicInteger expired = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?>[] shards = IntStream.range(0, properties.getShards())
+                    .mapToObj(shard -> CompletableFuture.runAsync(() -> expired.addAndGet(sweepShard(shard, now, executor)), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(shards).join();
+        }
+
+        if (expired.get() > 0) {
+            log.info("Expired {} reservations in {} ms", expired.get(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return expired.get();
+    }
+
+    private int sweepShard(int shard, Instant now, ExecutorService executor) {
+        int expired = 0;
+        while (true) {
+            List<Reservation> batch = repository.findExpired(shard, now, properties.getSweepBatchSize());
+            List<CompletableFuture<Boolean>> expiring = batch.stream()
+                    .map(reservation -> CompletableFuture.supplyAsync(() -> repository
+                            .finish(reservation, Reservation.ReservationStatus.EXPIRED, now)
+                            .isPresent(), executor))
+                    .toList();
+            int finished = 0;
+            for (CompletableFuture<Boolean> reservation : expiring) {
+                if (reservation.join()) {
+                    finished++;
+                }
+            }
+            expired += finished;
+            // A hold confirmed or released meanwhile still shows in the index for a moment; stop rather than read it again
+            if (batch.size() < properties.getSweepBatchSize() || finished == 0) {
+                return expired;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.dynamodb.product.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable, ascending list of document ids. Documents are numbered in insertion order, so
+ * appending keeps the list sorted and a repeat of the last id is the only possible duplicate.
+ */
+final class IntPostings {
+
+    private int[] docs;
+    private int size;
+
+    IntPostings() {
+        this.docs = new int[4];
+    }
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] == doc) {
+            return;
+        }
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length + (docs.length >> 1) + 1);
+        }
+        docs[size++] = doc;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    void trimToSize() {
+        if (docs.length != size) {
+            docs = Arrays.copyOf(docs, size);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.app.dynamodb.product.search;
+
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Word and word-prefix postings for the searchable product fields. Each product is a document
+ * numbered in insertion order; replacing or deleting a product only marks its old document dead,
+ * and an index built from {@link #liveProducts()} drops them once enough of them pile up. Not
+ * thread-safe; {@link ProductSearchIndex} guards it.
+ */
+final class InvertedIndex {
+
+    /** A prefix match is worth less than the whole word it was typed towards. */
+    private static final float PREFIX_WEIGHT = 0.5f;
+
+    private static final Comparator<Product> BY_NAME = Comparator.comparing(Product::getName,
+            Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(Product::getProductId);
+
+    private static final class Field {
+        final Function<Product, String> value;
+        final float weight;
+        final Map<String, IntPostings> words = new HashMap<>();
+        final Map<String, IntPostings> prefixes = new HashMap<>();
+
+        Field(Function<Product, String> value, float weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final int minPrefixLength;
+    private final int maxPrefixLength;
+    private final Field[] fields = {
+            new Field(Product::getName, 3f),
+            new Field(Product::getManufacturer, 1.5f),
+            new Field(Product::getCategory, 1f)
+    };
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private Product[] documents = new Product[64];
+    private int nextDoc;
+
+    InvertedIndex(int minPrefixLength, int maxPrefixLength) {
+        this.minPrefixLength = minPrefixLength;
+        this.maxPrefixLength = maxPrefixLength;
+    }
+
+    static InvertedIndex of(Collection<Product> products, int minPrefixLength, int maxPrefixLength) {
+        InvertedIndex index = new InvertedIndex(minPrefixLength, maxPrefixLength);
+        for (Product product : products) {
+            index.add(product);
+        }
+        index.trimToSize();
+        return index;
+    }
+
+    void apply(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            add(event.product());
+        }
+    }
+
+    /**
+     * Indexes the product unless the same or a newer version of it is already indexed, so replaying a
+     * change the index has does not leave a replaced entry behind.
+     */
+    void add(Product product) {
+        Integer previous = docIds.get(product.getProductId());
+        if (previous != null) {
+            Product indexed = documents[previous];
+            if (indexed.getUpdatedAt() != null && product.getUpdatedAt() != null
+                    && !product.getUpdatedAt().isAfter(indexed.getUpdatedAt())) {
+                return;
+            }
+            dead.set(previous);
+        }
+
+        int doc = nextDoc++;
+        if (doc == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        documents[doc] = product;
+        docIds.put(product.getProductId(), doc);
+
+        for (Field field : fields) {
+            for (String word : SearchTokenizer.tokens(field.value.apply(product))) {
+                field.words.computeIfAbsent(word, ignored -> new IntPostings()).add(doc);
+                for (int length = minPrefixLength; length < word.length() && length <= maxPrefixLength; length++) {
+                    field.prefixes.computeIfAbsent(word.substring(0, length), ignored -> new IntPostings()).add(doc);
+                }
+            }
+        }
+    }
+
+    void remove(String productId) {
+        Integer doc = docIds.remove(productId);
+        if (doc != null) {
+            dead.set(doc);
+            documents[doc] = null;
+        }
+    }
+
+    int size() {
+        return docIds.size();
+    }
+
+    int termCount() {
+        int terms = 0;
+        for (Field field : fields) {
+            terms += field.words.size() + field.prefixes.size();
+        }
+        return terms;
+    }
+
+    double deadRatio() {
+        return nextDoc == 0 ? 0 : (double) dead.cardinality() / nextDoc;
+    }
+
+    int documentCount() {
+        return nextDoc;
+    }
+
+    /** The indexed products without the replaced and deleted ones, for building a compacted index. */
+    List<Product> liveProducts() {
+        List<Product> live = new ArrayList<>(docIds.size());
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (!dead.get(doc)) {
+                live.add(documents[doc]);
+            }
+        }
+        return live;
+    }
+
+    /** Products matching every word, ranked by weighted, idf-scaled field matches. */
+    ProductSearchResult search(String query, List<String> words, int page, int size) {
+        Matches matches = null;
+        List<Matches> perWord = new ArrayList<>(words.size());
+        for (String word : words) {
+            perWord.add(match(word));
+        }
+        // rarest word first keeps every intersection as small as the final result set allows
+        perWord.sort(Comparator.comparingInt(Matches::size));
+        for (Matches wordMatches : perWord) {
+            matches = matches == null ? wordMatches : matches.intersect(wordMatches);
+            if (matches.size() == 0) {
+                break;
+            }
+        }
+
+        int offset = page * size;
+        int limit = offset + size;
+        Matches found = matches;
+        Comparator<Integer> rank = Comparator.<Integer, Float>comparing(i -> found.scores[i], Comparator.reverseOrder())
+                .thenComparing(i -> documents[found.docs[i]], BY_NAME);
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, rank.reversed());
+        int total = 0;
+        for (int i = 0; i < found.size; i++) {
+            if (dead.get(found.docs[i])) {
+                continue;
+            }
+            total++;
+            top.offer(i);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Integer> ranked = new ArrayList<>(top);
+        ranked.sort(rank);
+        List<ProductSearchResult.Hit> hits = new ArrayList<>(size);
+        for (int position = offset; position < ranked.size(); position++) {
+            int i = ranked.get(position);
+            hits.add(new ProductSearchResult.Hit(documents[found.docs[i]], Math.round(found.scores[i] * 1000) / 1000.0));
+        }
+        return new ProductSearchResult(query, page, size, total, hits);
+    }
+
+    private Matches match(String word) {
+        Matches union = Matches.EMPTY;
+        for (Field field : fields) {
+            IntPostings exact = field.words.get(word);
+            if (exact != null) {
+                union = union.union(exact, field.weight);
+            }
+            if (word.length() >= minPrefixLength) {
+                IntPostings prefixed = word.length() <= maxPrefixLength
+                        ? field.prefixes.get(word)
+                        : longPrefix(field, word);
+                if (prefixed != null) {
+                    union = union.union(prefixed, field.weight * PREFIX_WEIGHT);
+                }
+            }
+        }
+        float idf = (float) Math.log(1 + (double) Math.max(1, docIds.size()) / Math.max(1, union.size));
+        for (int i = 0; i < union.size; i++) {
+            union.scores[i] *= idf;
+        }
+        return union;
+    }
+
+    /** Prefixes longer than the indexed ones are narrowed from the longest indexed prefix. */
+    private IntPostings longPrefix(Field field, String word) {
+        IntPostings candidates = field.prefixes.get(word.substring(0, maxPrefixLength));
+        if (candidates == null) {
+            return null;
+        }
+        IntPostings verified = new IntPostings();
+        for (int i = 0; i < candidates.size(); i++) {
+            Product product = documents[candidates.get(i)];
+            if (product != null && SearchTokenizer.tokens(field.value.apply(product)).stream()
+                    .anyMatch(token -> token.length() > word.length() && token.startsWith(word))) {
+                verified.add(candidates.get(i));
+            }
+        }
+        return verified;
+    }
+
+    private void trimToSize() {
+        for (Field field : fields) {
+            field.words.values().forEach(IntPostings::trimToSize);
+            field.prefixes.values().forEach(IntPostings::trimToSize);
+        }
+    }
+
+    /** Ascending documents with their accumulated scores. */
+    private record Matches(int[] docs, float[] scores, int size) {
+
+        static final Matches EMPTY = new Matches(new int[0], new float[0], 0);
+
+        Matches union(IntPostings postings, float weight) {
+            int[] mergedDocs = new int[size + postings.size()];
+            float[] mergedScores = new float[mergedDocs.length];
+            int a = 0;
+            int b = 0;
+            int n = 0;
+            while (a < size || b < postings.size()) {
+                int left = a < size ? docs[a] : Integer.MAX_VALUE;
+                int right = b < postings.size() ? postings.get(b) : Integer.MAX_VALUE;
+                if (left == right) {
+                    mergedDocs[n] = left;
+                    mergedScores[n++] = scores[a++] + weight;
+                    b++;
+                } else if (left < right) {
+                    mergedDocs[n] = left;
+                    mergedScores[n++] = scores[a++];
+                } else {
+                    mergedDocs[n] = right;
+                    mergedScores[n++] = weight;
+                    b++;
+                }
+            }
+            return new Matches(mergedDocs, mergedScores, n);
+        }
+
+        Matches intersect(Matches other) {
+            int[] common = new int[Math.min(size, other.size)];
+            float[] summed = new float[common.length];
+            int a = 0;
+            int b = 0;
+            int n = 0;
+            while (a < size && b < other.size) {
+                if (docs[a] == other.docs[b]) {
+                    common[n] = docs[a];
+                    summed[n++] = scores[a++] + other.scores[b++];
+                } else if (docs[a] < other.docs[b]) {
+                    a++;
+                } else {
+                    b++;
+                }
+            }
+            return new Matches(common, summed, n);
+        }
+    }
+}
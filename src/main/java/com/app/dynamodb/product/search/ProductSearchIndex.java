@@ -0,0 +1,244 @@
+package com.app.dynamodb.product.search;
+
+import com.app.dynamodb.product.catalog.ProductCatalog;
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+import com.app.dynamodb.product.repository.ProductRepository;
+import com.app.dynamodb.shared.exception.ServiceUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over product name, manufacturer and category. Built from the product
+ * catalog snapshot when it is loaded, otherwise from a parallel scan, and kept current by the
+ * writes this instance makes. Writes seen shortly before or during a rebuild are replayed onto
+ * the new index, so a rebuild never rolls back a local change.
+ * <p>
+ * Writes only queue their change; whichever writer finds nobody else applying drains the queue
+ * under one short write lock, so concurrent writes share it. Compaction and rebuilds build the new
+ * index without the lock, in the background, and take it only to replay recent writes and swap.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    /** Local writes kept for replay; comfortably longer than a catalog publish or a rebuild scan. */
+    private static final Duration REPLAY_WINDOW = Duration.ofMinutes(2);
+    /** Suggested to clients searching before the index is first built. */
+    private static final Duration NOT_READY_RETRY_AFTER = Duration.ofSeconds(5);
+
+    private record RecentChange(Instant at, ProductChangedEvent event) {
+    }
+
+    private final ProductRepository repository;
+    private final ProductCatalog catalog;
+    private final ProductSearchProperties properties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Guarded by itself; taken inside the write lock when replayed. */
+    private final Deque<RecentChange> recentChanges = new ArrayDeque<>();
+    private final Queue<ProductChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean applying = new AtomicBoolean();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile InvertedIndex index;
+    private volatile Thread compaction;
+    private Instant lastRebuild = Instant.EPOCH;
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Every query word must match a whole word or the start of one. Until the index is first built
+     * searches are refused with {@link ServiceUnavailableException}; when the index is disabled, the
+     * products from {@code fallback} are indexed for this search only.
+     */
+    public ProductSearchResult search(String query, int page, int size, Supplier<List<Product>> fallback) {
+        List<String> words = SearchTokenizer.tokens(query);
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one letter or digit");
+        }
+        if (page < 0 || size < 1 || size > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + properties.getMaxPageSize());
+        }
+        if ((long) page * size + size > properties.getMaxResultWindow()) {
+            throw new IllegalArgumentException("Results are available up to position " + properties.getMaxResultWindow()
+                    + "; refine the query instead of paging further");
+        }
+        if (!properties.isEnabled()) {
+            return InvertedIndex.of(fallback.get(), properties.getMinPrefixLength(), properties.getMaxPrefixLength())
+                    .search(query, words, page, size);
+        }
+
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new ServiceUnavailableException("Product search is starting up, please retry shortly",
+                        NOT_READY_RETRY_AFTER);
+            }
+            return index.search(query, words, page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (recentChanges) {
+            Instant now = Instant.now();
+            recentChanges.addLast(new RecentChange(now, event));
+            while (recentChanges.getFirst().at().isBefore(now.minus(REPLAY_WINDOW))) {
+                recentChanges.removeFirst();
+            }
+        }
+        // Before the first build the change is only remembered, and the build replays it. Checked under
+        // the read lock, so that the build cannot install between the check and queueing the change.
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return;
+            }
+            pending.add(event);
+        } finally {
+            lock.readLock().unlock();
+        }
+        applyPending();
+    }
+
+    /**
+     * Applies the queued changes, one thread at a time. A change queued while another thread is
+     * applying is picked up by that thread, which checks the queue again after letting go.
+     */
+    private void applyPending() {
+        while (!pending.isEmpty() && applying.compareAndSet(false, true)) {
+            try {
+                lock.writeLock().lock();
+                try {
+                    ProductChangedEvent event;
+                    while ((event = pending.poll()) != null) {
+                        index.apply(event);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                applying.set(false);
+            }
+        }
+        compactIfNeeded();
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.search.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (isReady() && Instant.now().isBefore(lastRebuild.plus(properties.getRebuildInterval()))) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Product search index rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        Instant rebuildStarted = Instant.now();
+
+        List<Product> products = catalog.isReady()
+                ? catalog.findAll()
+                : repository.scanParallel(properties.getScanSegments(), null);
+        InvertedIndex rebuilt = InvertedIndex.of(products, properties.getMinPrefixLength(), properties.getMaxPrefixLength());
+        install(rebuilt, null);
+        lastRebuild = rebuildStarted;
+
+        log.info("Product search index built: {} products, {} terms in {} ms",
+                rebuilt.size(), rebuilt.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void compactIfNeeded() {
+        InvertedIndex current = index;
+        if (current == null || current.documentCount() < 256 || current.deadRatio() <= properties.getCompactionThreshold()
+                || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        compaction = Thread.ofVirtual().name("product-search-compaction").start(() -> {
+            try {
+                compact(current);
+            } catch (Exception e) {
+                log.error("Product search index compaction failed: {}", e.getMessage(), e);
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    private void compact(InvertedIndex current) {
+        List<Product> live;
+        lock.readLock().lock();
+        try {
+            live = current.liveProducts();
+        } finally {
+            lock.readLock().unlock();
+        }
+        InvertedIndex compacted = InvertedIndex.of(live, properties.getMinPrefixLength(), properties.getMaxPrefixLength());
+        if (install(compacted, current)) {
+            log.debug("Product search index compacted to {} products", compacted.size());
+        }
+    }
+
+    /**
+     * Replays the recent writes onto {@code built} and makes it the index, unless {@code replacing}
+     * is given and no longer the index. Stale saves are skipped by updatedAt, so replaying is safe even
+     * for changes {@code built} already has. The replay is read under the write lock: a change queued
+     * after it is applied to whichever index is current once the lock is free, so none is lost.
+     */
+    private boolean install(InvertedIndex built, InvertedIndex replacing) {
+        lock.writeLock().lock();
+        try {
+            if (replacing != null && index != replacing) {
+                return false;
+            }
+            synchronized (recentChanges) {
+                recentChanges.forEach(change -> built.apply(change.event()));
+            }
+            index = built;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Waits for a compaction started by a write, if any. */
+    void awaitCompaction() throws InterruptedException {
+        Thread running = compaction;
+        if (running != null) {
+            running.join();
+        }
+    }
+
+    int documentCount() {
+        InvertedIndex current = index;
+        return current == null ? 0 : current.documentCount();
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.dynamodb.product.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.product.search")
+public class ProductSearchProperties {
+
+    /** Keep an inverted index in memory; when off, every search indexes a fresh product listing. */
+    private boolean enabled = true;
+
+    /** Shortest word prefix that is indexed; shorter query words only match whole words. */
+    private int minPrefixLength = 2;
+
+    /** Longest word prefix that is indexed; longer query prefixes are checked against the text. */
+    private int maxPrefixLength = 10;
+
+    private int maxPageSize = 100;
+
+    /** Deepest result that can be paged to (page * size + size), bounding the top-K heap. */
+    private int maxResultWindow = 1000;
+
+    /** Number of segments used by the parallel scan when the product catalog is not loaded. */
+    private int scanSegments = 4;
+
+    /** How often the index checks whether it needs to be (re)built. */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    /** How often the index is rebuilt, picking up products written by other instances. */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+
+    /** Share of replaced or deleted documents after which the index is compacted. */
+    private double compactionThreshold = 0.3;
+}
@@ -0,0 +1,15 @@
+package com.app.dynamodb.product.search;
+
+import com.app.dynamodb.product.domain.Product;
+
+import java.util.List;
+
+/**
+ * One page of search hits, best match first. {@code total} counts every product matching all
+ * query words, not just those on this page.
+ */
+public record ProductSearchResult(String query, int page, int size, int total, List<Hit> hits) {
+
+    public record Hit(Product product, double score) {
+    }
+}
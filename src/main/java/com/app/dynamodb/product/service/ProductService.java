@@ -1,12 +1,24 @@
 package com.app.dynamodb.product.service;
 
+import com.app.dynamodb.product.catalog.ProductCatalog;
+import com.app.dynamodb.product.domain.PriceSort;
 import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductPage;
 import com.app.dynamodb.product.repository.ProductRepository;
+import com.app.dynamodb.product.search.ProductSearchIndex;
+import com.app.dynamodb.product.search.ProductSearchResult;
+import com.app.dynamodb.shared.bulk.BulkImporter;
+import com.app.dynamodb.shared.bulk.ImportJob;
+import com.app.dynamodb.shared.bulk.ImportTarget;
 import com.app.dynamodb.shared.exception.ResourceNotFoundException;
+import com.app.dynamodb.shared.web.IfMatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,7 +27,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProductService {
 
+    static final int MAX_PRICE_PAGE_SIZE = 100;
+
     private final ProductRepository repository;
+    private final ProductCatalog catalog;
+    private final ProductSearchIndex searchIndex;
+    private final BulkImporter bulkImporter;
 
     public Product createProduct(Product product) {
         log.info("Creating new product: {}", product.getName());
@@ -31,36 +48,89 @@ public class ProductService {
         return repository.save(product);
     }
 
+    public ImportJob importProducts(MultipartFile file) {
+        log.info("Importing products from {}", file.getOriginalFilename());
+        return bulkImporter.submit(file, new ImportTarget<>("product", repository.getTableName(), Product.class,
+                List.of("productId"), this::prepareImport, repository::toItem));
+    }
+
+    private Product prepareImport(Product product) {
+        if (product.getProductId() == null) {
+            product.setProductId(UUID.randomUUID().toString());
+        }
+        if (product.getStatus() == null) {
+            product.setStatus(product.getStockQuantity() != null && product.getStockQuantity() > 0
+                ? Product.ProductStatus.ACTIVE
+                : Product.ProductStatus.OUT_OF_STOCK);
+        }
+        Instant now = Instant.now();
+        if (product.getCreatedAt() == null) {
+            product.setCreatedAt(now);
+        }
+        product.setUpdatedAt(now);
+        return product;
+    }
+
     public Product getProduct(String productId) {
         log.debug("Retrieving product: {}", productId);
         return repository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
     }
 
+    public Instant getProductVersion(String productId) {
+        return repository.findVersion(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+    }
+
     public List<Product> getAllProducts() {
         log.info("Retrieving all products");
+        if (catalog.isReady()) {
+            return catalog.findAll();
+        }
         return repository.findAll();
     }
 
     public List<Product> getProductsByCategory(String category) {
         log.info("Retrieving products by category: {}", category);
+        if (catalog.isReady()) {
+            return catalog.findByCategory(category);
+        }
         return repository.findByCategory(category);
     }
 
+    /** Served by the price index rather than the catalog so that page tokens stay valid between requests. */
+    public ProductPage getProductsByCategoryAndPrice(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                                     PriceSort sort, int size, String pageToken) {
+        log.info("Retrieving products by category: {} priced {} to {}", category, minPrice, maxPrice);
+        if (size < 1 || size > MAX_PRICE_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PRICE_PAGE_SIZE);
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        if ((minPrice != null && minPrice.signum() < 0) || (maxPrice != null && maxPrice.signum() < 0)) {
+            throw new IllegalArgumentException("Prices must not be negative");
+        }
+        return repository.findByCategoryAndPrice(category, minPrice, maxPrice,
+                sort == PriceSort.PRICE_DESC, size, pageToken);
+    }
+
+    public ProductSearchResult searchProducts(String query, int page, int size) {
+        log.debug("Searching products for: {}", query);
+        return searchIndex.search(query, page, size, this::getAllProducts);
+    }
+
     public List<Product> getProductsByStatus(Product.ProductStatus status) {
         log.info("Retrieving products by status: {}", status);
+        if (catalog.isReady()) {
+            return catalog.findByStatus(status);
+        }
         return repository.findByStatus(status);
     }
 
-    public Product updateProduct(String productId, Product product) {
+    public Product updateProduct(String productId, Product product, IfMatch ifMatch) {
         log.info("Updating product: {}", productId);
         
-        // Verify product exists
-        repository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
-        
-        product.setProductId(productId);
-        
         // Auto-update status based on stock
         if (product.getStockQuantity() != null) {
             if (product.getStockQuantity() == 0) {
@@ -70,23 +140,28 @@ public class ProductService {
             }
         }
         
-        return repository.update(product);
+        return repository.update(productId, current -> {
+                    // Only reservations change the reserved count
+                    product.setReservedQuantity(current.getReservedQuantity());
+                    return product;
+                }, ifMatch)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
     }
 
-    public Product updateProductStatus(String productId, Product.ProductStatus status) {
+    public Product updateProductStatus(String productId, Product.ProductStatus status, IfMatch ifMatch) {
         log.info("Updating product status: {} to {}", productId, status);
         
-        Product product = repository.findById(productId)
+        return repository.update(productId, current -> {
+                    current.setStatus(status);
+                    return current;
+                }, ifMatch)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
-        
-        product.setStatus(status);
-        return repository.update(product);
     }
 
-    public boolean adjustStock(String productId, int quantity) {
+    public boolean adjustStock(String productId, int quantity, IfMatch ifMatch) {
         log.info("Adjusting stock for product: {} by quantity: {}", productId, quantity);
         
-        boolean success = repository.updateStock(productId, quantity);
+        boolean success = repository.updateStock(productId, quantity, ifMatch);
         
         if (!success) {
             if (repository.findById(productId).isEmpty()) {
@@ -98,14 +173,14 @@ public class ProductService {
         return true;
     }
 
-    public boolean reduceStock(String productId, int quantity) {
+    public boolean reduceStock(String productId, int quantity, IfMatch ifMatch) {
         log.info("Reducing stock for product: {} by quantity: {}", productId, quantity);
-        return adjustStock(productId, -quantity);
+        return adjustStock(productId, -quantity, ifMatch);
     }
 
-    public boolean increaseStock(String productId, int quantity) {
+    public boolean increaseStock(String productId, int quantity, IfMatch ifMatch) {
         log.info("Increasing stock for product: {} by quantity: {}", productId, quantity);
-        return adjustStock(productId, quantity);
+        return adjustStock(productId, quantity, ifMatch);
     }
 
     public void deleteProduct(String productId) {
@@ -120,11 +195,11 @@ public class ProductService {
 
     public List<Product> getAvailableProducts() {
         log.info("Retrieving available products");
-        return repository.findByStatus(Product.ProductStatus.ACTIVE);
+        return getProductsByStatus(Product.ProductStatus.ACTIVE);
     }
 
     public List<Product> getOutOfStockProducts() {
         log.info("Retrieving out of stock products");
-        return repository.findByStatus(Product.ProductStatus.OUT_OF_STOCK);
+        return getProductsByStatus(Product.ProductStatus.OUT_OF_STOCK);
     }
 }
\ No newline at end of file
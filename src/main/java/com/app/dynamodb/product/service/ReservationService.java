@@ -0,0 +1,81 @@
+package com.app.dynamodb.product.service;
+
+import com.app.dynamodb.product.domain.Reservation;
+import com.app.dynamodb.product.repository.ReservationRepository;
+import com.app.dynamodb.product.reservation.ReservationProperties;
+import com.app.dynamodb.shared.exception.ConflictException;
+import com.app.dynamodb.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationService {
+
+    private final ReservationRepository repository;
+    private final ReservationProperties properties;
+
+    /** Holds {@code quantity} units for {@code holdFor}, or for the configured hold time when it is {@code null}. */
+    public Reservation reserve(String productId, int quantity, Duration holdFor) {
+        log.info("Reserving {} of product: {}", quantity, productId);
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        Duration hold = holdFor != null ? holdFor : properties.getHoldTime();
+        if (hold.isNegative() || hold.isZero() || hold.compareTo(properties.getMaxHoldTime()) > 0) {
+            throw new IllegalArgumentException("Hold time must be positive and at most " + properties.getMaxHoldTime());
+        }
+
+        return repository.create(Reservation.builder()
+                .reservationId(UUID.randomUUID().toString())
+                .productId(productId)
+                .quantity(quantity)
+                .holdUntil(Instant.now().plus(hold).truncatedTo(ChronoUnit.MILLIS))
+                .build());
+    }
+
+    public Reservation getReservation(String productId, String reservationId) {
+        log.debug("Retrieving reservation: {} of product: {}", reservationId, productId);
+        return repository.findById(reservationId)
+                .filter(reservation -> reservation.getProductId().equals(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId));
+    }
+
+    /** Consumes the held units, for a completed checkout. */
+    public Reservation confirm(String productId, String reservationId) {
+        log.info("Confirming reservation: {} of product: {}", reservationId, productId);
+        return finish(productId, reservationId, Reservation.ReservationStatus.CONFIRMED);
+    }
+
+    /** Returns the held units to stock, for an abandoned or emptied cart. */
+    public Reservation release(String productId, String reservationId) {
+        log.info("Releasing reservation: {} of product: {}", reservationId, productId);
+        return finish(productId, reservationId, Reservation.ReservationStatus.RELEASED);
+    }
+
+    /** Retrying a request that already finished the reservation the same way returns it unchanged. */
+    private Reservation finish(String productId, String reservationId, Reservation.ReservationStatus status) {
+        Reservation reservation = getReservation(productId, reservationId);
+        if (reservation.getStatus() == Reservation.ReservationStatus.HELD) {
+            Optional<Reservation> finished = repository.finish(reservation, status, Instant.now());
+            if (finished.isPresent()) {
+                return finished.get();
+            }
+            // Finished meanwhile, or the hold ran out before confirming
+            reservation = getReservation(productId, reservationId);
+        }
+        if (reservation.getStatus() == status) {
+            return reservation;
+        }
+        throw new ConflictException("Reservation " + reservationId + " is "
+                + (reservation.getStatus() == Reservation.ReservationStatus.HELD ? "past its hold time" : reservation.getStatus()));
+    }
+}
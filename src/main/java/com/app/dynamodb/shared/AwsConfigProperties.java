@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 
@@ -18,4 +21,88 @@ public class AwsConfigProperties {
     private String accessKey;
     private String secretKey;
     private Map<String, String> tables;
-}
\ No newline at end of file
+    /** How customers and orders are stored; see {@link CustomerOrderKeys} for the single-table layout. */
+    private TableLayout layout = TableLayout.MULTI_TABLE;
+    private Retry retry = new Retry();
+    private Schema schema = new Schema();
+    private HealthCheck healthCheck = new HealthCheck();
+
+    public boolean isSingleTable() {
+        return layout == TableLayout.SINGLE_TABLE;
+    }
+
+    /** The configured tables that the current layout stores data in, keyed like {@link #getTables()}. */
+    public Map<String, String> getActiveTables() {
+        Map<String, String> active = new LinkedHashMap<>(tables);
+        if (isSingleTable()) {
+            active.remove("customer");
+            active.remove("order");
+        } else {
+            active.remove(CustomerOrderKeys.TABLE);
+        }
+        return active;
+    }
+
+    public enum TableLayout {
+        /** Customers and orders in tables of their own. */
+        MULTI_TABLE,
+        /** Customers and their orders in one partition each of a shared table. */
+        SINGLE_TABLE
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        /** Attempts per call, including the first one, unless overridden for the operation. */
+        private int maxAttempts = 3;
+        /** Per-operation attempt limits keyed by API name, e.g. {@code Scan: 2}. */
+        private Map<String, Integer> operationMaxAttempts = new HashMap<>();
+        private Duration backoffBase = Duration.ofMillis(25);
+        private Duration backoffMax = Duration.ofSeconds(2);
+        private Duration throttlingBackoffBase = Duration.ofMillis(100);
+        private Duration throttlingBackoffMax = Duration.ofSeconds(20);
+        /** Size of the client-wide retry budget. */
+        private int budgetCapacity = 500;
+        /** Tokens taken from the budget by each retry. */
+        private int retryCost = 5;
+        /** Tokens returned to the budget by each successful call. */
+        private int successRefund = 1;
+        /** Value of the Retry-After header sent when throttling outlasts the retries. */
+        private Duration retryAfter = Duration.ofSeconds(1);
+        /** Status returned to clients when throttling outlasts the retries: 503 or 429. */
+        private int throttledStatus = 503;
+    }
+
+    @Getter
+    @Setter
+    public static class Schema {
+        /** Create or update tables, indexes, TTL and streams on startup. Disable where infrastructure owns the schema. */
+        private boolean reconcile = true;
+        private Duration waitTimeout = Duration.ofMinutes(10);
+        private Duration pollInterval = Duration.ofSeconds(5);
+        /**
+         * Copy customers and orders from their own tables into the single-table layout on startup. Items
+         * already in the single table are kept, so the copy can be repeated until writes have moved over.
+         */
+        private boolean migrateToSingleTable = false;
+        /** Parallel scan segments per source table for that copy. */
+        private int migrationSegments = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class HealthCheck {
+        /** How often the tables are described in the background; probes read the cached result. */
+        private Duration refreshInterval = Duration.ofSeconds(10);
+        /** Number of most recent checks the latency and error rate are computed over. */
+        private int windowSize = 30;
+        /** p95 check latency above which the service is reported DEGRADED. */
+        private Duration degradedLatency = Duration.ofMillis(250);
+        /** Error rate above which the service is reported DEGRADED. */
+        private double degradedErrorRate = 0.1;
+        /** Error rate above which the service is reported DOWN. */
+        private double downErrorRate = 0.5;
+        /** A cached result older than this is reported UNKNOWN, e.g. when the scheduler is stuck. */
+        private Duration maxAge = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.dynamodb.shared;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Keys of the single-table layout ({@code aws.dynamodb.layout=single-table}). A customer and its orders
+ * share one partition of the {@code customer-orders} table, so a profile with its recent orders is one
+ * Query:
+ * <pre>
+ * pk                 sk
+ * CUSTOMER#&lt;id&gt;       PROFILE
+ * CUSTOMER#&lt;id&gt;       ORDER#&lt;createdAt&gt;#&lt;orderId&gt;
+ * </pre>
+ * {@code PROFILE} sorts above every {@code ORDER#} key, so a descending query returns the profile first and
+ * then the newest orders. Orders are found by ID through {@link #ORDER_ID_INDEX}.
+ */
+public final class CustomerOrderKeys {
+
+    /** Key of the table in {@code aws.dynamodb.tables}. */
+    public static final String TABLE = "customer-orders";
+    public static final String PARTITION_KEY = "pk";
+    public static final String SORT_KEY = "sk";
+    public static final String PROFILE = "PROFILE";
+    public static final String ORDER_PREFIX = "ORDER#";
+    public static final String ORDER_ID_INDEX = "order-id-index";
+
+    /** Fixed width, so that string order is time order; {@link Instant#toString()} drops trailing zeros. */
+    private static final DateTimeFormatter SORTABLE_TIME =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'").withZone(ZoneOffset.UTC);
+
+    private CustomerOrderKeys() {
+    }
+
+    public static String partitionKey(String customerId) {
+        return "CUSTOMER#" + customerId;
+    }
+
+    public static String orderSortKey(Instant createdAt, String orderId) {
+        return ORDER_PREFIX + sortableTime(createdAt) + "#" + orderId;
+    }
+
+    /** The time in a fixed-width UTC format, for sort keys that must order by time as strings. */
+    public static String sortableTime(Instant time) {
+        return SORTABLE_TIME.format(time);
+    }
+}
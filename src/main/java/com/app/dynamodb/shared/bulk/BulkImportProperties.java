@@ -0,0 +1,38 @@
+package com.app.dynamodb.shared.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.import")
+public class BulkImportProperties {
+
+    /** Concurrent BatchWriteItem writers per job. */
+    private int writers = 4;
+
+    /** Parsed items buffered between the reader and the writers; the reader blocks when it is full. */
+    private int queueCapacity = 2000;
+
+    /** BatchWriteItem calls per batch, including the first, before unprocessed items count as failed. */
+    private int maxAttempts = 8;
+
+    private Duration backoffBase = Duration.ofMillis(50);
+
+    private Duration backoffMax = Duration.ofSeconds(2);
+
+    /** Rejected rows kept per job for inspection; further rejections are only counted. */
+    private int maxErrorRows = 1000;
+
+    /** Finished jobs kept for the actuator endpoint. */
+    private int retainedJobs = 20;
+
+    /** Uploads are moved here and read back incrementally by the job. */
+    private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "dynamodb-import");
+}
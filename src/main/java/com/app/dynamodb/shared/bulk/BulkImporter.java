@@ -0,0 +1,361 @@
+package com.app.dynamodb.shared.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an uploaded NDJSON or CSV file into a table. The upload is moved to a spool file and a
+ * background reader parses it line by line, validates each row against the target type and puts
+ * the mapped items on a bounded queue. Concurrent writers drain the queue in 25-item
+ * {@code BatchWriteItem} calls and retry {@code UnprocessedItems} with jittered backoff.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkImporter {
+
+    static final int BATCH_SIZE = 25;
+
+    private static final Pending END = new Pending(-1, Map.of());
+
+    private final DynamoDbClient dynamoDbClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BulkImportProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    /** Spools the upload and starts the import in the background. */
+    public <T> ImportJob submit(MultipartFile file, ImportTarget<T> target) {
+        ImportFormat format = ImportFormat.detect(file.getOriginalFilename(), file.getContentType());
+        String id = UUID.randomUUID().toString();
+        Path spooled = properties.getSpoolDirectory().resolve(id + "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.createDirectories(properties.getSpoolDirectory());
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spool upload " + file.getOriginalFilename(), e);
+        }
+
+        ImportJob job = new ImportJob(id, target.name(), file.getOriginalFilename(), format, properties.getMaxErrorRows());
+        register(job);
+        log.info("Starting {} import {} from {}", target.name(), id, file.getOriginalFilename());
+
+        Thread.ofVirtual().name("import-" + target.name()).start(() -> {
+            try {
+                run(job, target, spooled, format);
+            } finally {
+                try {
+                    Files.deleteIfExists(spooled);
+                } catch (IOException e) {
+                    log.warn("Could not delete spool file {}", spooled);
+                }
+            }
+        });
+        return job;
+    }
+
+    public ImportJob getJob(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    public List<ImportJob> getJobs() {
+        synchronized (jobs) {
+            return List.copyOf(jobs.values());
+        }
+    }
+
+    private void register(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            var finished = jobs.values().stream().filter(ImportJob::isFinished).toList();
+            for (int i = 0; i < finished.size() - properties.getRetainedJobs(); i++) {
+                jobs.remove(finished.get(i).getId());
+            }
+        }
+    }
+
+    private <T> void run(ImportJob job, ImportTarget<T> target, Path file, ImportFormat format) {
+        BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        int writers = properties.getWriters();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < writers; i++) {
+                executor.submit(() -> writeLoop(job, target, queue));
+            }
+            try {
+                read(job, target, file, format, queue);
+            } catch (IOException | UncheckedIOException e) {
+                job.fail("Could not read upload: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                job.fail("Interrupted");
+            } finally {
+                for (int i = 0; i < writers; i++) {
+                    putUninterruptibly(queue, END);
+                }
+            }
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+        } finally {
+            job.finish();
+            ImportJob.Status status = job.status(false);
+            log.info("Import {} finished {}: {} written, {} rejected, {} failed, {} items/s",
+                    status.id(), status.state(), status.itemsWritten(), status.rowsRejected(),
+                    status.itemsFailed(), String.format("%.0f", status.itemsPerSecond()));
+        }
+    }
+
+    private <T> void read(ImportJob job, ImportTarget<T> target, Path file, ImportFormat format,
+                          BlockingQueue<Pending> queue) throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null && !job.isAborted()) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && header == null) {
+                    header = CsvRows.split(stripBom(line)).stream().map(String::trim).toList();
+                    continue;
+                }
+
+                job.rowsRead.incrementAndGet();
+                T entity;
+                try {
+                    entity = format == ImportFormat.CSV
+                            ? bindCsv(line, header, target.type())
+                            : objectMapper.readValue(stripBom(line), target.type());
+                } catch (JsonProcessingException e) {
+                    reject(job, target, lineNumber, e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    reject(job, target, lineNumber, e.getMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<T>> violations = validator.validate(entity);
+                if (!violations.isEmpty()) {
+                    reject(job, target, lineNumber, violations.stream()
+                            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+
+                Map<String, AttributeValue> item = target.toItem().apply(target.prepare().apply(entity));
+                job.rowsAccepted.incrementAndGet();
+                queue.put(new Pending(lineNumber, item));
+            }
+        }
+    }
+
+    private <T> T bindCsv(String line, List<String> header, Class<T> type) {
+        List<String> values = CsvRows.split(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + values.size());
+        }
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                row.put(header.get(i), values.get(i));
+            }
+        }
+        return objectMapper.convertValue(row, type);
+    }
+
+    private void reject(ImportJob job, ImportTarget<?> target, long line, String message) {
+        job.reject(line, message);
+        meterRegistry.counter("dynamodb.import.rows", "target", target.name(), "result", "rejected").increment();
+    }
+
+    private void writeLoop(ImportJob job, ImportTarget<?> target, BlockingQueue<Pending> queue) {
+        List<Pending> batch = new ArrayList<>(BATCH_SIZE);
+        boolean done = false;
+        try {
+            while (!done) {
+                Pending first = queue.take();
+                if (first == END) {
+                    break;
+                }
+                batch.add(first);
+                while (batch.size() < BATCH_SIZE) {
+                    Pending next = queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == END) {
+                        done = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                if (!job.isAborted()) {
+                    writeBatch(job, target, batch);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Nothing observes the writer's future, so the failure is recorded on the job
+            log.error("Import {} writer failed: {}", job.getId(), e.getMessage(), e);
+            job.fail("Writer failed: " + e.getMessage());
+            if (!batch.isEmpty()) {
+                failed(job, target, batch.size(), lines(batch), e.getMessage());
+            }
+            if (!done) {
+                drain(queue);
+            }
+        }
+    }
+
+    /**
+     * Takes rows until this writer's end marker, so that the reader never blocks on a full queue; the
+     * job has failed, so the reader stops and the rows are dropped.
+     */
+    private static void drain(BlockingQueue<Pending> queue) {
+        try {
+            while (queue.take() != END) {
+                // dropped
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(ImportJob job, ImportTarget<?> target, List<Pending> batch) throws InterruptedException {
+        // BatchWriteItem rejects duplicate keys in one request; the later row wins, as sequential puts would
+        Map<List<AttributeValue>, Pending> byKey = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            List<AttributeValue> key = target.keyAttributes().stream().map(pending.item()::get).toList();
+            if (byKey.put(key, pending) != null) {
+                job.rowsSuperseded.incrementAndGet();
+            }
+        }
+
+        String tableName = target.tableName();
+        List<WriteRequest> writes = byKey.values().stream()
+                .map(pending -> WriteRequest.builder()
+                        .putRequest(PutRequest.builder().item(pending.item()).build())
+                        .build())
+                .toList();
+
+        for (int attempt = 1; ; attempt++) {
+            BatchWriteItemResponse response;
+            try {
+                response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(Map.of(tableName, writes))
+                        .build());
+            } catch (ResourceNotFoundException e) {
+                job.fail("Table " + tableName + " not found");
+                failed(job, target, writes.size(), lines(byKey.values()), e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                // Service errors and client-side ones alike, such as timeouts and dropped connections
+                failed(job, target, writes.size(), lines(byKey.values()), e.getMessage());
+                return;
+            }
+
+            List<WriteRequest> unprocessed = response.hasUnprocessedItems()
+                    ? response.unprocessedItems().getOrDefault(tableName, List.of())
+                    : List.of();
+            int written = writes.size() - unprocessed.size();
+            job.itemsWritten.addAndGet(written);
+            meterRegistry.counter("dynamodb.import.rows", "target", target.name(), "result", "written").increment(written);
+
+            if (unprocessed.isEmpty()) {
+                return;
+            }
+            if (attempt >= properties.getMaxAttempts()) {
+                failed(job, target, unprocessed.size(), lines(byKey.values()),
+                        unprocessed.size() + " items still unprocessed after " + attempt + " attempts");
+                return;
+            }
+            job.batchRetries.incrementAndGet();
+            Thread.sleep(backoff(attempt));
+            writes = unprocessed;
+        }
+    }
+
+    private void failed(ImportJob job, ImportTarget<?> target, int items, String lines, String message) {
+        job.itemsFailed.addAndGet(items);
+        job.recordError(0, "Lines " + lines + ": " + message);
+        meterRegistry.counter("dynamodb.import.rows", "target", target.name(), "result", "failed").increment(items);
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(properties.getBackoffMax().toMillis(),
+                properties.getBackoffBase().toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static String lines(Collection<Pending> batch) {
+        long first = batch.stream().mapToLong(Pending::line).min().orElse(0);
+        long last = batch.stream().mapToLong(Pending::line).max().orElse(0);
+        return first + "-" + last;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private static void putUninterruptibly(BlockingQueue<Pending> queue, Pending pending) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(pending);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Pending(long line, Map<String, AttributeValue> item) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.dynamodb.shared.bulk;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/dynamodbimport} lists recent imports with their progress and rate;
+ * {@code GET /actuator/dynamodbimport/{id}} adds the rejected rows.
+ */
+@Component
+@Endpoint(id = "dynamodbimport")
+@RequiredArgsConstructor
+public class ImportEndpoint {
+
+    private final BulkImporter importer;
+
+    @ReadOperation
+    public List<ImportJob.Status> jobs() {
+        return importer.getJobs().stream().map(job -> job.status(false)).toList();
+    }
+
+    @ReadOperation
+    public ImportJob.Status job(@Selector String id) {
+        ImportJob job = importer.getJob(id);
+        return job != null ? job.status(true) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.dynamodb.shared.bulk;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    NDJSON, CSV;
+
+    /** Picks the format from the file extension, falling back to the content type. */
+    public static ImportFormat detect(String filename, String contentType) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv") || "text/csv".equalsIgnoreCase(contentType)) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")
+                || "application/x-ndjson".equalsIgnoreCase(contentType)) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import file: " + filename + " (expected .ndjson or .csv)");
+    }
+}
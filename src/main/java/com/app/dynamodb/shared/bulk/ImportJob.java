@@ -0,0 +1,128 @@
+package com.app.dynamodb.shared.bulk;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Live progress of one import; updated by the reader and writer threads, read by the endpoint. */
+public class ImportJob {
+
+    public enum State {
+        RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED
+    }
+
+    /** A row that was not written; {@code line} is 0 when the error concerns a whole batch. */
+    public record RowError(long line, String message) {
+    }
+
+    public record Status(
+            String id,
+            String target,
+            String file,
+            ImportFormat format,
+            State state,
+            String failure,
+            Instant startedAt,
+            Instant finishedAt,
+            long rowsRead,
+            long rowsAccepted,
+            long rowsRejected,
+            long rowsSuperseded,
+            long itemsWritten,
+            long itemsFailed,
+            long batchRetries,
+            double itemsPerSecond,
+            List<RowError> errors) {
+    }
+
+    private final String id;
+    private final String target;
+    private final String file;
+    private final ImportFormat format;
+    private final int maxErrorRows;
+    private final Instant startedAt = Instant.now();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    final AtomicLong rowsRead = new AtomicLong();
+    final AtomicLong rowsAccepted = new AtomicLong();
+    final AtomicLong rowsRejected = new AtomicLong();
+    final AtomicLong rowsSuperseded = new AtomicLong();
+    final AtomicLong itemsWritten = new AtomicLong();
+    final AtomicLong itemsFailed = new AtomicLong();
+    final AtomicLong batchRetries = new AtomicLong();
+
+    private final ConcurrentLinkedQueue<RowError> errors = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger errorCount = new AtomicInteger();
+
+    private volatile State state = State.RUNNING;
+    private volatile String failure;
+    private volatile Instant finishedAt;
+
+    ImportJob(String id, String target, String file, ImportFormat format, int maxErrorRows) {
+        this.id = id;
+        this.target = target;
+        this.file = file;
+        this.format = format;
+        this.maxErrorRows = maxErrorRows;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    /** Waits for the job to finish; returns whether it did within the timeout. */
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Status status(boolean includeErrors) {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+        return new Status(id, target, file, format, state, failure, startedAt, finishedAt,
+                rowsRead.get(), rowsAccepted.get(), rowsRejected.get(), rowsSuperseded.get(),
+                itemsWritten.get(), itemsFailed.get(), batchRetries.get(),
+                itemsWritten.get() / seconds,
+                includeErrors ? List.copyOf(errors) : List.of());
+    }
+
+    void reject(long line, String message) {
+        rowsRejected.incrementAndGet();
+        recordError(line, message);
+    }
+
+    void recordError(long line, String message) {
+        if (errorCount.incrementAndGet() <= maxErrorRows) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    boolean isAborted() {
+        return state == State.FAILED;
+    }
+
+    void fail(String message) {
+        failure = message;
+        state = State.FAILED;
+    }
+
+    void finish() {
+        if (state == State.RUNNING) {
+            state = rowsRejected.get() + itemsFailed.get() > 0 ? State.COMPLETED_WITH_ERRORS : State.COMPLETED;
+        }
+        finishedAt = Instant.now();
+        finished.countDown();
+    }
+}
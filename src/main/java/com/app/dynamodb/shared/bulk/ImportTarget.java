@@ -0,0 +1,22 @@
+package com.app.dynamodb.shared.bulk;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * What an import writes: rows are bound to {@code type}, validated, passed through
+ * {@code prepare} (ids, defaults, timestamps) and mapped to items for {@code tableName}.
+ * Within one batch a later row with the same key replaces an earlier one.
+ */
+public record ImportTarget<T>(
+        String name,
+        String tableName,
+        Class<T> type,
+        List<String> keyAttributes,
+        UnaryOperator<T> prepare,
+        Function<T, Map<String, AttributeValue>> toItem) {
+}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("bulk")
+package com.app.dynamodb.shared.bulk;
@@ -0,0 +1,152 @@
+package com.app.dynamodb.shared.compression;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A text attribute that is stored compressed once it is large enough to cost capacity. Short values are
+ * written as plain strings; values of {@link #THRESHOLD_BYTES} or more are written as a binary attribute
+ * holding a format marker followed by the compressed UTF-8 bytes, unless compression does not make them
+ * smaller. Plain string attributes are always read as they are, so items written before compression
+ * stay readable.
+ * <p>
+ * Reading keeps the stored bytes and inflates them the first time the text is asked for, so entities that
+ * are loaded and written back without their text being read never decompress it, nor compress it again.
+ */
+public final class CompressedText {
+
+    /** UTF-8 size from which a value is compressed: DynamoDB bills writes per started kilobyte. */
+    public static final int THRESHOLD_BYTES = 1024;
+
+    /** First byte of a compressed attribute: zlib-wrapped deflate. Other values are reserved for other codecs. */
+    private static final byte DEFLATE = 0x01;
+
+    private volatile String text;
+    private volatile byte[] stored;
+
+    private CompressedText(String text, byte[] stored) {
+        this.text = text;
+        this.stored = stored;
+    }
+
+    /** Wraps a value held in memory; returns {@code null} for {@code null}. */
+    public static CompressedText of(String text) {
+        return text == null ? null : new CompressedText(text, null);
+    }
+
+    /** Wraps a stored attribute without decompressing it; returns {@code null} for a missing attribute. */
+    public static CompressedText fromAttributeValue(AttributeValue value) {
+        if (value == null || Boolean.TRUE.equals(value.nul())) {
+            return null;
+        }
+        if (value.s() != null) {
+            return new CompressedText(value.s(), null);
+        }
+        if (value.b() == null) {
+            throw new IllegalArgumentException("Not a text attribute: " + value);
+        }
+        byte[] bytes = value.b().asByteArrayUnsafe();
+        if (bytes.length == 0 || bytes[0] != DEFLATE) {
+            throw new IllegalArgumentException("Unknown compressed text format: "
+                    + (bytes.length == 0 ? "empty" : String.format("0x%02x", bytes[0])));
+        }
+        return new CompressedText(null, bytes);
+    }
+
+    /** Returns the attribute to store, compressing the text on the first call if it is large enough. */
+    public AttributeValue toAttributeValue() {
+        byte[] compressed = stored;
+        if (compressed == null && text.length() >= THRESHOLD_BYTES / 3) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length >= THRESHOLD_BYTES) {
+                byte[] deflated = deflate(utf8);
+                if (deflated.length < utf8.length) {
+                    stored = compressed = deflated;
+                }
+            }
+        }
+        return compressed == null
+                ? AttributeValue.fromS(text)
+                : AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(compressed));
+    }
+
+    public boolean isCompressed() {
+        return stored != null;
+    }
+
+    /** The text, decompressed on first use. */
+    @Override
+    public String toString() {
+        String value = text;
+        if (value == null) {
+            text = value = inflate(stored);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompressedText that)) {
+            return false;
+        }
+        byte[] mine = stored;
+        byte[] theirs = that.stored;
+        if (mine != null && theirs != null && Arrays.equals(mine, theirs)) {
+            return true;
+        }
+        return toString().equals(that.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 2 + 16);
+            out.write(DEFLATE);
+            byte[] buffer = new byte[Math.min(utf8.length, 8192)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
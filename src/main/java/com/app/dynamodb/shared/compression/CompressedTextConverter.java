@@ -0,0 +1,34 @@
+package com.app.dynamodb.shared.compression;
+
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Maps {@link CompressedText} for the enhanced client. Use it with
+ * {@code @DynamoDbConvertedBy(CompressedTextConverter.class)} on the getter of the stored attribute.
+ */
+public class CompressedTextConverter implements AttributeConverter<CompressedText> {
+
+    @Override
+    public AttributeValue transformFrom(CompressedText input) {
+        return input.toAttributeValue();
+    }
+
+    @Override
+    public CompressedText transformTo(AttributeValue input) {
+        return CompressedText.fromAttributeValue(input);
+    }
+
+    @Override
+    public EnhancedType<CompressedText> type() {
+        return EnhancedType.of(CompressedText.class);
+    }
+
+    /** Large values are binary; short ones and items written before compression are strings. */
+    @Override
+    public AttributeValueType attributeValueType() {
+        return AttributeValueType.B;
+    }
+}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("compression")
+package com.app.dynamodb.shared.compression;
@@ -0,0 +1,30 @@
+package com.app.dynamodb.shared.concurrent;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.dynamodb.hedging")
+public class HedgedReadProperties {
+
+    /** Send a second copy of slow idempotent reads and take whichever answers first. */
+    private boolean enabled = false;
+    /** Latency percentile of recent reads after which a read is hedged. */
+    private double percentile = 0.95;
+    /** Reads of an operation seen before its percentile is trusted; until then nothing is hedged. */
+    private int minSamples = 200;
+    /** Lower bound for the hedge delay, so a fast table is not hedged on scheduling jitter. */
+    private Duration minDelay = Duration.ofMillis(2);
+    /** How long recent latencies count towards the percentile. */
+    private Duration window = Duration.ofMinutes(1);
+    /** Hedges allowed per read, averaged over time: 0.05 caps the extra load at 5%. */
+    private double budgetRatio = 0.05;
+    /** Hedges that may be sent in a burst once the budget has filled up. */
+    private int budgetCapacity = 20;
+}
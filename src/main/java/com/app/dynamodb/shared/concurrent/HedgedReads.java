@@ -0,0 +1,242 @@
+package com.app.dynamodb.shared.concurrent;
+
+import com.app.dynamodb.shared.metrics.RequestCapacity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for idempotent repository reads. A read that has not answered once it is slower than
+ * the configured percentile of its recent reads is sent a second time, and whichever copy answers first
+ * wins; the other one is left to finish so its connection goes back to the pool. Each read earns a
+ * fraction of a hedge into a shared token budget, which bounds the extra load on DynamoDB.
+ * <p>
+ * The reads run on virtual threads. Concurrent SDK calls lease separate connections from the client's
+ * pool, so the hedge does not queue behind the slow attempt.
+ */
+@Slf4j
+@Component
+public class HedgedReads {
+
+    /** Budget tokens are kept in thousandths so fractional ratios add up exactly. */
+    private static final long TOKEN = 1000;
+    private static final long THRESHOLD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final HedgedReadProperties properties;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final AtomicLong budget;
+    private final Executor executor = task -> Thread.ofVirtual().name("hedged-read").start(task);
+
+    public HedgedReads(MeterRegistry meterRegistry, HedgedReadProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.budget = new AtomicLong(properties.getBudgetCapacity() * TOKEN);
+
+        Gauge.builder("dynamodb.hedge.budget", budget, tokens -> (double) tokens.get() / TOKEN)
+                .description("Hedged reads that may be sent before the budget runs out")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code read}, hedging it once if it is slow. {@code read} must be idempotent and return a fully
+     * loaded result, since the copy that loses is discarded.
+     *
+     * @param operation name of the read, used to track its latency and tag metrics
+     */
+    public <V> V execute(String operation, Supplier<V> read) {
+        if (!properties.isEnabled()) {
+            return read.get();
+        }
+        Operation op = operations.computeIfAbsent(operation, Operation::new);
+        earnBudget();
+
+        long delay = op.hedgeDelayNanos();
+        if (delay < 0) {
+            op.notHedged.increment();
+            return op.timed(read).get();
+        }
+
+        Supplier<V> attempt = RequestCapacity.propagate(op.timed(read));
+        CompletableFuture<V> primary = CompletableFuture.supplyAsync(attempt, executor);
+        try {
+            V value = primary.get(delay, TimeUnit.NANOSECONDS);
+            op.notHedged.increment();
+            return value;
+        } catch (TimeoutException e) {
+            // slower than the percentile: hedge below
+        } catch (ExecutionException e) {
+            op.notHedged.increment();
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation, e);
+        }
+
+        if (!tryAcquireBudget()) {
+            op.budgetDenied.increment();
+            return join(primary);
+        }
+        op.hedged.increment();
+        log.debug("Hedging {} after {} µs", operation, TimeUnit.NANOSECONDS.toMicros(delay));
+        CompletableFuture<V> hedge = CompletableFuture.supplyAsync(attempt, executor);
+        return join(firstSuccess(op, primary, hedge));
+    }
+
+    /** Completes with the first attempt that succeeds, or with the primary's failure if both fail. */
+    private static <V> CompletableFuture<V> firstSuccess(Operation op, CompletableFuture<V> primary, CompletableFuture<V> hedge) {
+        CompletableFuture<V> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                if (winner.complete(value)) {
+                    op.primaryWins.increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (winner.complete(value)) {
+                    op.hedgeWins.increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                primary.whenComplete((ignored, primaryError) -> winner.completeExceptionally(primaryError));
+            }
+        });
+        return winner;
+    }
+
+    private void earnBudget() {
+        long earned = Math.round(properties.getBudgetRatio() * TOKEN);
+        long capacity = properties.getBudgetCapacity() * TOKEN;
+        budget.accumulateAndGet(earned, (current, refund) -> Math.min(capacity, current + refund));
+    }
+
+    private boolean tryAcquireBudget() {
+        while (true) {
+            long available = budget.get();
+            if (available < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(available, available - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException wrapped && wrapped.getCause() != null) {
+            cause = wrapped.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(cause);
+    }
+
+    private final class Operation {
+
+        private final Timer latency;
+        private final Counter notHedged;
+        private final Counter hedged;
+        private final Counter budgetDenied;
+        private final Counter primaryWins;
+        private final Counter hedgeWins;
+        private volatile long threshold = -1;
+        private volatile long thresholdComputedAt;
+
+        private Operation(String operation) {
+            this.latency = Timer.builder("dynamodb.hedge.attempt.latency")
+                    .description("Latency of single read attempts, which sets the hedge delay")
+                    .tag("operation", operation)
+                    .publishPercentiles(properties.getPercentile())
+                    .distributionStatisticExpiry(properties.getWindow())
+                    .register(meterRegistry);
+            this.notHedged = calls(operation, "not_hedged");
+            this.hedged = calls(operation, "hedged");
+            this.budgetDenied = calls(operation, "budget_denied");
+            this.primaryWins = wins(operation, "primary");
+            this.hedgeWins = wins(operation, "hedge");
+        }
+
+        private Counter calls(String operation, String result) {
+            return Counter.builder("dynamodb.hedge.calls")
+                    .description("Reads by whether a hedged copy was sent")
+                    .tag("operation", operation)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private Counter wins(String operation, String winner) {
+            return Counter.builder("dynamodb.hedge.wins")
+                    .description("Hedged reads by which copy answered first")
+                    .tag("operation", operation)
+                    .tag("winner", winner)
+                    .register(meterRegistry);
+        }
+
+        private <V> Supplier<V> timed(Supplier<V> read) {
+            return () -> {
+                long start = System.nanoTime();
+                try {
+                    return read.get();
+                } finally {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            };
+        }
+
+        /**
+         * Returns the hedge delay in nanoseconds, or -1 while too few reads have been seen. The percentile
+         * is re-read at most once a second; until there are enough samples only the count is checked.
+         */
+        private long hedgeDelayNanos() {
+            long now = System.nanoTime();
+            if (threshold < 0 || now - thresholdComputedAt >= THRESHOLD_REFRESH_NANOS) {
+                thresholdComputedAt = now;
+                threshold = computeThreshold();
+            }
+            return threshold;
+        }
+
+        private long computeThreshold() {
+            if (latency.count() < properties.getMinSamples()) {
+                return -1;
+            }
+            long floor = properties.getMinDelay().toNanos();
+            for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                return Math.max(floor, (long) value.value(TimeUnit.NANOSECONDS));
+            }
+            return floor;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.app.dynamodb.shared.concurrent;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.dynamodb.single-flight")
+public class SingleFlightProperties {
+
+    /** Share one in-flight DynamoDB read between concurrent callers asking for the same key. */
+    private boolean enabled = true;
+}
@@ -0,0 +1,100 @@
+package com.app.dynamodb.shared.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Request coalescing for repository reads. The first caller for a given operation and key runs
+ * the loader; callers arriving while it is in flight wait for the same result instead of issuing
+ * their own DynamoDB call. Nothing is cached once the call completes.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlights {
+
+    private final MeterRegistry meterRegistry;
+    private final SingleFlightProperties properties;
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code loader} unless an identical call is already in flight.
+     *
+     * @param operation name of the read, used to separate key spaces and tag metrics
+     * @param copier    applied to the shared result for every caller, the one that ran the loader
+     *                  included, so callers that mutate the entities they get back do not affect
+     *                  each other; the shared result itself is only ever read
+     */
+    public <V> V execute(String operation, Object key, Supplier<V> loader, UnaryOperator<V> copier) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        return groups.computeIfAbsent(operation, Group::new).execute(key, loader, copier);
+    }
+
+    private final class Group {
+
+        private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final Counter executed;
+        private final Counter shared;
+
+        private Group(String operation) {
+            this.executed = Counter.builder("dynamodb.singleflight.calls")
+                    .description("Repository reads by whether they issued a DynamoDB call or joined one in flight")
+                    .tag("operation", operation)
+                    .tag("result", "executed")
+                    .register(meterRegistry);
+            this.shared = Counter.builder("dynamodb.singleflight.calls")
+                    .description("Repository reads by whether they issued a DynamoDB call or joined one in flight")
+                    .tag("operation", operation)
+                    .tag("result", "shared")
+                    .register(meterRegistry);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> V execute(Object key, Supplier<V> loader, UnaryOperator<V> copier) {
+            CompletableFuture<Object> call = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+
+            if (existing != null) {
+                shared.increment();
+                return copier.apply((V) await(existing));
+            }
+
+            executed.increment();
+            try {
+                V value = loader.get();
+                call.complete(value);
+                // Waiters copy value on their own threads, so it must not be handed out for mutation
+                return copier.apply(value);
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        private Object await(CompletableFuture<Object> call) {
+            try {
+                return call.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
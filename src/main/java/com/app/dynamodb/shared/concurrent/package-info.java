@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("concurrent")
+package com.app.dynamodb.shared.concurrent;
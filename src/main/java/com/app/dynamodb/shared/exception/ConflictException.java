@@ -0,0 +1,10 @@
+package com.app.dynamodb.shared.exception;
+
+import org.springframework.modulith.NamedInterface;
+
+@NamedInterface
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
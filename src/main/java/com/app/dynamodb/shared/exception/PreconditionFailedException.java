@@ -0,0 +1,10 @@
+package com.app.dynamodb.shared.exception;
+
+import org.springframework.modulith.NamedInterface;
+
+@NamedInterface
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.dynamodb.shared.exception;
+
+import org.springframework.modulith.NamedInterface;
+
+import java.time.Duration;
+
+/** A resource that is not ready yet; answered with {@code 503} and a {@code Retry-After} of {@link #getRetryAfter()}. */
+@NamedInterface
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.dynamodb.shared.exception;
+
+import lombok.Getter;
+import org.springframework.modulith.NamedInterface;
+
+/**
+ * A write that DynamoDB could not take right now and that was journaled to be replayed once it can;
+ * answered with {@code 202 Accepted} and the entity as it will be written.
+ */
+@Getter
+@NamedInterface
+public class WriteAcceptedException extends RuntimeException {
+
+    private final transient Object entity;
+    private final long sequence;
+
+    public WriteAcceptedException(Object entity, long sequence) {
+        super("Write journaled as entry " + sequence);
+        this.entity = entity;
+        this.sequence = sequence;
+    }
+}
@@ -0,0 +1,52 @@
+package com.app.dynamodb.shared.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code POST /actuator/dynamodbexport/{table}} starts an export in the background, optionally
+ * resuming {@code runId}; {@code GET /actuator/dynamodbexport} shows running exports and the last
+ * report per table.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "dynamodbexport")
+@RequiredArgsConstructor
+public class ExportEndpoint {
+
+    private final TableExporter exporter;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of(
+                "running", exporter.getRunning(),
+                "lastReports", exporter.getLastReports());
+    }
+
+    @WriteOperation
+    public Map<String, String> export(@Selector String table, @Nullable String runId) {
+        if (!exporter.hasTable(table)) {
+            return Map.of("table", table, "status", "unknown table");
+        }
+        String run = runId != null ? runId : TableExporter.defaultRunId();
+        if (!TableExporter.isValidRunId(run)) {
+            return Map.of("table", table, "status", "invalid run id");
+        }
+        Thread.ofVirtual().name("dynamodb-export-" + table).start(() -> {
+            try {
+                exporter.export(table, run);
+            } catch (RuntimeException e) {
+                log.error("Export of {} failed: {}", table, e.getMessage());
+            }
+        });
+        return Map.of("table", table, "runId", run, "status", "started");
+    }
+}
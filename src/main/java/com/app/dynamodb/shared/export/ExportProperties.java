@@ -0,0 +1,27 @@
+package com.app.dynamodb.shared.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /** Root directory; each run writes to {@code <directory>/<table>/<runId>}. */
+    private Path directory = Path.of("exports");
+
+    /** Parallel scan segments per table. */
+    private int segments = 8;
+
+    /** Items requested per scan page; each page becomes one gzip member and one checkpoint. */
+    private int pageSize = 1000;
+
+    /** Cron expression for the nightly export of every table; "-" disables it. */
+    private String cron = "-";
+}
@@ -0,0 +1,27 @@
+package com.app.dynamodb.shared.export;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one export run. Counts cover the work done by this run only; items exported before
+ * a resume are in {@code totalItems}.
+ */
+public record ExportReport(
+        String table,
+        String runId,
+        String directory,
+        long items,
+        long totalItems,
+        long rawBytes,
+        long compressedBytes,
+        long durationMillis,
+        double itemsPerSecond,
+        double megabytesPerSecond) {
+
+    static ExportReport of(String table, String runId, String directory, long items, long totalItems,
+                           long rawBytes, long compressedBytes, Duration duration) {
+        double seconds = Math.max(duration.toMillis(), 1) / 1000.0;
+        return new ExportReport(table, runId, directory, items, totalItems, rawBytes, compressedBytes,
+                duration.toMillis(), items / seconds, rawBytes / seconds / (1024 * 1024));
+    }
+}
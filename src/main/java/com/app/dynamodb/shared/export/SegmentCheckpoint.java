@@ -0,0 +1,55 @@
+package com.app.dynamodb.shared.export;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of one scan segment. {@code offset} is the size of the data file after the last
+ * complete gzip member, so a resumed export truncates anything written past it.
+ * Key attributes are stored as {@code {"S": "..."}}, {@code {"N": "..."}} or base64 {@code {"B": "..."}}.
+ */
+record SegmentCheckpoint(long offset, long items, boolean done, Map<String, Map<String, String>> lastEvaluatedKey) {
+
+    static final SegmentCheckpoint START = new SegmentCheckpoint(0, 0, false, null);
+
+    static SegmentCheckpoint of(long offset, long items, Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null) {
+            return new SegmentCheckpoint(offset, items, true, null);
+        }
+        Map<String, Map<String, String>> encoded = new LinkedHashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> encoded.put(name, encode(value)));
+        return new SegmentCheckpoint(offset, items, false, encoded);
+    }
+
+    Map<String, AttributeValue> startKey() {
+        if (lastEvaluatedKey == null) {
+            return null;
+        }
+        Map<String, AttributeValue> key = new LinkedHashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> key.put(name, decode(value)));
+        return key;
+    }
+
+    private static Map<String, String> encode(AttributeValue value) {
+        return switch (value.type()) {
+            case S -> Map.of("S", value.s());
+            case N -> Map.of("N", value.n());
+            case B -> Map.of("B", Base64.getEncoder().encodeToString(value.b().asByteArray()));
+            default -> throw new IllegalArgumentException("Unsupported key attribute type " + value.type());
+        };
+    }
+
+    private static AttributeValue decode(Map<String, String> value) {
+        if (value.containsKey("S")) {
+            return AttributeValue.fromS(value.get("S"));
+        }
+        if (value.containsKey("N")) {
+            return AttributeValue.fromN(value.get("N"));
+        }
+        return AttributeValue.fromB(SdkBytes.fromByteArray(Base64.getDecoder().decode(value.get("B"))));
+    }
+}
@@ -0,0 +1,271 @@
+package com.app.dynamodb.shared.export;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a table to gzip-compressed NDJSON, one file per parallel scan segment. Each scan page is
+ * written as its own gzip member and followed by a checkpoint holding the file offset and the
+ * page's {@code LastEvaluatedKey}; a rerun with the same run id truncates each file to its
+ * checkpoint and continues from the saved key. Concatenated gzip members read back as one stream.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TableExporter {
+
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final DynamoDbClient dynamoDbClient;
+    private final AwsConfigProperties awsProperties;
+    private final ExportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Map<String, ExportReport> lastReports = new ConcurrentHashMap<>();
+
+    @Scheduled(cron = "${app.export.cron:-}", zone = "UTC")
+    public void exportAll() {
+        for (String table : awsProperties.getActiveTables().keySet()) {
+            try {
+                export(table, defaultRunId());
+            } catch (RuntimeException e) {
+                log.error("Export of {} failed: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Exports the table configured under {@code aws.dynamodb.tables.<table>}. Calling again with
+     * the run id of an interrupted export resumes it; a completed run is not exported again.
+     */
+    public ExportReport export(String table, String runId) {
+        String tableName = awsProperties.getActiveTables().get(table);
+        if (tableName == null) {
+            throw new IllegalArgumentException("Unknown table: " + table);
+        }
+        if (!isValidRunId(runId)) {
+            throw new IllegalArgumentException("Invalid run id: " + runId);
+        }
+        if (!running.add(table)) {
+            throw new IllegalStateException("An export of " + table + " is already running");
+        }
+
+        try {
+            Path exportRoot = properties.getDirectory().toAbsolutePath().normalize();
+            Path directory = exportRoot.resolve(tableName).resolve(runId).normalize();
+            if (!directory.startsWith(exportRoot)) {
+                throw new IllegalArgumentException("Export directory " + directory + " is outside " + exportRoot);
+            }
+            Files.createDirectories(directory);
+
+            log.info("Exporting {} to {} with {} segments", tableName, directory, properties.getSegments());
+            Instant start = Instant.now();
+            List<SegmentResult> results = exportSegments(tableName, directory);
+
+            ExportReport report = ExportReport.of(table, runId, directory.toString(),
+                    results.stream().mapToLong(SegmentResult::items).sum(),
+                    results.stream().mapToLong(SegmentResult::totalItems).sum(),
+                    results.stream().mapToLong(SegmentResult::rawBytes).sum(),
+                    results.stream().mapToLong(SegmentResult::compressedBytes).sum(),
+                    Duration.between(start, Instant.now()));
+            writeManifest(directory, report);
+            lastReports.put(table, report);
+
+            log.info("Exported {} items of {} in {} ms ({} items/s, {} MB/s uncompressed)",
+                    report.items(), tableName, report.durationMillis(),
+                    String.format("%.0f", report.itemsPerSecond()), String.format("%.2f", report.megabytesPerSecond()));
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export of " + tableName + " failed", e);
+        } finally {
+            running.remove(table);
+        }
+    }
+
+    public boolean hasTable(String table) {
+        return awsProperties.getActiveTables().containsKey(table);
+    }
+
+    /**
+     * A run id names a directory under the export directory, so it is one path segment of letters,
+     * digits, dots, dashes and underscores, and never {@code ..}.
+     */
+    public static boolean isValidRunId(String runId) {
+        return runId != null && RUN_ID.matcher(runId).matches() && !runId.contains("..");
+    }
+
+    public static String defaultRunId() {
+        return LocalDate.now(ZoneOffset.UTC).toString();
+    }
+
+    public Set<String> getRunning() {
+        return Set.copyOf(running);
+    }
+
+    public Map<String, ExportReport> getLastReports() {
+        return Map.copyOf(lastReports);
+    }
+
+    private List<SegmentResult> exportSegments(String tableName, Path directory) throws IOException {
+        int segments = properties.getSegments();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<SegmentResult>> futures = IntStream.range(0, segments)
+                    .mapToObj(segment -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return exportSegment(tableName, directory, segment, segments);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor))
+                    .toList();
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private SegmentResult exportSegment(String tableName, Path directory, int segment, int totalSegments)
+            throws IOException {
+        Path dataFile = directory.resolve(String.format("segment-%04d.ndjson.gz", segment));
+        Path checkpointFile = directory.resolve(String.format("segment-%04d.checkpoint.json", segment));
+
+        SegmentCheckpoint checkpoint = readCheckpoint(checkpointFile);
+        if (checkpoint.done()) {
+            return new SegmentResult(0, checkpoint.items(), 0, 0);
+        }
+        if (checkpoint.offset() > 0) {
+            log.info("Resuming {} segment {} after {} items", tableName, segment, checkpoint.items());
+        }
+
+        long items = 0;
+        long rawBytes = 0;
+        long compressedBytes = 0;
+        long totalItems = checkpoint.items();
+        Map<String, AttributeValue> startKey = checkpoint.startKey();
+
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(checkpoint.offset());
+            channel.position(checkpoint.offset());
+
+            do {
+                ScanResponse page = dynamoDbClient.scan(ScanRequest.builder()
+                        .tableName(tableName)
+                        .segment(segment)
+                        .totalSegments(totalSegments)
+                        .limit(properties.getPageSize())
+                        .exclusiveStartKey(startKey)
+                        .build());
+
+                if (page.hasItems() && !page.items().isEmpty()) {
+                    PageBytes bytes = compress(page.items());
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes.compressed());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+
+                    items += page.items().size();
+                    totalItems += page.items().size();
+                    rawBytes += bytes.rawLength();
+                    compressedBytes += bytes.compressed().length;
+                    meterRegistry.counter("dynamodb.export.items", "table", tableName).increment(page.items().size());
+                    meterRegistry.counter("dynamodb.export.bytes", "table", tableName).increment(bytes.compressed().length);
+                }
+
+                startKey = page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty()
+                        ? page.lastEvaluatedKey()
+                        : null;
+                writeCheckpoint(checkpointFile, SegmentCheckpoint.of(channel.position(), totalItems, startKey));
+            } while (startKey != null);
+        }
+        return new SegmentResult(items, totalItems, rawBytes, compressedBytes);
+    }
+
+    private PageBytes compress(List<Map<String, AttributeValue>> items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        long rawLength = 0;
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024)) {
+            for (Map<String, AttributeValue> item : items) {
+                byte[] line = (EnhancedDocument.fromAttributeValueMap(item).toJson() + "\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                gzip.write(line);
+                rawLength += line.length;
+            }
+        }
+        return new PageBytes(out.toByteArray(), rawLength);
+    }
+
+    private SegmentCheckpoint readCheckpoint(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return SegmentCheckpoint.START;
+        }
+        return objectMapper.readValue(file.toFile(), SegmentCheckpoint.class);
+    }
+
+    private void writeCheckpoint(Path file, SegmentCheckpoint checkpoint) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, objectMapper.writeValueAsBytes(checkpoint));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeManifest(Path directory, ExportReport report) throws IOException {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("table", report.table());
+        manifest.put("runId", report.runId());
+        manifest.put("segments", properties.getSegments());
+        manifest.put("items", report.totalItems());
+        manifest.put("completedAt", Instant.now().toString());
+        Files.write(directory.resolve("manifest.json"), objectMapper.writeValueAsBytes(manifest));
+    }
+
+    private record PageBytes(byte[] compressed, long rawLength) {
+    }
+
+    private record SegmentResult(long items, long totalItems, long rawBytes, long compressedBytes) {
+    }
+}
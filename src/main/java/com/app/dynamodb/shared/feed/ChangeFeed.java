@@ -0,0 +1,273 @@
+package com.app.dynamodb.shared.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fans changes out to Server-Sent Events subscribers. Publishing only hands the change to the buffer of
+ * every interested subscriber; each subscriber has a virtual thread of its own that writes its buffer to
+ * the stream, so a slow client holds up nobody but itself.
+ * <p>
+ * A buffer holds at most {@code app.feed.buffer-size} changes. With {@link Policy#COALESCE} a change
+ * replaces the pending change of the same key, so a subscriber that falls behind gets the latest state of
+ * every key rather than every step in between. When the buffer is full anyway, the oldest change is
+ * dropped and the subscriber is sent a {@code resync} event before the next ones, telling it to read the
+ * current state again.
+ */
+@Slf4j
+public class ChangeFeed {
+
+    /** Events sent to a subscriber that missed changes because its buffer overflowed. */
+    public static final String RESYNC = "resync";
+
+    public enum Policy {
+        /** Keep only the latest pending change per key. */
+        COALESCE,
+        /** Keep every change, dropping the oldest when the buffer is full. */
+        DROP_OLDEST
+    }
+
+    private final String name;
+    private final Policy policy;
+    private final ChangeFeedProperties properties;
+    private final Set<Subscriber> allTopics = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> byTopic = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong subscribers = new AtomicLong();
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter dropped;
+
+    public ChangeFeed(String name, Policy policy, ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.policy = policy;
+        this.properties = properties;
+        this.sent = counter(meterRegistry, "sent");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.dropped = counter(meterRegistry, "dropped");
+        Gauge.builder("feed.subscribers", subscribers, AtomicLong::get)
+                .description("Open change feed streams")
+                .tag("feed", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes of {@code topics}, or of every change when there are none. The
+     * {@code initial} changes, typically the current state read from the table, are sent first unless a
+     * change of the same topic was published meanwhile. They are read after subscribing, so no change
+     * made in between is missed.
+     */
+    public SseEmitter subscribe(Collection<String> topics, Supplier<List<Change>> initial) {
+        return subscribe(topics, initial, new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(Collection<String> topics, Supplier<List<Change>> initial, SseEmitter emitter) {
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many subscribers to the " + name + " feed");
+        }
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(topics));
+        if (topics.isEmpty()) {
+            allTopics.add(subscriber);
+        } else {
+            topics.forEach(topic -> byTopic.compute(topic, (key, subscribed) -> {
+                Set<Subscriber> set = subscribed != null ? subscribed : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            }));
+        }
+        try {
+            initial.get().forEach(subscriber::offerIfAbsent);
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        Thread.ofVirtual().name("feed-" + name).start(subscriber::run);
+        return emitter;
+    }
+
+    /** Sends {@code event} with {@code data} to the subscribers of {@code topic} and of every change. */
+    public void publish(String topic, String event, Object data) {
+        Change change = change(topic, event, data);
+        allTopics.forEach(subscriber -> subscriber.offer(change));
+        Set<Subscriber> subscribed = byTopic.get(topic);
+        if (subscribed != null) {
+            subscribed.forEach(subscriber -> subscriber.offer(change));
+        }
+    }
+
+    /** A change numbered after every change published so far; {@link #subscribe} takes these as initial state. */
+    public Change change(String topic, String event, Object data) {
+        return new Change(sequence.incrementAndGet(), topic, event, data);
+    }
+
+    public long getSubscribers() {
+        return subscribers.get();
+    }
+
+    /** Ends every stream, for shutdown. */
+    public void close() {
+        allTopics.forEach(subscriber -> subscriber.emitter.complete());
+        byTopic.values().forEach(subscribed -> subscribed.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("feed.changes")
+                .description("Changes handed to change feed subscribers")
+                .tag("feed", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public record Change(long sequence, String topic, String event, Object data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<String> topics;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        /** Pending changes by topic when coalescing, otherwise by sequence. */
+        private final LinkedHashMap<Object, Change> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<String> topics) {
+            this.emitter = emitter;
+            this.topics = topics;
+        }
+
+        void offerIfAbsent(Change change) {
+            lock.lock();
+            try {
+                if (pending.values().stream().noneMatch(other -> other.topic().equals(change.topic()))) {
+                    offer(change);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void offer(Change change) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                Object key = policy == Policy.COALESCE ? change.topic() : change.sequence();
+                if (pending.remove(key) != null) {
+                    coalesced.increment();
+                } else if (pending.size() >= properties.getBufferSize()) {
+                    Iterator<Change> oldest = pending.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    overflowed = true;
+                    dropped.increment();
+                }
+                pending.put(key, change);
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void run() {
+            long heartbeatNanos = properties.getHeartbeat().toNanos();
+            try {
+                while (true) {
+                    List<Change> batch;
+                    boolean resync;
+                    lock.lock();
+                    try {
+                        long wait = heartbeatNanos;
+                        while (pending.isEmpty() && !closed && wait > 0) {
+                            wait = changed.awaitNanos(wait);
+                        }
+                        if (closed) {
+                            return;
+                        }
+                        batch = new ArrayList<>(pending.values());
+                        pending.clear();
+                        resync = overflowed;
+                        overflowed = false;
+                    } finally {
+                        lock.unlock();
+                    }
+                    send(batch, resync);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change feed {} subscriber gone: {}", name, e.getMessage());
+                emitter.completeWithError(e);
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+            }
+        }
+
+        private void send(List<Change> batch, boolean resync) throws IOException {
+            if (batch.isEmpty()) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                return;
+            }
+            if (resync) {
+                emitter.send(SseEmitter.event().name(RESYNC).data("Changes were dropped, read the current state again"));
+            }
+            for (Change change : batch) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.sequence()))
+                        .name(change.event())
+                        .data(change.data(), MediaType.APPLICATION_JSON));
+            }
+            sent.increment(batch.size());
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (topics.isEmpty()) {
+                allTopics.remove(this);
+            } else {
+                topics.forEach(topic -> byTopic.computeIfPresent(topic, (key, subscribed) -> {
+                    subscribed.remove(this);
+                    return subscribed.isEmpty() ? null : subscribed;
+                }));
+            }
+            subscribers.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.app.dynamodb.shared.feed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.feed")
+public class ChangeFeedProperties {
+
+    /** Changes held for a subscriber that has not been sent them yet; beyond that the oldest are dropped. */
+    private int bufferSize = 64;
+    /** Subscribers a feed accepts at once; further ones are answered 503. */
+    private int maxSubscribers = 10_000;
+    /** How long an idle stream waits before sending a keep-alive comment. */
+    private Duration heartbeat = Duration.ofSeconds(15);
+    /** How long a stream stays open; clients reconnect after it ends. */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("feed")
+package com.app.dynamodb.shared.feed;
@@ -1,37 +1,152 @@
 package com.app.dynamodb.shared.health;
 
+import com.app.dynamodb.shared.AwsConfigProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.model.ListTablesRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DynamoDB health, computed in the background. Each refresh describes every configured table and
+ * feeds the call latency and outcome into a rolling window; probes and scrapes only read the last
+ * published result and never call DynamoDB themselves.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DynamoDbHealthIndicator implements HealthIndicator {
 
+    public static final Status DEGRADED = new Status("DEGRADED", "DynamoDB is slow or intermittently failing");
+
     private final DynamoDbClient dynamoDbClient;
+    private final AwsConfigProperties properties;
+
+    private RollingWindow window;
+    private volatile Health cached = Health.unknown()
+            .withDetail("service", "DynamoDB")
+            .withDetail("status", "Not checked yet")
+            .build();
+    private volatile Instant checkedAt = Instant.EPOCH;
 
     @Override
     public Health health() {
-        try {
-            ListTablesRequest request = ListTablesRequest.builder().limit(1).build();
-            
-            dynamoDbClient.listTables(request);
-            
-            return Health.up()
+        Duration age = Duration.between(checkedAt, Instant.now());
+        if (checkedAt != Instant.EPOCH && age.compareTo(properties.getHealthCheck().getMaxAge()) > 0) {
+            return Health.unknown()
                     .withDetail("service", "DynamoDB")
-                    .withDetail("status", "Connected")
-                    .build();
-        } catch (Exception e) {
-            log.error("DynamoDB health check failed: {}", e.getMessage());
-            return Health.down()
-                    .withDetail("service", "DynamoDB")
-                    .withDetail("error", e.getMessage())
+                    .withDetail("status", "Last check is stale")
+                    .withDetail("checkedAt", checkedAt)
                     .build();
         }
+        return cached;
+    }
+
+    @Scheduled(fixedDelayString = "${aws.dynamodb.health-check.refresh-interval:PT10S}")
+    public void refresh() {
+        AwsConfigProperties.HealthCheck config = properties.getHealthCheck();
+        if (window == null) {
+            window = new RollingWindow(config.getWindowSize());
+        }
+
+        Map<String, String> tables = new LinkedHashMap<>();
+        boolean allActive = true;
+        for (String tableName : properties.getActiveTables().values()) {
+            long start = System.nanoTime();
+            try {
+                TableStatus status = dynamoDbClient.describeTable(DescribeTableRequest.builder()
+                        .tableName(tableName)
+                        .build()).table().tableStatus();
+                window.record(System.nanoTime() - start, true);
+                tables.put(tableName, status.toString());
+                allActive &= status == TableStatus.ACTIVE || status == TableStatus.UPDATING;
+            } catch (Exception e) {
+                window.record(System.nanoTime() - start, false);
+                tables.put(tableName, "ERROR: " + e.getMessage());
+                allActive = false;
+                log.warn("DynamoDB health check failed for table {}: {}", tableName, e.getMessage());
+            }
+        }
+
+        double errorRate = window.errorRate();
+        Duration p95 = Duration.ofNanos(window.latencyPercentile(0.95));
+
+        Health.Builder health;
+        if (errorRate > config.getDownErrorRate()) {
+            health = Health.down();
+        } else if (!allActive || errorRate > config.getDegradedErrorRate()
+                || p95.compareTo(config.getDegradedLatency()) > 0) {
+            health = Health.status(DEGRADED);
+        } else {
+            health = Health.up();
+        }
+
+        checkedAt = Instant.now();
+        cached = health
+                .withDetail("service", "DynamoDB")
+                .withDetail("tables", tables)
+                .withDetail("errorRate", errorRate)
+                .withDetail("p95LatencyMs", p95.toMillis())
+                .withDetail("samples", window.size())
+                .withDetail("checkedAt", checkedAt)
+                .build();
+    }
+
+    /** Fixed-size ring buffer of check latencies and outcomes; only touched by the refresh thread. */
+    static final class RollingWindow {
+
+        private final long[] latencies;
+        private final boolean[] failures;
+        private int next;
+        private int size;
+
+        RollingWindow(int capacity) {
+            this.latencies = new long[capacity];
+            this.failures = new boolean[capacity];
+        }
+
+        void record(long latencyNanos, boolean success) {
+            latencies[next] = latencyNanos;
+            failures[next] = !success;
+            next = (next + 1) % latencies.length;
+            size = Math.min(size + 1, latencies.length);
+        }
+
+        int size() {
+            return size;
+        }
+
+        double errorRate() {
+            if (size == 0) {
+                return 0.0;
+            }
+            int failed = 0;
+            for (int i = 0; i < size; i++) {
+                if (failures[i]) {
+                    failed++;
+                }
+            }
+            return (double) failed / size;
+        }
+
+        long latencyPercentile(double percentile) {
+            if (size == 0) {
+                return 0L;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * size) - 1];
+        }
     }
-}
\ No newline at end of file
+}
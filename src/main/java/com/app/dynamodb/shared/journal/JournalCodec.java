@@ -0,0 +1,125 @@
+package com.app.dynamodb.shared.journal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal records as JSON, with attribute values in the DynamoDB wire format ({@code {"S": "..."}},
+ * {@code {"B": "<base64>"}}, ...), so that every attribute type is replayed exactly as it was written.
+ */
+final class JournalCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(JournaledWrite write, Instant journaledAt) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("table", write.table());
+        root.put("mode", write.mode().name());
+        ArrayNode keys = root.putArray("keys");
+        write.keyAttributes().forEach(keys::add);
+        root.put("at", journaledAt.toString());
+        root.set("item", encodeMap(write.item()));
+        try {
+            return MAPPER.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static JournalRecord decode(long sequence, byte[] payload) {
+        try {
+            JsonNode root = MAPPER.readTree(payload);
+            List<String> keys = new ArrayList<>();
+            root.get("keys").forEach(key -> keys.add(key.asText()));
+            JournaledWrite write = new JournaledWrite(root.get("table").asText(),
+                    JournaledWrite.Mode.valueOf(root.get("mode").asText()), keys, decodeMap(root.get("item")));
+            return new JournalRecord(sequence, Instant.parse(root.get("at").asText()), write);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable journal entry " + sequence, e);
+        }
+    }
+
+    private static ObjectNode encodeMap(Map<String, AttributeValue> map) {
+        ObjectNode node = MAPPER.createObjectNode();
+        map.forEach((name, value) -> node.set(name, encode(value)));
+        return node;
+    }
+
+    private static ObjectNode encode(AttributeValue value) {
+        ObjectNode node = MAPPER.createObjectNode();
+        switch (value.type()) {
+            case S -> node.put("S", value.s());
+            case N -> node.put("N", value.n());
+            case B -> node.put("B", base64(value.b()));
+            case BOOL -> node.put("BOOL", value.bool());
+            case NUL -> node.put("NULL", true);
+            case M -> node.set("M", encodeMap(value.m()));
+            case L -> {
+                ArrayNode list = node.putArray("L");
+                value.l().forEach(element -> list.add(encode(element)));
+            }
+            case SS -> value.ss().forEach(node.putArray("SS")::add);
+            case NS -> value.ns().forEach(node.putArray("NS")::add);
+            case BS -> {
+                ArrayNode set = node.putArray("BS");
+                value.bs().forEach(bytes -> set.add(base64(bytes)));
+            }
+            default -> throw new IllegalArgumentException("Unsupported attribute type " + value.type());
+        }
+        return node;
+    }
+
+    private static Map<String, AttributeValue> decodeMap(JsonNode node) {
+        Map<String, AttributeValue> map = new LinkedHashMap<>();
+        node.properties().forEach(field -> map.put(field.getKey(), decode(field.getValue())));
+        return map;
+    }
+
+    private static AttributeValue decode(JsonNode node) {
+        Map.Entry<String, JsonNode> typed = node.properties().iterator().next();
+        JsonNode value = typed.getValue();
+        return switch (typed.getKey()) {
+            case "S" -> AttributeValue.fromS(value.asText());
+            case "N" -> AttributeValue.fromN(value.asText());
+            case "B" -> AttributeValue.fromB(bytes(value));
+            case "BOOL" -> AttributeValue.fromBool(value.asBoolean());
+            case "NULL" -> AttributeValue.fromNul(true);
+            case "M" -> AttributeValue.fromM(decodeMap(value));
+            case "L" -> AttributeValue.fromL(elements(value).stream().map(JournalCodec::decode).toList());
+            case "SS" -> AttributeValue.fromSs(elements(value).stream().map(JsonNode::asText).toList());
+            case "NS" -> AttributeValue.fromNs(elements(value).stream().map(JsonNode::asText).toList());
+            case "BS" -> AttributeValue.fromBs(elements(value).stream().map(JournalCodec::bytes).toList());
+            default -> throw new IllegalArgumentException("Unsupported attribute type " + typed.getKey());
+        };
+    }
+
+    private static List<JsonNode> elements(JsonNode array) {
+        List<JsonNode> elements = new ArrayList<>();
+        array.forEach(elements::add);
+        return elements;
+    }
+
+    private static String base64(SdkBytes bytes) {
+        return Base64.getEncoder().encodeToString(bytes.asByteArrayUnsafe());
+    }
+
+    private static SdkBytes bytes(JsonNode node) {
+        return SdkBytes.fromByteArray(Base64.getDecoder().decode(node.asText()));
+    }
+}
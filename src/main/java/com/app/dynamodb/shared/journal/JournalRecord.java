@@ -0,0 +1,7 @@
+package com.app.dynamodb.shared.journal;
+
+import java.time.Instant;
+
+/** A journaled write with its position in the journal and when it was accepted. */
+record JournalRecord(long sequence, Instant journaledAt, JournaledWrite write) {
+}
@@ -0,0 +1,207 @@
+package com.app.dynamodb.shared.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Writes journaled entries to DynamoDB in the order they were journaled, and moves the checkpoint past
+ * them. Replaying is idempotent: an entry is written only if the stored item is not newer than it, so an
+ * entry replayed twice after a crash, or overtaken by a later write that reached DynamoDB directly, is
+ * skipped as superseded. While DynamoDB is still unavailable replay stops at the entry that failed and
+ * starts from it again on the next run.
+ * <p>
+ * {@code updatedAt} is stored as {@link Instant#toString()}, whose width varies with the fraction of a
+ * second, so DynamoDB cannot compare versions itself. The stored version is read and compared as an
+ * {@link Instant}, and the entry written on condition that the version is still the one read.
+ */
+@Slf4j
+@Component
+class JournalReplayer {
+
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String UNCHANGED_CONDITION = "#updatedAt = :updatedAt";
+    private static final String UNVERSIONED_CONDITION = "attribute_not_exists(#updatedAt)";
+    /** Reads of the stored version before an entry whose item keeps changing is given up as superseded. */
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final WriteJournal journal;
+    private final WriteJournalProperties properties;
+    private final DynamoDbClient dynamoDbClient;
+    private final Counter applied;
+    private final Counter superseded;
+    private final Counter failed;
+
+    JournalReplayer(WriteJournal journal, WriteJournalProperties properties, DynamoDbClient dynamoDbClient,
+                    MeterRegistry meterRegistry) {
+        this.journal = journal;
+        this.properties = properties;
+        this.dynamoDbClient = dynamoDbClient;
+        this.applied = counter(meterRegistry, "applied");
+        this.superseded = counter(meterRegistry, "superseded");
+        this.failed = counter(meterRegistry, "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.dynamodb.journal.replay-interval:PT1S}")
+    void replay() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        List<JournalRecord> records;
+        while (!(records = journal.read(properties.getReplayBatch())).isEmpty()) {
+            long replayed = -1;
+            for (JournalRecord record : records) {
+                try {
+                    if (apply(record.write())) {
+                        applied.increment();
+                    } else {
+                        log.debug("Journal entry {} superseded by a newer write", record.sequence());
+                        superseded.increment();
+                    }
+                } catch (ConditionalCheckFailedException e) {
+                    log.debug("Journal entry {} superseded by writes still going on", record.sequence());
+                    superseded.increment();
+                } catch (RuntimeException e) {
+                    if (WriteJournal.isUnavailable(e)) {
+                        log.debug("DynamoDB still unavailable, journal replay paused at entry {}", record.sequence());
+                        if (replayed != -1) {
+                            journal.commit(replayed);
+                        }
+                        return;
+                    }
+                    log.error("Dropping journal entry {} for table {}: {}", record.sequence(), record.write().table(),
+                            e.getMessage());
+                    failed.increment();
+                }
+                replayed = record.sequence();
+            }
+            journal.commit(replayed);
+            log.info("Replayed journal up to entry {}, {} left", replayed, journal.getDepth());
+        }
+    }
+
+    /** Writes the entry unless the stored item is newer; returns whether it was written. */
+    private boolean apply(JournaledWrite write) {
+        Instant version = versionOf(write.item().get(UPDATED_AT));
+        if (version == null) {
+            send(write, null);
+            return true;
+        }
+        for (int attempt = 1; ; attempt++) {
+            AttributeValue stored = storedVersion(write);
+            Instant storedVersion = versionOf(stored);
+            if (storedVersion != null && storedVersion.isAfter(version)) {
+                return false;
+            }
+            try {
+                send(write, stored);
+                return true;
+            } catch (ConditionalCheckFailedException e) {
+                // Written in between: compare with the new version
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private AttributeValue storedVersion(JournaledWrite write) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        write.keyAttributes().forEach(attribute -> key.put(attribute, write.item().get(attribute)));
+        Map<String, AttributeValue> item = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(write.table())
+                .key(key)
+                .projectionExpression("#updatedAt")
+                .expressionAttributeNames(Map.of("#updatedAt", UPDATED_AT))
+                .consistentRead(true)
+                .build()).item();
+        return item == null ? null : item.get(UPDATED_AT);
+    }
+
+    private static Instant versionOf(AttributeValue updatedAt) {
+        if (updatedAt == null || updatedAt.s() == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(updatedAt.s());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the entry on condition that the stored {@code updatedAt} is still {@code stored}, or still
+     * missing when it is {@code null}; unconditionally for an entry without a version.
+     */
+    private void send(JournaledWrite write, AttributeValue stored) {
+        boolean versioned = versionOf(write.item().get(UPDATED_AT)) != null;
+        String condition = stored != null ? UNCHANGED_CONDITION : UNVERSIONED_CONDITION;
+        if (write.mode() == JournaledWrite.Mode.PUT) {
+            PutItemRequest.Builder request = PutItemRequest.builder()
+                    .tableName(write.table())
+                    .item(write.item());
+            if (versioned) {
+                request.conditionExpression(condition)
+                        .expressionAttributeNames(Map.of("#updatedAt", UPDATED_AT));
+                if (stored != null) {
+                    request.expressionAttributeValues(Map.of(":updatedAt", stored));
+                }
+            }
+            dynamoDbClient.putItem(request.build());
+            return;
+        }
+
+        Map<String, AttributeValue> key = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        StringJoiner expression = new StringJoiner(", ", "SET ", "");
+        int index = 0;
+        for (Map.Entry<String, AttributeValue> attribute : write.item().entrySet()) {
+            if (write.keyAttributes().contains(attribute.getKey())) {
+                key.put(attribute.getKey(), attribute.getValue());
+                continue;
+            }
+            expression.add("#a" + index + " = :a" + index);
+            names.put("#a" + index, attribute.getKey());
+            values.put(":a" + index, attribute.getValue());
+            index++;
+        }
+        UpdateItemRequest.Builder request = UpdateItemRequest.builder()
+                .tableName(write.table())
+                .key(key)
+                .updateExpression(expression.toString());
+        if (versioned) {
+            names.put("#updatedAt", UPDATED_AT);
+            if (stored != null) {
+                values.put(":updatedAt", stored);
+            }
+            request.conditionExpression(condition);
+        }
+        dynamoDbClient.updateItem(request
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("dynamodb.journal.replayed")
+                .description("Journaled writes replayed to DynamoDB")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,322 @@
+package com.app.dynamodb.shared.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * The journal on disk: fixed-size, memory-mapped segment files named after the sequence of their first
+ * entry, and a checkpoint file holding the last replayed sequence. Each entry is written as
+ * <pre>[int length][int crc32 of sequence and payload][long sequence][payload]</pre>
+ * and a full segment ends with a length of {@code -1}. Entries are only appended by one thread at a time,
+ * and a batch of them is flushed to disk with a single {@code force} (group commit). Reading stops at the
+ * last flushed entry.
+ * <p>
+ * On open the segments are scanned from the start; an entry whose checksum or sequence does not follow
+ * from the previous one is a torn write of a crash and ends the journal there.
+ */
+@Slf4j
+final class JournalSegments implements AutoCloseable {
+
+    private static final int HEADER = 16;
+    private static final int SEALED = -1;
+    private static final String SUFFIX = ".journal";
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment active;
+    private int position;
+    private long nextSequence;
+    private volatile long durableSequence;
+    private volatile long checkpoint;
+
+    /** Where the last read stopped, so that replaying in order does not rescan segments. */
+    private long cursorSequence = -1;
+    private Segment cursorSegment;
+    private int cursorPosition;
+
+    private JournalSegments(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    static JournalSegments open(Path directory, long segmentSize) throws IOException {
+        if (segmentSize <= HEADER + 4 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between " + (HEADER + 4)
+                    + " bytes and 2 GB, was " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        JournalSegments journal = new JournalSegments(directory, (int) segmentSize);
+        journal.recover();
+        return journal;
+    }
+
+    private void recover() throws IOException {
+        Path checkpointFile = directory.resolve(CHECKPOINT);
+        checkpoint = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim())
+                : 0;
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+
+        long expected = -1;
+        boolean sealed = true;
+        for (Path file : files) {
+            long first = Long.parseLong(file.getFileName().toString().replace(SUFFIX, ""));
+            if (expected != -1 && (!sealed || first != expected)) {
+                // Written after a torn entry or a gap: cannot be replayed in order
+                Path corrupt = file.resolveSibling(file.getFileName() + ".corrupt");
+                log.warn("Journal segment {} does not follow entry {}, moved aside as {}", file, expected - 1, corrupt);
+                Files.move(file, corrupt, StandardCopyOption.REPLACE_EXISTING);
+                continue;
+            }
+            Segment segment = new Segment(first, file, map(file));
+            segments.put(first, segment);
+            Scan scan = scan(segment);
+            expected = first + scan.entries();
+            sealed = scan.sealed();
+            active = segment;
+            position = scan.end();
+        }
+
+        if (active == null) {
+            nextSequence = checkpoint + 1;
+            active = create(nextSequence);
+            position = 0;
+        } else {
+            nextSequence = expected;
+            if (sealed) {
+                active = create(nextSequence);
+                position = 0;
+            } else {
+                // Clear whatever a torn write left behind the last good entry
+                for (int i = position; i < segmentSize; i++) {
+                    active.buffer.put(i, (byte) 0);
+                }
+                active.buffer.force();
+            }
+        }
+        durableSequence = nextSequence - 1;
+        if (checkpoint < segments.firstKey() - 1) {
+            // Only replayed segments are deleted, so the entries before the first one were replayed
+            checkpoint = segments.firstKey() - 1;
+        }
+        if (checkpoint > durableSequence) {
+            log.warn("Journal checkpoint {} is past the last journaled entry {}", checkpoint, durableSequence);
+            checkpoint = durableSequence;
+        }
+        log.info("Journal opened in {}: {} segments, {} entries still to replay", directory, segments.size(),
+                durableSequence - checkpoint);
+    }
+
+    private Scan scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int pos = 0;
+        long sequence = segment.firstSequence;
+        while (pos + HEADER <= segmentSize) {
+            int length = buffer.getInt(pos);
+            if (length == SEALED) {
+                return new Scan((int) (sequence - segment.firstSequence), pos, true);
+            }
+            if (length <= 0 || length > segmentSize - pos - HEADER
+                    || buffer.getLong(pos + 8) != sequence
+                    || buffer.getInt(pos + 4) != crc(sequence, buffer, pos + HEADER, length)) {
+                break;
+            }
+            pos += HEADER + length;
+            sequence++;
+        }
+        return new Scan((int) (sequence - segment.firstSequence), pos, false);
+    }
+
+    /** Whether an entry of {@code length} bytes fits in a segment, next to the end-of-segment marker. */
+    static boolean fits(long segmentSize, int length) {
+        return HEADER + (long) length + 4 <= segmentSize;
+    }
+
+    /** Appends the payloads as consecutive entries and flushes them; returns the sequence of the last. */
+    synchronized long append(List<byte[]> payloads) {
+        for (byte[] payload : payloads) {
+            if (!fits(segmentSize, payload.length)) {
+                throw new IllegalArgumentException("Journal entry of " + payload.length
+                        + " bytes does not fit in a segment of " + segmentSize);
+            }
+        }
+        int batchStart = position;
+        for (byte[] payload : payloads) {
+            int size = HEADER + payload.length;
+            if (position + size > segmentSize - 4) {
+                active.buffer.putInt(position, SEALED);
+                active.buffer.force(batchStart, position + 4 - batchStart);
+                active = create(nextSequence);
+                position = 0;
+                batchStart = 0;
+            }
+            ByteBuffer buffer = active.buffer;
+            buffer.putLong(position + 8, nextSequence);
+            buffer.put(position + HEADER, payload);
+            buffer.putInt(position + 4, crc(nextSequence, buffer, position + HEADER, payload.length));
+            buffer.putInt(position, payload.length);
+            position += size;
+            nextSequence++;
+        }
+        active.buffer.force(batchStart, position - batchStart);
+        durableSequence = nextSequence - 1;
+        return durableSequence;
+    }
+
+    /** Up to {@code max} flushed entries after the checkpoint, in order. */
+    synchronized List<JournalRecord> read(int max) {
+        return read(max, true);
+    }
+
+    /** The first entry after the checkpoint, if it was flushed, without moving the read position. */
+    synchronized Optional<JournalRecord> peek() {
+        return read(1, false).stream().findFirst();
+    }
+
+    private List<JournalRecord> read(int max, boolean advance) {
+        long from = checkpoint + 1;
+        long to = Math.min(durableSequence, checkpoint + max);
+        List<JournalRecord> records = new ArrayList<>();
+        if (from > to) {
+            return records;
+        }
+
+        Segment segment;
+        int pos;
+        long sequence;
+        if (cursorSequence == from && segments.containsKey(cursorSegment.firstSequence)) {
+            segment = cursorSegment;
+            pos = cursorPosition;
+            sequence = from;
+        } else {
+            segment = segments.floorEntry(from).getValue();
+            pos = 0;
+            sequence = segment.firstSequence;
+        }
+
+        ByteBuffer buffer = segment.buffer.duplicate();
+        while (sequence <= to) {
+            int length = buffer.getInt(pos);
+            if (length == SEALED) {
+                segment = segments.get(sequence);
+                buffer = segment.buffer.duplicate();
+                pos = 0;
+                continue;
+            }
+            if (sequence >= from) {
+                byte[] payload = new byte[length];
+                buffer.get(pos + HEADER, payload);
+                records.add(JournalCodec.decode(sequence, payload));
+            }
+            pos += HEADER + length;
+            sequence++;
+        }
+        if (advance) {
+            cursorSequence = sequence;
+            cursorSegment = segment;
+            cursorPosition = pos;
+        }
+        return records;
+    }
+
+    /** Records that every entry up to {@code sequence} was replayed and deletes the segments that only held those. */
+    synchronized void commit(long sequence) {
+        if (sequence <= checkpoint) {
+            return;
+        }
+        try {
+            Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+            Files.writeString(temporary, Long.toString(sequence), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+            Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            checkpoint = sequence;
+
+            for (Map.Entry<Long, Segment> entry : segments.headMap(active.firstSequence).entrySet()) {
+                Long next = segments.higherKey(entry.getKey());
+                if (next - 1 > sequence) {
+                    break;
+                }
+                segments.remove(entry.getKey());
+                Files.deleteIfExists(entry.getValue().file);
+                log.debug("Deleted replayed journal segment {}", entry.getValue().file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save journal checkpoint " + sequence, e);
+        }
+    }
+
+    long getDurableSequence() {
+        return durableSequence;
+    }
+
+    long getCheckpoint() {
+        return checkpoint;
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        active.buffer.force();
+    }
+
+    private Segment create(long firstSequence) {
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+        try {
+            Segment segment = new Segment(firstSequence, file, map(file));
+            segments.put(firstSequence, segment);
+            log.debug("Started journal segment {}", file);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create journal segment " + file, e);
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private static int crc(long sequence, ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(buffer.duplicate().limit(offset + length).position(offset));
+        return (int) crc.getValue();
+    }
+
+    private record Segment(long firstSequence, Path file, MappedByteBuffer buffer) {
+    }
+
+    private record Scan(int entries, int end, boolean sealed) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.dynamodb.shared.journal;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A write as it is replayed: {@link Mode#PUT} writes {@code item} as the whole item, {@link Mode#MERGE} sets
+ * its attributes on the existing item identified by the {@code keyAttributes} of {@code item}.
+ */
+public record JournaledWrite(String table, Mode mode, List<String> keyAttributes, Map<String, AttributeValue> item) {
+
+    public enum Mode { PUT, MERGE }
+
+    public static JournaledWrite put(String table, List<String> keyAttributes, Map<String, AttributeValue> item) {
+        return new JournaledWrite(table, Mode.PUT, keyAttributes, item);
+    }
+
+    public static JournaledWrite merge(String table, List<String> keyAttributes, Map<String, AttributeValue> item) {
+        return new JournaledWrite(table, Mode.MERGE, keyAttributes, item);
+    }
+}
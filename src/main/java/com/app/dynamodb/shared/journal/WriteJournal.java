@@ -0,0 +1,187 @@
+package com.app.dynamodb.shared.journal;
+
+import com.app.dynamodb.shared.exception.WriteAcceptedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Write buffering for DynamoDB outages. Repositories run their plain writes through {@link #execute}; when
+ * one fails because DynamoDB is throttling or cannot be reached, the write is appended to a local journal
+ * instead and the request is answered {@code 202 Accepted} once the entry is on disk. The
+ * {@link JournalReplayer} writes journaled entries to DynamoDB in order when it is reachable again.
+ * <p>
+ * Requests hand their entries to one writer thread, which appends whatever has queued up meanwhile and
+ * flushes it to disk once, so concurrent requests share the cost of a flush.
+ */
+@Slf4j
+@Component
+public class WriteJournal {
+
+    private final WriteJournalProperties properties;
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private final Counter appended;
+    private volatile JournalSegments segments;
+    /** When the oldest entry still to be replayed was journaled, or {@code null} when there is none. */
+    private volatile Instant pendingSince;
+    private Thread writer;
+
+    public WriteJournal(WriteJournalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.appended = Counter.builder("dynamodb.journal.appended")
+                .description("Writes journaled because DynamoDB was unavailable")
+                .register(meterRegistry);
+        Gauge.builder("dynamodb.journal.depth", this, WriteJournal::getDepth)
+                .description("Journaled writes not yet replayed to DynamoDB")
+                .register(meterRegistry);
+        Gauge.builder("dynamodb.journal.replay.lag", this, journal -> journal.getReplayLag().toMillis() / 1000.0)
+                .description("Seconds since the oldest journaled write not yet replayed was accepted")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        segments = JournalSegments.open(properties.getDirectory(), properties.getSegmentSize().toBytes());
+        refreshPendingSince();
+        writer = Thread.ofPlatform().name("write-journal").daemon().start(this::writeLoop);
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(properties.getAppendTimeout().toMillis());
+        }
+        if (segments != null) {
+            segments.close();
+        }
+    }
+
+    /**
+     * Runs {@code write}; if DynamoDB is unavailable, journals {@code journaled} instead and throws
+     * {@link WriteAcceptedException} carrying {@code entity}. If the entry cannot be journaled either, the
+     * failure of {@code write} is thrown as it would have been without a journal.
+     */
+    public void execute(Object entity, Runnable write, Supplier<JournaledWrite> journaled) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            if (segments == null || !isUnavailable(e)) {
+                throw e;
+            }
+            long sequence;
+            try {
+                sequence = append(journaled.get());
+            } catch (Exception journalFailure) {
+                e.addSuppressed(journalFailure);
+                throw e;
+            }
+            log.warn("DynamoDB unavailable ({}), journaled write as entry {}", e.getMessage(), sequence);
+            throw new WriteAcceptedException(entity, sequence);
+        }
+    }
+
+    private long append(JournaledWrite write) throws InterruptedException, ExecutionException, TimeoutException {
+        Instant now = Instant.now();
+        byte[] payload = JournalCodec.encode(write, now);
+        if (!JournalSegments.fits(properties.getSegmentSize().toBytes(), payload.length)) {
+            // Would fail the whole batch it is flushed with
+            throw new IllegalArgumentException("Write of " + payload.length + " bytes is larger than a journal segment");
+        }
+        Append append = new Append(payload, new CompletableFuture<>());
+        queue.add(append);
+        long sequence = append.durable().get(properties.getAppendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        appended.increment();
+        if (pendingSince == null) {
+            pendingSince = now;
+        }
+        return sequence;
+    }
+
+    private void writeLoop() {
+        List<Append> batch = new ArrayList<>(properties.getMaxBatch());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, properties.getMaxBatch() - 1);
+                long last = segments.append(batch.stream().map(Append::payload).toList());
+                long sequence = last - batch.size() + 1;
+                for (Append append : batch) {
+                    append.durable().complete(sequence++);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Could not append {} writes to the journal", batch.size(), e);
+                batch.forEach(append -> append.durable().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    /** Whether the failure means DynamoDB could not take the write now, rather than that it refused it. */
+    static boolean isUnavailable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SdkServiceException e) {
+                return e.isThrottlingException() || e.statusCode() >= 500;
+            }
+            if (cause instanceof SdkClientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEnabled() {
+        return segments != null;
+    }
+
+    public long getDepth() {
+        JournalSegments journal = segments;
+        return journal == null ? 0 : journal.getDurableSequence() - journal.getCheckpoint();
+    }
+
+    public Duration getReplayLag() {
+        Instant since = pendingSince;
+        return since == null ? Duration.ZERO : Duration.between(since, Instant.now());
+    }
+
+    List<JournalRecord> read(int max) {
+        return segments.read(max);
+    }
+
+    void commit(long sequence) {
+        segments.commit(sequence);
+        refreshPendingSince();
+    }
+
+    private void refreshPendingSince() {
+        pendingSince = segments.peek().map(JournalRecord::journaledAt).orElse(null);
+    }
+
+    private record Append(byte[] payload, CompletableFuture<Long> durable) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.dynamodb.shared.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.dynamodb.journal")
+public class WriteJournalProperties {
+
+    /** Journal plain writes that fail because DynamoDB is throttling or unreachable, and answer them 202. */
+    private boolean enabled = false;
+    /** Where journal segments and the replay checkpoint are kept; must survive restarts. */
+    private Path directory = Path.of("journal");
+    /** Size of each memory-mapped segment file. */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    /** Most writes made durable by one flush. */
+    private int maxBatch = 256;
+    /** How long a request waits for its write to be made durable before failing as before. */
+    private Duration appendTimeout = Duration.ofSeconds(5);
+    /** Journaled writes replayed before the checkpoint is saved. */
+    private int replayBatch = 200;
+}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("journal")
+package com.app.dynamodb.shared.journal;
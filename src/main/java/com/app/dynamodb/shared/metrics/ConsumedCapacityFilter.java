@@ -0,0 +1,71 @@
+package com.app.dynamodb.shared.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Charges the DynamoDB capacity consumed by each API request to its controller route and reports
+ * it in the {@value RequestCapacity#HEADER} response header.
+ * <p>
+ * Package-private on purpose: Spring Modulith's observability proxies public beans of a module with
+ * CGLIB, and a proxied filter fails the final {@code GenericFilterBean.init} at Tomcat startup.
+ */
+@Component
+@RequiredArgsConstructor
+class ConsumedCapacityFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestCapacity capacity = RequestCapacity.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestCapacity.close();
+            // responses without a body are not committed yet; bodies get the header from ConsumedCapacityResponseAdvice
+            if (!response.isCommitted()) {
+                response.setHeader(RequestCapacity.HEADER, capacity.toHeaderValue());
+            }
+            record(request, capacity);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestCapacity capacity) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        if (capacity.readUnits() > 0) {
+            counter(request.getMethod(), route, "read").increment(capacity.readUnits());
+        }
+        if (capacity.writeUnits() > 0) {
+            counter(request.getMethod(), route, "write").increment(capacity.writeUnits());
+        }
+    }
+
+    private Counter counter(String method, String route, String type) {
+        return Counter.builder("dynamodb.consumed.capacity")
+                .description("DynamoDB capacity units consumed, by API route")
+                .baseUnit("capacity_units")
+                .tag("method", method)
+                .tag("route", route)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.dynamodb.shared.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@value RequestCapacity#HEADER} header just before a response body is written,
+ * after the controller has made all of its DynamoDB calls.
+ */
+@RestControllerAdvice
+public class ConsumedCapacityResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestCapacity capacity = RequestCapacity.current();
+        if (capacity != null) {
+            response.getHeaders().set(RequestCapacity.HEADER, capacity.toHeaderValue());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.dynamodb.shared.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Supplier;
+
+/**
+ * DynamoDB capacity consumed while serving one HTTP request. The instance for the current request
+ * is bound to the request thread by {@link ConsumedCapacityFilter}; work fanned out to other
+ * threads carries it along with {@link #propagate(Supplier)}.
+ */
+public final class RequestCapacity {
+
+    public static final String HEADER = "X-Consumed-Capacity";
+
+    private static final ThreadLocal<RequestCapacity> CURRENT = new ThreadLocal<>();
+
+    private final DoubleAdder readUnits = new DoubleAdder();
+    private final DoubleAdder writeUnits = new DoubleAdder();
+
+    public static RequestCapacity current() {
+        return CURRENT.get();
+    }
+
+    static RequestCapacity open() {
+        RequestCapacity capacity = new RequestCapacity();
+        CURRENT.set(capacity);
+        return capacity;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /** Wraps {@code task} so capacity it consumes on another thread is charged to the current request. */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestCapacity capacity = CURRENT.get();
+        if (capacity == null) {
+            return task;
+        }
+        return () -> {
+            RequestCapacity previous = CURRENT.get();
+            CURRENT.set(capacity);
+            try {
+                return task.get();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public void addRead(double units) {
+        readUnits.add(units);
+    }
+
+    public void addWrite(double units) {
+        writeUnits.add(units);
+    }
+
+    public double readUnits() {
+        return readUnits.sum();
+    }
+
+    public double writeUnits() {
+        return writeUnits.sum();
+    }
+
+    public String toHeaderValue() {
+        return String.format(Locale.ROOT, "rcu=%.1f, wcu=%.1f", readUnits(), writeUnits());
+    }
+}
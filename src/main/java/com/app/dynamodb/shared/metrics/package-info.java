@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("metrics")
+package com.app.dynamodb.shared.metrics;
@@ -0,0 +1,31 @@
+package com.app.dynamodb.shared.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/ratelimit} lists the clients that spent the most rate limit tokens since their
+ * bucket was last full, with how many requests of theirs were refused.
+ */
+@Component
+@Endpoint(id = "ratelimit")
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of(
+                "enabled", properties.isEnabled(),
+                "capacity", rateLimiter.getCapacity(),
+                "refillPerSecond", properties.getRefillPerSecond(),
+                "activeClients", rateLimiter.getActiveClients(),
+                "topClients", rateLimiter.topClients());
+    }
+}
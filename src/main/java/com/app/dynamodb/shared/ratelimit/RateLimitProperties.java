@@ -0,0 +1,53 @@
+package com.app.dynamodb.shared.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /** Limit the API requests of each client, identified by API key or else by remote address. */
+    private boolean enabled = true;
+    /** Request header carrying the client's API key. */
+    private String apiKeyHeader = "X-Api-Key";
+    /** API keys that get a bucket of their own; a request with any other key is limited by its remote address. */
+    private Set<String> apiKeys = new HashSet<>();
+    /** Clients tracked at once; clients beyond share one overflow bucket until a sweep makes room. */
+    private int maxClients = 10_000;
+    /** Tokens a client may spend in a burst. */
+    private int capacity = 200;
+    /** Tokens a client earns back per second. */
+    private int refillPerSecond = 100;
+    /**
+     * Independent buckets each client's tokens are split over, so that concurrent requests of one client
+     * rarely update the same one. Rounded down to a power of two that leaves every stripe room for the
+     * most expensive route.
+     */
+    private int stripes = 4;
+    /** Tokens charged for a route without a {@link #routeCosts} entry. */
+    private int defaultCost = 1;
+    /** Tokens charged per route; the first matching entry applies. */
+    private List<RouteCost> routeCosts = new ArrayList<>();
+    /** Clients listed by the {@code ratelimit} actuator endpoint. */
+    private int topClients = 10;
+
+    @Getter
+    @Setter
+    public static class RouteCost {
+        /** HTTP method, or {@code null} for any. */
+        private String method;
+        /** Path pattern, e.g. {@code /api/v1/orders} or {@code /api/v1/*}{@code /import}. */
+        private String pattern;
+        private int cost = 1;
+    }
+}
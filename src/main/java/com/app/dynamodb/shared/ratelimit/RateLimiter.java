@@ -0,0 +1,274 @@
+package com.app.dynamodb.shared.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Token buckets per client, without locks. Each bucket is kept as the time at which it will be full again
+ * (the generic cell rate algorithm): taking tokens pushes that time forward by their refill time, and is
+ * refused when it would land further ahead than the bucket's capacity. One compare-and-set of a single
+ * long takes the tokens.
+ * <p>
+ * A client's capacity is split over a few stripes on separate cache lines. A request starts at the stripe
+ * picked by its thread and moves on to the next ones only when that stripe is empty, so concurrent
+ * requests of a busy client rarely touch the same stripe, and the client is refused only when all of them
+ * are empty. A request that no stripe can pay for alone is paid from several, and refunded if they do not
+ * hold enough together.
+ * <p>
+ * At most {@code app.rate-limit.max-clients} clients get a bucket of their own. Further clients share one
+ * overflow bucket until {@link #evictFull()} frees room, so a flood of addresses cannot grow the map
+ * without bound, and is limited as if it were a single client.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    /** Longs per 64-byte cache line: each stripe sits on a line of its own. */
+    private static final int PADDING = 8;
+    private static final String OVERFLOW = "overflow";
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoTime;
+    private final Map<String, Bucket> clients = new ConcurrentHashMap<>();
+    /** Shared by the clients that found {@link #clients} full. */
+    private final Bucket overflow;
+    private final int stripes;
+    /** Refill time of one token of one stripe. */
+    private final long nanosPerToken;
+    /** How far ahead of now a full-to-empty stripe is full again. */
+    private final long tolerance;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+
+        int maxCost = properties.getRouteCosts().stream()
+                .mapToInt(RateLimitProperties.RouteCost::getCost)
+                .reduce(properties.getDefaultCost(), Math::max);
+        if (properties.getCapacity() < maxCost) {
+            throw new IllegalStateException("Rate limit capacity " + properties.getCapacity()
+                    + " is below the cost of the most expensive route, " + maxCost);
+        }
+        this.stripes = Integer.highestOneBit(Math.max(1,
+                Math.min(properties.getStripes(), properties.getCapacity() / maxCost)));
+        this.nanosPerToken = stripes * TimeUnit.SECONDS.toNanos(1) / properties.getRefillPerSecond();
+        this.tolerance = (long) (properties.getCapacity() / stripes) * nanosPerToken;
+        this.overflow = new Bucket(nanoTime.getAsLong());
+
+        this.allowed = counter(meterRegistry, "allowed");
+        this.rejected = counter(meterRegistry, "rejected");
+        Gauge.builder("http.rate.limit.clients", clients, Map::size)
+                .description("Clients tracked by the per-client rate limit")
+                .register(meterRegistry);
+    }
+
+    /** Takes {@code cost} tokens from the client's bucket if it holds that many. */
+    public Decision tryAcquire(String client, int cost) {
+        long now = nanoTime.getAsLong();
+        Bucket bucket = clients.get(client);
+        if (bucket == null) {
+            // Racing new clients may overshoot the cap by a few, which is fine for a bound on memory
+            bucket = clients.size() < properties.getMaxClients()
+                    ? clients.computeIfAbsent(client, key -> new Bucket(now))
+                    : overflow;
+        }
+
+        int first = stripeOf(Thread.currentThread().threadId());
+        long wait = Long.MAX_VALUE;
+        for (int i = 0; i < stripes; i++) {
+            long stripeWait = bucket.take((first + i) & (stripes - 1), cost, now);
+            if (stripeWait == 0) {
+                bucket.consumed.add(cost);
+                allowed.increment();
+                return new Decision(true, bucket.remaining(now), 0);
+            }
+            wait = Math.min(wait, stripeWait);
+        }
+        // Stripes too drained to pay alone may still hold enough together
+        long remaining = bucket.remaining(now);
+        if (remaining >= cost && bucket.takeSpread(first, cost, now)) {
+            bucket.consumed.add(cost);
+            allowed.increment();
+            return new Decision(true, bucket.remaining(now), 0);
+        }
+        bucket.rejected.increment();
+        rejected.increment();
+        // All stripes refill at once, so together they earn the missing tokens sooner than one stripe does;
+        // stripes - 1 more cover the fractions of a token each stripe may be short of a whole one
+        long spreadWait = (cost - remaining + stripes - 1) * nanosPerToken / stripes;
+        return new Decision(false, remaining, Math.min(wait, Math.max(1, spreadWait)));
+    }
+
+    public int getCapacity() {
+        return (properties.getCapacity() / stripes) * stripes;
+    }
+
+    /**
+     * The clients that spent the most tokens since their bucket was last full, with API keys shortened. The
+     * clients sharing the overflow bucket show up as one, named {@code overflow}.
+     */
+    public List<ClientUsage> topClients() {
+        long now = nanoTime.getAsLong();
+        return Stream.concat(clients.entrySet().stream(), Stream.of(Map.entry(OVERFLOW, overflow)))
+                .filter(entry -> entry.getValue() != overflow || entry.getValue().consumed.sum() > 0
+                        || entry.getValue().rejected.sum() > 0)
+                .map(entry -> new ClientUsage(mask(entry.getKey()), entry.getValue().consumed.sum(),
+                        entry.getValue().rejected.sum(), entry.getValue().remaining(now)))
+                .sorted(Comparator.comparingLong(ClientUsage::consumed).reversed())
+                .limit(properties.getTopClients())
+                .toList();
+    }
+
+    public int getActiveClients() {
+        return clients.size();
+    }
+
+    /**
+     * Forgets clients whose bucket has filled up again; they would get a full bucket anyway. A request
+     * racing with the removal may take its tokens from the forgotten bucket, which lets one request through
+     * for free.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:PT1M}")
+    public void evictFull() {
+        long now = nanoTime.getAsLong();
+        int before = clients.size();
+        clients.values().removeIf(bucket -> bucket.isFull(now));
+        if (overflow.isFull(now)) {
+            overflow.consumed.reset();
+            overflow.rejected.reset();
+        }
+        log.debug("Evicted {} full rate limit buckets", before - clients.size());
+    }
+
+    private static String mask(String client) {
+        // API keys are credentials, addresses are not
+        return client.startsWith("key:") && client.length() > 8 ? client.substring(0, 8) + "…" : client;
+    }
+
+    private int stripeOf(long threadId) {
+        return (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("http.rate.limit.requests")
+                .description("API requests checked against the per-client rate limit")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Outcome of taking tokens: {@code remaining} tokens of the client, and when refused, how long until
+     * the cost can be paid.
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+
+    public record ClientUsage(String client, long consumed, long rejected, long remaining) {
+    }
+
+    private final class Bucket {
+
+        /** Per stripe, the time at which it is full again; at or before now it is full. */
+        private final AtomicLongArray fullAt;
+        private final LongAdder consumed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Bucket(long now) {
+            fullAt = new AtomicLongArray(stripes * PADDING);
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                fullAt.set(stripe * PADDING, now);
+            }
+        }
+
+        /** Takes the tokens from the stripe; returns 0 when it did, otherwise how long until it could. */
+        long take(int stripe, int cost, long now) {
+            int index = stripe * PADDING;
+            while (true) {
+                long current = fullAt.get(index);
+                long next = Math.max(current, now) + cost * nanosPerToken;
+                long excess = next - now - tolerance;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (fullAt.compareAndSet(index, current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /** Takes the tokens from as many stripes as needed, or none of them if they do not add up. */
+        boolean takeSpread(int first, int cost, long now) {
+            int[] taken = new int[stripes];
+            int left = cost;
+            for (int i = 0; i < stripes && left > 0; i++) {
+                int stripe = (first + i) & (stripes - 1);
+                taken[stripe] = takeUpTo(stripe, left, now);
+                left -= taken[stripe];
+            }
+            if (left == 0) {
+                return true;
+            }
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                if (taken[stripe] > 0) {
+                    fullAt.getAndAdd(stripe * PADDING, -taken[stripe] * nanosPerToken);
+                }
+            }
+            return false;
+        }
+
+        private int takeUpTo(int stripe, int tokens, long now) {
+            int index = stripe * PADDING;
+            while (true) {
+                long current = fullAt.get(index);
+                long base = Math.max(current, now);
+                int piece = (int) Math.min(tokens, (tolerance - (base - now)) / nanosPerToken);
+                if (piece <= 0) {
+                    return 0;
+                }
+                if (fullAt.compareAndSet(index, current, base + piece * nanosPerToken)) {
+                    return piece;
+                }
+            }
+        }
+
+        /** Whole tokens left, summed over the stripes. */
+        long remaining(long now) {
+            long tokens = 0;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                tokens += (tolerance - Math.max(0, fullAt.get(stripe * PADDING) - now)) / nanosPerToken;
+            }
+            return tokens;
+        }
+
+        boolean isFull(long now) {
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                if (fullAt.get(stripe * PADDING) > now) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.app.dynamodb.shared.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * Round-trips a sample entity through its DynamoDB table schema and through Jackson, covering
+ * the attribute converters and serializers used on the request path.
+ */
+public abstract class EntityMappingWarmup<T> implements WarmupTask {
+
+    private final Class<T> entityType;
+    private final ObjectMapper objectMapper;
+    private final TableSchema<T> tableSchema;
+
+    protected EntityMappingWarmup(Class<T> entityType, ObjectMapper objectMapper) {
+        this.entityType = entityType;
+        this.objectMapper = objectMapper;
+        this.tableSchema = TableSchema.fromBean(entityType);
+    }
+
+    protected abstract T sample();
+
+    @Override
+    public String name() {
+        return entityType.getSimpleName();
+    }
+
+    @Override
+    public void run() throws Exception {
+        T entity = sample();
+        Map<String, AttributeValue> item = tableSchema.itemToMap(entity, true);
+        tableSchema.mapToItem(item);
+        objectMapper.readValue(objectMapper.writeValueAsBytes(entity), entityType);
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.dynamodb.shared.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    /** Times each warm-up task is run. */
+    private int iterations = 500;
+
+    /** Connections opened to DynamoDB ahead of the first request. */
+    private int connections = 8;
+}
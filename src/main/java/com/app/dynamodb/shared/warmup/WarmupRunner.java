@@ -0,0 +1,72 @@
+package com.app.dynamodb.shared.warmup;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the {@link WarmupTask}s and opens DynamoDB connections before the application starts
+ * accepting traffic. Application runners complete before readiness switches to
+ * {@code ACCEPTING_TRAFFIC}, so the readiness probe stays down while this runs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmupRunner implements ApplicationRunner {
+
+    private final List<WarmupTask> tasks;
+    private final WarmupProperties properties;
+    private final DynamoDbClient dynamoDbClient;
+    private final AwsConfigProperties awsProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (WarmupTask task : tasks) {
+            runTask(task);
+        }
+        primeConnections();
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void runTask(WarmupTask task) {
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < properties.getIterations(); i++) {
+                task.run();
+            }
+            log.debug("Warm-up task {} took {} ms", task.name(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Warm-up task {} failed: {}", task.name(), e.getMessage());
+        }
+    }
+
+    /** Issues concurrent cheap calls so the HTTP pool holds open, TLS-established connections. */
+    private void primeConnections() {
+        String tableName = awsProperties.getActiveTables().values().iterator().next();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?>[] calls = IntStream.range(0, properties.getConnections())
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> dynamoDbClient.describeTable(
+                            DescribeTableRequest.builder().tableName(tableName).build()), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(calls).join();
+        } catch (Exception e) {
+            log.warn("Could not prime DynamoDB connections: {}", e.getMessage());
+        }
+    }
+}
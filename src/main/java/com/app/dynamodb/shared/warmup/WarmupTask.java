@@ -0,0 +1,13 @@
+package com.app.dynamodb.shared.warmup;
+
+/**
+ * A piece of work run repeatedly by {@link WarmupRunner} before the application reports ready,
+ * so the code paths behind the first requests are class-loaded and JIT-compiled. Must not call
+ * DynamoDB.
+ */
+public interface WarmupTask {
+
+    String name();
+
+    void run() throws Exception;
+}
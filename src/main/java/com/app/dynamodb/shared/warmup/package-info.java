@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("warmup")
+package com.app.dynamodb.shared.warmup;
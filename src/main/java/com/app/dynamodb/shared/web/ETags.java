@@ -0,0 +1,84 @@
+package com.app.dynamodb.shared.web;
+
+import com.app.dynamodb.shared.exception.PreconditionFailedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Strong entity tags derived from {@code updatedAt}, which every write of an entity changes. The tag is
+ * the timestamp itself, {@code "<epoch second>.<nanoseconds>"}, so an {@code If-Match} header can be turned
+ * back into a conditional write on the stored value.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /** Returns the entity tag of a version, or {@code null} for entities written without a timestamp. */
+    public static String of(Instant updatedAt) {
+        if (updatedAt == null) {
+            return null;
+        }
+        return "\"" + updatedAt.getEpochSecond() + "." + String.format("%09d", updatedAt.getNano()) + "\"";
+    }
+
+    /**
+     * Answers a conditional GET with 304 when {@code If-None-Match} names the current version. The version
+     * is only looked up when the header is present, so plain GETs cost nothing extra.
+     */
+    public static boolean notModified(WebRequest request, Supplier<Instant> currentVersion) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return false;
+        }
+        String etag = of(currentVersion.get());
+        return etag != null && request.checkNotModified(etag);
+    }
+
+    /**
+     * Parses an {@code If-Match} header; returns {@code null} when there is none. Weak and unknown tags can
+     * never match, so a header made only of those fails straight away.
+     */
+    public static IfMatch ifMatch(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        if (header.trim().equals("*")) {
+            return new IfMatch(true, List.of());
+        }
+
+        List<Instant> versions = new ArrayList<>();
+        for (String tag : header.split(",")) {
+            Instant version = parse(tag.trim());
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match does not name a current version: " + header);
+        }
+        return new IfMatch(false, List.copyOf(versions));
+    }
+
+    private static Instant parse(String tag) {
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int point = value.indexOf('.');
+        if (point < 0 || value.length() - point - 1 != 9) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochSecond(Long.parseLong(value.substring(0, point)),
+                    Long.parseLong(value.substring(point + 1)));
+        } catch (NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.dynamodb.shared.web;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Precondition of an {@code If-Match} header as a DynamoDB condition: {@code *} requires the item to exist,
+ * a list of entity tags requires its {@code updatedAt} to be one of theirs. Built by {@link ETags#ifMatch}.
+ */
+public record IfMatch(boolean any, List<Instant> versions) {
+
+    private static final String KEY_NAME = "#ifMatchKey";
+    private static final String UPDATED_AT_NAME = "#ifMatchUpdatedAt";
+
+    /** Whether an item at {@code version} meets the precondition; for checking a version read beforehand. */
+    public boolean matches(Instant version) {
+        return any || versions.contains(version);
+    }
+
+    public String conditionExpression() {
+        if (any) {
+            return "attribute_exists(" + KEY_NAME + ")";
+        }
+        StringJoiner candidates = new StringJoiner(", ", UPDATED_AT_NAME + " IN (", ")");
+        for (int i = 0; i < versions.size(); i++) {
+            candidates.add(":ifMatch" + i);
+        }
+        return candidates.toString();
+    }
+
+    public Map<String, String> expressionNames(String keyAttribute) {
+        return any ? Map.of(KEY_NAME, keyAttribute) : Map.of(UPDATED_AT_NAME, "updatedAt");
+    }
+
+    public Map<String, AttributeValue> expressionValues() {
+        Map<String, AttributeValue> values = new HashMap<>();
+        for (int i = 0; i < versions.size(); i++) {
+            values.put(":ifMatch" + i, AttributeValue.fromS(versions.get(i).toString()));
+        }
+        return values;
+    }
+}
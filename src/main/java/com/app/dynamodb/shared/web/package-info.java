@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("web")
+package com.app.dynamodb.shared.web;
@@ -0,0 +1,69 @@
+package com.app.dynamodb.config;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.retries.api.AcquireInitialTokenRequest;
+import software.amazon.awssdk.retries.api.RefreshRetryTokenRequest;
+import software.amazon.awssdk.retries.api.RetryToken;
+import software.amazon.awssdk.retries.api.TokenAcquisitionFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetedRetryStrategyTest {
+
+    private AwsConfigProperties.Retry properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AwsConfigProperties.Retry();
+        properties.setBackoffBase(Duration.ofMillis(1));
+        properties.setThrottlingBackoffBase(Duration.ofMillis(1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void refreshRetryToken_StopsAtMaxAttempts() {
+        properties.setMaxAttempts(2);
+        BudgetedRetryStrategy strategy = new BudgetedRetryStrategy(properties, meterRegistry);
+
+        RetryToken token = strategy.acquireInitialToken(AcquireInitialTokenRequest.create("GLOBAL")).token();
+        RetryToken retried = strategy.refreshRetryToken(refresh(token)).token();
+
+        assertThrows(TokenAcquisitionFailedException.class, () -> strategy.refreshRetryToken(refresh(retried)));
+        assertEquals(1.0, meterRegistry.get("dynamodb.client.retries").tag("reason", "throttling").counter().count());
+        assertEquals(2.0, meterRegistry.get("dynamodb.client.throttled").counter().count());
+    }
+
+    @Test
+    void refreshRetryToken_DeniedWhenBudgetExhausted() {
+        properties.setBudgetCapacity(5);
+        properties.setRetryCost(5);
+        BudgetedRetryStrategy strategy = new BudgetedRetryStrategy(properties, meterRegistry);
+
+        RetryToken first = strategy.acquireInitialToken(AcquireInitialTokenRequest.create("GLOBAL")).token();
+        strategy.refreshRetryToken(refresh(first));
+
+        RetryToken second = strategy.acquireInitialToken(AcquireInitialTokenRequest.create("GLOBAL")).token();
+        assertThrows(TokenAcquisitionFailedException.class, () -> strategy.refreshRetryToken(refresh(second)));
+        assertEquals(1.0, meterRegistry.get("dynamodb.client.retry.denied").counter().count());
+    }
+
+    private static RefreshRetryTokenRequest refresh(RetryToken token) {
+        return RefreshRetryTokenRequest.builder()
+                .token(token)
+                .failure(ProvisionedThroughputExceededException.builder()
+                        .statusCode(400)
+                        .awsErrorDetails(AwsErrorDetails.builder()
+                                .errorCode("ProvisionedThroughputExceededException")
+                                .build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.dynamodb.config;
+
+import com.app.dynamodb.shared.metrics.RequestCapacity;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+class ConsumedCapacityInterceptorTest {
+
+    private final ConsumedCapacityInterceptor interceptor = new ConsumedCapacityInterceptor();
+
+    @Test
+    void modifyRequest_AsksForIndexCapacityUnlessTheCallerChose() {
+        GetItemRequest get = (GetItemRequest) modify(GetItemRequest.builder().tableName("orders").build());
+        assertEquals(ReturnConsumedCapacity.INDEXES, get.returnConsumedCapacity());
+
+        QueryRequest query = (QueryRequest) modify(QueryRequest.builder()
+                .tableName("orders")
+                .returnConsumedCapacity(ReturnConsumedCapacity.NONE)
+                .build());
+        assertEquals(ReturnConsumedCapacity.NONE, query.returnConsumedCapacity());
+
+        DescribeTableRequest describe = DescribeTableRequest.builder().tableName("orders").build();
+        assertSame(describe, modify(describe));
+    }
+
+    @Test
+    void afterExecution_ChargesReadsAndWritesToTheCurrentRequest() {
+        RequestCapacity capacity = new RequestCapacity();
+        try (MockedStatic<RequestCapacity> current = mockStatic(RequestCapacity.class)) {
+            current.when(RequestCapacity::current).thenReturn(capacity);
+
+            afterExecution(GetItemResponse.builder()
+                    .consumedCapacity(ConsumedCapacity.builder().capacityUnits(0.5).build())
+                    .build());
+            afterExecution(PutItemResponse.builder()
+                    .consumedCapacity(ConsumedCapacity.builder().capacityUnits(1.0).build())
+                    .build());
+            // Transactions report read and write units per table
+            afterExecution(TransactWriteItemsResponse.builder()
+                    .consumedCapacity(ConsumedCapacity.builder().readCapacityUnits(2.0).writeCapacityUnits(4.0).build(),
+                            ConsumedCapacity.builder().writeCapacityUnits(2.0).build())
+                    .build());
+            afterExecution(DeleteItemResponse.builder().build());
+        }
+
+        assertEquals(2.5, capacity.readUnits());
+        assertEquals(7.0, capacity.writeUnits());
+    }
+
+    @Test
+    void afterExecution_IgnoresCallsOutsideARequest() {
+        assertNull(RequestCapacity.current());
+        assertDoesNotThrow(() -> afterExecution(GetItemResponse.builder()
+                .consumedCapacity(ConsumedCapacity.builder().capacityUnits(0.5).build())
+                .build()));
+    }
+
+    private SdkRequest modify(SdkRequest request) {
+        Context.ModifyRequest context = mock(Context.ModifyRequest.class);
+        when(context.request()).thenReturn(request);
+        return interceptor.modifyRequest(context, new ExecutionAttributes());
+    }
+
+    private void afterExecution(SdkResponse response) {
+        Context.AfterExecution context = mock(Context.AfterExecution.class);
+        when(context.response()).thenReturn(response);
+        interceptor.afterExecution(context, new ExecutionAttributes());
+    }
+}
@@ -0,0 +1,121 @@
+package com.app.dynamodb.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.SdkHttpFullResponse;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DynamoDbMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DynamoDbMetricsInterceptor interceptor = new DynamoDbMetricsInterceptor(registry);
+
+    @Test
+    void afterExecution_RecordsTheCallAndEachAttemptByTableAndOperation() {
+        ExecutionAttributes attributes = beforeExecution(GetItemRequest.builder().tableName("orders").build(), "GetItem");
+        attempt(attributes, 500);
+        attempt(attributes, 200);
+        interceptor.afterExecution(mock(Context.AfterExecution.class), attributes);
+
+        Timer requests = registry.find("dynamodb.client.requests")
+                .tags("table", "orders", "operation", "GetItem", "outcome", "success")
+                .timer();
+        assertNotNull(requests);
+        assertEquals(1, requests.count());
+
+        for (String status : new String[]{"500", "200"}) {
+            Timer attempts = registry.find("dynamodb.client.attempts")
+                    .tags("table", "orders", "operation", "GetItem", "status", status)
+                    .timer();
+            assertNotNull(attempts, status);
+            assertEquals(1, attempts.count());
+        }
+
+        DistributionSummary perCall = registry.find("dynamodb.client.request.attempts")
+                .tags("table", "orders", "operation", "GetItem")
+                .summary();
+        assertNotNull(perCall);
+        assertEquals(1, perCall.count());
+        assertEquals(2.0, perCall.totalAmount());
+    }
+
+    @Test
+    void onExecutionFailure_TagsTheCallWithTheKindOfError() {
+        failWith(ProvisionedThroughputExceededException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ProvisionedThroughputExceededException").build())
+                .build());
+        failWith(InternalServerErrorException.builder().statusCode(500).build());
+        failWith(ConditionalCheckFailedException.builder().statusCode(400).build());
+        failWith(SdkClientException.create("Unable to execute HTTP request", new IOException("Connection reset")));
+        failWith(SdkClientException.create("Unable to marshall request"));
+
+        for (String outcome : new String[]{"throttled", "server_error", "client_error", "io_error", "error"}) {
+            Timer requests = registry.find("dynamodb.client.requests")
+                    .tags("table", "orders", "operation", "PutItem", "outcome", outcome)
+                    .timer();
+            assertNotNull(requests, outcome);
+            assertEquals(1, requests.count());
+        }
+        assertNull(registry.find("dynamodb.client.requests").tag("outcome", "success").timer());
+        assertEquals(5, registry.get("dynamodb.client.request.attempts").summary().count());
+    }
+
+    @Test
+    void afterExecution_TagsCallsWithoutATableAsMultiple() {
+        ExecutionAttributes attributes = beforeExecution(BatchGetItemRequest.builder().build(), "BatchGetItem");
+        interceptor.afterExecution(mock(Context.AfterExecution.class), attributes);
+
+        assertNotNull(registry.find("dynamodb.client.requests")
+                .tags("table", "multiple", "operation", "BatchGetItem", "outcome", "success")
+                .timer());
+    }
+
+    @Test
+    void afterExecution_IgnoresCallsItDidNotSeeStart() {
+        interceptor.afterExecution(mock(Context.AfterExecution.class), new ExecutionAttributes());
+        Context.FailedExecution failed = mock(Context.FailedExecution.class);
+        when(failed.exception()).thenReturn(SdkClientException.create("Unable to execute HTTP request"));
+        interceptor.onExecutionFailure(failed, new ExecutionAttributes());
+
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private ExecutionAttributes beforeExecution(SdkRequest request, String operation) {
+        ExecutionAttributes attributes = new ExecutionAttributes();
+        attributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, operation);
+        Context.BeforeExecution context = mock(Context.BeforeExecution.class);
+        when(context.request()).thenReturn(request);
+        interceptor.beforeExecution(context, attributes);
+        return attributes;
+    }
+
+    private void attempt(ExecutionAttributes attributes, int status) {
+        interceptor.beforeTransmission(mock(Context.BeforeTransmission.class), attributes);
+        Context.AfterTransmission context = mock(Context.AfterTransmission.class);
+        when(context.httpResponse()).thenReturn(SdkHttpFullResponse.builder().statusCode(status).build());
+        interceptor.afterTransmission(context, attributes);
+    }
+
+    private void failWith(Throwable exception) {
+        ExecutionAttributes attributes = beforeExecution(PutItemRequest.builder().tableName("orders").build(), "PutItem");
+        attempt(attributes, 400);
+        Context.FailedExecution context = mock(Context.FailedExecution.class);
+        when(context.exception()).thenReturn(exception);
+        interceptor.onExecutionFailure(context, attributes);
+    }
+}
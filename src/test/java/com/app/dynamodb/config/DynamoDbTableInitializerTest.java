@@ -0,0 +1,96 @@
+package com.app.dynamodb.config;
+
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamoDbTableInitializerTest {
+
+    private InMemoryDynamoDbClient client;
+    private AwsConfigProperties properties;
+    private DynamoDbTableInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        properties = new AwsConfigProperties();
+        properties.setTables(Map.of("customer", "customers", "order", "orders", "order-stats", "order-stats",
+                "order-archive", "orders-archive", "product", "product", "customer-orders", "customer-orders",
+                "product-reservation", "product-reservations"));
+        properties.setLayout(AwsConfigProperties.TableLayout.SINGLE_TABLE);
+        properties.getSchema().setMigrateToSingleTable(true);
+        initializer = new DynamoDbTableInitializer(client, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void migration_CopiesCustomersAndOrdersWithoutOverwritingNewerItems() {
+        createTable("customers", "customerId");
+        createTable("orders", "orderId");
+        put("customers", Map.of("customerId", s("customer-1"), "email", s("old@app.com")));
+        put("customers", Map.of("customerId", s("customer-2"), "email", s("two@app.com")));
+        put("orders", Map.of("orderId", s("order-1"), "customerId", s("customer-1"),
+                "createdAt", s("2026-01-01T00:00:00.5Z")));
+        put("orders", Map.of("orderId", s("order-2"), "productName", s("no customer")));
+
+        assertTrue(initializer.reconcileAll());
+        // written through the new layout while the old tables were still being copied
+        put("customer-orders", Map.of("pk", s("CUSTOMER#customer-1"), "sk", s("PROFILE"),
+                "customerId", s("customer-1"), "email", s("new@app.com")));
+        assertTrue(initializer.reconcileAll());
+
+        assertEquals(DynamoDbTableInitializer.State.READY, initializer.getState());
+        assertFalse(initializer.getTableStates().containsKey("customers"));
+        assertEquals("new@app.com", get("CUSTOMER#customer-1", "PROFILE").get("email").s());
+        assertEquals("two@app.com", get("CUSTOMER#customer-2", "PROFILE").get("email").s());
+        assertEquals("order-1", get("CUSTOMER#customer-1", "ORDER#2026-01-01T00:00:00.500000000Z#order-1")
+                .get("orderId").s());
+        assertEquals(3, client.scan(ScanRequest.builder().tableName("customer-orders").build()).count());
+    }
+
+    @Test
+    void migration_SkipsMissingSourceTables() {
+        assertTrue(initializer.reconcileAll());
+
+        assertEquals(0, client.scan(ScanRequest.builder().tableName("customer-orders").build()).count());
+    }
+
+    private void createTable(String tableName, String partitionKey) {
+        client.createTable(CreateTableRequest.builder()
+                .tableName(tableName)
+                .keySchema(KeySchemaElement.builder().attributeName(partitionKey).keyType(KeyType.HASH).build())
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName(partitionKey)
+                        .attributeType(ScalarAttributeType.S)
+                        .build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+    }
+
+    private void put(String tableName, Map<String, AttributeValue> item) {
+        client.putItem(PutItemRequest.builder().tableName(tableName).item(item).build());
+    }
+
+    private Map<String, AttributeValue> get(String pk, String sk) {
+        return client.getItem(GetItemRequest.builder()
+                .tableName("customer-orders")
+                .key(Map.of("pk", s(pk), "sk", s(sk)))
+                .build()).item();
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.fromS(value);
+    }
+}
@@ -0,0 +1,271 @@
+package com.app.dynamodb.config.inmemory;
+
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.Order.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryDynamoDbClientTest {
+
+    private InMemoryDynamoDbClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        client.createTable(CreateTableRequest.builder()
+                .tableName("orders")
+                .keySchema(key("customerId", KeyType.HASH), key("orderId", KeyType.RANGE))
+                .attributeDefinitions(attribute("customerId", ScalarAttributeType.S),
+                        attribute("orderId", ScalarAttributeType.S),
+                        attribute("status", ScalarAttributeType.S),
+                        attribute("total", ScalarAttributeType.N))
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                        .indexName("status-total-index")
+                        .keySchema(key("status", KeyType.HASH), key("total", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.KEYS_ONLY).build())
+                        .build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void putItem_ConditionExpressionRejectsOverwrite() {
+        put("c1", "o1", "NEW", 10);
+
+        ConditionalCheckFailedException failure = assertThrows(ConditionalCheckFailedException.class,
+                () -> client.putItem(PutItemRequest.builder()
+                        .tableName("orders")
+                        .item(order("c1", "o1", "SHIPPED", 99))
+                        .conditionExpression("attribute_not_exists(orderId)")
+                        .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                        .build()));
+
+        assertEquals("10", failure.item().get("total").n());
+        assertEquals("NEW", get("c1", "o1").get("status").s());
+    }
+
+    @Test
+    void updateItem_AppliesUpdateExpressionAgainstOriginalItem() {
+        put("c1", "o1", "NEW", 10);
+
+        UpdateItemResponse response = client.updateItem(UpdateItemRequest.builder()
+                .tableName("orders")
+                .key(Map.of("customerId", AttributeValue.fromS("c1"), "orderId", AttributeValue.fromS("o1")))
+                .updateExpression("SET #total = #total + :delta, previous = #total, tags = list_append(if_not_exists(tags, :empty), :tag) "
+                        + "REMOVE #status ADD visits :one")
+                .conditionExpression("#total BETWEEN :low AND :high")
+                .expressionAttributeNames(Map.of("#total", "total", "#status", "status"))
+                .expressionAttributeValues(Map.of(
+                        ":delta", AttributeValue.fromN("5"),
+                        ":empty", AttributeValue.fromL(List.of()),
+                        ":tag", AttributeValue.fromL(List.of(AttributeValue.fromS("priority"))),
+                        ":one", AttributeValue.fromN("1"),
+                        ":low", AttributeValue.fromN("0"),
+                        ":high", AttributeValue.fromN("100")))
+                .returnValues(ReturnValue.ALL_NEW)
+                .build());
+
+        Map<String, AttributeValue> item = response.attributes();
+        assertEquals("15", item.get("total").n());
+        assertEquals("10", item.get("previous").n());
+        assertEquals("priority", item.get("tags").l().getFirst().s());
+        assertEquals("1", item.get("visits").n());
+        assertFalse(item.containsKey("status"));
+        assertEquals(item, get("c1", "o1"));
+    }
+
+    @Test
+    void query_PagesThroughSortKeyRangeInBothDirections() {
+        for (int i = 0; i < 10; i++) {
+            put("c1", "o" + i, "NEW", i);
+        }
+        put("c2", "o5", "NEW", 50);
+
+        List<String> forward = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        int pages = 0;
+        do {
+            QueryResponse page = client.query(QueryRequest.builder()
+                    .tableName("orders")
+                    .keyConditionExpression("customerId = :customer AND orderId BETWEEN :from AND :to")
+                    .expressionAttributeValues(Map.of(":customer", AttributeValue.fromS("c1"),
+                            ":from", AttributeValue.fromS("o2"), ":to", AttributeValue.fromS("o8")))
+                    .limit(3)
+                    .exclusiveStartKey(startKey)
+                    .build());
+            page.items().forEach(item -> forward.add(item.get("orderId").s()));
+            startKey = page.hasLastEvaluatedKey() ? page.lastEvaluatedKey() : null;
+            pages++;
+        } while (startKey != null);
+
+        assertEquals(List.of("o2", "o3", "o4", "o5", "o6", "o7", "o8"), forward);
+        assertEquals(3, pages);
+
+        QueryResponse backward = client.query(QueryRequest.builder()
+                .tableName("orders")
+                .keyConditionExpression("customerId = :customer AND begins_with(orderId, :prefix)")
+                .filterExpression("#total > :min")
+                .expressionAttributeNames(Map.of("#total", "total"))
+                .expressionAttributeValues(Map.of(":customer", AttributeValue.fromS("c1"),
+                        ":prefix", AttributeValue.fromS("o"), ":min", AttributeValue.fromN("6")))
+                .scanIndexForward(false)
+                .build());
+
+        assertEquals(List.of("o9", "o8", "o7"), backward.items().stream().map(item -> item.get("orderId").s()).toList());
+        assertEquals(10, backward.scannedCount());
+    }
+
+    @Test
+    void query_SecondaryIndexFollowsUpdatesAndProjectsKeys() {
+        put("c1", "o1", "NEW", 30);
+        put("c2", "o2", "NEW", 20);
+        put("c3", "o3", "SHIPPED", 10);
+        client.updateItem(UpdateItemRequest.builder()
+                .tableName("orders")
+                .key(Map.of("customerId", AttributeValue.fromS("c3"), "orderId", AttributeValue.fromS("o3")))
+                .updateExpression("SET #status = :status")
+                .expressionAttributeNames(Map.of("#status", "status"))
+                .expressionAttributeValues(Map.of(":status", AttributeValue.fromS("NEW")))
+                .build());
+
+        QueryResponse response = client.query(QueryRequest.builder()
+                .tableName("orders")
+                .indexName("status-total-index")
+                .keyConditionExpression("#status = :status AND #total >= :min")
+                .expressionAttributeNames(Map.of("#status", "status", "#total", "total"))
+                .expressionAttributeValues(Map.of(":status", AttributeValue.fromS("NEW"), ":min", AttributeValue.fromN("15")))
+                .build());
+
+        assertEquals(List.of("o2", "o1"), response.items().stream().map(item -> item.get("orderId").s()).toList());
+        assertEquals(4, response.items().getFirst().size());
+        assertEquals(3, client.query(QueryRequest.builder()
+                .tableName("orders")
+                .indexName("status-total-index")
+                .keyConditionExpression("#status = :status")
+                .expressionAttributeNames(Map.of("#status", "status"))
+                .expressionAttributeValues(Map.of(":status", AttributeValue.fromS("NEW")))
+                .select(Select.COUNT)
+                .build()).count());
+    }
+
+    @Test
+    void scan_SegmentsPartitionTheTable() {
+        for (int i = 0; i < 50; i++) {
+            put("c" + i, "o" + i, "NEW", i);
+        }
+
+        int total = 0;
+        for (int segment = 0; segment < 4; segment++) {
+            total += client.scan(ScanRequest.builder().tableName("orders").segment(segment).totalSegments(4).build()).count();
+        }
+
+        assertEquals(50, total);
+    }
+
+    @Test
+    void transactWriteItems_CancelsEverythingWhenOneConditionFails() {
+        put("c1", "o1", "NEW", 10);
+
+        TransactionCanceledException failure = assertThrows(TransactionCanceledException.class,
+                () -> client.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                TransactWriteItem.builder().put(Put.builder()
+                                        .tableName("orders").item(order("c2", "o2", "NEW", 20)).build()).build(),
+                                TransactWriteItem.builder().conditionCheck(ConditionCheck.builder()
+                                        .tableName("orders")
+                                        .key(Map.of("customerId", AttributeValue.fromS("c1"), "orderId", AttributeValue.fromS("o1")))
+                                        .conditionExpression("#status = :shipped")
+                                        .expressionAttributeNames(Map.of("#status", "status"))
+                                        .expressionAttributeValues(Map.of(":shipped", AttributeValue.fromS("SHIPPED")))
+                                        .build()).build())
+                        .build()));
+
+        assertEquals(List.of("None", "ConditionalCheckFailed"),
+                failure.cancellationReasons().stream().map(CancellationReason::code).toList());
+        assertNull(get("c2", "o2"));
+    }
+
+    @Test
+    void enhancedClient_RoundTripsBeansAndExpiresItems() {
+        client.createTable(CreateTableRequest.builder()
+                .tableName("order-beans")
+                .keySchema(key("orderId", KeyType.HASH))
+                .attributeDefinitions(attribute("orderId", ScalarAttributeType.S))
+                .build());
+        DynamoDbTable<Order> table = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build()
+                .table("order-beans", TableSchema.fromBean(Order.class));
+        Order order = Order.builder()
+                .orderId("o1")
+                .customerId("c1")
+                .productName("Widget")
+                .quantity(2)
+                .totalAmount(new BigDecimal("19.90"))
+                .status(OrderStatus.PENDING)
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .build();
+
+        table.putItem(order);
+
+        assertEquals(order, table.getItem(Key.builder().partitionValue("o1").build()));
+
+        client.updateTimeToLive(UpdateTimeToLiveRequest.builder()
+                .tableName("orders")
+                .timeToLiveSpecification(TimeToLiveSpecification.builder().attributeName("expiresAt").enabled(true).build())
+                .build());
+        client.putItem(PutItemRequest.builder().tableName("orders").item(Map.of(
+                "customerId", AttributeValue.fromS("c1"),
+                "orderId", AttributeValue.fromS("expired"),
+                "expiresAt", AttributeValue.fromN(String.valueOf(Instant.now().getEpochSecond() - 1)))).build());
+        client.expireItems();
+
+        assertNull(get("c1", "expired"));
+    }
+
+    private void put(String customerId, String orderId, String status, int total) {
+        client.putItem(PutItemRequest.builder().tableName("orders").item(order(customerId, orderId, status, total)).build());
+    }
+
+    private Map<String, AttributeValue> get(String customerId, String orderId) {
+        GetItemResponse response = client.getItem(GetItemRequest.builder()
+                .tableName("orders")
+                .key(Map.of("customerId", AttributeValue.fromS(customerId), "orderId", AttributeValue.fromS(orderId)))
+                .build());
+        return response.hasItem() ? response.item() : null;
+    }
+
+    private static Map<String, AttributeValue> order(String customerId, String orderId, String status, int total) {
+        return Map.of(
+                "customerId", AttributeValue.fromS(customerId),
+                "orderId", AttributeValue.fromS(orderId),
+                "status", AttributeValue.fromS(status),
+                "total", AttributeValue.fromN(String.valueOf(total)));
+    }
+
+    private static KeySchemaElement key(String name, KeyType type) {
+        return KeySchemaElement.builder().attributeName(name).keyType(type).build();
+    }
+
+    private static AttributeDefinition attribute(String name, ScalarAttributeType type) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(type).build();
+    }
+}
@@ -88,12 +88,12 @@ class CustomerServiceTest {
     @Test
     void updateCustomer_Success() {
         when(repository.findById(anyString())).thenReturn(Optional.of(testCustomer));
-        when(repository.update(any(Customer.class))).thenReturn(testCustomer);
+        when(repository.update(any(Customer.class), isNull())).thenReturn(testCustomer);
 
-        Customer result = service.updateCustomer("test-123", testCustomer);
+        Customer result = service.updateCustomer("test-123", testCustomer, null);
 
         assertNotNull(result);
-        verify(repository, times(1)).update(any(Customer.class));
+        verify(repository, times(1)).update(any(Customer.class), isNull());
     }
 
     @Test
@@ -101,7 +101,7 @@ class CustomerServiceTest {
         when(repository.findById(anyString())).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
-            service.updateCustomer("non-existent", testCustomer);
+            service.updateCustomer("non-existent", testCustomer, null);
         });
     }
 
@@ -0,0 +1,157 @@
+package com.app.dynamodb.order.archive;
+
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.repository.OrderArchiveRepository;
+import com.app.dynamodb.order.repository.MultiTableOrderRepository;
+import com.app.dynamodb.order.repository.OrderRepository;
+import com.app.dynamodb.order.repository.OrderStatusIndexProperties;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReadProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlightProperties;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import com.app.dynamodb.shared.journal.WriteJournalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiverTest {
+
+    private InMemoryDynamoDbClient client;
+    private OrderRepository repository;
+    private OrderArchiveRepository archive;
+    private OrderArchiveProperties archiveProperties;
+    private OrderArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        client.createTable(CreateTableRequest.builder()
+                .tableName("orders")
+                .keySchema(key("orderId", KeyType.HASH))
+                .attributeDefinitions(attribute("orderId"), attribute("statusShard"), attribute("statusSortKey"),
+                        attribute("archiveShard"), AttributeDefinition.builder()
+                                .attributeName("expiresAt").attributeType(ScalarAttributeType.N).build())
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                        .indexName(Order.STATUS_INDEX)
+                        .keySchema(key("statusShard", KeyType.HASH), key("statusSortKey", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .build(), GlobalSecondaryIndex.builder()
+                        .indexName(Order.ARCHIVE_INDEX)
+                        .keySchema(key("archiveShard", KeyType.HASH), key("expiresAt", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+        client.createTable(CreateTableRequest.builder()
+                .tableName("orders-archive")
+                .keySchema(key("orderId", KeyType.HASH))
+                .attributeDefinitions(attribute("orderId"))
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+
+        AwsConfigProperties properties = new AwsConfigProperties();
+        properties.setTables(Map.of("order", "orders", "order-archive", "orders-archive"));
+        archiveProperties = new OrderArchiveProperties();
+        archiveProperties.setBatchSize(2);
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build();
+
+        repository = new MultiTableOrderRepository(enhancedClient, client, properties, new SingleFlights(new SimpleMeterRegistry(), new SingleFlightProperties()),
+                new HedgedReads(new SimpleMeterRegistry(), new HedgedReadProperties()), new OrderStatusIndexProperties(), archiveProperties,
+                new WriteJournal(new WriteJournalProperties(), new SimpleMeterRegistry()), event -> { });
+        archive = new OrderArchiveRepository(enhancedClient, properties);
+        archiver = new OrderArchiver(repository, archive, archiveProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void archiveDue_CopiesTerminalOrdersCloseToExpiryOnce() {
+        for (int i = 0; i < 5; i++) {
+            save("delivered-" + i, Order.OrderStatus.DELIVERED);
+        }
+        save("cancelled", Order.OrderStatus.CANCELLED);
+        save("pending", Order.OrderStatus.PENDING);
+
+        assertEquals(0, archiver.archiveDue(Instant.now()));
+
+        Instant nearExpiry = Instant.now().plus(Duration.ofDays(28));
+        assertEquals(6, archiver.archiveDue(nearExpiry));
+        assertEquals(0, archiver.archiveDue(nearExpiry));
+
+        Order archived = archive.findById("delivered-3").orElseThrow();
+        assertEquals(Order.OrderStatus.DELIVERED, archived.getStatus());
+        assertNull(archived.getExpiresAt());
+        assertTrue(archive.findById("pending").isEmpty());
+        Order cancelled = repository.findById("cancelled").orElseThrow();
+        assertNotNull(cancelled.getArchivedAt());
+        assertNull(cancelled.getArchiveShard(), "archived orders leave the archive index");
+    }
+
+    @Test
+    void archiveDue_BackfillsOrdersWrittenBeforeTheArchiveIndex() {
+        Order order = save("delivered", Order.OrderStatus.DELIVERED);
+        client.updateItem(UpdateItemRequest.builder()
+                .tableName("orders")
+                .key(Map.of("orderId", AttributeValue.fromS("delivered")))
+                .updateExpression("REMOVE archiveShard")
+                .build());
+        Instant nearExpiry = Instant.now().plus(Duration.ofDays(28));
+
+        assertEquals(0, archiver.archiveDue(nearExpiry));
+        archiveProperties.setBackfill(true);
+        assertEquals(1, archiver.archiveDue(nearExpiry));
+        assertEquals(0, archiver.archiveDue(nearExpiry));
+        assertEquals(order.getUpdatedAt(), archive.findById("delivered").orElseThrow().getUpdatedAt());
+    }
+
+    @Test
+    void archiveDue_ArchivesAgainAfterTheOrderChanges() {
+        Order order = save("delivered", Order.OrderStatus.DELIVERED);
+        Long expiresAt = order.getExpiresAt();
+        Instant nearExpiry = Instant.now().plus(Duration.ofDays(28));
+        assertEquals(1, archiver.archiveDue(nearExpiry));
+
+        Order changed = repository.findById("delivered").orElseThrow();
+        changed.setStatus(Order.OrderStatus.CANCELLED);
+        repository.update(changed);
+
+        assertEquals(expiresAt, repository.findById("delivered").orElseThrow().getExpiresAt());
+        assertEquals(1, archiver.archiveDue(nearExpiry));
+        assertEquals(Order.OrderStatus.CANCELLED, archive.findById("delivered").orElseThrow().getStatus());
+    }
+
+    private Order save(String orderId, Order.OrderStatus status) {
+        return repository.save(Order.builder()
+                .orderId(orderId)
+                .customerId("customer-1")
+                .productName("Widget")
+                .quantity(1)
+                .totalAmount(BigDecimal.TEN)
+                .status(status)
+                .build());
+    }
+
+    private static KeySchemaElement key(String name, KeyType type) {
+        return KeySchemaElement.builder().attributeName(name).keyType(type).build();
+    }
+
+    private static AttributeDefinition attribute(String name) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(ScalarAttributeType.S).build();
+    }
+}
@@ -0,0 +1,258 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
+import com.app.dynamodb.order.archive.OrderArchiveProperties;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.OrderPage;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.CustomerOrderKeys;
+import com.app.dynamodb.shared.concurrent.HedgedReadProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlightProperties;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import com.app.dynamodb.shared.journal.WriteJournalProperties;
+import com.app.dynamodb.shared.exception.PreconditionFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class OrderRepositoryTest {
+
+    private InMemoryDynamoDbClient client;
+    private OrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        client.createTable(CreateTableRequest.builder()
+                .tableName("orders")
+                .keySchema(key("orderId", KeyType.HASH))
+                .attributeDefinitions(attribute("orderId"), attribute("statusShard"), attribute("statusSortKey"),
+                        attribute("archiveShard"), AttributeDefinition.builder()
+                                .attributeName("expiresAt").attributeType(ScalarAttributeType.N).build())
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                        .indexName(Order.STATUS_INDEX)
+                        .keySchema(key("statusShard", KeyType.HASH), key("statusSortKey", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .build(), GlobalSecondaryIndex.builder()
+                        .indexName(Order.ARCHIVE_INDEX)
+                        .keySchema(key("archiveShard", KeyType.HASH), key("expiresAt", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+
+        AwsConfigProperties properties = new AwsConfigProperties();
+        properties.setTables(Map.of("order", "orders"));
+        OrderStatusIndexProperties statusIndex = new OrderStatusIndexProperties();
+        statusIndex.setShards(4);
+        repository = new MultiTableOrderRepository(DynamoDbEnhancedClient.builder().dynamoDbClient(client).build(), client,
+                properties, mock(SingleFlights.class), new HedgedReads(new SimpleMeterRegistry(), new HedgedReadProperties()),
+                statusIndex, new OrderArchiveProperties(), new WriteJournal(new WriteJournalProperties(), new SimpleMeterRegistry()), event -> { });
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void findByStatus_MergesShardsOldestFirstAcrossPages() {
+        Instant start = Instant.parse("2026-01-01T00:00:00.123Z");
+        List<String> pending = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Order order = save("order-" + i, i % 5 == 0 ? Order.OrderStatus.SHIPPED : Order.OrderStatus.PENDING,
+                    start.plusSeconds(i));
+            if (order.getStatus() == Order.OrderStatus.PENDING) {
+                pending.add(order.getOrderId());
+            }
+        }
+
+        List<String> read = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            OrderPage page = repository.findByStatus(Order.OrderStatus.PENDING, 7, pageToken);
+            page.items().forEach(order -> read.add(order.getOrderId()));
+            pageToken = page.nextPageToken();
+            pages++;
+        } while (pageToken != null);
+
+        assertEquals(pending, read);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void findByStatus_OrdersWholeSecondsAndMicrosecondsByTime() {
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        // Instant.toString() renders these as 00Z, 00.000001Z, 00.500Z, 01Z and 01.000010Z
+        List<Instant> times = List.of(start, start.plusNanos(1_000), start.plusMillis(500), start.plusSeconds(1),
+                start.plusSeconds(1).plusNanos(10_000));
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < times.size(); i++) {
+            // IDs in reverse time order, so that ordering by ID would fail
+            created.add(save("order-" + (times.size() - i), Order.OrderStatus.PENDING, times.get(i)).getOrderId());
+        }
+
+        List<String> read = new ArrayList<>();
+        String pageToken = null;
+        do {
+            OrderPage page = repository.findByStatus(Order.OrderStatus.PENDING, 2, pageToken);
+            page.items().forEach(order -> read.add(order.getOrderId()));
+            pageToken = page.nextPageToken();
+        } while (pageToken != null);
+
+        assertEquals(created, read);
+    }
+
+    @Test
+    void findByStatus_BreaksTiesOnTheOrderId() {
+        Instant createdAt = Instant.parse("2026-01-01T00:00:00.000123Z");
+        save("order-b", Order.OrderStatus.PENDING, createdAt);
+        save("order-a", Order.OrderStatus.PENDING, createdAt);
+        save("order-c", Order.OrderStatus.PENDING, createdAt.minusNanos(1_000));
+
+        OrderPage first = repository.findByStatus(Order.OrderStatus.PENDING, 2, null);
+        assertEquals(List.of("order-c", "order-a"), orderIds(first.items()));
+        OrderPage second = repository.findByStatus(Order.OrderStatus.PENDING, 2, first.nextPageToken());
+        assertEquals(List.of("order-b"), orderIds(second.items()));
+        assertNull(second.nextPageToken());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.findByStatus(Order.OrderStatus.PENDING, 2, "bm90LWEtc29ydC1rZXk"));
+    }
+
+    @Test
+    void update_MovesOrderToTheShardOfItsNewStatus() {
+        Order order = save("order-1", Order.OrderStatus.PENDING, Instant.now());
+
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        repository.update(order);
+
+        assertTrue(repository.findByStatus(Order.OrderStatus.PENDING, 10, null).items().isEmpty());
+        assertEquals("order-1", repository.findByStatus(Order.OrderStatus.CONFIRMED, 10, null)
+                .items().getFirst().getOrderId());
+        assertTrue(order.getStatusShard().startsWith("CONFIRMED#"));
+    }
+
+    @Test
+    void singleTableLayout_KeepsOrdersInTheirCustomerPartition() {
+        createSingleTable();
+        repository = singleTableRepository(client);
+
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        save("order-1", Order.OrderStatus.PENDING, start);
+        save("order-2", Order.OrderStatus.PENDING, start.plusMillis(1500));
+
+        Map<String, AttributeValue> stored = client.getItem(GetItemRequest.builder()
+                .tableName("customer-orders")
+                .key(Map.of("pk", AttributeValue.fromS("CUSTOMER#customer-1"),
+                        "sk", AttributeValue.fromS("ORDER#2026-01-01T00:00:01.500000000Z#order-2")))
+                .build()).item();
+        assertEquals("order-2", stored.get("orderId").s());
+        assertEquals(List.of("order-1", "order-2"), orderIds(repository.findByCustomerId("customer-1")));
+        assertEquals(2, repository.findAll().size());
+
+        Order existing = repository.findById("order-1").orElseThrow();
+        Order moved = existing.toBuilder().customerId("customer-2").build();
+        repository.replace(existing, moved, null);
+
+        assertEquals(List.of("order-2"), orderIds(repository.findByCustomerId("customer-1")));
+        assertEquals(List.of("order-1"), orderIds(repository.findByCustomerId("customer-2")));
+        assertEquals("customer-2", repository.findById("order-1").orElseThrow().getCustomerId());
+
+        assertThrows(PreconditionFailedException.class, () -> repository.replace(existing, moved, null));
+
+        repository.delete(moved);
+        assertTrue(repository.findById("order-1").isEmpty());
+    }
+
+    @Test
+    void singleTableLayout_ReadsOrdersWrittenHereByKeyInsteadOfTheLaggingIndex() {
+        createSingleTable();
+        InMemoryDynamoDbClient spied = spy(client);
+        repository = singleTableRepository(spied);
+
+        Order order = save("order-1", Order.OrderStatus.PENDING, Instant.now());
+
+        assertEquals("order-1", repository.findById("order-1").orElseThrow().getOrderId());
+        assertEquals(order.getUpdatedAt(), repository.findVersion("order-1").orElseThrow());
+        verify(spied, never()).query(argThat((QueryRequest request) -> CustomerOrderKeys.ORDER_ID_INDEX.equals(request.indexName())));
+        verify(spied).getItem(argThat((GetItemRequest request) -> Boolean.TRUE.equals(request.consistentRead())));
+
+        // Another instance has not written the order, so it looks it up through the index
+        OrderRepository other = singleTableRepository(spied);
+        assertEquals("order-1", other.findById("order-1").orElseThrow().getOrderId());
+        verify(spied).query(argThat((QueryRequest request) -> CustomerOrderKeys.ORDER_ID_INDEX.equals(request.indexName())));
+    }
+
+    private void createSingleTable() {
+        client.createTable(CreateTableRequest.builder()
+                .tableName("customer-orders")
+                .keySchema(key("pk", KeyType.HASH), key("sk", KeyType.RANGE))
+                .attributeDefinitions(attribute("pk"), attribute("sk"), attribute("orderId"))
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                        .indexName(CustomerOrderKeys.ORDER_ID_INDEX)
+                        .keySchema(key("orderId", KeyType.HASH))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+        client.putItem(PutItemRequest.builder()
+                .tableName("customer-orders")
+                .item(Map.of("pk", AttributeValue.fromS("CUSTOMER#customer-1"), "sk", AttributeValue.fromS("PROFILE"),
+                        "customerId", AttributeValue.fromS("customer-1")))
+                .build());
+    }
+
+    private static OrderRepository singleTableRepository(DynamoDbClient client) {
+        AwsConfigProperties properties = new AwsConfigProperties();
+        properties.setTables(Map.of("customer-orders", "customer-orders"));
+        properties.setLayout(AwsConfigProperties.TableLayout.SINGLE_TABLE);
+        return new SingleTableOrderRepository(DynamoDbEnhancedClient.builder().dynamoDbClient(client).build(), client,
+                properties, new SingleFlights(new SimpleMeterRegistry(), new SingleFlightProperties()),
+                new HedgedReads(new SimpleMeterRegistry(), new HedgedReadProperties()),
+                new OrderStatusIndexProperties(), new OrderArchiveProperties(),
+                new WriteJournal(new WriteJournalProperties(), new SimpleMeterRegistry()), event -> { });
+    }
+
+    private static List<String> orderIds(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).toList();
+    }
+
+    private Order save(String orderId, Order.OrderStatus status, Instant createdAt) {
+        return repository.save(Order.builder()
+                .orderId(orderId)
+                .customerId("customer-1")
+                .productName("Widget")
+                .quantity(1)
+                .totalAmount(BigDecimal.TEN)
+                .status(status)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private static KeySchemaElement key(String name, KeyType type) {
+        return KeySchemaElement.builder().attributeName(name).keyType(type).build();
+    }
+
+    private static AttributeDefinition attribute(String name) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(ScalarAttributeType.S).build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.app.dynamodb.order.repository;
+
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
+import com.app.dynamodb.order.domain.Order;
+import com.app.dynamodb.order.domain.OrderStats;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OrderStatsRepositoryTest {
+
+    private static final Instant TEN_PAST_NINE = Instant.parse("2026-03-01T09:10:00Z");
+
+    private InMemoryDynamoDbClient client;
+    private AwsConfigProperties properties;
+    private OrderStatsProperties statsProperties;
+    private OrderStatsRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        client.createTable(CreateTableRequest.builder()
+                .tableName("order-stats")
+                .keySchema(KeySchemaElement.builder().attributeName("bucket").keyType(KeyType.HASH).build())
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("bucket").attributeType(ScalarAttributeType.S).build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+
+        properties = new AwsConfigProperties();
+        properties.setTables(Map.of("order-stats", "order-stats"));
+        statsProperties = new OrderStatsProperties();
+        statsProperties.setShards(3);
+        repository = new OrderStatsRepository(client, properties, statsProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void find_AddsUpShardsAndFollowsStatusTransitions() {
+        for (int i = 0; i < 10; i++) {
+            repository.record(null, order("o" + i, Order.OrderStatus.PENDING, "10.50", TEN_PAST_NINE.plusSeconds(i)));
+        }
+        Order shipped = order("o0", Order.OrderStatus.PENDING, "10.50", TEN_PAST_NINE);
+        repository.record(shipped, shipped.toBuilder().status(Order.OrderStatus.SHIPPED).build());
+        repository.record(null, order("late", Order.OrderStatus.CONFIRMED, "5", TEN_PAST_NINE.plus(Duration.ofHours(2))));
+
+        OrderStats hourly = repository.find(OrderStats.Granularity.HOUR,
+                Instant.parse("2026-03-01T09:30:00Z"), Instant.parse("2026-03-01T12:00:00Z"));
+
+        List<OrderStats.Bucket> buckets = hourly.buckets();
+        assertEquals(3, buckets.size());
+        assertEquals(Instant.parse("2026-03-01T09:00:00Z"), buckets.getFirst().start());
+        assertEquals(10, buckets.getFirst().orders());
+        assertEquals(0, new BigDecimal("105").compareTo(buckets.getFirst().totalAmount()));
+        assertEquals(9, buckets.getFirst().byStatus().get(Order.OrderStatus.PENDING).orders());
+        assertEquals(1, buckets.getFirst().byStatus().get(Order.OrderStatus.SHIPPED).orders());
+        assertEquals(0, buckets.get(1).orders());
+        assertEquals(1, buckets.get(2).byStatus().get(Order.OrderStatus.CONFIRMED).orders());
+
+        OrderStats daily = repository.find(OrderStats.Granularity.DAY,
+                Instant.parse("2026-03-01T00:00:00Z"), Instant.parse("2026-03-02T00:00:00Z"));
+        assertEquals(11, daily.buckets().getFirst().orders());
+        assertEquals(0, new BigDecimal("110").compareTo(daily.buckets().getFirst().totalAmount()));
+    }
+
+    @Test
+    void record_UpdatesHourAndDayBucketsInOneTransaction() {
+        DynamoDbClient failing = mock(DynamoDbClient.class);
+        when(failing.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(SdkClientException.create("Unable to execute HTTP request"));
+        OrderStatsRepository failingRepository = new OrderStatsRepository(failing, properties, statsProperties);
+
+        assertThrows(SdkClientException.class, () -> failingRepository.record(null,
+                order("o1", Order.OrderStatus.PENDING, "10", TEN_PAST_NINE)));
+
+        ArgumentCaptor<TransactWriteItemsRequest> request = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(failing).transactWriteItems(request.capture());
+        verify(failing, never()).updateItem(any(UpdateItemRequest.class));
+        List<String> buckets = request.getValue().transactItems().stream()
+                .map(item -> item.update().key().get("bucket").s())
+                .toList();
+        assertEquals(2, buckets.size());
+        assertTrue(buckets.get(0).startsWith("HOUR#2026-03-01T09:00:00Z#"));
+        assertTrue(buckets.get(1).startsWith("DAY#2026-03-01T00:00:00Z#"));
+    }
+
+    @Test
+    void find_RejectsRangesOverTheBucketLimit() {
+        assertThrows(IllegalArgumentException.class, () -> repository.find(OrderStats.Granularity.HOUR,
+                Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-03-01T00:00:00Z")));
+    }
+
+    private static Order order(String orderId, Order.OrderStatus status, String amount, Instant createdAt) {
+        return Order.builder()
+                .orderId(orderId)
+                .status(status)
+                .totalAmount(new BigDecimal(amount))
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.app.dynamodb.product.catalog;
+
+import com.app.dynamodb.product.domain.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogSnapshotTest {
+
+    private ProductCatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = ProductCatalogSnapshot.of(List.of(
+                product("p1", "Electronics", Product.ProductStatus.ACTIVE, "2024-01-01T00:00:00Z"),
+                product("p2", "Electronics", Product.ProductStatus.OUT_OF_STOCK, "2024-01-02T00:00:00Z"),
+                product("p3", "Books", Product.ProductStatus.ACTIVE, "2024-01-03T00:00:00Z")));
+    }
+
+    @Test
+    void of_IndexesByCategoryAndStatus() {
+        assertEquals(3, snapshot.size());
+        assertEquals(2, snapshot.findByCategory("Electronics").size());
+        assertEquals(2, snapshot.findByStatus(Product.ProductStatus.ACTIVE).size());
+        assertTrue(snapshot.findByCategory("Toys").isEmpty());
+        assertEquals(Instant.parse("2024-01-03T00:00:00Z"), snapshot.getWatermark());
+    }
+
+    @Test
+    void apply_MovesProductBetweenIndexes() {
+        Map<String, Product> changes = new HashMap<>();
+        changes.put("p1", product("p1", "Books", Product.ProductStatus.OUT_OF_STOCK, "2024-01-04T00:00:00Z"));
+
+        ProductCatalogSnapshot next = snapshot.apply(changes);
+
+        assertEquals(1, next.findByCategory("Electronics").size());
+        assertEquals(2, next.findByCategory("Books").size());
+        assertEquals(2, next.findByStatus(Product.ProductStatus.OUT_OF_STOCK).size());
+        assertEquals(Instant.parse("2024-01-04T00:00:00Z"), next.getWatermark());
+        // previous version is untouched
+        assertEquals(2, snapshot.findByCategory("Electronics").size());
+    }
+
+    @Test
+    void apply_RemovesDeletedProducts() {
+        Map<String, Product> changes = new HashMap<>();
+        changes.put("p3", null);
+
+        ProductCatalogSnapshot next = snapshot.apply(changes);
+
+        assertEquals(2, next.size());
+        assertTrue(next.findByCategory("Books").isEmpty());
+        assertTrue(next.findById("p3").isEmpty());
+    }
+
+    private static Product product(String id, String category, Product.ProductStatus status, String updatedAt) {
+        return Product.builder()
+                .productId(id)
+                .name("Product " + id)
+                .category(category)
+                .status(status)
+                .stockQuantity(1)
+                .updatedAt(Instant.parse(updatedAt))
+                .build();
+    }
+}
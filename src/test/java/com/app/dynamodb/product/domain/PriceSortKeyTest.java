@@ -0,0 +1,53 @@
+package com.app.dynamodb.product.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSortKeyTest {
+
+    @Test
+    void stringOrderMatchesPriceOrder() {
+        List<BigDecimal> prices = Stream.of("0", "0.05", "0.5", "0.50", "1", "1.05", "1.5", "9.99", "10",
+                        "19.99", "100", "120.00", "999.99", "1000", "123456789012.5")
+                .map(BigDecimal::new)
+                .toList();
+
+        List<BigDecimal> byKey = prices.stream()
+                .sorted(Comparator.comparing(price -> PriceSortKey.of(price, "p")))
+                .toList();
+
+        for (int i = 1; i < byKey.size(); i++) {
+            assertTrue(byKey.get(i - 1).compareTo(byKey.get(i)) <= 0, byKey.toString());
+        }
+        assertEquals(PriceSortKey.of(new BigDecimal("0.5"), "p"), PriceSortKey.of(new BigDecimal("0.50"), "p"));
+    }
+
+    @Test
+    void boundsAreInclusive() {
+        String lower = PriceSortKey.lowerBound(new BigDecimal("1.5"));
+        String upper = PriceSortKey.upperBound(new BigDecimal("1.5"));
+
+        assertTrue(PriceSortKey.of(new BigDecimal("1.50"), "z").compareTo(lower) >= 0);
+        assertTrue(PriceSortKey.of(new BigDecimal("1.50"), "z").compareTo(upper) <= 0);
+        assertTrue(PriceSortKey.of(new BigDecimal("1.49"), "z").compareTo(lower) < 0);
+        assertTrue(PriceSortKey.of(new BigDecimal("1.51"), "a").compareTo(upper) > 0);
+        assertTrue(PriceSortKey.of(new BigDecimal("1"), "z").compareTo(lower) < 0);
+    }
+
+    @Test
+    void pageTokenRoundTripsTheSortKey() {
+        String sortKey = PriceSortKey.of(new BigDecimal("19.99"), "prod-1");
+
+        String token = PriceSortKey.toPageToken(sortKey);
+
+        assertEquals(sortKey, PriceSortKey.fromPageToken(token));
+        assertEquals("prod-1", PriceSortKey.productIdOf(sortKey));
+        assertThrows(IllegalArgumentException.class, () -> PriceSortKey.fromPageToken("not a token"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.app.dynamodb.product.repository;
+
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.Reservation;
+import com.app.dynamodb.product.reservation.ReservationProperties;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReadProperties;
+import com.app.dynamodb.shared.concurrent.HedgedReads;
+import com.app.dynamodb.shared.concurrent.SingleFlightProperties;
+import com.app.dynamodb.shared.concurrent.SingleFlights;
+import com.app.dynamodb.shared.journal.WriteJournal;
+import com.app.dynamodb.shared.journal.WriteJournalProperties;
+import io.awspring.cloud.dynamodb.DynamoDbTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductRepositoryTest {
+
+    private InMemoryDynamoDbClient client;
+    private ProductRepository repository;
+    private ReservationRepository reservations;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        client.createTable(CreateTableRequest.builder()
+                .tableName("product")
+                .keySchema(key("productId"))
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("productId").attributeType(ScalarAttributeType.S).build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+        client.createTable(CreateTableRequest.builder()
+                .tableName("product-reservations")
+                .keySchema(key("reservationId"))
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("reservationId").attributeType(ScalarAttributeType.S).build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+
+        AwsConfigProperties properties = new AwsConfigProperties();
+        properties.setTables(Map.of("product", "product", "product-reservation", "product-reservations"));
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build();
+        repository = new ProductRepository(new DynamoDbTemplate(enhancedClient), client, enhancedClient, properties,
+                event -> { }, new SingleFlights(new SimpleMeterRegistry(), new SingleFlightProperties()),
+                new HedgedReads(new SimpleMeterRegistry(), new HedgedReadProperties()),
+                new WriteJournal(new WriteJournalProperties(), new SimpleMeterRegistry()));
+        reservations = new ReservationRepository(client, enhancedClient, properties, new ReservationProperties(), event -> { });
+        client.putItem(PutItemRequest.builder()
+                .tableName("product")
+                .item(Map.of("productId", AttributeValue.fromS("p1"),
+                        "name", AttributeValue.fromS("Widget"),
+                        "stockQuantity", AttributeValue.fromN("100"),
+                        "status", AttributeValue.fromS("ACTIVE"),
+                        "updatedAt", AttributeValue.fromS("2026-01-01T00:00:00Z")))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void updateStock_CountsEveryAdjustmentMadeWhileReservationsRun() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> writes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 60; i++) {
+                int kind = i % 3;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    return switch (kind) {
+                        case 0 -> reservations.create(reservation(1)) != null;
+                        case 1 -> repository.updateStock("p1", 2, null);
+                        default -> repository.updateStock("p1", -1, null);
+                    };
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> write : writes) {
+                assertTrue(write.get());
+            }
+        }
+
+        Product product = repository.findById("p1").orElseThrow();
+        // 20 reservations of 1 held, 20 adjustments of +2 and 20 of -1
+        assertEquals(20, product.getReservedQuantity());
+        assertEquals(100 - 20 + 40 - 20, product.getStockQuantity());
+    }
+
+    @Test
+    void updateStock_RefusesToGoBelowZeroAndMarksTheProductOutOfStock() {
+        assertFalse(repository.updateStock("p1", -101, null));
+        assertFalse(repository.updateStock("missing", 1, null));
+
+        assertTrue(repository.updateStock("p1", -100, null));
+        Product product = repository.findById("p1").orElseThrow();
+        assertEquals(0, product.getStockQuantity());
+        assertEquals(Product.ProductStatus.OUT_OF_STOCK, product.getStatus());
+    }
+
+    @Test
+    void update_ReappliesTheChangeWhenAReservationLandsInBetween() {
+        AtomicInteger applied = new AtomicInteger();
+
+        Product updated = repository.update("p1", current -> {
+            if (applied.incrementAndGet() == 1) {
+                // Committed after the update read the product and before it writes
+                reservations.create(reservation(30));
+            }
+            current.setName("Renamed");
+            return current;
+        }, null).orElseThrow();
+
+        assertEquals(2, applied.get());
+        assertEquals("Renamed", updated.getName());
+        Product stored = repository.findById("p1").orElseThrow();
+        assertEquals("Renamed", stored.getName());
+        assertEquals(70, stored.getStockQuantity());
+        assertEquals(30, stored.getReservedQuantity());
+    }
+
+    private static Reservation reservation(int quantity) {
+        return Reservation.builder()
+                .reservationId(UUID.randomUUID().toString())
+                .productId("p1")
+                .quantity(quantity)
+                .holdUntil(Instant.now().plus(Duration.ofMinutes(15)))
+                .build();
+    }
+
+    private static KeySchemaElement key(String name) {
+        return KeySchemaElement.builder().attributeName(name).keyType(KeyType.HASH).build();
+    }
+}
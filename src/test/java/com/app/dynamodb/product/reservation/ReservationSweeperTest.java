@@ -0,0 +1,148 @@
+package com.app.dynamodb.product.reservation;
+
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+import com.app.dynamodb.product.domain.Reservation;
+import com.app.dynamodb.product.repository.ReservationRepository;
+import com.app.dynamodb.product.service.ReservationService;
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.app.dynamodb.shared.exception.ConflictException;
+import com.app.dynamodb.shared.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationSweeperTest {
+
+    private InMemoryDynamoDbClient client;
+    private ReservationProperties properties;
+    private ReservationService service;
+    private ReservationSweeper sweeper;
+    private final List<ProductChangedEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        client.createTable(CreateTableRequest.builder()
+                .tableName("product")
+                .keySchema(key("productId", KeyType.HASH))
+                .attributeDefinitions(attribute("productId", ScalarAttributeType.S))
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+        client.createTable(CreateTableRequest.builder()
+                .tableName("product-reservations")
+                .keySchema(key("reservationId", KeyType.HASH))
+                .attributeDefinitions(attribute("reservationId", ScalarAttributeType.S),
+                        attribute("expiryShard", ScalarAttributeType.S), attribute("holdUntil", ScalarAttributeType.N))
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                        .indexName(Reservation.EXPIRY_INDEX)
+                        .keySchema(key("expiryShard", KeyType.HASH), key("holdUntil", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+
+        AwsConfigProperties awsProperties = new AwsConfigProperties();
+        awsProperties.setTables(Map.of("product", "product", "product-reservation", "product-reservations"));
+        properties = new ReservationProperties();
+        properties.setShards(2);
+        properties.setSweepBatchSize(2);
+        ReservationRepository repository = new ReservationRepository(client,
+                DynamoDbEnhancedClient.builder().dynamoDbClient(client).build(), awsProperties, properties,
+                event -> events.add((ProductChangedEvent) event));
+        service = new ReservationService(repository, properties);
+        sweeper = new ReservationSweeper(repository, properties);
+        saveProduct("p1", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void reserve_MovesStockToReservedUntilConfirmedOrReleased() {
+        Reservation confirmed = service.reserve("p1", 3, null);
+        Reservation released = service.reserve("p1", 4, null);
+        assertStock(3, 7);
+        assertEquals(Integer.valueOf(3), events.getLast().product().getStockQuantity());
+
+        ConflictException insufficient = assertThrows(ConflictException.class, () -> service.reserve("p1", 4, null));
+        assertEquals("Insufficient stock for product: p1", insufficient.getMessage());
+        assertThrows(ResourceNotFoundException.class, () -> service.reserve("missing", 1, null));
+        assertStock(3, 7);
+
+        assertEquals(Reservation.ReservationStatus.CONFIRMED,
+                service.confirm("p1", confirmed.getReservationId()).getStatus());
+        assertEquals(Reservation.ReservationStatus.RELEASED,
+                service.release("p1", released.getReservationId()).getStatus());
+        assertStock(7, 0);
+
+        // A retried request gets the same answer, a contradicting one a conflict
+        assertEquals(Reservation.ReservationStatus.CONFIRMED,
+                service.confirm("p1", confirmed.getReservationId()).getStatus());
+        assertThrows(ConflictException.class, () -> service.release("p1", confirmed.getReservationId()));
+        assertThrows(ResourceNotFoundException.class, () -> service.confirm("p2", confirmed.getReservationId()));
+        assertStock(7, 0);
+    }
+
+    @Test
+    void sweep_ReturnsTheStockOfExpiredHoldsOnly() {
+        List<Reservation> abandoned = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            abandoned.add(service.reserve("p1", 1, Duration.ofMinutes(5)));
+        }
+        Reservation confirmed = service.reserve("p1", 1, Duration.ofMinutes(5));
+        service.confirm("p1", confirmed.getReservationId());
+        Reservation longer = service.reserve("p1", 2, Duration.ofMinutes(30));
+        assertStock(2, 7);
+
+        assertEquals(0, sweeper.sweep(Instant.now()));
+        Instant later = Instant.now().plus(Duration.ofMinutes(10));
+        assertEquals(5, sweeper.sweep(later));
+        assertEquals(0, sweeper.sweep(later));
+        assertStock(7, 2);
+
+        Reservation expired = service.getReservation("p1", abandoned.getFirst().getReservationId());
+        assertEquals(Reservation.ReservationStatus.EXPIRED, expired.getStatus());
+        assertNull(expired.getExpiryShard());
+        assertEquals(Reservation.ReservationStatus.HELD,
+                service.getReservation("p1", longer.getReservationId()).getStatus());
+    }
+
+    private void saveProduct(String productId, int stock) {
+        client.putItem(PutItemRequest.builder()
+                .tableName("product")
+                .item(Map.of("productId", AttributeValue.fromS(productId),
+                        "name", AttributeValue.fromS("Widget"),
+                        "stockQuantity", AttributeValue.fromN(Integer.toString(stock))))
+                .build());
+    }
+
+    private void assertStock(int stock, int reserved) {
+        Map<String, AttributeValue> product = client.getItem(GetItemRequest.builder()
+                .tableName("product")
+                .key(Map.of("productId", AttributeValue.fromS("p1")))
+                .build()).item();
+        assertEquals(Integer.toString(stock), product.get("stockQuantity").n());
+        assertEquals(Integer.toString(reserved), product.get("reservedQuantity").n());
+    }
+
+    private static KeySchemaElement key(String name, KeyType type) {
+        return KeySchemaElement.builder().attributeName(name).keyType(type).build();
+    }
+
+    private static AttributeDefinition attribute(String name, ScalarAttributeType type) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(type).build();
+    }
+}
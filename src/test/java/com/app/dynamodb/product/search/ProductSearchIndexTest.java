@@ -0,0 +1,162 @@
+package com.app.dynamodb.product.search;
+
+import com.app.dynamodb.product.catalog.ProductCatalog;
+import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductChangedEvent;
+import com.app.dynamodb.product.repository.ProductRepository;
+import com.app.dynamodb.shared.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private ProductRepository repository;
+    private ProductCatalog catalog;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductRepository.class);
+        catalog = mock(ProductCatalog.class);
+        index = new ProductSearchIndex(repository, catalog, new ProductSearchProperties());
+    }
+
+    @Test
+    void search_MatchesEveryWordAsWordOrPrefixAndRanksNameMatchesFirst() {
+        load(product("p1", "Wireless Headphones", "Sonic", "audio", 1),
+                product("p2", "Phone Stand", "Headway", "accessories", 1),
+                product("p3", "Café Crème Mug", "Homeware Co", "kitchen", 1),
+                product("p4", "Headphone Case", "Sonic", "accessories", 1));
+
+        assertEquals(List.of("p4", "p1"), ids(index.search("head sonic", 0, 10, List::of)));
+        assertEquals(List.of("p3"), ids(index.search("CAFE creme", 0, 10, List::of)));
+        assertEquals(List.of("p2"), ids(index.search("phone", 0, 10, List::of)));
+        assertEquals(List.of(), ids(index.search("phone kitchen", 0, 10, List::of)));
+        verify(repository).scanParallel(anyInt(), any());
+    }
+
+    @Test
+    void search_PagesThroughTopResultsAndCountsAllMatches() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            products.add(product("p" + i, "Lamp " + (char) ('a' + i % 26) + i, "Lumen", "lighting", 1));
+        }
+        load(products.toArray(Product[]::new));
+
+        ProductSearchResult first = index.search("lamp", 0, 10, List::of);
+        ProductSearchResult last = index.search("lamp", 2, 10, List::of);
+
+        assertEquals(30, first.total());
+        assertEquals(10, first.hits().size());
+        assertEquals(10, last.hits().size());
+        assertTrue(ids(first).stream().noneMatch(ids(last)::contains));
+        assertThrows(IllegalArgumentException.class, () -> index.search("lamp", 0, 1000, List::of));
+        assertThrows(IllegalArgumentException.class, () -> index.search(" -- ", 0, 10, List::of));
+    }
+
+    @Test
+    void onProductChanged_UpdatesAndDeletesButIgnoresStaleVersions() {
+        load(product("p1", "Desk Lamp", "Lumen", "lighting", 10));
+
+        index.onProductChanged(ProductChangedEvent.saved(product("p1", "Floor Lamp", "Lumen", "lighting", 20)));
+        index.onProductChanged(ProductChangedEvent.saved(product("p1", "Desk Lamp", "Lumen", "lighting", 15)));
+        index.onProductChanged(ProductChangedEvent.saved(product("p2", "Desk Organizer", "Tidy", "office", 20)));
+
+        assertEquals(List.of("p1"), ids(index.search("floor", 0, 10, List::of)));
+        assertEquals(List.of("p2"), ids(index.search("desk", 0, 10, List::of)));
+
+        index.onProductChanged(ProductChangedEvent.deleted("p2"));
+
+        assertEquals(0, index.search("desk", 0, 10, List::of).total());
+    }
+
+    @Test
+    void refresh_ReplaysRecentLocalWritesOverTheRebuildSource() {
+        ProductSearchProperties properties = new ProductSearchProperties();
+        properties.setRebuildInterval(Duration.ZERO);
+        ProductSearchIndex rebuilding = new ProductSearchIndex(repository, catalog, properties);
+        rebuilding.onProductChanged(ProductChangedEvent.saved(product("p2", "Desk Organizer", "Tidy", "office", 20)));
+        rebuilding.onProductChanged(ProductChangedEvent.deleted("p1"));
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.findAll()).thenReturn(List.of(product("p1", "Desk Lamp", "Lumen", "lighting", 10)));
+
+        rebuilding.refresh();
+
+        assertEquals(List.of("p2"), ids(rebuilding.search("desk", 0, 10, List::of)));
+        verify(catalog).findAll();
+    }
+
+    @Test
+    void search_RefusesUntilTheIndexIsBuiltWithoutScanningPerRequest() {
+        @SuppressWarnings("unchecked")
+        Supplier<List<Product>> fallback = mock(Supplier.class);
+
+        ServiceUnavailableException refused = assertThrows(ServiceUnavailableException.class,
+                () -> index.search("lamp", 0, 10, fallback));
+
+        assertFalse(index.isReady());
+        assertTrue(refused.getRetryAfter().isPositive());
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void search_IndexesFallbackProductsWhenTheIndexIsDisabled() {
+        ProductSearchProperties properties = new ProductSearchProperties();
+        properties.setEnabled(false);
+        ProductSearchIndex disabled = new ProductSearchIndex(repository, catalog, properties);
+
+        ProductSearchResult result = disabled.search("lamp", 0, 10,
+                () -> List.of(product("p1", "Desk Lamp", "Lumen", "lighting", 1)));
+
+        assertEquals(List.of("p1"), ids(result));
+    }
+
+    @Test
+    void onProductChanged_CompactsInTheBackgroundOnceReplacedEntriesPileUp() throws InterruptedException {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            products.add(product("p" + i, "Lamp " + i, "Lumen", "lighting", 1));
+        }
+        load(products.toArray(Product[]::new));
+
+        for (int i = 0; i < 200; i++) {
+            index.onProductChanged(ProductChangedEvent.saved(product("p" + i, "Chair " + i, "Seatco", "furniture", 2)));
+        }
+        index.awaitCompaction();
+
+        assertTrue(index.documentCount() < 500);
+        assertEquals(200, index.search("chair", 0, 10, List::of).total());
+        assertEquals(100, index.search("lamp", 0, 10, List::of).total());
+    }
+
+    private void load(Product... products) {
+        when(repository.scanParallel(anyInt(), any())).thenReturn(List.of(products));
+        index.refresh();
+        assertTrue(index.isReady());
+    }
+
+    private static List<String> ids(ProductSearchResult result) {
+        return result.hits().stream().map(hit -> hit.product().getProductId()).toList();
+    }
+
+    private static Product product(String id, String name, String manufacturer, String category, long updatedAt) {
+        return Product.builder()
+                .productId(id)
+                .name(name)
+                .manufacturer(manufacturer)
+                .category(category)
+                .updatedAt(Instant.ofEpochSecond(updatedAt))
+                .build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.app.dynamodb.product.service;
 
+import com.app.dynamodb.product.catalog.ProductCatalog;
+import com.app.dynamodb.product.domain.PriceSort;
 import com.app.dynamodb.product.domain.Product;
+import com.app.dynamodb.product.domain.ProductPage;
 import com.app.dynamodb.product.repository.ProductRepository;
 import com.app.dynamodb.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,10 +17,12 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +31,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository repository;
 
+    @Mock
+    private ProductCatalog catalog;
+
     @InjectMocks
     private ProductService service;
 
@@ -116,81 +124,114 @@ class ProductServiceTest {
         verify(repository, times(1)).findByCategory("Electronics");
     }
 
+    @Test
+    void getProductsByCategory_ServedFromCatalogWhenReady() {
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.findByCategory("Electronics")).thenReturn(List.of(testProduct));
+
+        List<Product> result = service.getProductsByCategory("Electronics");
+
+        assertEquals(1, result.size());
+        verify(repository, never()).findByCategory(anyString());
+    }
+
+    @Test
+    void getOutOfStockProducts_ServedFromCatalogWhenReady() {
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.findByStatus(Product.ProductStatus.OUT_OF_STOCK)).thenReturn(List.of());
+
+        List<Product> result = service.getOutOfStockProducts();
+
+        assertTrue(result.isEmpty());
+        verify(repository, never()).findByStatus(any());
+    }
+
     @Test
     void updateProduct_Success() {
-        when(repository.findById(anyString())).thenReturn(Optional.of(testProduct));
-        when(repository.update(any(Product.class))).thenReturn(testProduct);
+        Product stored = testProduct.toBuilder().reservedQuantity(4).build();
+        when(repository.update(eq("prod-123"), any(), isNull())).thenAnswer(invocation -> {
+            UnaryOperator<Product> change = invocation.getArgument(1);
+            return Optional.of(change.apply(stored));
+        });
 
-        Product result = service.updateProduct("prod-123", testProduct);
+        Product result = service.updateProduct("prod-123", testProduct, null);
 
         assertNotNull(result);
-        verify(repository, times(1)).update(any(Product.class));
+        assertEquals(Integer.valueOf(4), result.getReservedQuantity());
+        verify(repository, times(1)).update(eq("prod-123"), any(), isNull());
     }
 
     @Test
     void updateProduct_AutoUpdateStatusWhenOutOfStock() {
         testProduct.setStockQuantity(0);
         
-        when(repository.findById(anyString())).thenReturn(Optional.of(testProduct));
-        when(repository.update(any(Product.class))).thenAnswer(invocation -> {
-            Product p = invocation.getArgument(0);
+        when(repository.update(eq("prod-123"), any(), isNull())).thenAnswer(invocation -> {
+            UnaryOperator<Product> change = invocation.getArgument(1);
+            Product p = change.apply(testProduct.toBuilder().build());
             assertEquals(Product.ProductStatus.OUT_OF_STOCK, p.getStatus());
-            return p;
+            return Optional.of(p);
         });
 
-        service.updateProduct("prod-123", testProduct);
+        service.updateProduct("prod-123", testProduct, null);
         
-        verify(repository, times(1)).update(any(Product.class));
+        verify(repository, times(1)).update(eq("prod-123"), any(), isNull());
+    }
+
+    @Test
+    void updateProduct_NotFound() {
+        when(repository.update(eq("non-existent"), any(), isNull())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.updateProduct("non-existent", testProduct, null));
     }
 
     @Test
     void adjustStock_Success() {
-        when(repository.updateStock(anyString(), anyInt())).thenReturn(true);
+        when(repository.updateStock(anyString(), anyInt(), isNull())).thenReturn(true);
 
-        boolean result = service.adjustStock("prod-123", 10);
+        boolean result = service.adjustStock("prod-123", 10, null);
 
         assertTrue(result);
-        verify(repository, times(1)).updateStock("prod-123", 10);
+        verify(repository, times(1)).updateStock("prod-123", 10, null);
     }
 
     @Test
     void adjustStock_ProductNotFound() {
-        when(repository.updateStock(anyString(), anyInt())).thenReturn(false);
+        when(repository.updateStock(anyString(), anyInt(), isNull())).thenReturn(false);
         when(repository.findById(anyString())).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
-            service.adjustStock("non-existent", 10);
+            service.adjustStock("non-existent", 10, null);
         });
     }
 
     @Test
     void adjustStock_InsufficientStock() {
-        when(repository.updateStock(anyString(), anyInt())).thenReturn(false);
+        when(repository.updateStock(anyString(), anyInt(), isNull())).thenReturn(false);
         when(repository.findById(anyString())).thenReturn(Optional.of(testProduct));
 
         assertThrows(IllegalStateException.class, () -> {
-            service.adjustStock("prod-123", 10);
+            service.adjustStock("prod-123", 10, null);
         });
     }
 
     @Test
     void reduceStock_Success() {
-        when(repository.updateStock(anyString(), anyInt())).thenReturn(true);
+        when(repository.updateStock(anyString(), anyInt(), isNull())).thenReturn(true);
 
-        boolean result = service.reduceStock("prod-123", 5);
+        boolean result = service.reduceStock("prod-123", 5, null);
 
         assertTrue(result);
-        verify(repository, times(1)).updateStock("prod-123", -5);
+        verify(repository, times(1)).updateStock("prod-123", -5, null);
     }
 
     @Test
     void increaseStock_Success() {
-        when(repository.updateStock(anyString(), anyInt())).thenReturn(true);
+        when(repository.updateStock(anyString(), anyInt(), isNull())).thenReturn(true);
 
-        boolean result = service.increaseStock("prod-123", 10);
+        boolean result = service.increaseStock("prod-123", 10, null);
 
         assertTrue(result);
-        verify(repository, times(1)).updateStock("prod-123", 10);
+        verify(repository, times(1)).updateStock("prod-123", 10, null);
     }
 
     @Test
@@ -223,4 +264,25 @@ class ProductServiceTest {
         assertEquals(1, result.size());
         verify(repository, times(1)).findByStatus(Product.ProductStatus.ACTIVE);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProductsByCategoryAndPrice_QueriesPriceIndex() {
+        ProductPage page = new ProductPage(List.of(testProduct), "token");
+        when(repository.findByCategoryAndPrice("Electronics", new BigDecimal("10"), new BigDecimal("50"),
+                true, 20, null)).thenReturn(page);
+
+        ProductPage result = service.getProductsByCategoryAndPrice("Electronics", new BigDecimal("10"),
+                new BigDecimal("50"), PriceSort.PRICE_DESC, 20, null);
+
+        assertSame(page, result);
+        verifyNoInteractions(catalog);
+    }
+
+    @Test
+    void getProductsByCategoryAndPrice_RejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> service.getProductsByCategoryAndPrice(
+                "Electronics", new BigDecimal("50"), new BigDecimal("10"), null, 20, null));
+
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,191 @@
+package com.app.dynamodb.shared.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BulkImporterTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    private DynamoDbClient dynamoDbClient;
+    private BulkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        BulkImportProperties properties = new BulkImportProperties();
+        properties.setSpoolDirectory(spoolDirectory);
+        properties.setWriters(2);
+        properties.setBackoffBase(Duration.ofMillis(1));
+
+        importer = new BulkImporter(dynamoDbClient, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void submit_WritesValidRowsAndReportsRejectedOnes() throws Exception {
+        String rows = IntStream.range(0, 30)
+                .mapToObj(i -> "{\"id\":\"item-" + i + "\",\"name\":\"Item " + i + "\",\"quantity\":" + i + "}")
+                .collect(Collectors.joining("\n"))
+                + "\n{\"id\":\"blank\",\"name\":\"\",\"quantity\":1}"
+                + "\n{not json";
+
+        ImportJob job = importer.submit(file("items.ndjson", rows), target(UnaryOperator.identity()));
+
+        assertTrue(job.awaitCompletion(Duration.ofSeconds(10)));
+        ImportJob.Status status = job.status(true);
+        assertEquals(ImportJob.State.COMPLETED_WITH_ERRORS, status.state());
+        assertEquals(32, status.rowsRead());
+        assertEquals(30, status.itemsWritten());
+        assertEquals(2, status.rowsRejected());
+        assertEquals(List.of(31L, 32L), status.errors().stream().map(ImportJob.RowError::line).sorted().toList());
+        verify(dynamoDbClient, atLeast(2)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void submit_RetriesUnprocessedItems() throws Exception {
+        WriteRequest unprocessed = WriteRequest.builder().build();
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder().unprocessedItems(Map.of("items", List.of(unprocessed))).build())
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        ImportJob job = importer.submit(file("items.csv", "id,name,quantity\na,\"Widget, large\",3\n"),
+                target(UnaryOperator.identity()));
+
+        assertTrue(job.awaitCompletion(Duration.ofSeconds(10)));
+        ImportJob.Status status = job.status(false);
+        assertEquals(ImportJob.State.COMPLETED, status.state());
+        assertEquals(1, status.itemsWritten());
+        assertEquals(1, status.batchRetries());
+
+        ArgumentCaptor<BatchWriteItemRequest> requests = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(dynamoDbClient, times(2)).batchWriteItem(requests.capture());
+        Map<String, AttributeValue> item = requests.getAllValues().getFirst().requestItems().get("items").getFirst()
+                .putRequest().item();
+        assertEquals("Widget, large", item.get("name").s());
+        assertEquals(List.of(unprocessed), requests.getAllValues().get(1).requestItems().get("items"));
+    }
+
+    @Test
+    void submit_LaterRowWinsForDuplicateKeys() throws Exception {
+        BulkImportProperties properties = new BulkImportProperties();
+        properties.setSpoolDirectory(spoolDirectory);
+        properties.setWriters(1);
+        importer = new BulkImporter(dynamoDbClient, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), properties, new SimpleMeterRegistry());
+        String rows = IntStream.range(0, 100)
+                .mapToObj(i -> "{\"id\":\"item-" + (i % 10) + "\",\"name\":\"v" + i + "\",\"quantity\":1}")
+                .collect(Collectors.joining("\n"));
+
+        ImportJob job = importer.submit(file("items.ndjson", rows), target(UnaryOperator.identity()));
+
+        assertTrue(job.awaitCompletion(Duration.ofSeconds(10)));
+        ImportJob.Status status = job.status(false);
+        assertEquals(100, status.itemsWritten() + status.rowsSuperseded());
+
+        ArgumentCaptor<BatchWriteItemRequest> requests = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(dynamoDbClient, atLeastOnce()).batchWriteItem(requests.capture());
+        Map<String, String> lastWritten = new HashMap<>();
+        for (BatchWriteItemRequest request : requests.getAllValues()) {
+            List<WriteRequest> writes = request.requestItems().get("items");
+            assertEquals(writes.size(), writes.stream().map(w -> w.putRequest().item().get("id")).distinct().count());
+            writes.forEach(w -> lastWritten.put(w.putRequest().item().get("id").s(), w.putRequest().item().get("name").s()));
+        }
+        assertEquals("v99", lastWritten.get("item-9"));
+        assertEquals("v90", lastWritten.get("item-0"));
+    }
+
+    @Test
+    void submit_RecordsBatchesThatFailOnTheClientSideAsFailedRows() throws Exception {
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenThrow(SdkClientException.create("Unable to execute HTTP request: Read timed out"));
+
+        ImportJob job = importer.submit(file("items.ndjson", rows(30)), target(UnaryOperator.identity()));
+
+        assertTrue(job.awaitCompletion(Duration.ofSeconds(10)));
+        ImportJob.Status status = job.status(true);
+        assertEquals(ImportJob.State.COMPLETED_WITH_ERRORS, status.state());
+        assertEquals(0, status.itemsWritten());
+        assertEquals(30, status.itemsFailed());
+        assertTrue(status.errors().stream().allMatch(error -> error.message().contains("Read timed out")));
+    }
+
+    @Test
+    void submit_FailsTheJobInsteadOfHangingWhenAWriterDies() throws Exception {
+        BulkImportProperties properties = new BulkImportProperties();
+        properties.setSpoolDirectory(spoolDirectory);
+        properties.setWriters(1);
+        properties.setQueueCapacity(2);
+        importer = new BulkImporter(dynamoDbClient, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), properties, new SimpleMeterRegistry());
+        // A response the writer cannot handle, standing in for any unexpected error outside the batch call
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(null);
+
+        ImportJob job = importer.submit(file("items.ndjson", rows(200)), target(UnaryOperator.identity()));
+
+        assertTrue(job.awaitCompletion(Duration.ofSeconds(10)));
+        ImportJob.Status status = job.status(false);
+        assertEquals(ImportJob.State.FAILED, status.state());
+        assertTrue(status.rowsRead() < 200);
+        assertTrue(status.itemsFailed() > 0);
+    }
+
+    private static String rows(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "{\"id\":\"item-" + i + "\",\"name\":\"Item " + i + "\",\"quantity\":" + i + "}")
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, null, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ImportTarget<Item> target(UnaryOperator<Item> prepare) {
+        return new ImportTarget<>("item", "items", Item.class, List.of("id"), prepare, item -> Map.of(
+                "id", AttributeValue.fromS(item.getId()),
+                "name", AttributeValue.fromS(item.getName()),
+                "quantity", AttributeValue.fromN(String.valueOf(item.getQuantity()))));
+    }
+
+    @Data
+    public static class Item {
+        private String id;
+        @NotBlank
+        private String name;
+        @PositiveOrZero
+        private int quantity;
+    }
+}
@@ -0,0 +1,44 @@
+package com.app.dynamodb.shared.compression;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTextTest {
+
+    private static final String LARGE = "Aluminium unibody, 15.6\" display, backlit keyboard. ".repeat(100);
+
+    @Test
+    void largeTextIsStoredCompressedAndReadBack() {
+        AttributeValue stored = CompressedText.of(LARGE).toAttributeValue();
+
+        assertNull(stored.s());
+        assertEquals(0x01, stored.b().asByteArray()[0]);
+        assertTrue(stored.b().asByteArray().length < LARGE.length() / 4);
+
+        CompressedText read = CompressedText.fromAttributeValue(stored);
+        assertTrue(read.isCompressed());
+        assertEquals(stored, read.toAttributeValue());
+        assertEquals(LARGE, read.toString());
+    }
+
+    @Test
+    void shortAndExistingPlainTextStayStrings() {
+        assertEquals(AttributeValue.fromS("12 Main St"), CompressedText.of("12 Main St").toAttributeValue());
+        assertNull(CompressedText.of(null));
+        assertNull(CompressedText.fromAttributeValue(null));
+
+        CompressedText legacy = CompressedText.fromAttributeValue(AttributeValue.fromS(LARGE));
+        assertEquals(LARGE, legacy.toString());
+        assertEquals(CompressedText.of(LARGE), legacy);
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        AttributeValue unknown = AttributeValue.fromB(SdkBytes.fromByteArray(new byte[]{0x7f, 1, 2}));
+
+        assertThrows(IllegalArgumentException.class, () -> CompressedText.fromAttributeValue(unknown));
+    }
+}
@@ -0,0 +1,93 @@
+package com.app.dynamodb.shared.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedReadsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgedReadProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new HedgedReadProperties();
+        properties.setEnabled(true);
+        properties.setMinSamples(10);
+        properties.setMinDelay(Duration.ofMillis(20));
+    }
+
+    @Test
+    void execute_SlowReadIsHedgedAndFirstAnswerWins() {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, properties);
+        warmUp(hedgedReads);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String value = hedgedReads.execute("test", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(release);
+                return "primary";
+            }
+            return "hedge";
+        });
+        release.countDown();
+
+        assertEquals("hedge", value);
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.get("dynamodb.hedge.calls").tag("result", "hedged").counter().count());
+        assertEquals(1, meterRegistry.get("dynamodb.hedge.wins").tag("winner", "hedge").counter().count());
+    }
+
+    @Test
+    void execute_NoHedgeOnceBudgetIsSpent() {
+        properties.setBudgetCapacity(0);
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, properties);
+        warmUp(hedgedReads);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String value = hedgedReads.execute("test", () -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return "primary";
+        });
+
+        assertEquals("primary", value);
+        assertEquals(1, attempts.get());
+        assertEquals(1, meterRegistry.get("dynamodb.hedge.calls").tag("result", "budget_denied").counter().count());
+    }
+
+    private void warmUp(HedgedReads hedgedReads) {
+        Supplier<String> fast = () -> "warm";
+        for (int i = 0; i < properties.getMinSamples(); i++) {
+            hedgedReads.execute("test", fast);
+        }
+        assertEquals(properties.getMinSamples(),
+                meterRegistry.get("dynamodb.hedge.calls").tag("result", "not_hedged").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
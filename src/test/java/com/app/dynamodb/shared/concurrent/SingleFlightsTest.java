@@ -0,0 +1,124 @@
+package com.app.dynamodb.shared.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlights singleFlights;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlights = new SingleFlights(meterRegistry, new SingleFlightProperties());
+    }
+
+    @Test
+    void execute_ConcurrentCallersShareOneCall() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlights.execute("test", "key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "value";
+            }, String::new)));
+
+            // let the first call register before the others arrive
+            while (loads.get() == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlights.execute("test", "key", () -> {
+                    loads.incrementAndGet();
+                    return "value";
+                }, String::new)));
+            }
+            while (meterRegistry.get("dynamodb.singleflight.calls").tag("result", "shared").counter().count() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void execute_LeaderMutatingItsResultDoesNotAffectWaiters() throws Exception {
+        List<Integer> original = IntStream.range(0, 1_000).boxed().toList();
+        AtomicReference<List<Integer>> loaded = new AtomicReference<>();
+        CountDownLatch release = new CountDownLatch(1);
+        int waiters = 7;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(waiters + 1)) {
+            Future<List<Integer>> leader = executor.submit(() -> {
+                List<Integer> result = singleFlights.execute("test", "key", () -> {
+                    loaded.set(new ArrayList<>(original));
+                    await(release);
+                    return loaded.get();
+                }, ArrayList::new);
+                // Mutates while the waiters are copying
+                for (int i = 0; i < 100; i++) {
+                    result.clear();
+                    result.addAll(original.reversed());
+                }
+                return result;
+            });
+            while (loaded.get() == null) {
+                Thread.onSpinWait();
+            }
+            List<Future<List<Integer>>> shared = new ArrayList<>();
+            for (int i = 0; i < waiters; i++) {
+                shared.add(executor.submit(() -> singleFlights.execute("test", "key", List::<Integer>of, ArrayList::new)));
+            }
+            while (meterRegistry.get("dynamodb.singleflight.calls").tag("result", "shared").counter().count() < waiters) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertNotSame(loaded.get(), leader.get(5, TimeUnit.SECONDS));
+            for (Future<List<Integer>> result : shared) {
+                assertEquals(original, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(original, loaded.get());
+    }
+
+    @Test
+    void execute_FailurePropagatesAndIsNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> singleFlights.execute("test", "key",
+                () -> { throw new IllegalStateException("boom"); }, v -> v));
+
+        assertEquals("ok", singleFlights.execute("test", "key", () -> "ok", v -> v));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
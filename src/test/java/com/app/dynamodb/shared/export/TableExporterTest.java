@@ -0,0 +1,123 @@
+package com.app.dynamodb.shared.export;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class TableExporterTest {
+
+    private static final Map<String, AttributeValue> PAGE_KEY = Map.of("productId", AttributeValue.fromS("p2"));
+
+    @TempDir
+    Path directory;
+
+    private DynamoDbClient dynamoDbClient;
+    private TableExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+
+        AwsConfigProperties awsProperties = new AwsConfigProperties();
+        awsProperties.setTables(Map.of("product", "product"));
+        ExportProperties properties = new ExportProperties();
+        properties.setDirectory(directory);
+        properties.setSegments(1);
+
+        exporter = new TableExporter(dynamoDbClient, awsProperties, properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void export_WritesEveryPageAndMarksSegmentDone() throws IOException {
+        stubPages();
+
+        ExportReport report = exporter.export("product", "run-1");
+
+        assertEquals(3, report.items());
+        assertEquals(3, report.totalItems());
+        Path runDirectory = directory.resolve("product").resolve("run-1");
+        assertEquals(3, readLines(runDirectory.resolve("segment-0000.ndjson.gz")).size());
+        assertTrue(Files.readString(runDirectory.resolve("segment-0000.checkpoint.json")).contains("\"done\":true"));
+        assertTrue(Files.exists(runDirectory.resolve("manifest.json")));
+    }
+
+    @Test
+    void export_ResumesFromLastCheckpointWithoutDuplicates() throws IOException {
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(firstPage())
+                .thenThrow(SdkClientException.create("connection reset"));
+        assertThrows(SdkClientException.class, () -> exporter.export("product", "run-1"));
+
+        reset(dynamoDbClient);
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(lastPage());
+        ExportReport report = exporter.export("product", "run-1");
+
+        assertEquals(1, report.items());
+        assertEquals(3, report.totalItems());
+        verify(dynamoDbClient).scan(argThat((ScanRequest request) -> PAGE_KEY.equals(request.exclusiveStartKey())));
+        List<String> lines = readLines(directory.resolve("product").resolve("run-1").resolve("segment-0000.ndjson.gz"));
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).contains("p3"));
+    }
+
+    @Test
+    void export_RejectsRunIdsThatLeaveTheExportDirectory() {
+        for (String runId : List.of("../../escaped", "..", "run..1", directory.resolve("absolute").toString(), "a/b", "")) {
+            assertThrows(IllegalArgumentException.class, () -> exporter.export("product", runId), runId);
+        }
+
+        assertFalse(Files.exists(directory.resolve("absolute")));
+        assertFalse(Files.exists(directory.getParent().resolve("escaped")));
+        verifyNoInteractions(dynamoDbClient);
+        assertTrue(TableExporter.isValidRunId("2026-10-18_nightly.1"));
+    }
+
+    private void stubPages() {
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(firstPage(), lastPage());
+    }
+
+    private static ScanResponse firstPage() {
+        return ScanResponse.builder()
+                .items(List.of(item("p1"), item("p2")))
+                .lastEvaluatedKey(PAGE_KEY)
+                .build();
+    }
+
+    private static ScanResponse lastPage() {
+        return ScanResponse.builder().items(List.of(item("p3"))).build();
+    }
+
+    private static Map<String, AttributeValue> item(String id) {
+        return Map.of("productId", AttributeValue.fromS(id), "name", AttributeValue.fromS("Product " + id));
+    }
+
+    private static List<String> readLines(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.app.dynamodb.shared.feed;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private ChangeFeedProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChangeFeedProperties();
+        properties.setHeartbeat(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        feed = new ChangeFeed("test", ChangeFeed.Policy.COALESCE, properties, meterRegistry);
+    }
+
+    @Test
+    void publish_CoalescesChangesOfATopicWhileTheSubscriberIsBusy() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(List.of("p1"), () -> List.of(feed.change("p1", "product", "v0")), emitter);
+        emitter.firstSend.await(5, TimeUnit.SECONDS);
+
+        for (int version = 1; version <= 5; version++) {
+            feed.publish("p1", "product", "v" + version);
+        }
+        emitter.release.countDown();
+
+        assertEquals(List.of("v0", "v5"), emitter.next(2));
+        assertEquals(4.0, meterRegistry.get("feed.changes").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    void publish_DropsOldestChangesOfAFullBufferAndAsksForResync() throws Exception {
+        properties.setBufferSize(2);
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(List.of(), List::of, emitter);
+        feed.publish("p0", "product", "p0");
+        emitter.firstSend.await(5, TimeUnit.SECONDS);
+
+        for (int product = 1; product <= 4; product++) {
+            feed.publish("p" + product, "product", "p" + product);
+        }
+        emitter.release.countDown();
+
+        assertEquals(List.of("p0", ChangeFeed.RESYNC, "p3", "p4"), emitter.next(4));
+        assertEquals(2.0, meterRegistry.get("feed.changes").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void subscribe_FollowsOnlyItsTopicsUntilTheClientIsGone() throws Exception {
+        properties.setMaxSubscribers(1);
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.release.countDown();
+        feed.subscribe(List.of("p1"), List::of, emitter);
+
+        ResponseStatusException full = assertThrows(ResponseStatusException.class,
+                () -> feed.subscribe(List.of("p2"), List::of, new RecordingEmitter()));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, full.getStatusCode());
+
+        feed.publish("p2", "product", "other");
+        feed.publish("p1", "product", "mine");
+        assertEquals(List.of("mine"), emitter.next(1));
+
+        emitter.broken = true;
+        feed.publish("p1", "product", "lost");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (feed.getSubscribers() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, feed.getSubscribers());
+    }
+
+    /** Records the name of resync events and the data of all others; holds the first send until released. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch firstSend = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            firstSend.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            String event = text.toString();
+            events.add(event.contains("event:" + ChangeFeed.RESYNC)
+                    ? ChangeFeed.RESYNC
+                    : event.substring(event.lastIndexOf("data:") + 5).trim());
+        }
+
+        List<String> next(int count) throws InterruptedException {
+            List<String> received = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String event = events.poll(5, TimeUnit.SECONDS);
+                assertNotNull(event, "missing event " + (i + 1) + " of " + count);
+                received.add(event);
+            }
+            return received;
+        }
+    }
+}
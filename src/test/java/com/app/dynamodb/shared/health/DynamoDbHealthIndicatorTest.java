@@ -0,0 +1,154 @@
+package com.app.dynamodb.shared.health;
+
+import com.app.dynamodb.shared.AwsConfigProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DynamoDbHealthIndicatorTest {
+
+    private DynamoDbClient client;
+    private AwsConfigProperties properties;
+    private DynamoDbHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(DynamoDbClient.class);
+        properties = new AwsConfigProperties();
+        properties.setTables(Map.of("customer", "customers"));
+        properties.getHealthCheck().setWindowSize(10);
+        properties.getHealthCheck().setDegradedErrorRate(0.1);
+        properties.getHealthCheck().setDownErrorRate(0.5);
+        indicator = new DynamoDbHealthIndicator(client, properties);
+    }
+
+    @Test
+    void health_IsUnknownUntilTheFirstRefresh() {
+        Health health = indicator.health();
+
+        assertEquals(Status.UNKNOWN, health.getStatus());
+        assertEquals("Not checked yet", health.getDetails().get("status"));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void refresh_ReportsUpUpToTheDegradedErrorRate() {
+        check(9, 1);
+
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(0.1, health.getDetails().get("errorRate"));
+        assertEquals(10, health.getDetails().get("samples"));
+    }
+
+    @Test
+    void refresh_ReportsDegradedAboveTheDegradedErrorRate() {
+        check(8, 2);
+
+        assertEquals(DynamoDbHealthIndicator.DEGRADED, indicator.health().getStatus());
+    }
+
+    @Test
+    void refresh_ReportsDegradedUpToTheDownErrorRate() {
+        check(5, 5);
+
+        Health health = indicator.health();
+        assertEquals(DynamoDbHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(0.5, health.getDetails().get("errorRate"));
+    }
+
+    @Test
+    void refresh_ReportsDownAboveTheDownErrorRate() {
+        check(4, 6);
+
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals(0.6, health.getDetails().get("errorRate"));
+        assertEquals(Map.of("customers", "ACTIVE"), health.getDetails().get("tables"));
+    }
+
+    @Test
+    void refresh_ReportsDegradedAboveTheDegradedLatency() {
+        properties.getHealthCheck().setDegradedLatency(Duration.ofMillis(1));
+        when(client.describeTable(any(DescribeTableRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return describe(TableStatus.ACTIVE);
+        });
+
+        indicator.refresh();
+
+        Health health = indicator.health();
+        assertEquals(DynamoDbHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(0.0, health.getDetails().get("errorRate"));
+        assertTrue((Long) health.getDetails().get("p95LatencyMs") >= 5);
+    }
+
+    @Test
+    void refresh_ReportsDegradedWhenTheLatestCheckFails() {
+        check(9, 0);
+        doThrow(SdkClientException.create("Unable to reach DynamoDB"))
+                .when(client).describeTable(any(DescribeTableRequest.class));
+
+        indicator.refresh();
+
+        Health health = indicator.health();
+        assertEquals(DynamoDbHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(Map.of("customers", "ERROR: Unable to reach DynamoDB"), health.getDetails().get("tables"));
+    }
+
+    @Test
+    void refresh_ReportsDegradedWhileATableIsNotActive() {
+        when(client.describeTable(any(DescribeTableRequest.class))).thenReturn(describe(TableStatus.CREATING));
+
+        indicator.refresh();
+
+        assertEquals(DynamoDbHealthIndicator.DEGRADED, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_ReportsAStaleRefreshAsUnknown() throws InterruptedException {
+        properties.getHealthCheck().setMaxAge(Duration.ofMillis(1));
+        check(1, 0);
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        Thread.sleep(10);
+
+        Health health = indicator.health();
+        assertEquals(Status.UNKNOWN, health.getStatus());
+        assertEquals("Last check is stale", health.getDetails().get("status"));
+        assertNotNull(health.getDetails().get("checkedAt"));
+    }
+
+    /**
+     * Runs one refresh per check, the failed ones first: a refresh whose own check fails is at least
+     * DEGRADED, so only the error rate of the window decides the status of the last one.
+     */
+    private void check(int succeeded, int failed) {
+        doThrow(SdkClientException.create("Unable to reach DynamoDB"))
+                .when(client).describeTable(any(DescribeTableRequest.class));
+        for (int i = 0; i < failed; i++) {
+            indicator.refresh();
+        }
+        doReturn(describe(TableStatus.ACTIVE)).when(client).describeTable(any(DescribeTableRequest.class));
+        for (int i = 0; i < succeeded; i++) {
+            indicator.refresh();
+        }
+    }
+
+    private static DescribeTableResponse describe(TableStatus status) {
+        return DescribeTableResponse.builder()
+                .table(TableDescription.builder().tableName("customers").tableStatus(status).build())
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.app.dynamodb.shared.journal;
+
+import com.app.dynamodb.config.inmemory.InMemoryDynamoDbClient;
+import com.app.dynamodb.shared.exception.WriteAcceptedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteJournalTest {
+
+    private static final Runnable UNREACHABLE = () -> {
+        throw SdkClientException.create("Unable to execute HTTP request: Connection refused");
+    };
+
+    @TempDir
+    Path directory;
+
+    private InMemoryDynamoDbClient client;
+    private WriteJournalProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private WriteJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = new InMemoryDynamoDbClient(Duration.ofHours(1));
+        client.createTable(CreateTableRequest.builder()
+                .tableName("products")
+                .keySchema(KeySchemaElement.builder().attributeName("productId").keyType(KeyType.HASH).build())
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("productId").attributeType(ScalarAttributeType.S).build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+
+        properties = new WriteJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        // A few entries per segment, so that appending rotates segments
+        properties.setSegmentSize(DataSize.ofBytes(512));
+        meterRegistry = new SimpleMeterRegistry();
+        journal = open();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        journal.close();
+        client.close();
+    }
+
+    @Test
+    void execute_JournalsUnavailableWritesAndReplaysThemInOrder() throws IOException {
+        for (int i = 1; i <= 10; i++) {
+            String version = "2026-01-01T00:00:%02dZ".formatted(i);
+            WriteAcceptedException accepted = assertThrows(WriteAcceptedException.class,
+                    () -> journal.execute("entity", UNREACHABLE, () -> product("p1", "v" + version, version)));
+            assertEquals(i, accepted.getSequence());
+            assertEquals("entity", accepted.getEntity());
+        }
+        assertEquals(10, journal.getDepth());
+        assertTrue(segmentFiles() > 1);
+        assertEquals(10.0, meterRegistry.get("dynamodb.journal.depth").gauge().value());
+
+        new JournalReplayer(journal, properties, client, meterRegistry).replay();
+
+        Map<String, AttributeValue> item = get("p1");
+        assertEquals("v2026-01-01T00:00:10Z", item.get("name").s());
+        assertEquals(SdkBytes.fromUtf8String("bytes"), item.get("image").b());
+        assertEquals(List.of("a", "b"), item.get("tags").ss());
+        assertEquals(0, journal.getDepth());
+        assertEquals(Duration.ZERO, journal.getReplayLag());
+        assertEquals(1, segmentFiles());
+        assertEquals(10.0, meterRegistry.get("dynamodb.journal.replayed").tag("result", "applied").counter().count());
+    }
+
+    @Test
+    void replay_AfterRestartSkipsWritesSupersededByNewerOnes() throws Exception {
+        assertThrows(WriteAcceptedException.class,
+                () -> journal.execute("entity", UNREACHABLE, () -> product("p1", "journaled", "2026-01-01T00:00:01Z")));
+        assertThrows(WriteAcceptedException.class,
+                () -> journal.execute("entity", UNREACHABLE, () -> product("p2", "journaled", "2026-01-01T00:00:01Z")));
+        journal.close();
+
+        journal = open();
+        assertEquals(2, journal.getDepth());
+        assertTrue(journal.getReplayLag().compareTo(Duration.ZERO) > 0);
+        // p1 was written directly after DynamoDB came back, before the journal was replayed
+        client.putItem(PutItemRequest.builder()
+                .tableName("products")
+                .item(product("p1", "direct", "2026-01-01T00:00:02Z").item())
+                .build());
+
+        new JournalReplayer(journal, properties, client, meterRegistry).replay();
+
+        assertEquals("direct", get("p1").get("name").s());
+        assertEquals("journaled", get("p2").get("name").s());
+        assertEquals(1.0, meterRegistry.get("dynamodb.journal.replayed").tag("result", "superseded").counter().count());
+        journal.close();
+        journal = open();
+        assertEquals(0, journal.getDepth());
+    }
+
+    @Test
+    void replay_ComparesVersionsAsTimesNotStrings() {
+        // As strings "00:00:01Z" sorts after "00:00:01.500Z", although it is the older time
+        client.putItem(PutItemRequest.builder()
+                .tableName("products")
+                .item(product("p1", "direct", "2026-01-01T00:00:01Z").item())
+                .build());
+        client.putItem(PutItemRequest.builder()
+                .tableName("products")
+                .item(product("p2", "direct", "2026-01-01T00:00:01.500Z").item())
+                .build());
+        assertThrows(WriteAcceptedException.class,
+                () -> journal.execute("entity", UNREACHABLE, () -> product("p1", "journaled", "2026-01-01T00:00:01.500Z")));
+        assertThrows(WriteAcceptedException.class,
+                () -> journal.execute("entity", UNREACHABLE, () -> product("p2", "journaled", "2026-01-01T00:00:01Z")));
+
+        new JournalReplayer(journal, properties, client, meterRegistry).replay();
+
+        assertEquals("journaled", get("p1").get("name").s());
+        assertEquals("direct", get("p2").get("name").s());
+        assertEquals(1.0, meterRegistry.get("dynamodb.journal.replayed").tag("result", "applied").counter().count());
+        assertEquals(1.0, meterRegistry.get("dynamodb.journal.replayed").tag("result", "superseded").counter().count());
+    }
+
+    @Test
+    void execute_RethrowsRejectedWritesWithoutJournaling() throws InterruptedException {
+        DynamoDbException invalid = (DynamoDbException) DynamoDbException.builder()
+                .message("One or more parameter values were invalid")
+                .statusCode(400)
+                .build();
+
+        assertSame(invalid, assertThrows(DynamoDbException.class, () -> journal.execute("entity", () -> {
+            throw invalid;
+        }, () -> product("p1", "rejected", "2026-01-01T00:00:01Z"))));
+        assertEquals(0, journal.getDepth());
+
+        WriteJournal disabled = new WriteJournal(new WriteJournalProperties(), new SimpleMeterRegistry());
+        assertThrows(SdkClientException.class,
+                () -> disabled.execute("entity", UNREACHABLE, () -> product("p1", "x", "2026-01-01T00:00:01Z")));
+        disabled.close();
+    }
+
+    private WriteJournal open() throws IOException {
+        WriteJournal opened = new WriteJournal(properties, meterRegistry);
+        opened.open();
+        return opened;
+    }
+
+    private static JournaledWrite product(String productId, String name, String updatedAt) {
+        return JournaledWrite.put("products", List.of("productId"), Map.of(
+                "productId", AttributeValue.fromS(productId),
+                "name", AttributeValue.fromS(name),
+                "image", AttributeValue.fromB(SdkBytes.fromUtf8String("bytes")),
+                "tags", AttributeValue.fromSs(List.of("a", "b")),
+                "updatedAt", AttributeValue.fromS(updatedAt)));
+    }
+
+    private Map<String, AttributeValue> get(String productId) {
+        return client.getItem(GetItemRequest.builder()
+                .tableName("products")
+                .key(Map.of("productId", AttributeValue.fromS(productId)))
+                .build()).item();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).count();
+        }
+    }
+}
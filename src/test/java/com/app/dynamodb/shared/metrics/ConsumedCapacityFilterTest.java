@@ -0,0 +1,52 @@
+package com.app.dynamodb.shared.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Modifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumedCapacityFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConsumedCapacityFilter filter = new ConsumedCapacityFilter(meterRegistry);
+
+    @Test
+    void doFilter_ReportsTheCapacityOfTheRequestPerRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/o1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestCapacity.current().addRead(1.5);
+            RequestCapacity.current().addWrite(1.0);
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/orders/{orderId}");
+        });
+
+        assertEquals("rcu=1.5, wcu=1.0", response.getHeader(RequestCapacity.HEADER));
+        assertEquals(1.5, meterRegistry.get("dynamodb.consumed.capacity")
+                .tag("method", "GET").tag("route", "/api/v1/orders/{orderId}").tag("type", "read")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("dynamodb.consumed.capacity").tag("type", "write").counter().count());
+        assertNull(RequestCapacity.current(), "the capacity is unbound once the request is done");
+    }
+
+    @Test
+    void doFilter_LeavesNonApiRequestsAlone() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response,
+                (req, res) -> assertNull(RequestCapacity.current()));
+
+        assertNull(response.getHeader(RequestCapacity.HEADER));
+        assertTrue(meterRegistry.find("dynamodb.consumed.capacity").counters().isEmpty());
+    }
+
+    @Test
+    void filter_StaysPackagePrivateSoThatItIsNotProxied() {
+        assertFalse(Modifier.isPublic(ConsumedCapacityFilter.class.getModifiers()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.dynamodb.shared.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumedCapacityResponseAdviceTest {
+
+    private final ConsumedCapacityResponseAdvice advice = new ConsumedCapacityResponseAdvice();
+
+    @AfterEach
+    void tearDown() {
+        RequestCapacity.close();
+    }
+
+    @Test
+    void beforeBodyWrite_AddsTheCapacityConsumedSoFar() {
+        RequestCapacity.open().addRead(2.0);
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+        Object body = new Object();
+
+        assertSame(body, beforeBodyWrite(body, response));
+        assertEquals("rcu=2.0, wcu=0.0", response.getHeaders().getFirst(RequestCapacity.HEADER));
+    }
+
+    @Test
+    void beforeBodyWrite_AddsNothingOutsideAnApiRequest() {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+
+        beforeBodyWrite("body", response);
+
+        assertFalse(response.getHeaders().containsKey(RequestCapacity.HEADER));
+    }
+
+    private Object beforeBodyWrite(Object body, ServletServerHttpResponse response) {
+        return advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.dynamodb.shared.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setCapacity(4);
+        properties.setRefillPerSecond(1);
+        properties.setStripes(1);
+        properties.setApiKeys(Set.of("partner-key"));
+        rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+        filter = new RateLimitFilter(rateLimiter, properties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void doFilter_ChargesUnknownApiKeysToTheRemoteAddress() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(200, call("made-up-" + i).getStatus());
+        }
+        MockHttpServletResponse refused = call("made-up-4");
+        assertEquals(429, refused.getStatus());
+        assertNotNull(refused.getHeader("Retry-After"));
+
+        assertEquals(200, call("partner-key").getStatus(), "a configured key has a bucket of its own");
+        assertEquals(2, rateLimiter.getActiveClients());
+        assertTrue(rateLimiter.topClients().stream().anyMatch(usage -> usage.client().equals("ip:10.0.0.1")));
+    }
+
+    private MockHttpServletResponse call(String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/p1");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Api-Key", apiKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,124 @@
+package com.app.dynamodb.shared.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.setCapacity(20);
+        properties.setRefillPerSecond(10);
+        properties.setStripes(4);
+    }
+
+    @Test
+    void tryAcquire_SpendsTheWholeCapacityThenRefills() {
+        RateLimiter limiter = new RateLimiter(properties, meterRegistry, clock::get);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire("ip:10.0.0.1", 5).allowed());
+        }
+        RateLimiter.Decision refused = limiter.tryAcquire("ip:10.0.0.1", 5);
+        assertFalse(refused.allowed());
+        assertEquals(0, refused.remaining());
+        assertTrue(refused.retryAfterNanos() > 0);
+        assertTrue(limiter.tryAcquire("ip:10.0.0.2", 5).allowed(), "clients have buckets of their own");
+
+        clock.addAndGet(refused.retryAfterNanos());
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1", 5).allowed());
+
+        RateLimiter.ClientUsage top = limiter.topClients().getFirst();
+        assertEquals("ip:10.0.0.1", top.client());
+        assertEquals(25, top.consumed());
+        assertEquals(1, top.rejected());
+        assertEquals(1.0, meterRegistry.get("http.rate.limit.requests").tag("result", "rejected").counter().count());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limiter.evictFull();
+        assertEquals(0, limiter.getActiveClients());
+    }
+
+    @Test
+    void tryAcquire_PaysFromSeveralStripesWhenNoneCanAlone() {
+        RateLimiter limiter = new RateLimiter(properties, meterRegistry, clock::get);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire("ip:10.0.0.1", 3).allowed());
+        }
+
+        RateLimiter.Decision spread = limiter.tryAcquire("ip:10.0.0.1", 5);
+        assertTrue(spread.allowed());
+        assertEquals(3, spread.remaining());
+
+        RateLimiter.Decision refused = limiter.tryAcquire("ip:10.0.0.1", 5);
+        assertFalse(refused.allowed());
+        assertEquals(3, refused.remaining());
+    }
+
+    @Test
+    void tryAcquire_ConcurrentRequestsNeverSpendMoreThanTheCapacity() throws Exception {
+        properties.setCapacity(1_000);
+        properties.setStripes(8);
+        RateLimiter limiter = new RateLimiter(properties, meterRegistry, clock::get);
+        AtomicInteger allowed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<CompletableFuture<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 8; worker++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.tryAcquire("key:partner", 1).allowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1_000, allowed.get());
+        assertEquals("key:part…", limiter.topClients().getFirst().client());
+    }
+
+    @Test
+    void tryAcquire_ClientsBeyondTheCapShareOneOverflowBucket() {
+        properties.setMaxClients(2);
+        RateLimiter limiter = new RateLimiter(properties, meterRegistry, clock::get);
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1", 5).allowed());
+        assertTrue(limiter.tryAcquire("ip:10.0.0.2", 5).allowed());
+
+        for (int i = 3; i <= 6; i++) {
+            assertTrue(limiter.tryAcquire("ip:10.0.0." + i, 5).allowed());
+        }
+        assertFalse(limiter.tryAcquire("ip:10.0.0.7", 5).allowed(), "the overflow bucket is spent");
+        assertEquals(2, limiter.getActiveClients());
+        RateLimiter.ClientUsage overflow = limiter.topClients().getFirst();
+        assertEquals("overflow", overflow.client());
+        assertEquals(20, overflow.consumed());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limiter.evictFull();
+        assertEquals(0, limiter.getActiveClients());
+        assertTrue(limiter.topClients().isEmpty());
+        assertTrue(limiter.tryAcquire("ip:10.0.0.7", 5).allowed());
+        assertEquals(1, limiter.getActiveClients());
+    }
+}
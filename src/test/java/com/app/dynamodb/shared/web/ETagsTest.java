@@ -0,0 +1,33 @@
+package com.app.dynamodb.shared.web;
+
+import com.app.dynamodb.shared.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void ifMatchReadsBackTheVersionsOfItsTags() {
+        Instant first = Instant.parse("2026-01-15T10:00:00Z");
+        Instant second = Instant.parse("2026-01-15T10:00:00.000123400Z");
+
+        IfMatch ifMatch = ETags.ifMatch(ETags.of(first) + ", W/\"weak\", " + ETags.of(second));
+
+        assertFalse(ifMatch.any());
+        assertEquals(List.of(first, second), ifMatch.versions());
+        assertEquals("#ifMatchUpdatedAt IN (:ifMatch0, :ifMatch1)", ifMatch.conditionExpression());
+        assertEquals(second.toString(), ifMatch.expressionValues().get(":ifMatch1").s());
+    }
+
+    @Test
+    void ifMatchHandlesAbsentWildcardAndUnknownTags() {
+        assertNull(ETags.ifMatch(null));
+        assertTrue(ETags.ifMatch(" * ").any());
+        assertEquals("attribute_exists(#ifMatchKey)", ETags.ifMatch("*").conditionExpression());
+        assertThrows(PreconditionFailedException.class, () -> ETags.ifMatch("\"v1\", W/\"1.000000000\""));
+    }
+}